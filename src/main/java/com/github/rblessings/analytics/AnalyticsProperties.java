@@ -0,0 +1,58 @@
+package com.github.rblessings.analytics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration for click analytics.
+ *
+ * @param export    Settings for streaming click exports.
+ * @param live      Settings for live click counters.
+ * @param recording Settings for recording the clicks of redirects.
+ */
+@ConfigurationProperties("urlradar.analytics")
+public record AnalyticsProperties(@DefaultValue Export export, @DefaultValue Live live,
+                                  @DefaultValue Recording recording) {
+
+    /**
+     * @param cursorBatchSize Number of clicks MongoDB returns per cursor batch.
+     * @param clicksPerChunk  Number of clicks encoded, compressed and written to the response at once.
+     */
+    public record Export(
+            @DefaultValue("1000") int cursorBatchSize,
+            @DefaultValue("256") int clicksPerChunk) {
+    }
+
+    /**
+     * @param enabled                 Whether this node consumes click counts and serves live subscriptions.
+     * @param topic                   The Kafka topic {@link ClickCountTopology} publishes click counts to, keyed by
+     *                                link ID.
+     * @param maxLinksPerSubscription Maximum number of links a single subscription may follow.
+     * @param latestCounts            Number of links whose latest count is kept for new subscribers.
+     * @param keepAlive               Interval of SSE comments that keep idle connections open through proxies.
+     */
+    public record Live(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("urlradar.clicks.counts") String topic,
+            @DefaultValue("100") int maxLinksPerSubscription,
+            @DefaultValue("100000") long latestCounts,
+            @DefaultValue("15s") Duration keepAlive) {
+    }
+
+    /**
+     * @param queueCapacity Maximum number of clicks waiting to be written, and to be published; further clicks are
+     *                      dropped, not waited for.
+     * @param batchSize     Maximum number of clicks written at once.
+     * @param flushInterval How often waiting clicks are written, and published.
+     * @param topic         The topic every click is published to, keyed by link ID, for trending links and live
+     *                      click counts.
+     */
+    public record Recording(
+            @DefaultValue("100000") int queueCapacity,
+            @DefaultValue("1000") int batchSize,
+            @DefaultValue("1s") Duration flushInterval,
+            @DefaultValue("urlradar.clicks") String topic) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.github.rblessings.analytics;
+
+import java.time.Instant;
+
+/**
+ * The running number of clicks on a link, as published to the click counts topic and pushed to live dashboards.
+ *
+ * @param linkId The ID of the link.
+ * @param count  The total number of clicks on the link.
+ * @param asOf   When the count was computed.
+ */
+public record ClickCount(String linkId, long count, Instant asOf) {
+}
@@ -0,0 +1,49 @@
+package com.github.rblessings.analytics;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * This node's single consumer of click counts, feeding {@link LiveClickCounters}.
+ * <p>
+ * Every node must see every count, so each one consumes the whole topic in a consumer group of its own, starting at the
+ * latest offset: live counters only care about what happens from now on, and subscribers get their initial values
+ * from the counts kept by {@link LiveClickCounters}. Offsets are never committed.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "urlradar.analytics.live", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ClickCountListener {
+    private static final Logger log = LoggerFactory.getLogger(ClickCountListener.class);
+
+    private final LiveClickCounters liveClickCounters;
+    private final ObjectMapper objectMapper;
+
+    public ClickCountListener(LiveClickCounters liveClickCounters, ObjectMapper objectMapper) {
+        this.liveClickCounters = liveClickCounters;
+        this.objectMapper = objectMapper;
+    }
+
+    @KafkaListener(
+            id = "live-click-counts",
+            topics = "${urlradar.analytics.live.topic:urlradar.clicks.counts}",
+            groupId = "${spring.application.name}-live-${random.uuid}",
+            properties = {
+                    "auto.offset.reset=latest",
+                    "enable.auto.commit=false",
+                    "key.deserializer=org.apache.kafka.common.serialization.StringDeserializer",
+                    "value.deserializer=org.apache.kafka.common.serialization.StringDeserializer"
+            })
+    public void onClickCount(String value) {
+        try {
+            liveClickCounters.publish(objectMapper.readValue(value, ClickCount.class));
+        } catch (JsonProcessingException e) {
+            log.warn("Skipping malformed click count: {}", value, e);
+        }
+    }
+}
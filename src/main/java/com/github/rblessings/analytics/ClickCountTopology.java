@@ -0,0 +1,95 @@
+package com.github.rblessings.analytics;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Grouped;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.Produced;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessor;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessorContext;
+import org.apache.kafka.streams.processor.api.FixedKeyRecord;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+import java.time.Instant;
+
+/**
+ * The Kafka Streams topology counting clicks per link for live dashboards.
+ * <p>
+ * Clicks, published by {@link ClickRecorder} and partitioned by link, are counted in a changelogged store, so counts
+ * survive restarts and rebalances. Updated counts are published to the click counts topic as {@link ClickCount}s,
+ * keyed by link ID, for {@link ClickCountListener} to push to subscribers. The store's record cache conflates the
+ * updates of a link between commits, so a busy link publishes about one count per {@code commit.interval.ms}
+ * rather than one per click.
+ * </p>
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "urlradar.analytics.live", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ClickCountTopology {
+    private static final Logger log = LoggerFactory.getLogger(ClickCountTopology.class);
+
+    static final String COUNTS_STORE = "click-counts";
+
+    /**
+     * Declares the click counts topic.
+     */
+    @Bean
+    public NewTopic clickCountsTopic(AnalyticsProperties properties) {
+        return TopicBuilder.name(properties.live().topic()).build();
+    }
+
+    /**
+     * Adds the click counting to the application's topology.
+     *
+     * @return The stream of published click counts.
+     */
+    @Bean
+    public KStream<String, String> clickCounts(StreamsBuilder builder, AnalyticsProperties properties,
+                                               ObjectMapper objectMapper) {
+        return build(builder, properties, objectMapper);
+    }
+
+    static KStream<String, String> build(StreamsBuilder builder, AnalyticsProperties properties,
+                                         ObjectMapper objectMapper) {
+        KStream<String, String> counts = builder
+                .stream(properties.recording().topic(), Consumed.with(Serdes.String(), Serdes.String()))
+                .groupByKey(Grouped.with(Serdes.String(), Serdes.String()))
+                .count(Materialized.<String, Long, KeyValueStore<Bytes, byte[]>>as(COUNTS_STORE)
+                        .withKeySerde(Serdes.String())
+                        .withValueSerde(Serdes.Long()))
+                .toStream()
+                .processValues(() -> new FixedKeyProcessor<String, Long, String>() {
+                    private FixedKeyProcessorContext<String, String> context;
+
+                    @Override
+                    public void init(FixedKeyProcessorContext<String, String> context) {
+                        this.context = context;
+                    }
+
+                    @Override
+                    public void process(FixedKeyRecord<String, Long> count) {
+                        // As of the latest click counted, whose timestamp the count carries.
+                        ClickCount clickCount = new ClickCount(count.key(), count.value(),
+                                Instant.ofEpochMilli(count.timestamp()));
+                        try {
+                            context.forward(count.withValue(objectMapper.writeValueAsString(clickCount)));
+                        } catch (JsonProcessingException e) {
+                            log.warn("Skipping click count of link {} that cannot be serialized", count.key(), e);
+                        }
+                    }
+                });
+        counts.to(properties.live().topic(), Produced.with(Serdes.String(), Serdes.String()));
+        return counts;
+    }
+}
@@ -0,0 +1,37 @@
+package com.github.rblessings.analytics;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * A single redirect through a short link.
+ * <p>
+ * Clicks are exported in {@code _id} order, which is also their approximate time order; the compound indexes let an
+ * export of a link's or an owner's clicks resume from any click without a collection scan.
+ * </p>
+ *
+ * @param id         The click's ObjectId, as hex string.
+ * @param linkId     The ID of the link that was followed.
+ * @param owner      The ID of the user who owns the link.
+ * @param occurredAt When the redirect was served.
+ * @param referrer   The {@code Referer} of the request, if any.
+ * @param userAgent  The {@code User-Agent} of the request, if any.
+ * @param country    The ISO country code derived from the client address, if known.
+ * @param variant    The index of the link's variant that was served, if the link has variants.
+ */
+@Document(collection = "clicks")
+@CompoundIndex(name = "link_id", def = "{'linkId': 1, '_id': 1}")
+@CompoundIndex(name = "owner_id", def = "{'owner': 1, '_id': 1}")
+public record ClickEvent(
+        @Id String id,
+        String linkId,
+        String owner,
+        Instant occurredAt,
+        String referrer,
+        String userAgent,
+        String country,
+        Integer variant) {
+}
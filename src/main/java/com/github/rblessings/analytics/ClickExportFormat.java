@@ -0,0 +1,107 @@
+package com.github.rblessings.analytics;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The formats clicks can be exported in.
+ */
+public enum ClickExportFormat {
+
+    /**
+     * One JSON object per line.
+     */
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson") {
+        @Override
+        void append(StringBuilder out, ExportedClick click, ObjectMapper objectMapper) {
+            try {
+                out.append(objectMapper.writeValueAsString(click)).append('\n');
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    },
+
+    /**
+     * RFC 4180 CSV with a header line; fields are quoted where needed.
+     */
+    CSV(new MediaType("text", "csv"), "csv") {
+        @Override
+        String header() {
+            return "cursor,id,link_id,occurred_at,referrer,user_agent,country,variant\r\n";
+        }
+
+        @Override
+        void append(StringBuilder out, ExportedClick click, ObjectMapper objectMapper) {
+            field(out, click.cursor()).append(',');
+            field(out, click.id()).append(',');
+            field(out, click.linkId()).append(',');
+            field(out, click.occurredAt() != null ? click.occurredAt().toString() : null).append(',');
+            field(out, click.referrer()).append(',');
+            field(out, click.userAgent()).append(',');
+            field(out, click.country()).append(',');
+            field(out, click.variant() != null ? click.variant().toString() : null).append("\r\n");
+        }
+
+        private static StringBuilder field(StringBuilder out, String value) {
+            if (value == null) {
+                return out;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                    && value.indexOf('\r') < 0) {
+                return out.append(value);
+            }
+            return out.append('"').append(value.replace("\"", "\"\"")).append('"');
+        }
+    };
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    ClickExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    /**
+     * @throws InvalidExportRequestException If the name is not a known format.
+     */
+    public static ClickExportFormat of(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidExportRequestException(String.format("Unsupported export format: %s", name));
+        }
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    /**
+     * @return The text preceding the first click of an export, if the format has one.
+     */
+    String header() {
+        return "";
+    }
+
+    /**
+     * Encodes a chunk of clicks.
+     */
+    String encode(List<ExportedClick> clicks, ObjectMapper objectMapper) {
+        StringBuilder out = new StringBuilder(clicks.size() * 256);
+        clicks.forEach(click -> append(out, click, objectMapper));
+        return out.toString();
+    }
+
+    abstract void append(StringBuilder out, ExportedClick click, ObjectMapper objectMapper);
+}
@@ -0,0 +1,84 @@
+package com.github.rblessings.analytics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Streams click histories out of MongoDB.
+ * <p>
+ * Clicks are read from a single cursor in {@code _id} order and encoded in chunks of {@code clicksPerChunk}. The cursor
+ * only fetches its next batch when the encoded chunks have been written, so an export of any size holds a bounded
+ * number of clicks in memory, and a slow client slows down the cursor instead of filling the heap.
+ * </p>
+ */
+@Service
+public class ClickExportService {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final AnalyticsProperties.Export properties;
+
+    public ClickExportService(ReactiveMongoTemplate mongoTemplate, ObjectMapper objectMapper,
+                              AnalyticsProperties analyticsProperties) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = analyticsProperties.export();
+    }
+
+    /**
+     * Exports the clicks on an owner's links.
+     * <p>
+     * Invalid cursor tokens are rejected right away, before anything is streamed.
+     * </p>
+     *
+     * @param owner  The ID of the user whose clicks are exported.
+     * @param linkId Restricts the export to one of the owner's links, if not {@code null}.
+     * @param cursor The token of the last click already received, to resume an export; {@code null} to start over.
+     * @param format The format to encode the clicks in. A resumed export repeats no header.
+     * @param gzip   Whether to gzip-compress the export.
+     * @return The encoded export, chunk by chunk.
+     * @throws InvalidExportRequestException If the cursor token is invalid.
+     */
+    public Flux<byte[]> export(String owner, String linkId, String cursor, ClickExportFormat format, boolean gzip) {
+        Query query = query(owner, linkId, cursor);
+
+        Flux<String> chunks = mongoTemplate.find(query, ClickEvent.class)
+                .map(ExportedClick::of)
+                .buffer(properties.clicksPerChunk())
+                .map(clicks -> format.encode(clicks, objectMapper));
+        if (cursor == null && !format.header().isEmpty()) {
+            chunks = chunks.startWith(format.header());
+        }
+
+        Flux<byte[]> bytes = chunks.map(chunk -> chunk.getBytes(StandardCharsets.UTF_8));
+        if (!gzip) {
+            return bytes;
+        }
+        return Flux.using(GzipEncoder::new,
+                encoder -> bytes.map(encoder::encode).concatWith(Mono.fromCallable(encoder::finish)),
+                GzipEncoder::close);
+    }
+
+    private Query query(String owner, String linkId, String cursor) {
+        Criteria criteria = where("owner").is(owner);
+        if (linkId != null) {
+            criteria = criteria.and("linkId").is(linkId);
+        }
+        if (cursor != null) {
+            criteria = criteria.and("_id").gt(ExportCursor.decode(cursor));
+        }
+        return Query.query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .cursorBatchSize(properties.cursorBatchSize());
+    }
+}
@@ -0,0 +1,210 @@
+package com.github.rblessings.analytics;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the clicks of redirects in the background.
+ * <p>
+ * A redirect only puts its click into a bounded queue and never waits for MongoDB. Every {@code flushInterval}, the
+ * queue is drained and written in inserts of up to {@code batchSize} clicks. Should MongoDB fall so far behind that
+ * the queue fills up, further clicks are dropped and counted, rather than slowing redirects down or exhausting memory.
+ * </p>
+ * <p>
+ * Each click is also published to the clicks topic, keyed by link ID and timestamped with the redirect, for trending
+ * links and live click counts. Publishing has a queue and schedule of its own, so an unreachable Kafka never holds
+ * up writing clicks to MongoDB, nor the other way around. The topic is a best-effort feed for approximate
+ * statistics: MongoDB remains the record of clicks.
+ * </p>
+ */
+@Component
+public class ClickRecorder implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(ClickRecorder.class);
+    private static final Duration SHUTDOWN_FLUSH_TIMEOUT = Duration.ofSeconds(5);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final AnalyticsProperties.Recording properties;
+    private final Clock clock;
+    private final BlockingQueue<ClickEvent> queue;
+    private final BlockingQueue<ClickEvent> unpublished;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong droppedUnpublished = new AtomicLong();
+
+    private volatile Disposable schedule;
+    private volatile Disposable publishing;
+
+    @Autowired
+    public ClickRecorder(ReactiveMongoTemplate mongoTemplate, KafkaTemplate<String, String> kafkaTemplate,
+                         ObjectMapper objectMapper, AnalyticsProperties properties) {
+        this(mongoTemplate, kafkaTemplate, objectMapper, properties.recording(), Clock.systemUTC());
+    }
+
+    ClickRecorder(ReactiveMongoTemplate mongoTemplate, KafkaTemplate<String, String> kafkaTemplate,
+                  ObjectMapper objectMapper, AnalyticsProperties.Recording properties, Clock clock) {
+        this.mongoTemplate = mongoTemplate;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.clock = clock;
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        this.unpublished = new ArrayBlockingQueue<>(properties.queueCapacity());
+    }
+
+    @Override
+    public void start() {
+        schedule = Flux.interval(properties.flushInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> flush()
+                        .onErrorResume(e -> {
+                            log.warn("Could not record clicks", e);
+                            return Mono.empty();
+                        }), 0)
+                .subscribe();
+        publishing = Flux.interval(properties.flushInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> publish()
+                        .onErrorResume(e -> {
+                            log.warn("Could not publish clicks to '{}'", properties.topic(), e);
+                            return Mono.empty();
+                        }), 0)
+                .subscribe();
+    }
+
+    @Override
+    public void stop() {
+        Disposable current = schedule;
+        if (current != null) {
+            current.dispose();
+            publishing.dispose();
+            schedule = null;
+            try {
+                flush().block(SHUTDOWN_FLUSH_TIMEOUT);
+            } catch (RuntimeException e) {
+                log.warn("Could not record the last clicks before shutdown", e);
+            }
+            try {
+                publish().block(SHUTDOWN_FLUSH_TIMEOUT);
+            } catch (RuntimeException e) {
+                log.warn("Could not publish the last clicks before shutdown", e);
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return schedule != null;
+    }
+
+    /**
+     * Records a click through a link, to be written with the next flush.
+     *
+     * @param linkId    The ID of the link that was followed.
+     * @param owner     The ID of the user who owns the link.
+     * @param variant   The index of the variant that was served, or {@code null} if the link has none.
+     * @param referrer  The {@code Referer} of the request, if any.
+     * @param userAgent The {@code User-Agent} of the request, if any.
+     */
+    public void record(String linkId, String owner, Integer variant, String referrer, String userAgent) {
+        ClickEvent click = new ClickEvent(new ObjectId().toHexString(), linkId, owner, clock.instant(), referrer,
+                userAgent, null, variant);
+        if (!queue.offer(click)) {
+            dropped.incrementAndGet();
+        }
+        if (!unpublished.offer(click)) {
+            droppedUnpublished.incrementAndGet();
+        }
+    }
+
+    /**
+     * Writes the waiting clicks, in batches of up to {@code batchSize}.
+     *
+     * @return A {@link Mono} completing once the queue was found empty.
+     */
+    Mono<Void> flush() {
+        long lost = dropped.getAndSet(0);
+        if (lost > 0) {
+            log.warn("Dropped {} clicks because too many were waiting to be recorded", lost);
+        }
+        return insertBatches();
+    }
+
+    private Mono<Void> insertBatches() {
+        return Mono.defer(() -> {
+            List<ClickEvent> batch = new ArrayList<>(Math.min(queue.size(), properties.batchSize()));
+            queue.drainTo(batch, properties.batchSize());
+            if (batch.isEmpty()) {
+                return Mono.empty();
+            }
+            return mongoTemplate.insert(batch, ClickEvent.class).then(insertBatches());
+        });
+    }
+
+    /**
+     * Publishes the waiting clicks to the clicks topic, in batches of up to {@code batchSize}.
+     *
+     * @return A {@link Mono} completing once the queue was found empty and Kafka acknowledged every click.
+     */
+    Mono<Void> publish() {
+        long lost = droppedUnpublished.getAndSet(0);
+        if (lost > 0) {
+            log.warn("Dropped {} clicks because too many were waiting to be published", lost);
+        }
+        return publishBatches();
+    }
+
+    private Mono<Void> publishBatches() {
+        return Mono.defer(() -> {
+            List<ClickEvent> batch = new ArrayList<>(Math.min(unpublished.size(), properties.batchSize()));
+            unpublished.drainTo(batch, properties.batchSize());
+            if (batch.isEmpty()) {
+                return Mono.empty();
+            }
+            // Sending blocks while the producer waits for topic metadata, e.g. with Kafka unreachable.
+            return Mono.fromCallable(() -> send(batch))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMap(Mono::fromFuture)
+                    .then(publishBatches());
+        });
+    }
+
+    /**
+     * Hands a batch to the producer, stopping at the first click the producer refuses right away, so that an
+     * unreachable Kafka costs one wait for metadata per batch rather than one per click.
+     */
+    private CompletableFuture<Void> send(List<ClickEvent> batch) throws JsonProcessingException {
+        List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+        for (ClickEvent click : batch) {
+            CompletableFuture<?> send = kafkaTemplate.send(new ProducerRecord<>(properties.topic(), null,
+                    click.occurredAt().toEpochMilli(), click.linkId(), objectMapper.writeValueAsString(click)));
+            sends.add(send);
+            if (send.isCompletedExceptionally()) {
+                break;
+            }
+        }
+        return CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new));
+    }
+}
@@ -0,0 +1,143 @@
+package com.github.rblessings.analytics;
+
+import com.github.rblessings.links.LinkEntity;
+import com.github.rblessings.links.LinkRepository;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/v1/clicks")
+public class ClicksApiController {
+    private final ClickExportService clickExportService;
+    private final LiveClickCounters liveClickCounters;
+    private final LinkRepository linkRepository;
+    private final AnalyticsProperties.Live liveProperties;
+
+    public ClicksApiController(ClickExportService clickExportService, LiveClickCounters liveClickCounters,
+                               LinkRepository linkRepository, AnalyticsProperties analyticsProperties) {
+        this.clickExportService = clickExportService;
+        this.liveClickCounters = liveClickCounters;
+        this.linkRepository = linkRepository;
+        this.liveProperties = analyticsProperties.live();
+    }
+
+    /**
+     * Streams the caller's clicks, optionally of a single link, as NDJSON or CSV.
+     * <p>
+     * The export is gzip-compressed on the fly when the client accepts it. Every click carries a cursor token; after
+     * a dropped connection, the client passes the last token it processed as {@code cursor} to continue from there.
+     * </p>
+     */
+    @GetMapping("/export")
+    public Mono<Void> exportClicks(@RequestParam(required = false) String link,
+                                   @RequestParam(defaultValue = "ndjson") String format,
+                                   @RequestParam(required = false) String cursor,
+                                   Mono<Authentication> authenticationMono,
+                                   ServerHttpRequest request,
+                                   ServerHttpResponse response) {
+        ClickExportFormat exportFormat = ClickExportFormat.of(format);
+        boolean gzip = acceptsGzip(request);
+
+        return authenticationMono.flatMap(authentication -> {
+            Flux<byte[]> export = clickExportService.export(authentication.getName(), link, cursor, exportFormat,
+                    gzip);
+
+            HttpHeaders headers = response.getHeaders();
+            headers.setContentType(exportFormat.mediaType());
+            headers.setContentDisposition(ContentDisposition.attachment()
+                    .filename("clicks." + exportFormat.extension())
+                    .build());
+            headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+            if (gzip) {
+                headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            return response.writeWith(export.map(response.bufferFactory()::wrap));
+        });
+    }
+
+    /**
+     * Pushes the click counts of some of the caller's links as Server-Sent Events.
+     * <p>
+     * Links the caller does not own are ignored. A client that cannot keep up receives the latest count of each link
+     * once it does, never a backlog: the merge with the keep-alive prefetches a single event from each, so counts wait
+     * to be conflated per link in {@link LiveClickCounters} instead of queueing up in the merge.
+     * </p>
+     */
+    @GetMapping(path = "/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ClickCount>> liveClickCounts(@RequestParam("link") List<String> linkIds,
+                                                             Mono<Authentication> authenticationMono) {
+        if (linkIds.isEmpty() || linkIds.size() > liveProperties.maxLinksPerSubscription()) {
+            throw new InvalidLiveSubscriptionException(String.format("Subscribe to between 1 and %d links",
+                    liveProperties.maxLinksPerSubscription()));
+        }
+        Flux<ServerSentEvent<ClickCount>> keepAlive = Flux.interval(liveProperties.keepAlive())
+                .map(tick -> ServerSentEvent.<ClickCount>builder().comment("keep-alive").build());
+
+        return authenticationMono
+                .flatMapMany(authentication -> linkRepository.findByOwnerAndIdIn(authentication.getName(), linkIds))
+                .map(LinkEntity::id)
+                .collectList()
+                .flatMapMany(owned -> Flux.merge(1,
+                        liveClickCounters.subscribe(owned)
+                                .map(count -> ServerSentEvent.builder(count).event("click-count").build()),
+                        keepAlive));
+    }
+
+    private static boolean acceptsGzip(ServerHttpRequest request) {
+        return acceptsGzip(request.getHeaders().getOrEmpty(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    /**
+     * Follows RFC 9110, section 12.5.3: an explicit {@code gzip} (or {@code x-gzip}) entry takes precedence over
+     * {@code *}, and a quality value of 0 refuses the encoding.
+     *
+     * @param acceptEncoding The values of the request's {@code Accept-Encoding} headers.
+     * @return {@code true} if gzip may be used for the response.
+     */
+    static boolean acceptsGzip(List<String> acceptEncoding) {
+        Double gzip = null;
+        Double any = null;
+        for (String value : acceptEncoding) {
+            for (String entry : value.split(",")) {
+                String[] parameters = entry.split(";");
+                String coding = parameters[0].trim().toLowerCase(Locale.ROOT);
+                if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                    gzip = Math.max(gzip == null ? 0 : gzip, quality(parameters));
+                } else if (coding.equals("*")) {
+                    any = quality(parameters);
+                }
+            }
+        }
+        Double accepted = gzip != null ? gzip : any;
+        return accepted != null && accepted > 0;
+    }
+
+    private static double quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.length() > 2 && Character.toLowerCase(parameter.charAt(0)) == 'q'
+                    && parameter.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,37 @@
+package com.github.rblessings.analytics;
+
+import org.bson.types.ObjectId;
+
+import java.util.Base64;
+
+/**
+ * Opaque tokens identifying a position in a click export.
+ * <p>
+ * A token encodes the ID of the last click a client received. Every exported click carries its token, so a client
+ * whose connection dropped resumes by passing the last token it processed, and receives exactly the clicks after it.
+ * </p>
+ */
+final class ExportCursor {
+
+    private ExportCursor() {
+    }
+
+    static String encode(String clickId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(new ObjectId(clickId).toByteArray());
+    }
+
+    /**
+     * @throws InvalidExportRequestException If the token was not produced by {@link #encode(String)}.
+     */
+    static ObjectId decode(String token) {
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(token);
+            if (bytes.length != 12) {
+                throw new IllegalArgumentException("Unexpected length");
+            }
+            return new ObjectId(bytes);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidExportRequestException(String.format("Invalid export cursor: %s", token));
+        }
+    }
+}
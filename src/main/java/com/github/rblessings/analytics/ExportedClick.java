@@ -0,0 +1,22 @@
+package com.github.rblessings.analytics;
+
+import java.time.Instant;
+
+/**
+ * A click as it appears in an export, together with the cursor token to resume the export after it.
+ */
+record ExportedClick(
+        String cursor,
+        String id,
+        String linkId,
+        Instant occurredAt,
+        String referrer,
+        String userAgent,
+        String country,
+        Integer variant) {
+
+    static ExportedClick of(ClickEvent click) {
+        return new ExportedClick(ExportCursor.encode(click.id()), click.id(), click.linkId(), click.occurredAt(),
+                click.referrer(), click.userAgent(), click.country(), click.variant());
+    }
+}
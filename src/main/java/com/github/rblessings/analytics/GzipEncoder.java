@@ -0,0 +1,68 @@
+package com.github.rblessings.analytics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip-compresses a stream chunk by chunk.
+ * <p>
+ * Each chunk is sync-flushed, so its compressed bytes can be sent right away and the client can decompress everything
+ * received so far; only the compressor's window is kept between chunks. Not thread-safe; chunks must be encoded in
+ * order.
+ * </p>
+ */
+final class GzipEncoder implements AutoCloseable {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+    private final GZIPOutputStream gzip;
+
+    GzipEncoder() {
+        try {
+            this.gzip = new GZIPOutputStream(out, 8192, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return The compressed chunk, preceded by the gzip header for the first chunk.
+     */
+    byte[] encode(byte[] chunk) {
+        try {
+            gzip.write(chunk);
+            gzip.flush();
+            return drain();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return The remaining compressed bytes and the gzip trailer.
+     */
+    byte[] finish() {
+        try {
+            gzip.finish();
+            return drain();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            gzip.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] drain() {
+        byte[] bytes = out.toByteArray();
+        out.reset();
+        return bytes;
+    }
+}
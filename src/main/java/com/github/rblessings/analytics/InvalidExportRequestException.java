@@ -0,0 +1,11 @@
+package com.github.rblessings.analytics;
+
+/**
+ * Thrown when a click export is requested with an unknown format or a cursor token that was not issued by an export.
+ */
+public class InvalidExportRequestException extends RuntimeException {
+
+    public InvalidExportRequestException(String message) {
+        super(message);
+    }
+}
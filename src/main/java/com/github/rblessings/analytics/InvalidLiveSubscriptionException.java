@@ -0,0 +1,11 @@
+package com.github.rblessings.analytics;
+
+/**
+ * Thrown when a live click counter subscription names no links or more links than allowed.
+ */
+public class InvalidLiveSubscriptionException extends RuntimeException {
+
+    public InvalidLiveSubscriptionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,124 @@
+package com.github.rblessings.analytics;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fans click counts out to live subscribers on this node.
+ * <p>
+ * Counts arrive from this node's single consumer of the click counts topic and are handed to the subscribers of the
+ * link they belong to, found through an index by link, so that an update costs time proportional to its audience, not
+ * to the number of subscribers on the node.
+ * </p>
+ * <p>
+ * Each subscriber has a conflating queue holding at most one pending count per link: a count that arrives before the
+ * previous one was sent replaces it. A slow client therefore receives the latest value of every link once it catches
+ * up, rather than a backlog, and a subscriber never holds more counts than links it subscribed to. The latest count
+ * of recently updated links is kept, so new subscribers start with a value instead of waiting for the next update.
+ * </p>
+ */
+@Component
+public class LiveClickCounters {
+
+    private final Map<String, Set<ConflatingSubscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Cache<String, ClickCount> latest;
+
+    public LiveClickCounters(AnalyticsProperties analyticsProperties) {
+        this.latest = Caffeine.newBuilder()
+                .maximumSize(analyticsProperties.live().latestCounts())
+                .build();
+    }
+
+    /**
+     * Publishes a count to the subscribers of its link. Counts older than the latest known one are ignored.
+     *
+     * @param count The new count.
+     */
+    public void publish(ClickCount count) {
+        ClickCount current = latest.asMap().merge(count.linkId(), count,
+                (previous, next) -> next.asOf() != null && previous.asOf() != null
+                        && next.asOf().isBefore(previous.asOf()) ? previous : next);
+        if (current != count) {
+            return;
+        }
+        Set<ConflatingSubscriber> audience = subscribers.get(count.linkId());
+        if (audience != null) {
+            audience.forEach(subscriber -> subscriber.offer(count));
+        }
+    }
+
+    /**
+     * Subscribes to the counts of some links, starting with their latest known counts.
+     *
+     * @param linkIds The links to follow.
+     * @return The counts, conflated per link when the subscriber falls behind.
+     */
+    public Flux<ClickCount> subscribe(Collection<String> linkIds) {
+        Set<String> links = Set.copyOf(linkIds);
+        return Flux.create(sink -> {
+            ConflatingSubscriber subscriber = new ConflatingSubscriber(sink);
+            links.forEach(link -> subscribers.computeIfAbsent(link, key -> ConcurrentHashMap.newKeySet())
+                    .add(subscriber));
+            sink.onRequest(requested -> subscriber.drain());
+            sink.onDispose(() -> links.forEach(link -> subscribers.computeIfPresent(link, (key, audience) -> {
+                audience.remove(subscriber);
+                return audience.isEmpty() ? null : audience;
+            })));
+            links.forEach(link -> {
+                ClickCount count = latest.getIfPresent(link);
+                if (count != null) {
+                    subscriber.offer(count);
+                }
+            });
+        }, FluxSink.OverflowStrategy.BUFFER);
+    }
+
+    /**
+     * @return The number of links with at least one subscriber on this node.
+     */
+    int subscribedLinks() {
+        return subscribers.size();
+    }
+
+    private static final class ConflatingSubscriber {
+        private final FluxSink<ClickCount> sink;
+        private final Map<String, ClickCount> pending = new LinkedHashMap<>();
+        private boolean draining;
+
+        private ConflatingSubscriber(FluxSink<ClickCount> sink) {
+            this.sink = sink;
+        }
+
+        synchronized void offer(ClickCount count) {
+            pending.put(count.linkId(), count);
+            drain();
+        }
+
+        synchronized void drain() {
+            if (draining) {
+                return;
+            }
+            draining = true;
+            try {
+                Iterator<ClickCount> counts = pending.values().iterator();
+                while (counts.hasNext() && sink.requestedFromDownstream() > 0 && !sink.isCancelled()) {
+                    ClickCount count = counts.next();
+                    counts.remove();
+                    sink.next(count);
+                }
+            } finally {
+                draining = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.github.rblessings.cache;
+
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.ReactiveRedisConnection;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.zset.Tuple;
+import org.springframework.data.redis.core.types.Expiration;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * A {@link RedisCacheWriter} decorator that caps the number of entries a cache may hold in Redis.
+ * <p>
+ * Redis itself can only bound memory for the whole instance. For caches with a {@code max-entries} policy, every write
+ * also records the key in a per-cache sorted set scored by write time. Every {@value #TRIM_EVERY} writes the set is
+ * checked and, if it exceeds the bound, the oldest written keys are popped from it and deleted. Refreshed entries are
+ * re-scored on each write, so trimming removes entries nobody reads any more.
+ * </p>
+ * <p>
+ * Entries that expire in Redis leave their keys behind in the index. Keys written longer ago than the policy's longest
+ * jittered TTL are therefore dropped from the index at every trim, and the index itself expires along with the last
+ * entry written to an idle cache.
+ * </p>
+ * <p>
+ * Index maintenance runs asynchronously and never delays or fails the cache write itself. All index commands share one
+ * reactive connection, on which Lettuce pipelines them, rather than taking a connection from the pool per write. The
+ * bound is approximate: a cache can briefly exceed it by the writes between two trims on each node.
+ * </p>
+ * <p>
+ * The same connection serves the bulk reads and writes of {@link BulkRedisCache}: one {@code MGET}, and {@code SET}s
+ * sent back to back without waiting for each reply. Bulk writes are indexed with one {@code ZADD}.
+ * </p>
+ */
+public class BoundedRedisCacheWriter implements RedisCacheWriter {
+    private static final Logger log = LoggerFactory.getLogger(BoundedRedisCacheWriter.class);
+
+    static final int TRIM_EVERY = 128;
+
+    private final RedisCacheWriter delegate;
+    private final ReactiveRedisConnectionFactory connectionFactory;
+    private final Map<String, CacheProperties.Policy> policies;
+    private final Clock clock;
+    private final Map<String, AtomicLong> writes = new ConcurrentHashMap<>();
+    private final Object connectionLock = new Object();
+    private volatile ReactiveRedisConnection connection;
+
+    /**
+     * @param policies The policies of the caches to bound; policies without {@code maxEntries} are ignored.
+     */
+    public BoundedRedisCacheWriter(RedisCacheWriter delegate, ReactiveRedisConnectionFactory connectionFactory,
+                                   Map<String, CacheProperties.Policy> policies, Clock clock) {
+        this.delegate = delegate;
+        this.connectionFactory = connectionFactory;
+        this.policies = policies.entrySet().stream()
+                .filter(policy -> policy.getValue().maxEntries() > 0)
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, Map.Entry::getValue));
+        this.clock = clock;
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key) {
+        return delegate.get(name, key);
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key, Duration ttl) {
+        return delegate.get(name, key, ttl);
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key, Supplier<byte[]> valueLoader, Duration ttl, boolean timeToIdleEnabled) {
+        return delegate.get(name, key, () -> {
+            byte[] value = valueLoader.get();
+            recordWrite(name, key);
+            return value;
+        }, ttl, timeToIdleEnabled);
+    }
+
+    @Override
+    public boolean supportsAsyncRetrieve() {
+        return delegate.supportsAsyncRetrieve();
+    }
+
+    @Override
+    public CompletableFuture<byte[]> retrieve(String name, byte[] key) {
+        return delegate.retrieve(name, key);
+    }
+
+    @Override
+    public CompletableFuture<byte[]> retrieve(String name, byte[] key, Duration ttl) {
+        return delegate.retrieve(name, key, ttl);
+    }
+
+    @Override
+    public void put(String name, byte[] key, byte[] value, Duration ttl) {
+        delegate.put(name, key, value, ttl);
+        recordWrite(name, key);
+    }
+
+    @Override
+    public CompletableFuture<Void> store(String name, byte[] key, byte[] value, Duration ttl) {
+        return delegate.store(name, key, value, ttl).thenRun(() -> recordWrite(name, key));
+    }
+
+    @Override
+    public byte[] putIfAbsent(String name, byte[] key, byte[] value, Duration ttl) {
+        byte[] existing = delegate.putIfAbsent(name, key, value, ttl);
+        if (existing == null) {
+            recordWrite(name, key);
+        }
+        return existing;
+    }
+
+    @Override
+    public void remove(String name, byte[] key) {
+        delegate.remove(name, key);
+        if (policies.containsKey(name)) {
+            index(connection -> connection.zSetCommands().zRem(indexKey(name), ByteBuffer.wrap(key)));
+        }
+    }
+
+    @Override
+    public void clean(String name, byte[] pattern) {
+        delegate.clean(name, pattern);
+        if (policies.containsKey(name)) {
+            index(connection -> connection.keyCommands().del(indexKey(name)));
+        }
+    }
+
+    @Override
+    public void clearStatistics(String name) {
+        delegate.clearStatistics(name);
+    }
+
+    @Override
+    public RedisCacheWriter withStatisticsCollector(CacheStatisticsCollector cacheStatisticsCollector) {
+        return new BoundedRedisCacheWriter(delegate.withStatisticsCollector(cacheStatisticsCollector),
+                connectionFactory, policies, clock);
+    }
+
+    @Override
+    public CacheStatistics getCacheStatistics(String cacheName) {
+        return delegate.getCacheStatistics(cacheName);
+    }
+
+    /**
+     * Reads many entries of a cache with one {@code MGET}.
+     *
+     * @param name The cache name.
+     * @param keys The serialized keys.
+     * @return The serialized values in the order of the keys, {@code null} for the missing ones.
+     */
+    public CompletableFuture<List<byte[]>> retrieveAll(String name, List<byte[]> keys) {
+        if (keys.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        return bulk(connection -> connection.stringCommands()
+                .mGet(keys.stream().map(ByteBuffer::wrap).toList())
+                .map(values -> values.stream().map(BoundedRedisCacheWriter::toBytes).toList()));
+    }
+
+    /**
+     * Writes many entries of a cache at once. The {@code SET}s are pipelined on the shared connection, and the entries
+     * are indexed like single writes once they are all written.
+     *
+     * @param name    The cache name.
+     * @param entries The serialized entries, with their TTLs.
+     * @return A future completing once every entry is written.
+     */
+    public CompletableFuture<Void> storeAll(String name, List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return bulk(connection -> Flux.fromIterable(entries)
+                .flatMap(entry -> connection.stringCommands().set(ByteBuffer.wrap(entry.key()),
+                        ByteBuffer.wrap(entry.value()), Expiration.from(entry.ttl()),
+                        RedisStringCommands.SetOption.upsert()))
+                .then())
+                .thenRun(() -> recordWrites(name, entries.stream().map(Entry::key).toList()));
+    }
+
+    /**
+     * A serialized cache entry for {@link #storeAll(String, List)}.
+     *
+     * @param key   The serialized key.
+     * @param value The serialized value.
+     * @param ttl   How long Redis keeps the entry.
+     */
+    public record Entry(byte[] key, byte[] value, Duration ttl) {
+    }
+
+    private void recordWrite(String name, byte[] key) {
+        CacheProperties.Policy policy = policies.get(name);
+        if (policy == null) {
+            return;
+        }
+        long now = clock.millis();
+        Duration longestTtl = longestTtl(policy);
+        index(connection -> connection.zSetCommands().zAdd(indexKey(name), (double) now, ByteBuffer.wrap(key))
+                .then(connection.keyCommands().pExpire(indexKey(name), longestTtl)));
+        trimIfDue(name, policy, now, 1);
+    }
+
+    private void recordWrites(String name, List<byte[]> keys) {
+        CacheProperties.Policy policy = policies.get(name);
+        if (policy == null) {
+            return;
+        }
+        long now = clock.millis();
+        Duration longestTtl = longestTtl(policy);
+        List<Tuple> scored = keys.stream().map(key -> Tuple.of(key, (double) now)).toList();
+        index(connection -> connection.zSetCommands().zAdd(indexKey(name), scored)
+                .then(connection.keyCommands().pExpire(indexKey(name), longestTtl)));
+        trimIfDue(name, policy, now, keys.size());
+    }
+
+    /**
+     * Trims the index of a cache whenever its write count passes a multiple of {@value #TRIM_EVERY}.
+     */
+    private void trimIfDue(String name, CacheProperties.Policy policy, long now, int written) {
+        long count = writes.computeIfAbsent(name, cache -> new AtomicLong()).addAndGet(written);
+        if (count / TRIM_EVERY != (count - written) / TRIM_EVERY) {
+            Duration longestTtl = longestTtl(policy);
+            long bound = policy.maxEntries();
+            Range<Double> expired = Range.closed(Double.NEGATIVE_INFINITY, (double) (now - longestTtl.toMillis()));
+            index(connection -> connection.zSetCommands().zRemRangeByScore(indexKey(name), expired)
+                    .then(connection.zSetCommands().zCard(indexKey(name)))
+                    .filter(size -> size > bound)
+                    .flatMapMany(size -> connection.zSetCommands().zPopMin(indexKey(name), size - bound))
+                    .flatMap(evicted -> connection.keyCommands().del(ByteBuffer.wrap(evicted.getValue())))
+                    .then());
+        }
+    }
+
+    /**
+     * @return The longest TTL an entry of the policy can get, after which its key is known to have expired.
+     */
+    private static Duration longestTtl(CacheProperties.Policy policy) {
+        return Duration.ofMillis((long) Math.ceil(policy.ttl().toMillis() * (1 + policy.ttlJitter())));
+    }
+
+    private void index(Function<ReactiveRedisConnection, ? extends Publisher<?>> command) {
+        Flux.defer(() -> Flux.<Object>from(command.apply(sharedConnection())))
+                .subscribe(result -> {
+                }, ex -> {
+                    log.debug("Could not maintain cache size index", ex);
+                    resetConnection();
+                });
+    }
+
+    private <T> CompletableFuture<T> bulk(Function<ReactiveRedisConnection, Mono<T>> command) {
+        return Mono.defer(() -> command.apply(sharedConnection()))
+                .doOnError(ex -> resetConnection())
+                .toFuture();
+    }
+
+    private ReactiveRedisConnection sharedConnection() {
+        ReactiveRedisConnection current = connection;
+        if (current == null) {
+            synchronized (connectionLock) {
+                current = connection;
+                if (current == null) {
+                    current = connectionFactory.getReactiveConnection();
+                    connection = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Discards the shared connection after a failure, so that the next index update opens a fresh one.
+     */
+    private void resetConnection() {
+        ReactiveRedisConnection current;
+        synchronized (connectionLock) {
+            current = connection;
+            connection = null;
+        }
+        if (current != null) {
+            current.closeLater().subscribe(done -> {
+            }, ex -> log.debug("Could not close cache size index connection", ex));
+        }
+    }
+
+    private static byte[] toBytes(ByteBuffer buffer) {
+        if (buffer == null) {
+            return null;
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    private static ByteBuffer indexKey(String name) {
+        return ByteBuffer.wrap(("urlradar:cache-index:" + name).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.rblessings.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A cache that reads and writes many entries at once, in one round trip to the shared cache.
+ * <p>
+ * Implemented by the caches of the cache manager and by each of their decorators, so that bulk operations see the
+ * same entries, in the same format, as {@link Cache#retrieve(Object)} and {@link Cache#put(Object, Object)}. Use
+ * {@link #of(Cache)} to get the bulk view of any cache.
+ * </p>
+ */
+public interface BulkCache {
+
+    /**
+     * Looks up many entries at once.
+     *
+     * @param keys The keys to look up.
+     * @return The entries found, by key; missing keys are absent from the map.
+     */
+    CompletableFuture<Map<Object, Object>> retrieveAll(Collection<?> keys);
+
+    /**
+     * Writes many entries at once, each with the TTL a single write would give it.
+     *
+     * @param entries The entries to write; {@code null} values are skipped.
+     * @return A future completing once the entries are written.
+     */
+    CompletableFuture<Void> storeAll(Map<?, ?> entries);
+
+    /**
+     * Returns the bulk view of a cache. Caches that cannot do bulk operations are read and written one entry at a
+     * time.
+     * <p>
+     * Transaction-aware caches are bypassed for reads, which transactions do not affect. Their writes are bulk too
+     * unless a transaction is synchronizing on the calling thread, in which case each write is deferred as usual.
+     * </p>
+     */
+    static BulkCache of(Cache cache) {
+        if (cache instanceof BulkCache bulkCache) {
+            return bulkCache;
+        }
+        if (cache instanceof TransactionAwareCacheDecorator decorator
+                && decorator.getTargetCache() instanceof BulkCache target) {
+            return new BulkCache() {
+                @Override
+                public CompletableFuture<Map<Object, Object>> retrieveAll(Collection<?> keys) {
+                    return target.retrieveAll(keys);
+                }
+
+                @Override
+                public CompletableFuture<Void> storeAll(Map<?, ?> entries) {
+                    return TransactionSynchronizationManager.isSynchronizationActive()
+                            ? perEntry(cache).storeAll(entries)
+                            : target.storeAll(entries);
+                }
+            };
+        }
+        return perEntry(cache);
+    }
+
+    private static BulkCache perEntry(Cache cache) {
+        return new BulkCache() {
+            @Override
+            public CompletableFuture<Map<Object, Object>> retrieveAll(Collection<?> keys) {
+                List<?> distinct = keys.stream().distinct().toList();
+                List<CompletableFuture<?>> lookups = distinct.stream()
+                        .<CompletableFuture<?>>map(key -> {
+                            CompletableFuture<?> lookup = cache.retrieve(key);
+                            return lookup != null ? lookup : CompletableFuture.completedFuture(null);
+                        })
+                        .toList();
+                return CompletableFuture.allOf(lookups.toArray(CompletableFuture[]::new)).thenApply(done -> {
+                    Map<Object, Object> found = new HashMap<>();
+                    for (int i = 0; i < distinct.size(); i++) {
+                        Object cached = lookups.get(i).join();
+                        Object value = cached instanceof Cache.ValueWrapper wrapper ? wrapper.get() : cached;
+                        if (value != null) {
+                            found.put(distinct.get(i), value);
+                        }
+                    }
+                    return found;
+                });
+            }
+
+            @Override
+            public CompletableFuture<Void> storeAll(Map<?, ?> entries) {
+                entries.forEach((key, value) -> {
+                    if (value != null) {
+                        cache.put(key, value);
+                    }
+                });
+                return CompletableFuture.completedFuture(null);
+            }
+        };
+    }
+}
@@ -0,0 +1,56 @@
+package com.github.rblessings.cache;
+
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link RedisCache} that also reads and writes many entries at once through a {@link BoundedRedisCacheWriter}.
+ * <p>
+ * Keys and values are converted exactly as {@link RedisCache} converts them, with the cache's key prefix and value
+ * serializer, and each entry gets the TTL the cache's TTL function gives it. Bulk and single operations therefore
+ * see the same entries.
+ * </p>
+ */
+public class BulkRedisCache extends RedisCache implements BulkCache {
+    private final BoundedRedisCacheWriter cacheWriter;
+
+    public BulkRedisCache(String name, BoundedRedisCacheWriter cacheWriter, RedisCacheConfiguration configuration) {
+        super(name, cacheWriter, configuration);
+        this.cacheWriter = cacheWriter;
+    }
+
+    @Override
+    public CompletableFuture<Map<Object, Object>> retrieveAll(Collection<?> keys) {
+        List<?> distinct = keys.stream().distinct().toList();
+        List<byte[]> cacheKeys = distinct.stream().map(key -> serializeCacheKey(createCacheKey(key))).toList();
+        return cacheWriter.retrieveAll(getName(), cacheKeys).thenApply(values -> {
+            Map<Object, Object> found = new HashMap<>();
+            for (int i = 0; i < distinct.size(); i++) {
+                byte[] value = values.get(i);
+                Object cached = value != null ? fromStoreValue(deserializeCacheValue(value)) : null;
+                if (cached != null) {
+                    found.put(distinct.get(i), cached);
+                }
+            }
+            return found;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> storeAll(Map<?, ?> entries) {
+        List<BoundedRedisCacheWriter.Entry> serialized = entries.entrySet().stream()
+                .filter(entry -> entry.getValue() != null)
+                .map(entry -> new BoundedRedisCacheWriter.Entry(
+                        serializeCacheKey(createCacheKey(entry.getKey())),
+                        serializeCacheValue(toStoreValue(entry.getValue())),
+                        getCacheConfiguration().getTtlFunction().getTimeToLive(entry.getKey(), entry.getValue())))
+                .toList();
+        return cacheWriter.storeAll(getName(), serialized);
+    }
+}
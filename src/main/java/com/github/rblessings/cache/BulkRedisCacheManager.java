@@ -0,0 +1,26 @@
+package com.github.rblessings.cache;
+
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+
+import java.util.Map;
+
+/**
+ * A {@link RedisCacheManager} whose caches are {@link BulkRedisCache}s.
+ */
+public class BulkRedisCacheManager extends RedisCacheManager {
+    private final BoundedRedisCacheWriter cacheWriter;
+
+    public BulkRedisCacheManager(BoundedRedisCacheWriter cacheWriter, RedisCacheConfiguration defaultCacheConfiguration,
+                                 Map<String, RedisCacheConfiguration> initialCacheConfigurations) {
+        super(cacheWriter, defaultCacheConfiguration, initialCacheConfigurations);
+        this.cacheWriter = cacheWriter;
+    }
+
+    @Override
+    protected RedisCache createRedisCache(String name, RedisCacheConfiguration cacheConfiguration) {
+        return new BulkRedisCache(name, cacheWriter, cacheConfiguration != null
+                ? cacheConfiguration : getDefaultCacheConfiguration());
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.rblessings.cache;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * A cached value together with the moments it should be refreshed and when it expires.
+ * <p>
+ * Storing the deadlines with the value lets any node decide on a read, without an extra {@code TTL} round trip,
+ * whether the entry is due for a background refresh. The expiry also drives the Redis TTL, see
+ * {@link PolicyTtlFunction}.
+ * </p>
+ *
+ * @param value     The cached value.
+ * @param refreshAt When a read should start reloading the value in the background.
+ * @param expiresAt When the entry expires in Redis.
+ */
+record CacheEnvelope(Object value, Instant refreshAt, Instant expiresAt) implements Serializable {
+
+    /**
+     * Wraps a value according to the given policy, jittering its expiry.
+     */
+    static CacheEnvelope wrap(Object value, CacheProperties.Policy policy, Instant now) {
+        Duration ttl = policy.jitteredTtl();
+        Duration refreshAfter = policy.refreshAhead() > 0
+                ? Duration.ofMillis(Math.round(ttl.toMillis() * policy.refreshAhead()))
+                : ttl;
+        return new CacheEnvelope(value, now.plus(refreshAfter), now.plus(ttl));
+    }
+
+    /**
+     * Returns the value of an envelope, or the argument itself if it is not one (e.g. written before envelopes).
+     */
+    static Object unwrap(Object cached) {
+        return cached instanceof CacheEnvelope envelope ? envelope.value() : cached;
+    }
+
+    boolean isDueForRefresh(Instant now) {
+        return !now.isBefore(refreshAt);
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.rblessings.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Settings for the Redis caches, the in-process near caches that sit in front of them, and their on-disk snapshots.
+ *
+ * @param policies Cache name mapped to the expiry, size and refresh policy of that cache in Redis. Caches not listed
+ *                 use the defaults from {@code CacheConfiguration}.
+ * @param near     Cache name mapped to the near cache settings for that cache. Caches not listed have no near cache.
+ * @param snapshot Settings for persisting the hottest near cache entries across restarts.
+ */
+@ConfigurationProperties("urlradar.cache")
+public record CacheProperties(Map<String, Policy> policies, Map<String, Near> near, @DefaultValue Snapshot snapshot) {
+
+    public CacheProperties {
+        policies = policies == null ? Map.of() : Map.copyOf(policies);
+        near = near == null ? Map.of() : Map.copyOf(near);
+    }
+
+    /**
+     * @param ttl          Base time to live of an entry in Redis.
+     * @param ttlJitter    Fraction (0 to 1) by which each entry's TTL is randomly shortened or lengthened, so that
+     *                     entries written together do not all expire together.
+     * @param maxEntries   Upper bound on the number of entries kept in Redis, or 0 for no bound. The oldest written
+     *                     entries are evicted first; refreshed entries count as newly written.
+     * @param refreshAhead Fraction (0 to 1) of an entry's TTL after which a read triggers a background reload, or 0
+     *                     to disable. Entries read in that window are replaced before they expire, so popular entries
+     *                     never miss.
+     */
+    public record Policy(
+            @DefaultValue("10m") Duration ttl,
+            @DefaultValue("0.1") double ttlJitter,
+            @DefaultValue("0") long maxEntries,
+            @DefaultValue("0") double refreshAhead) {
+
+        public Policy {
+            if (ttl.isNegative() || ttl.isZero()) {
+                throw new IllegalArgumentException(String.format("Invalid cache TTL: %s", ttl));
+            }
+            if (ttlJitter < 0 || ttlJitter >= 1) {
+                throw new IllegalArgumentException(String.format("Invalid cache TTL jitter: %s", ttlJitter));
+            }
+            if (refreshAhead < 0 || refreshAhead >= 1) {
+                throw new IllegalArgumentException(String.format("Invalid cache refresh-ahead: %s", refreshAhead));
+            }
+        }
+
+        /**
+         * @return The base TTL randomly spread by up to {@code ttlJitter} in either direction.
+         */
+        public Duration jitteredTtl() {
+            double factor = 1 + ttlJitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+            return Duration.ofMillis(Math.max(1, Math.round(ttl.toMillis() * factor)));
+        }
+    }
+
+    /**
+     * @param maximumSize      Maximum number of entries held in process.
+     * @param expireAfterWrite How long an entry may be served locally before it is read from Redis again. This bounds
+     *                         how stale a node can be after another node changes the entry.
+     */
+    public record Near(
+            @DefaultValue("10000") long maximumSize,
+            @DefaultValue("30s") Duration expireAfterWrite) {
+    }
+
+    /**
+     * @param enabled    Whether near caches are snapshotted and restored at all.
+     * @param directory  Directory holding one snapshot file per cache.
+     * @param interval   How often snapshots are written while running; a final one is written on shutdown.
+     * @param maxEntries Maximum number of entries per cache written to a snapshot, hottest first.
+     */
+    public record Snapshot(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("cache-snapshots") Path directory,
+            @DefaultValue("1m") Duration interval,
+            @DefaultValue("10000") int maxEntries) {
+    }
+}
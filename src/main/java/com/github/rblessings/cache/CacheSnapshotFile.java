@@ -0,0 +1,194 @@
+package com.github.rblessings.cache;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Reads and writes near cache snapshots as compact, memory-mapped binary files.
+ * <p>
+ * Layout (big-endian):
+ * <pre>
+ *   header: magic (int) | format version (int) | entry count (int) | body CRC32 (long) | body length (int)
+ *   body:   entry count x [ key (string) | value length (int) | value (codec-defined bytes) ]
+ *   string: byte length (int, -1 for null) | UTF-8 bytes
+ * </pre>
+ * </p>
+ * <p>
+ * Snapshots are written to a temporary file and atomically moved into place, and verified against the checksum when
+ * read, so a crash mid-write leaves either the previous snapshot or none, never a torn one. Reading maps the file
+ * instead of copying it onto the heap, and entries are decoded straight from the mapping.
+ * </p>
+ * <p>
+ * Snapshots hold personal data, so on POSIX file systems the directory is created accessible to its owner only and
+ * snapshot files are readable and writable by their owner only.
+ * </p>
+ */
+public final class CacheSnapshotFile {
+    private static final int MAGIC = 0x55524E43; // "URNC"
+    /**
+     * Bumped whenever the layout, or a codec's encoding, changes, so that older snapshots are discarded rather than
+     * misread. 2: users carry their username.
+     */
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_BYTES = Integer.BYTES * 3 + Long.BYTES + Integer.BYTES;
+    private static final int INITIAL_VALUE_BUFFER_BYTES = 4 * 1024;
+
+    private CacheSnapshotFile() {
+    }
+
+    /**
+     * Writes the entries, in iteration order, replacing any previous snapshot at {@code file}.
+     *
+     * @param file    The snapshot file.
+     * @param entries The entries to write.
+     * @param codec   The codec for the values.
+     * @param <V>     The type of the values.
+     * @throws IOException If the snapshot cannot be written; the previous snapshot, if any, is left untouched.
+     */
+    public static <V> void write(Path file, Map<String, V> entries, SnapshotCodec<V> codec) throws IOException {
+        ByteBuffer body = ByteBuffer.allocate(INITIAL_VALUE_BUFFER_BYTES * 16);
+        ByteBuffer value = ByteBuffer.allocate(INITIAL_VALUE_BUFFER_BYTES);
+        for (Map.Entry<String, V> entry : entries.entrySet()) {
+            value = encode(entry.getValue(), codec, value);
+            byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+
+            body = ensureCapacity(body, Integer.BYTES + key.length + Integer.BYTES + value.remaining());
+            body.putInt(key.length).put(key);
+            body.putInt(value.remaining()).put(value);
+        }
+        body.flip();
+
+        CRC32 crc = new CRC32();
+        crc.update(body.duplicate());
+
+        Path directory = file.toAbsolutePath().getParent();
+        boolean posix = directory.getFileSystem().supportedFileAttributeViews().contains("posix");
+        Files.createDirectories(directory, posix ? ownerOnly("rwx------") : new FileAttribute<?>[0]);
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.deleteIfExists(temporary);
+        try (FileChannel channel = FileChannel.open(temporary, EnumSet.of(StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE), posix ? ownerOnly("rw-------")
+                : new FileAttribute<?>[0])) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + body.remaining());
+            mapped.putInt(MAGIC)
+                    .putInt(FORMAT_VERSION)
+                    .putInt(entries.size())
+                    .putLong(crc.getValue())
+                    .putInt(body.remaining())
+                    .put(body);
+            mapped.force();
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a snapshot written by {@link #write(Path, Map, SnapshotCodec)}.
+     *
+     * @param file  The snapshot file.
+     * @param codec The codec for the values.
+     * @param <V>   The type of the values.
+     * @return The entries in the order they were written; empty if the file does not exist.
+     * @throws IOException If the file exists but cannot be read, or is corrupt or of an unknown format.
+     */
+    public static <V> Map<String, V> read(Path file, SnapshotCodec<V> codec) throws IOException {
+        if (!Files.exists(file)) {
+            return Map.of();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (mapped.remaining() < HEADER_BYTES || mapped.getInt() != MAGIC || mapped.getInt() != FORMAT_VERSION) {
+                throw new IOException(String.format("Not a cache snapshot: %s", file));
+            }
+            int count = mapped.getInt();
+            long checksum = mapped.getLong();
+            int length = mapped.getInt();
+            if (length != mapped.remaining()) {
+                throw new IOException(String.format("Truncated cache snapshot: %s", file));
+            }
+
+            ByteBuffer body = mapped.slice();
+            CRC32 crc = new CRC32();
+            crc.update(body.duplicate());
+            if (crc.getValue() != checksum) {
+                throw new IOException(String.format("Corrupt cache snapshot: %s", file));
+            }
+
+            Map<String, V> entries = LinkedHashMap.newLinkedHashMap(count);
+            for (int i = 0; i < count; i++) {
+                String key = getString(body);
+                int valueLength = body.getInt();
+                ByteBuffer value = body.slice(body.position(), valueLength);
+                entries.put(key, codec.decode(value));
+                body.position(body.position() + valueLength);
+            }
+            return entries;
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IOException(String.format("Corrupt cache snapshot: %s", file), e);
+        }
+    }
+
+    /**
+     * Writes a nullable string as its UTF-8 byte length followed by the bytes.
+     */
+    public static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length).put(bytes);
+    }
+
+    /**
+     * Reads a string written by {@link #putString(ByteBuffer, String)}.
+     */
+    public static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static FileAttribute<?>[] ownerOnly(String permissions) {
+        return new FileAttribute<?>[]{
+                PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString(permissions))};
+    }
+
+    private static <V> ByteBuffer encode(V value, SnapshotCodec<V> codec, ByteBuffer scratch) {
+        while (true) {
+            scratch.clear();
+            try {
+                codec.encode(value, scratch);
+                return scratch.flip();
+            } catch (BufferOverflowException e) {
+                scratch = ByteBuffer.allocate(scratch.capacity() * 2);
+            }
+        }
+    }
+
+    private static ByteBuffer ensureCapacity(ByteBuffer buffer, int additional) {
+        if (buffer.remaining() >= additional) {
+            return buffer;
+        }
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + additional));
+        return grown.put(buffer.flip());
+    }
+}
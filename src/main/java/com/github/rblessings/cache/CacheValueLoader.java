@@ -0,0 +1,24 @@
+package com.github.rblessings.cache;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Reloads the value of a cache entry from its source of truth, used to refresh entries ahead of expiry.
+ * <p>
+ * Implementations are Spring beans owned by the feature that owns the cache. They must read the source directly and
+ * never through a {@code @Cacheable} method, which would just return the cached value again.
+ * </p>
+ */
+public interface CacheValueLoader {
+
+    /**
+     * @return The name of the cache whose entries this loader reloads.
+     */
+    String cacheName();
+
+    /**
+     * @param key The cache key.
+     * @return A {@link Mono} emitting the current value, or empty if the entry no longer exists.
+     */
+    Mono<?> load(Object key);
+}
@@ -0,0 +1,205 @@
+package com.github.rblessings.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * A two-level {@link Cache}: a bounded in-process cache in front of a shared (Redis) cache.
+ * <p>
+ * Reads are served from process memory when possible and fall through to the shared cache otherwise; values found
+ * there are copied into the near cache. Writes and evictions go to both levels. Other nodes' changes become visible
+ * once the local entry expires, so {@link CacheProperties.Near#expireAfterWrite()} bounds staleness.
+ * </p>
+ * <p>
+ * The near cache uses Caffeine's frequency-aware eviction, which also tells us which entries are hottest. That is what
+ * {@link NearCacheSnapshotter} persists so that a restarted node starts warm.
+ * </p>
+ */
+public class NearCache implements Cache, BulkCache {
+    private final Cache delegate;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> local;
+
+    public NearCache(Cache delegate, CacheProperties.Near properties) {
+        this.delegate = delegate;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.expireAfterWrite())
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object value = local.getIfPresent(key);
+        if (value != null) {
+            return new SimpleValueWrapper(value);
+        }
+        ValueWrapper shared = delegate.get(key);
+        if (shared != null && shared.get() != null) {
+            local.put(key, shared.get());
+        }
+        return shared;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(String.format("Cached value is not of required type [%s]: %s",
+                    type.getName(), value));
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = local.getIfPresent(key);
+        if (value != null) {
+            return (T) value;
+        }
+        T loaded = delegate.get(key, valueLoader);
+        if (loaded != null) {
+            local.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        Object value = local.getIfPresent(key);
+        if (value != null) {
+            return CompletableFuture.completedFuture(value);
+        }
+        CompletableFuture<?> shared = delegate.retrieve(key);
+        if (shared == null) {
+            return null;
+        }
+        return shared.thenApply(cached -> {
+            Object sharedValue = cached instanceof ValueWrapper wrapper ? wrapper.get() : cached;
+            if (sharedValue != null) {
+                local.put(key, sharedValue);
+            }
+            return cached;
+        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        Object value = local.getIfPresent(key);
+        if (value != null) {
+            return CompletableFuture.completedFuture((T) value);
+        }
+        return delegate.retrieve(key, valueLoader).thenApply(loaded -> {
+            if (loaded != null) {
+                local.put(key, loaded);
+            }
+            return loaded;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Map<Object, Object>> retrieveAll(Collection<?> keys) {
+        Map<Object, Object> found = new HashMap<>(local.getAllPresent(keys));
+        List<?> missing = keys.stream().filter(key -> !found.containsKey(key)).distinct().toList();
+        if (missing.isEmpty()) {
+            return CompletableFuture.completedFuture(found);
+        }
+        return BulkCache.of(delegate).retrieveAll(missing).thenApply(shared -> {
+            local.putAll(shared);
+            found.putAll(shared);
+            return found;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> storeAll(Map<?, ?> entries) {
+        return BulkCache.of(delegate).storeAll(entries).thenRun(() -> entries.forEach((key, value) -> {
+            if (value != null) {
+                local.put(key, value);
+            }
+        }));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+        if (value != null) {
+            local.put(key, value);
+        } else {
+            local.invalidate(key);
+        }
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        local.invalidate(key);
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        local.invalidate(key);
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        local.invalidate(key);
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        local.invalidateAll();
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        local.invalidateAll();
+        return delegate.invalidate();
+    }
+
+    /**
+     * Returns the most frequently used entries currently held in process, hottest first.
+     *
+     * @param limit Maximum number of entries returned.
+     * @return An ordered snapshot of the hottest entries.
+     */
+    public Map<Object, Object> hottest(int limit) {
+        return local.policy().eviction()
+                .map(eviction -> eviction.hottest(limit))
+                .orElseGet(Map::of);
+    }
+
+    /**
+     * Loads entries into process memory only, e.g. from a snapshot; the shared cache is not touched.
+     *
+     * @param entries The entries to load.
+     */
+    public void preload(Map<?, ?> entries) {
+        local.putAll(entries);
+    }
+}
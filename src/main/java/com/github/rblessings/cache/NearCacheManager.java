@@ -0,0 +1,53 @@
+package com.github.rblessings.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link CacheManager} decorator that puts a {@link NearCache} in front of every cache configured under
+ * {@code urlradar.cache.near}. Other caches are returned unchanged.
+ */
+public class NearCacheManager implements CacheManager {
+    private final CacheManager delegate;
+    private final Map<String, CacheProperties.Near> nearCaches;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public NearCacheManager(CacheManager delegate, CacheProperties properties) {
+        this.delegate = delegate;
+        this.nearCaches = properties.near();
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        if (target == null) {
+            return null;
+        }
+        CacheProperties.Near near = nearCaches.get(name);
+        return caches.computeIfAbsent(name, key -> near != null ? new NearCache(target, near) : target);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    /**
+     * @param name The cache name.
+     * @return The near cache for the given name, or empty if that cache has none.
+     */
+    public Optional<NearCache> getNearCache(String name) {
+        return Optional.ofNullable(getCache(name))
+                .filter(NearCache.class::isInstance)
+                .map(NearCache.class::cast);
+    }
+}
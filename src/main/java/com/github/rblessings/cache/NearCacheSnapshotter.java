@@ -0,0 +1,125 @@
+package com.github.rblessings.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps near caches warm across restarts.
+ * <p>
+ * While the application runs, the hottest entries of every near cache with a {@link SnapshotCodec} are periodically
+ * written to a {@link CacheSnapshotFile}, and once more on shutdown. On startup the snapshots are read back,
+ * reconciled against the database so that entries changed in the meantime are dropped, and loaded into the near
+ * caches. This happens while the context starts, i.e. before the application reports itself ready, so a freshly
+ * deployed pod does not take traffic with a cold cache and stampede Redis and MongoDB.
+ * </p>
+ * <p>Snapshot failures are logged and never prevent startup or shutdown; the node then simply starts cold.</p>
+ */
+@Component
+public class NearCacheSnapshotter implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(NearCacheSnapshotter.class);
+
+    private static final Duration RECONCILE_TIMEOUT = Duration.ofSeconds(10);
+
+    private final NearCacheManager cacheManager;
+    private final List<SnapshotCodec<?>> codecs;
+    private final CacheProperties.Snapshot properties;
+
+    private volatile Disposable schedule;
+
+    public NearCacheSnapshotter(NearCacheManager cacheManager, List<SnapshotCodec<?>> codecs,
+                                CacheProperties cacheProperties) {
+        this.cacheManager = cacheManager;
+        this.codecs = codecs;
+        this.properties = cacheProperties.snapshot();
+    }
+
+    @Override
+    public void start() {
+        if (!properties.enabled()) {
+            return;
+        }
+        codecs.forEach(this::restore);
+        schedule = Flux.interval(properties.interval(), properties.interval(), Schedulers.boundedElastic())
+                .subscribe(tick -> snapshotAll());
+    }
+
+    @Override
+    public void stop() {
+        Disposable current = schedule;
+        if (current != null) {
+            current.dispose();
+            schedule = null;
+            snapshotAll();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return schedule != null;
+    }
+
+    /**
+     * Writes a snapshot of every near cache that has a codec.
+     */
+    public void snapshotAll() {
+        codecs.forEach(this::snapshot);
+    }
+
+    private <V> void snapshot(SnapshotCodec<V> codec) {
+        cacheManager.getNearCache(codec.cacheName()).ifPresent(nearCache -> {
+            Map<String, V> entries = new LinkedHashMap<>();
+            nearCache.hottest(properties.maxEntries()).forEach((key, value) -> {
+                if (key instanceof String stringKey && codec.valueType().isInstance(value)) {
+                    entries.put(stringKey, codec.valueType().cast(value));
+                }
+            });
+            try {
+                CacheSnapshotFile.write(fileFor(codec), entries, codec);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not snapshot near cache '{}'", codec.cacheName(), e);
+            }
+        });
+    }
+
+    private <V> void restore(SnapshotCodec<V> codec) {
+        cacheManager.getNearCache(codec.cacheName()).ifPresent(nearCache -> {
+            try {
+                Map<String, V> restored = CacheSnapshotFile.read(fileFor(codec), codec);
+                if (restored.isEmpty()) {
+                    return;
+                }
+                Map<String, V> current = codec.reconcile(restored)
+                        .timeout(RECONCILE_TIMEOUT)
+                        .onErrorResume(e -> {
+                            log.warn("Could not reconcile near cache '{}' snapshot; starting cold",
+                                    codec.cacheName(), e);
+                            return Mono.just(Map.of());
+                        })
+                        .blockOptional()
+                        .orElseGet(Map::of);
+                nearCache.preload(current);
+                log.info("Restored {} of {} snapshotted entries into near cache '{}'", current.size(),
+                        restored.size(), codec.cacheName());
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not restore near cache '{}' snapshot; starting cold", codec.cacheName(), e);
+            }
+        });
+    }
+
+    private Path fileFor(SnapshotCodec<?> codec) {
+        return properties.directory().resolve(codec.cacheName() + ".snapshot");
+    }
+}
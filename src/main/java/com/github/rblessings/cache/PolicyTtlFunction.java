@@ -0,0 +1,34 @@
+package com.github.rblessings.cache;
+
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Computes the Redis TTL of each cache entry from its {@link CacheProperties.Policy}.
+ * <p>
+ * Values wrapped in a {@link CacheEnvelope} expire exactly when the envelope says, so the refresh deadline a reader
+ * sees and the actual expiry agree. Any other value gets the policy's TTL with fresh random jitter.
+ * </p>
+ */
+public class PolicyTtlFunction implements RedisCacheWriter.TtlFunction {
+    private static final Duration MINIMUM_TTL = Duration.ofMillis(1);
+
+    private final CacheProperties.Policy policy;
+    private final Clock clock;
+
+    public PolicyTtlFunction(CacheProperties.Policy policy, Clock clock) {
+        this.policy = policy;
+        this.clock = clock;
+    }
+
+    @Override
+    public Duration getTimeToLive(Object key, Object value) {
+        if (value instanceof CacheEnvelope envelope) {
+            Duration remaining = Duration.between(clock.instant(), envelope.expiresAt());
+            return remaining.compareTo(MINIMUM_TTL) < 0 ? MINIMUM_TTL : remaining;
+        }
+        return policy.jitteredTtl();
+    }
+}
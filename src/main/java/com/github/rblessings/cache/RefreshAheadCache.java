@@ -0,0 +1,193 @@
+package com.github.rblessings.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Cache} decorator that refreshes entries in the background before they expire.
+ * <p>
+ * Values are stored in a {@link CacheEnvelope} carrying their refresh and expiry deadlines. A read that finds an entry
+ * past its refresh deadline still returns the cached value immediately, and additionally reloads the entry through the
+ * cache's {@link CacheValueLoader} and writes it back with a fresh TTL. Entries that keep being read are therefore
+ * replaced before they expire, and their readers never see a synchronous miss; entries nobody reads simply expire.
+ * </p>
+ * <p>
+ * At most one refresh per key runs at a time on each node. A failed refresh keeps the old value until it expires, and
+ * a refresh that finds the entry gone evicts it.
+ * </p>
+ */
+public class RefreshAheadCache implements Cache, BulkCache {
+    private static final Logger log = LoggerFactory.getLogger(RefreshAheadCache.class);
+
+    private final Cache delegate;
+    private final CacheProperties.Policy policy;
+    private final CacheValueLoader loader;
+    private final Clock clock;
+    private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+
+    public RefreshAheadCache(Cache delegate, CacheProperties.Policy policy, CacheValueLoader loader, Clock clock) {
+        this.delegate = delegate;
+        this.policy = policy;
+        this.loader = loader;
+        this.clock = clock;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper wrapper = delegate.get(key);
+        return wrapper != null ? new SimpleValueWrapper(onHit(key, wrapper.get())) : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(String.format("Cached value is not of required type [%s]: %s",
+                    type.getName(), value));
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        CompletableFuture<?> cached = delegate.retrieve(key);
+        if (cached == null) {
+            return null;
+        }
+        return cached.thenApply(value -> value != null ? onHit(key, unwrapWrapper(value)) : null);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        CompletableFuture<?> cached = retrieve(key);
+        CompletableFuture<?> lookup = cached != null ? cached : CompletableFuture.completedFuture(null);
+        return lookup.thenCompose(value -> value != null
+                ? CompletableFuture.completedFuture((T) value)
+                : valueLoader.get().thenApply(loaded -> {
+                    put(key, loaded);
+                    return loaded;
+                }));
+    }
+
+    @Override
+    public CompletableFuture<Map<Object, Object>> retrieveAll(Collection<?> keys) {
+        return BulkCache.of(delegate).retrieveAll(keys).thenApply(found -> {
+            Map<Object, Object> values = new HashMap<>();
+            found.forEach((key, cached) -> values.put(key, onHit(key, cached)));
+            return values;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> storeAll(Map<?, ?> entries) {
+        Instant now = clock.instant();
+        Map<Object, Object> envelopes = new HashMap<>();
+        entries.forEach((key, value) -> {
+            if (value != null) {
+                envelopes.put(key, CacheEnvelope.wrap(value, policy, now));
+            }
+        });
+        return BulkCache.of(delegate).storeAll(envelopes);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value != null ? CacheEnvelope.wrap(value, policy, clock.instant()) : null);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, CacheEnvelope.wrap(value, policy, clock.instant()));
+        return existing != null ? new SimpleValueWrapper(CacheEnvelope.unwrap(existing.get())) : null;
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+
+    private Object onHit(Object key, Object cached) {
+        if (cached instanceof CacheEnvelope envelope && envelope.isDueForRefresh(clock.instant())) {
+            refresh(key);
+        }
+        return CacheEnvelope.unwrap(cached);
+    }
+
+    private void refresh(Object key) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        loader.load(key)
+                .cast(Object.class)
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(value -> put(key, value))
+                .switchIfEmpty(Mono.fromRunnable(() -> evict(key)))
+                .doFinally(signal -> refreshing.remove(key))
+                .subscribe(value -> {
+                }, ex -> log.debug("Refresh-ahead of '{}' in cache '{}' failed", key, getName(), ex));
+    }
+
+    private static Object unwrapWrapper(Object cached) {
+        return cached instanceof ValueWrapper wrapper ? wrapper.get() : cached;
+    }
+}
@@ -0,0 +1,54 @@
+package com.github.rblessings.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Clock;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A {@link CacheManager} decorator that wraps every cache whose policy enables refresh-ahead, and that has a
+ * {@link CacheValueLoader}, in a {@link RefreshAheadCache}. Other caches are returned unchanged.
+ */
+public class RefreshAheadCacheManager implements CacheManager {
+    private final CacheManager delegate;
+    private final Map<String, CacheProperties.Policy> policies;
+    private final Map<String, CacheValueLoader> loaders;
+    private final Clock clock;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public RefreshAheadCacheManager(CacheManager delegate, CacheProperties properties, List<CacheValueLoader> loaders,
+                                    Clock clock) {
+        this.delegate = delegate;
+        this.policies = properties.policies();
+        this.loaders = loaders.stream().collect(Collectors.toMap(CacheValueLoader::cacheName, Function.identity()));
+        this.clock = clock;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        if (target == null) {
+            return null;
+        }
+        CacheProperties.Policy policy = policies.get(name);
+        CacheValueLoader loader = loaders.get(name);
+        boolean refreshAhead = policy != null && policy.refreshAhead() > 0 && loader != null;
+        return caches.computeIfAbsent(name,
+                key -> refreshAhead ? new RefreshAheadCache(target, policy, loader, clock) : target);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+}
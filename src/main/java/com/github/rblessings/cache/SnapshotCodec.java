@@ -0,0 +1,53 @@
+package com.github.rblessings.cache;
+
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * Describes how the entries of one near cache are written to, and restored from, a {@link CacheSnapshotFile}.
+ * <p>
+ * Implementations are Spring beans owned by the feature that owns the cache, since only that feature knows the value
+ * type and how to tell whether a restored value is still current.
+ * </p>
+ *
+ * @param <V> The type of the cached values.
+ */
+public interface SnapshotCodec<V> {
+
+    /**
+     * @return The name of the cache this codec snapshots.
+     */
+    String cacheName();
+
+    /**
+     * @return The type of the cached values; entries of any other type are skipped.
+     */
+    Class<V> valueType();
+
+    /**
+     * Encodes a value; use {@link CacheSnapshotFile#putString(ByteBuffer, String)} for strings.
+     *
+     * @param value  The value to encode.
+     * @param buffer The buffer to write to; large enough for any single value.
+     */
+    void encode(V value, ByteBuffer buffer);
+
+    /**
+     * Decodes a value previously written by {@link #encode(Object, ByteBuffer)}.
+     *
+     * @param buffer The buffer positioned at the start of the value.
+     * @return The decoded value.
+     */
+    V decode(ByteBuffer buffer);
+
+    /**
+     * Drops restored entries that changed while the node was down, typically by comparing their {@code @Version}
+     * against the database in a single query.
+     *
+     * @param restored Restored entries by cache key.
+     * @return A {@link Mono} emitting the entries that are still current.
+     */
+    Mono<Map<String, V>> reconcile(Map<String, V> restored);
+}
@@ -0,0 +1,205 @@
+package com.github.rblessings.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A hierarchical timing wheel, telling which keys reached their deadline with O(1) work per key.
+ * <p>
+ * Time is divided into ticks. The finest level has one slot per tick for a turn of {@code 2^slotBits} ticks, and each
+ * further level has slots as wide as a whole turn of the level below. A deadline goes into the slot of the finest
+ * level whose current turn contains it; when time reaches a coarser slot, its keys cascade into finer ones. A key thus
+ * moves at most once per level, however far its deadline, and neither scheduling, cancelling nor expiring depends on
+ * how many keys are pending, unlike with a priority queue. Deadlines beyond the coarsest turn wait in an overflow list
+ * that is looked at again each time that turn ends.
+ * </p>
+ * <p>
+ * Keys are reported within one tick after their deadline, never before. Scheduling a key again replaces its deadline.
+ * The wheel is thread-safe; {@link #advance} returns the due keys rather than calling back, so that callers act on
+ * them outside the wheel's lock.
+ * </p>
+ *
+ * @param <K> The type of the keys.
+ */
+public final class TimingWheel<K> {
+
+    private final long tickMillis;
+    private final int slotBits;
+    private final int levels;
+    private final int mask;
+    private final Entry[][] slots;
+    private final Entry[] overflow = new Entry[1];
+    private final Map<K, Entry> entries = new HashMap<>();
+
+    private long currentTick;
+
+    /**
+     * @param tick     The resolution of the wheel; keys are reported at most this late.
+     * @param slotBits The base-2 logarithm of the number of slots per level.
+     * @param levels   The number of levels; together with the tick and slots, the span before deadlines overflow.
+     * @param start    The time the wheel starts at; earlier deadlines are due on the first tick.
+     */
+    public TimingWheel(Duration tick, int slotBits, int levels, Instant start) {
+        if (tick.toMillis() < 1 || slotBits < 1 || levels < 1 || slotBits * levels > 62) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid timing wheel of %d levels of 2^%d slots of %s", levels, slotBits, tick));
+        }
+        this.tickMillis = tick.toMillis();
+        this.slotBits = slotBits;
+        this.levels = levels;
+        this.mask = (1 << slotBits) - 1;
+        this.slots = new Entry[levels][1 << slotBits];
+        this.currentTick = Math.floorDiv(start.toEpochMilli(), tickMillis);
+    }
+
+    /**
+     * Schedules a key, replacing its previous deadline if it had one.
+     *
+     * @param key      The key to report once the deadline passed.
+     * @param deadline When the key becomes due.
+     */
+    public synchronized void schedule(K key, Instant deadline) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            unlink(entry);
+        } else {
+            entry = new Entry(key);
+            entries.put(key, entry);
+        }
+        entry.deadlineTick = Math.max(Math.ceilDiv(deadline.toEpochMilli(), tickMillis), currentTick + 1);
+        place(entry);
+    }
+
+    /**
+     * @param key The key whose deadline to drop.
+     * @return {@code true} if the key was scheduled.
+     */
+    public synchronized boolean cancel(K key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        unlink(entry);
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward to the given time and removes the keys that became due.
+     *
+     * @param now The current time; going backwards is a no-op.
+     * @return The keys whose deadline passed, in deadline order to within a tick.
+     */
+    @SuppressWarnings("unchecked")
+    public List<K> advance(Instant now) {
+        long targetTick = Math.floorDiv(now.toEpochMilli(), tickMillis);
+        List<K> due = new ArrayList<>();
+        synchronized (this) {
+            while (currentTick < targetTick) {
+                if (entries.isEmpty()) {
+                    // Nothing to cascade or expire, so skip idle ticks, e.g. after a pause, in one step.
+                    currentTick = targetTick;
+                    break;
+                }
+                currentTick++;
+                cascade();
+                for (Entry entry = slots[0][(int) (currentTick & mask)]; entry != null; entry = entry.next) {
+                    entries.remove((K) entry.key);
+                    due.add((K) entry.key);
+                }
+                slots[0][(int) (currentTick & mask)] = null;
+            }
+        }
+        return due;
+    }
+
+    /**
+     * @return The number of scheduled keys.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Moves the keys of every coarser slot whose span starts at the current tick into finer slots, coarsest first so
+     * that keys can fall through several levels in one tick.
+     */
+    private void cascade() {
+        if ((currentTick & ((1L << (slotBits * levels)) - 1)) == 0) {
+            replace(overflow, 0);
+        }
+        for (int level = levels - 1; level >= 1; level--) {
+            if ((currentTick & ((1L << (slotBits * level)) - 1)) == 0) {
+                replace(slots[level], (int) ((currentTick >>> (slotBits * level)) & mask));
+            }
+        }
+    }
+
+    private void replace(Entry[] heads, int slot) {
+        Entry entry = heads[slot];
+        heads[slot] = null;
+        while (entry != null) {
+            Entry next = entry.next;
+            place(entry);
+            entry = next;
+        }
+    }
+
+    /**
+     * Puts an entry into the finest level whose current turn contains its deadline: the level of the highest digit,
+     * in base {@code 2^slotBits}, in which the deadline differs from the current tick.
+     */
+    private void place(Entry entry) {
+        long difference = entry.deadlineTick ^ currentTick;
+        int level = difference == 0 ? 0 : (63 - Long.numberOfLeadingZeros(difference)) / slotBits;
+        Entry[] heads;
+        int slot;
+        if (level >= levels) {
+            heads = overflow;
+            slot = 0;
+        } else {
+            heads = slots[level];
+            slot = (int) ((entry.deadlineTick >>> (slotBits * level)) & mask);
+        }
+        entry.heads = heads;
+        entry.slot = slot;
+        entry.prev = null;
+        entry.next = heads[slot];
+        if (entry.next != null) {
+            entry.next.prev = entry;
+        }
+        heads[slot] = entry;
+    }
+
+    private static void unlink(Entry entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            entry.heads[entry.slot] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    /**
+     * A scheduled key, linked into the list of its slot so that it can be removed in O(1).
+     */
+    private static final class Entry {
+        private final Object key;
+        private long deadlineTick;
+        private Entry[] heads;
+        private int slot;
+        private Entry prev;
+        private Entry next;
+
+        private Entry(Object key) {
+            this.key = key;
+        }
+    }
+}
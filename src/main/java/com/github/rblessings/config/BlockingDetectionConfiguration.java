@@ -0,0 +1,21 @@
+package com.github.rblessings.config;
+
+import com.github.rblessings.diagnostics.BlockingCallDetector;
+import com.github.rblessings.diagnostics.BlockingDetectionProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "urlradar.diagnostics.blocking", name = "enabled", havingValue = "true")
+public class BlockingDetectionConfiguration {
+
+    /**
+     * Installs the detector while the context is created, before the web server starts its event loops. As a
+     * {@link io.micrometer.core.instrument.binder.MeterBinder}, it is bound to the meter registry automatically.
+     */
+    @Bean
+    public BlockingCallDetector blockingCallDetector(BlockingDetectionProperties properties) {
+        return BlockingCallDetector.install(properties);
+    }
+}
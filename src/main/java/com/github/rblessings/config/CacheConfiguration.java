@@ -1,45 +1,188 @@
 package com.github.rblessings.config;
 
-import org.springframework.beans.factory.annotation.Value;
+import com.github.rblessings.cache.BoundedRedisCacheWriter;
+import com.github.rblessings.cache.BulkRedisCacheManager;
+import com.github.rblessings.cache.CacheProperties;
+import com.github.rblessings.cache.CacheValueLoader;
+import com.github.rblessings.cache.NearCacheManager;
+import com.github.rblessings.cache.PolicyTtlFunction;
+import com.github.rblessings.cache.RefreshAheadCacheManager;
+import com.github.rblessings.resilience.ResilientCacheManager;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.ReadFrom;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.cluster.ClusterClientOptions;
+import io.lettuce.core.cluster.ClusterTopologyRefreshOptions;
+import io.lettuce.core.resource.ClientResources;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
-import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisClusterConfiguration;
+import org.springframework.data.redis.connection.RedisConfiguration;
+import org.springframework.data.redis.connection.RedisPassword;
+import org.springframework.data.redis.connection.RedisSentinelConfiguration;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 
+import java.time.Clock;
 import java.time.Duration;
-import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 
+/**
+ * Redis connectivity and caching.
+ * <p>
+ * The Redis deployment is selected by {@link RedisTopologyProperties#topology()}. Two connection factories point at it:
+ * <ul>
+ *     <li><strong>{@code redisConnectionFactory}</strong> (primary): one shared native connection, always reading from
+ *     the primaries. Reactive clients multiplex over it, and session and template reads stay consistent.</li>
+ *     <li><strong>{@code cacheRedisConnectionFactory}</strong>: reads from replicas as configured, so cache read
+ *     throughput scales with replicas, and uses a connection pool for the blocking cache writer when
+ *     {@code spring.data.redis.lettuce.pool.enabled} is not {@code false}. Its commands time out after
+ *     {@link RedisTopologyProperties#cacheCommandTimeout()}, which bounds how long a synchronous cache read or write
+ *     can block the calling thread.</li>
+ * </ul>
+ * Both share Spring Boot's client resources, and thus their event loops, metrics and tracing.
+ * </p>
+ */
 @Configuration
 @EnableCaching
 public class CacheConfiguration {
-    private final int redisPort;
-    private final String redisHost;
+    private final RedisProperties redisProperties;
+    private final RedisTopologyProperties topologyProperties;
+    private final ClientResources clientResources;
 
-    public CacheConfiguration(@Value("${spring.data.redis.port}") int redisPort,
-                              @Value("${spring.data.redis.host}") String redisHost) {
-        this.redisHost = redisHost;
-        this.redisPort = redisPort;
+    public CacheConfiguration(RedisProperties redisProperties, RedisTopologyProperties topologyProperties,
+                              ClientResources clientResources) {
+        this.redisProperties = redisProperties;
+        this.topologyProperties = topologyProperties;
+        this.clientResources = clientResources;
     }
 
     @Bean
+    @Primary
     public LettuceConnectionFactory redisConnectionFactory() {
-        LettuceClientConfiguration clientConfig = LettuceClientConfiguration.builder()
+        return new LettuceConnectionFactory(redisConfiguration(),
+                clientConfiguration(ReadFrom.UPSTREAM, false, topologyProperties.commandTimeout()));
+    }
+
+    @Bean
+    public LettuceConnectionFactory cacheRedisConnectionFactory() {
+        boolean pooled = !Boolean.FALSE.equals(redisProperties.getLettuce().getPool().getEnabled());
+        ReadFrom readFrom = ReadFrom.valueOf(topologyProperties.cacheReadFrom());
+
+        LettuceConnectionFactory connectionFactory =
+                new LettuceConnectionFactory(redisConfiguration(),
+                        clientConfiguration(readFrom, pooled, topologyProperties.cacheCommandTimeout()));
+        connectionFactory.setShareNativeConnection(!pooled);
+        return connectionFactory;
+    }
+
+    private RedisConfiguration redisConfiguration() {
+        return switch (topologyProperties.topology()) {
+            case STANDALONE -> {
+                RedisStandaloneConfiguration standalone =
+                        new RedisStandaloneConfiguration(redisProperties.getHost(), redisProperties.getPort());
+                standalone.setDatabase(redisProperties.getDatabase());
+                standalone.setUsername(redisProperties.getUsername());
+                standalone.setPassword(RedisPassword.of(redisProperties.getPassword()));
+                yield standalone;
+            }
+            case SENTINEL -> {
+                RedisProperties.Sentinel sentinel = redisProperties.getSentinel();
+                if (sentinel == null || sentinel.getMaster() == null || sentinel.getNodes() == null) {
+                    throw new IllegalStateException(
+                            "Sentinel topology requires spring.data.redis.sentinel.master and sentinel.nodes");
+                }
+                RedisSentinelConfiguration sentinelConfig =
+                        new RedisSentinelConfiguration(sentinel.getMaster(), new HashSet<>(sentinel.getNodes()));
+                sentinelConfig.setDatabase(redisProperties.getDatabase());
+                sentinelConfig.setUsername(redisProperties.getUsername());
+                sentinelConfig.setPassword(RedisPassword.of(redisProperties.getPassword()));
+                sentinelConfig.setSentinelUsername(sentinel.getUsername());
+                sentinelConfig.setSentinelPassword(RedisPassword.of(sentinel.getPassword()));
+                yield sentinelConfig;
+            }
+            case CLUSTER -> {
+                RedisProperties.Cluster cluster = redisProperties.getCluster();
+                if (cluster == null || cluster.getNodes() == null) {
+                    throw new IllegalStateException("Cluster topology requires spring.data.redis.cluster.nodes");
+                }
+                RedisClusterConfiguration clusterConfig = new RedisClusterConfiguration(cluster.getNodes());
+                if (cluster.getMaxRedirects() != null) {
+                    clusterConfig.setMaxRedirects(cluster.getMaxRedirects());
+                }
+                clusterConfig.setUsername(redisProperties.getUsername());
+                clusterConfig.setPassword(RedisPassword.of(redisProperties.getPassword()));
+                yield clusterConfig;
+            }
+        };
+    }
+
+    private LettuceClientConfiguration clientConfiguration(ReadFrom readFrom, boolean pooled, Duration commandTimeout) {
+        LettuceClientConfiguration.LettuceClientConfigurationBuilder builder = pooled
+                ? LettucePoolingClientConfiguration.builder().poolConfig(poolConfig(redisProperties.getLettuce().getPool()))
+                : LettuceClientConfiguration.builder();
+
+        return builder
                 // TODO: Enable SSL to secure Redis connections. This is critical for encrypting data in transit.
                 //  .useSsl()
                 //  .and()
-                .commandTimeout(Duration.ofSeconds(5))
+                .clientResources(clientResources)
+                .commandTimeout(commandTimeout)
                 .shutdownTimeout(Duration.ZERO)
+                .readFrom(readFrom)
+                .clientOptions(clientOptions())
                 .build();
-        return new LettuceConnectionFactory(new RedisStandaloneConfiguration(redisHost, redisPort), clientConfig);
+    }
+
+    /**
+     * Cluster clients refresh their view of the slot map periodically and whenever a redirect or a failed node signals
+     * that it changed, so that reads keep reaching live replicas after a failover.
+     */
+    private ClientOptions clientOptions() {
+        if (topologyProperties.topology() != RedisTopologyProperties.Topology.CLUSTER) {
+            return ClientOptions.builder().build();
+        }
+        RedisProperties.Lettuce.Cluster.Refresh refresh = redisProperties.getLettuce().getCluster().getRefresh();
+        ClusterTopologyRefreshOptions.Builder refreshOptions = ClusterTopologyRefreshOptions.builder()
+                .dynamicRefreshSources(refresh.isDynamicRefreshSources())
+                .enablePeriodicRefresh(refresh.getPeriod() != null ? refresh.getPeriod() : Duration.ofSeconds(30));
+        if (refresh.isAdaptive()) {
+            refreshOptions.enableAllAdaptiveRefreshTriggers();
+        }
+        return ClusterClientOptions.builder().topologyRefreshOptions(refreshOptions.build()).build();
+    }
+
+    private static GenericObjectPoolConfig<StatefulConnection<?, ?>> poolConfig(RedisProperties.Pool pool) {
+        GenericObjectPoolConfig<StatefulConnection<?, ?>> config = new GenericObjectPoolConfig<>();
+        config.setMaxTotal(pool.getMaxActive());
+        config.setMaxIdle(pool.getMaxIdle());
+        config.setMinIdle(pool.getMinIdle());
+        if (pool.getMaxWait() != null) {
+            config.setMaxWait(pool.getMaxWait());
+        }
+        if (pool.getTimeBetweenEvictionRuns() != null) {
+            config.setTimeBetweenEvictionRuns(pool.getTimeBetweenEvictionRuns());
+        }
+        return config;
     }
 
     @Bean
@@ -47,21 +190,52 @@ public class CacheConfiguration {
         return new ReactiveRedisTemplate<>(connectionFactory, RedisSerializationContext.string());
     }
 
+    /**
+     * Redis-backed cache manager whose caches degrade to a miss, and thus to the database, when Redis is slow or down.
+     * The guards are the {@code redis} instances of the Resilience4j circuit breaker, bulkhead and time limiter.
+     * <p>
+     * Caches with a policy under {@code urlradar.cache.policies} get a jittered TTL, an optional entry bound in Redis
+     * and, given a {@link CacheValueLoader}, refresh-ahead. Caches listed under {@code urlradar.cache.near}
+     * additionally get an in-process near cache in front of Redis. Every cache can also be read and written in bulk,
+     * see {@link com.github.rblessings.cache.BulkCache}.
+     * </p>
+     */
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public NearCacheManager cacheManager(
+            @Qualifier("cacheRedisConnectionFactory") LettuceConnectionFactory connectionFactory,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            BulkheadRegistry bulkheadRegistry,
+            TimeLimiterRegistry timeLimiterRegistry,
+            CacheProperties cacheProperties,
+            ObjectProvider<CacheValueLoader> cacheValueLoaders) {
+        Clock clock = Clock.systemUTC();
+
         RedisCacheConfiguration defaultCacheConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(10))
                 .disableCachingNullValues();
 
-        RedisCacheConfiguration usersCacheConfig = RedisCacheConfiguration.defaultCacheConfig()
-                .disableCachingNullValues();
+        Map<String, RedisCacheConfiguration> initialCacheConfigs = new HashMap<>();
+        initialCacheConfigs.put("users", defaultCacheConfig);
+        cacheProperties.policies().forEach((name, policy) ->
+                initialCacheConfigs.put(name, RedisCacheConfiguration.defaultCacheConfig()
+                        .entryTtl(new PolicyTtlFunction(policy, clock))
+                        .disableCachingNullValues()));
 
-        Map<String, RedisCacheConfiguration> initialCacheConfigs = Collections.singletonMap("users", usersCacheConfig);
+        BoundedRedisCacheWriter cacheWriter = new BoundedRedisCacheWriter(
+                RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory), connectionFactory,
+                cacheProperties.policies(), clock);
 
-        return RedisCacheManager.builder(connectionFactory)
-                .cacheDefaults(defaultCacheConfig)
-                .withInitialCacheConfigurations(initialCacheConfigs)
-                .transactionAware()
-                .build();
+        RedisCacheManager redisCacheManager =
+                new BulkRedisCacheManager(cacheWriter, defaultCacheConfig, initialCacheConfigs);
+        redisCacheManager.setTransactionAware(true);
+        redisCacheManager.afterPropertiesSet();
+
+        ResilientCacheManager resilientCacheManager = new ResilientCacheManager(redisCacheManager,
+                circuitBreakerRegistry.circuitBreaker("redis"),
+                bulkheadRegistry.bulkhead("redis"),
+                timeLimiterRegistry.timeLimiter("redis"));
+        RefreshAheadCacheManager refreshAheadCacheManager = new RefreshAheadCacheManager(resilientCacheManager,
+                cacheProperties, cacheValueLoaders.orderedStream().toList(), clock);
+        return new NearCacheManager(refreshAheadCacheManager, cacheProperties);
     }
 }
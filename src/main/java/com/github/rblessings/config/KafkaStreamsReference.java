@@ -0,0 +1,31 @@
+package com.github.rblessings.config;
+
+import org.apache.kafka.streams.KafkaStreams;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Gives request handlers access to the application's Kafka Streams instance without blocking.
+ * <p>
+ * {@code StreamsBuilderFactoryBean#getKafkaStreams()} takes the factory bean's lifecycle lock, which is held for as
+ * long as a background start waits for Kafka. The instance is therefore captured when it is created and handed out
+ * only once it is running, so that callers can fall back instead of waiting.
+ * </p>
+ */
+public class KafkaStreamsReference {
+
+    private final AtomicReference<KafkaStreams> kafkaStreams = new AtomicReference<>();
+
+    void set(KafkaStreams kafkaStreams) {
+        this.kafkaStreams.set(kafkaStreams);
+    }
+
+    /**
+     * @return The Kafka Streams instance if it is running or rebalancing, i.e. its stores can be queried.
+     */
+    public Optional<KafkaStreams> running() {
+        KafkaStreams current = kafkaStreams.get();
+        return current != null && current.state().isRunningOrRebalancing() ? Optional.of(current) : Optional.empty();
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.rblessings.config;
+
+import com.github.rblessings.analytics.ClickEvent;
+import com.github.rblessings.links.LinkEntity;
+import com.github.rblessings.users.UserEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Creates the indexes declared on the application's documents, such as the unique {@code owner_code} index of links.
+ * <p>
+ * Spring Data MongoDB no longer creates annotated indexes on its own, and without them uniqueness is not enforced and
+ * the health sweep and click exports scan their collections. Indexes are ensured in the background, so that an
+ * unreachable MongoDB does not block startup; creation is retried until MongoDB is reachable. Creating an index that
+ * exists is a no-op, so every node can do it on every start.
+ * </p>
+ */
+@Configuration
+public class MongoIndexConfiguration {
+
+    /**
+     * The documents whose {@code @Indexed} and {@code @CompoundIndex} declarations are created, nested ones included.
+     */
+    static final List<Class<?>> INDEXED_DOCUMENTS = List.of(UserEntity.class, LinkEntity.class, ClickEvent.class);
+
+    @Bean
+    public SmartLifecycle mongoIndexCreator(ReactiveMongoTemplate mongoTemplate) {
+        return new IndexCreator(mongoTemplate, INDEXED_DOCUMENTS, Duration.ofSeconds(10));
+    }
+
+    static final class IndexCreator implements SmartLifecycle {
+        private static final Logger log = LoggerFactory.getLogger(IndexCreator.class);
+
+        private final ReactiveMongoTemplate mongoTemplate;
+        private final List<Class<?>> documents;
+        private final Duration retryInterval;
+        private volatile Disposable creation;
+
+        IndexCreator(ReactiveMongoTemplate mongoTemplate, List<Class<?>> documents, Duration retryInterval) {
+            this.mongoTemplate = mongoTemplate;
+            this.documents = documents;
+            this.retryInterval = retryInterval;
+        }
+
+        @Override
+        public void start() {
+            IndexResolver resolver = new MongoPersistentEntityIndexResolver(
+                    mongoTemplate.getConverter().getMappingContext());
+            creation = Flux.fromIterable(documents)
+                    .concatMap(type -> {
+                        ReactiveIndexOperations indexOps = mongoTemplate.indexOps(type);
+                        return Flux.fromIterable(resolver.resolveIndexFor(type)).concatMap(indexOps::ensureIndex);
+                    })
+                    .retryWhen(Retry.fixedDelay(Long.MAX_VALUE, retryInterval)
+                            .filter(DataAccessResourceFailureException.class::isInstance)
+                            .doBeforeRetry(signal -> log.warn("MongoDB is not reachable; retrying index creation in {}",
+                                    retryInterval)))
+                    .subscribe(
+                            name -> log.debug("Ensured index {}", name),
+                            e -> log.error("Could not create MongoDB indexes", e),
+                            () -> log.info("Ensured MongoDB indexes of {} documents", documents.size()));
+        }
+
+        @Override
+        public void stop() {
+            Disposable current = creation;
+            creation = null;
+            if (current != null) {
+                current.dispose();
+            }
+        }
+
+        @Override
+        public boolean isRunning() {
+            return creation != null;
+        }
+    }
+}
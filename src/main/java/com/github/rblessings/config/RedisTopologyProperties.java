@@ -0,0 +1,36 @@
+package com.github.rblessings.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Selects how the application connects to Redis.
+ * <p>
+ * Endpoints, credentials and pool sizes are read from the standard {@code spring.data.redis.*} properties
+ * ({@code host}/{@code port}, {@code sentinel.*}, {@code cluster.*}, {@code lettuce.pool.*}); this record only adds
+ * what Spring Boot does not let us choose explicitly.
+ * </p>
+ *
+ * @param topology            The Redis deployment to connect to.
+ * @param cacheReadFrom       Lettuce {@code ReadFrom} setting for cache reads, e.g. {@code replicaPreferred} or
+ *                            {@code upstream}. Writes always go to the primaries.
+ * @param commandTimeout      Upper bound for any single Redis command.
+ * @param cacheCommandTimeout Upper bound for a single command of the cache. The cache's synchronous reads and writes
+ *                            block the calling thread, which may be an event loop, for at most this long plus the
+ *                            pool's {@code max-wait}; a command that takes longer fails and counts as a miss.
+ */
+@ConfigurationProperties("urlradar.redis")
+public record RedisTopologyProperties(
+        @DefaultValue("standalone") Topology topology,
+        @DefaultValue("replicaPreferred") String cacheReadFrom,
+        @DefaultValue("5s") Duration commandTimeout,
+        @DefaultValue("100ms") Duration cacheCommandTimeout) {
+
+    public enum Topology {
+        STANDALONE,
+        SENTINEL,
+        CLUSTER
+    }
+}
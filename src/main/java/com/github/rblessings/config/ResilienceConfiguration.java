@@ -0,0 +1,29 @@
+package com.github.rblessings.config;
+
+import com.github.rblessings.resilience.HedgingPolicy;
+import com.github.rblessings.resilience.ResilienceProperties;
+import com.github.rblessings.resilience.ResilientReads;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ResilienceConfiguration {
+
+    /**
+     * Guards for idempotent MongoDB reads, configured by the {@code mongo} Resilience4j instances.
+     */
+    @Bean
+    public ResilientReads mongoReads(CircuitBreakerRegistry circuitBreakerRegistry,
+                                     BulkheadRegistry bulkheadRegistry,
+                                     TimeLimiterRegistry timeLimiterRegistry,
+                                     ResilienceProperties resilienceProperties) {
+        return new ResilientReads(
+                circuitBreakerRegistry.circuitBreaker("mongo"),
+                bulkheadRegistry.bulkhead("mongo"),
+                timeLimiterRegistry.timeLimiter("mongo"),
+                new HedgingPolicy(resilienceProperties.hedging()));
+    }
+}
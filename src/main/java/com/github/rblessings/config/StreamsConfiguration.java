@@ -0,0 +1,122 @@
+package com.github.rblessings.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafkaStreams;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import org.springframework.kafka.config.StreamsBuilderFactoryBeanConfigurer;
+import org.springframework.kafka.core.KafkaAdmin;
+
+import java.time.Duration;
+
+/**
+ * Enables the application's single Kafka Streams instance, configured under {@code spring.kafka.streams}. Features
+ * add their processing to its topology by declaring beans that take the shared {@code StreamsBuilder}.
+ * <p>
+ * Kafka Streams blocks in {@code start()} until global stores are bootstrapped from Kafka, which would hold up the
+ * application context, and with it serving requests, for as long as Kafka is unreachable. The instance is therefore
+ * started in the background instead, which requires {@code spring.kafka.streams.auto-startup} to be {@code false};
+ * features relying on stream state obtain it through {@link KafkaStreamsReference} and must cope with it not running
+ * yet.
+ * </p>
+ */
+@Configuration
+@EnableKafkaStreams
+public class StreamsConfiguration {
+
+    @Bean
+    public KafkaStreamsReference kafkaStreamsReference() {
+        return new KafkaStreamsReference();
+    }
+
+    @Bean
+    public StreamsBuilderFactoryBeanConfigurer kafkaStreamsReferenceConfigurer(KafkaStreamsReference kafkaStreamsReference) {
+        return factoryBean -> factoryBean.setKafkaStreamsCustomizer(kafkaStreamsReference::set);
+    }
+
+    @Bean
+    public SmartLifecycle kafkaStreamsStarter(StreamsBuilderFactoryBean streamsBuilderFactoryBean,
+                                              KafkaAdmin kafkaAdmin) {
+        return new BackgroundStarter(streamsBuilderFactoryBean, kafkaAdmin);
+    }
+
+    private static final class BackgroundStarter implements SmartLifecycle {
+        private static final Logger log = LoggerFactory.getLogger(BackgroundStarter.class);
+
+        private static final Duration RETRY_INTERVAL = Duration.ofSeconds(10);
+        private static final Duration START_JOIN_TIMEOUT = Duration.ofSeconds(5);
+
+        private final StreamsBuilderFactoryBean factoryBean;
+        private final KafkaAdmin kafkaAdmin;
+        private volatile Thread starter;
+
+        private BackgroundStarter(StreamsBuilderFactoryBean factoryBean, KafkaAdmin kafkaAdmin) {
+            this.factoryBean = factoryBean;
+            this.kafkaAdmin = kafkaAdmin;
+        }
+
+        /**
+         * Starts Kafka Streams once the brokers are reachable. Every start and shutdown call on the factory bean,
+         * including the lifecycle processor's {@code isRunning()} check, takes the lock its {@code start()} holds,
+         * so {@code start()} is only called when it can complete: after the declared topics, such as the compacted
+         * ones global stores are read from, were created.
+         */
+        @Override
+        public void start() {
+            starter = Thread.ofPlatform().daemon().name("kafka-streams-starter").start(() -> {
+                try {
+                    while (!kafkaAdmin.initialize()) {
+                        log.warn("Kafka is not reachable; retrying Kafka Streams start in {}", RETRY_INTERVAL);
+                        Thread.sleep(RETRY_INTERVAL);
+                    }
+                    factoryBean.start();
+                } catch (InterruptedException e) {
+                    log.info("Kafka Streams start cancelled");
+                } catch (RuntimeException e) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        log.info("Kafka Streams start cancelled");
+                    } else {
+                        log.error("Could not start Kafka Streams", e);
+                    }
+                }
+            });
+        }
+
+        /**
+         * Interrupts and joins a start still in progress before stopping, so shutdown never races it. A start that
+         * does not finish in time, e.g. because Kafka went away after it was found reachable, is abandoned.
+         */
+        @Override
+        public void stop() {
+            Thread current = starter;
+            starter = null;
+            if (current == null) {
+                return;
+            }
+            try {
+                current.interrupt();
+                current.join(START_JOIN_TIMEOUT);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (current.isAlive()) {
+                log.warn("Kafka Streams is still starting; abandoning it on shutdown");
+                return;
+            }
+            factoryBean.stop();
+        }
+
+        @Override
+        public boolean isRunning() {
+            return starter != null;
+        }
+
+        @Override
+        public int getPhase() {
+            return factoryBean.getPhase();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.rblessings.config;
+
+import com.github.rblessings.tracing.RecordingSampler;
+import com.github.rblessings.tracing.SlowTraceSpanProcessor;
+import com.github.rblessings.tracing.TailSamplingProperties;
+import io.lettuce.core.tracing.MicrometerTracing;
+import io.micrometer.observation.ObservationRegistry;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.tracing.TracingProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.ClientResourcesBuilderCustomizer;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.observability.ContextProviderFactory;
+import org.springframework.data.mongodb.observability.MongoObservationCommandListener;
+
+/**
+ * Observations of the clients Spring Boot does not instrument by itself, and tail sampling of slow requests.
+ * <p>
+ * WebFlux requests and Kafka templates and listeners are observed by Spring Boot, see {@code management.tracing} and
+ * {@code spring.kafka.*.observation-enabled}. Observations started in Reactor pipelines are found again in their
+ * context, since {@code spring.reactor.context-propagation} is {@code auto}.
+ * </p>
+ */
+@Configuration
+public class TracingConfiguration {
+
+    /**
+     * Observes every MongoDB command, as a child of the observation in the calling pipeline's Reactor context.
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoObservations(ObservationRegistry observationRegistry) {
+        return settings -> settings
+                .contextProvider(ContextProviderFactory.create(observationRegistry))
+                .addCommandListener(new MongoObservationCommandListener(observationRegistry));
+    }
+
+    /**
+     * Observes every Redis command of the clients sharing Spring Boot's client resources. Command arguments are left
+     * out of the spans, as they hold cached user data.
+     */
+    @Bean
+    public ClientResourcesBuilderCustomizer lettuceObservations(ObservationRegistry observationRegistry) {
+        return resources -> resources.tracing(new MicrometerTracing(observationRegistry, "redis", false));
+    }
+
+    /**
+     * Samples {@code management.tracing.sampling.probability} of the traces and records the others, so that the slow
+     * ones can still be exported.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "urlradar.tracing.tail-sampling", name = "enabled", havingValue = "true",
+            matchIfMissing = true)
+    public Sampler recordingSampler(TracingProperties tracingProperties) {
+        return RecordingSampler.of(tracingProperties.getSampling().getProbability());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "urlradar.tracing.tail-sampling", name = "enabled", havingValue = "true",
+            matchIfMissing = true)
+    public SpanProcessor slowTraceSpanProcessor(ObjectProvider<SpanExporter> spanExporters,
+                                                TailSamplingProperties properties) {
+        return new SlowTraceSpanProcessor(SpanExporter.composite(spanExporters.orderedStream().toList()), properties);
+    }
+}
@@ -0,0 +1,179 @@
+package com.github.rblessings.diagnostics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingMethod;
+import reactor.blockhound.BlockingOperationError;
+
+import java.time.Clock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Detects blocking calls made on threads that must never block: Reactor's parallel and single schedulers, and Netty's
+ * event loops.
+ * <p>
+ * The detector is built on BlockHound, which instruments the JDK's blocking methods, e.g. {@code Thread.sleep}, socket
+ * and file I/O or parking on a lock, to check which thread calls them. A blocking call on a non-blocking thread is
+ * counted in the {@code urlradar.blocking.calls} counter, tagged with the blocking method, and logged with the stack
+ * that led to it. Logs are rate-limited per blocking method, so that a call made on every request does not flood the
+ * logs, and the call then proceeds: in production, a blocked event loop is slow, and failing the request on top of
+ * that would only make it worse. Tests fail the call instead, see {@link BlockingDetectionProperties#failOnBlocking}.
+ * </p>
+ * <p>
+ * Instrumentation is JVM-wide and cannot be undone, so there is at most one detector per JVM, see {@link #install}.
+ * </p>
+ */
+public final class BlockingCallDetector implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(BlockingCallDetector.class);
+
+    static final String CALLS_METRIC = "urlradar.blocking.calls";
+
+    private static final long NEVER = Long.MIN_VALUE;
+
+    private static BlockingCallDetector installed;
+
+    private final BlockingDetectionProperties properties;
+    private final Clock clock;
+    private final ConcurrentMap<String, BlockingCalls> calls = new ConcurrentHashMap<>();
+    // Reporting a call may block too, e.g. when the log is written, which must not be reported in turn.
+    private final ThreadLocal<Boolean> reporting = ThreadLocal.withInitial(() -> false);
+
+    private volatile MeterRegistry registry;
+    private volatile boolean active;
+
+    BlockingCallDetector(BlockingDetectionProperties properties, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * Installs the detector into the JVM, unless one already was, in which case that one is returned and the given
+     * properties are ignored. Should the JVM refuse the instrumentation, the error is logged and the application
+     * runs on without detection, see {@link #isActive()}.
+     *
+     * @param properties The detector's configuration.
+     * @return The detector of this JVM.
+     * @throws IllegalArgumentException If an allowed call is not given as {@code Class#method}.
+     */
+    public static synchronized BlockingCallDetector install(BlockingDetectionProperties properties) {
+        for (String call : properties.allowedCalls()) {
+            int separator = call.lastIndexOf('#');
+            if (separator <= 0 || separator == call.length() - 1) {
+                throw new IllegalArgumentException(
+                        "Allowed blocking calls must be given as Class#method, not " + call);
+            }
+        }
+        if (installed != null) {
+            return installed;
+        }
+        BlockingCallDetector detector = new BlockingCallDetector(properties, Clock.systemUTC());
+        BlockHound.Builder builder = BlockHound.builder()
+                .loadIntegrations()
+                .blockingMethodCallback(detector::onBlockingCall);
+        for (String call : properties.allowedCalls()) {
+            int separator = call.lastIndexOf('#');
+            builder.allowBlockingCallsInside(call.substring(0, separator), call.substring(separator + 1));
+        }
+
+        installed = detector;
+        try {
+            builder.install();
+            detector.active = true;
+            log.info("Detecting blocking calls on non-blocking threads{}",
+                    properties.failOnBlocking() ? "; they will fail" : "");
+        } catch (RuntimeException e) {
+            log.error("Could not install the blocking call detector; on JDK 13+, the JVM must be started with "
+                    + "-XX:+AllowRedefinitionToAddDeleteMethods", e);
+        }
+        return detector;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        calls.forEach((method, counted) -> register(registry, method, counted));
+    }
+
+    /**
+     * @return Whether blocking calls are being detected, i.e. the JVM accepted the instrumentation.
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * @return The number of blocking calls detected since the detector was installed.
+     */
+    public long detectedCalls() {
+        return calls.values().stream().mapToLong(counted -> counted.calls.sum()).sum();
+    }
+
+    /**
+     * Called by BlockHound on the thread making a blocking call, before the call proceeds.
+     *
+     * @param method The blocking method that was called.
+     * @throws BlockingOperationError If blocking calls are configured to fail.
+     */
+    void onBlockingCall(BlockingMethod method) {
+        if (reporting.get()) {
+            return;
+        }
+        reporting.set(true);
+        try {
+            report(method);
+        } finally {
+            reporting.set(false);
+        }
+        if (properties.failOnBlocking()) {
+            throw new BlockingOperationError(method);
+        }
+    }
+
+    private void report(BlockingMethod method) {
+        String name = method.toString();
+        BlockingCalls counted = calls.computeIfAbsent(name, key -> new BlockingCalls());
+        counted.calls.increment();
+        MeterRegistry current = registry;
+        if (current != null && !counted.registered) {
+            // Also covers methods first called while the registry was being bound.
+            register(current, name, counted);
+        }
+
+        long now = clock.millis();
+        long lastLogged = counted.lastLogged.get();
+        if ((lastLogged == NEVER || now - lastLogged >= properties.logInterval().toMillis())
+                && counted.lastLogged.compareAndSet(lastLogged, now)) {
+            long suppressed = counted.suppressed.sumThenReset();
+            log.warn("Blocking call to {} on non-blocking thread {}{}", name, Thread.currentThread().getName(),
+                    suppressed > 0 ? " (" + suppressed + " more since the last report)" : "",
+                    new BlockingOperationError(method));
+        } else {
+            counted.suppressed.increment();
+        }
+    }
+
+    private static void register(MeterRegistry registry, String method, BlockingCalls counted) {
+        FunctionCounter.builder(CALLS_METRIC, counted.calls, LongAdder::sum)
+                .description("Blocking calls made on non-blocking threads")
+                .tag("method", method)
+                .register(registry);
+        counted.registered = true;
+    }
+
+    /**
+     * The calls to one blocking method.
+     */
+    private static final class BlockingCalls {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder suppressed = new LongAdder();
+        private final AtomicLong lastLogged = new AtomicLong(NEVER);
+        private volatile boolean registered;
+    }
+}
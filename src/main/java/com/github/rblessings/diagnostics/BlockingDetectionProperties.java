@@ -0,0 +1,27 @@
+package com.github.rblessings.diagnostics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Configuration for detecting blocking calls on non-blocking threads, see {@link BlockingCallDetector}.
+ *
+ * @param enabled        Whether the detector is installed. It instruments the JVM, which on JDK 13+ must be started
+ *                       with {@code -XX:+AllowRedefinitionToAddDeleteMethods}.
+ * @param failOnBlocking Whether a detected call fails with a {@code BlockingOperationError} rather than only being
+ *                       counted and logged. Meant for tests; never enable it in production.
+ * @param logInterval    Minimum time between two logs of the same blocking method; calls in between are counted and
+ *                       reported with the next log.
+ * @param allowedCalls   Methods, as {@code fully.qualified.Class#method}, that may block on any thread, e.g. known
+ *                       debt that is tracked elsewhere.
+ */
+@ConfigurationProperties("urlradar.diagnostics.blocking")
+public record BlockingDetectionProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("false") boolean failOnBlocking,
+        @DefaultValue("1m") Duration logInterval,
+        @DefaultValue List<String> allowedCalls) {
+}
@@ -0,0 +1,100 @@
+package com.github.rblessings.links;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks an index at random, proportionally to precomputed weights, in O(1).
+ * <p>
+ * This is Vose's alias method: the weights are scaled so that they average one and split into {@code n} columns of
+ * height one, each holding at most two indexes: its own, up to {@link #probability}, and an {@link #alias} above it.
+ * Picking throws one uniform number that selects both the column and the height within it, so it takes constant time
+ * whatever the weights, with no lock and no allocation. Building the table takes O(n) and should happen whenever the
+ * weights change, not when picking. Tables are immutable, so they can be shared between threads once published.
+ * </p>
+ */
+final class AliasTable {
+
+    private final double[] probability;
+    private final int[] alias;
+
+    private AliasTable(double[] probability, int[] alias) {
+        this.probability = probability;
+        this.alias = alias;
+    }
+
+    /**
+     * @param weights Non-negative weights, at least one of them positive.
+     * @return A table picking each index with a probability of its share of the total weight.
+     * @throws IllegalArgumentException If the weights are empty, negative or all zero.
+     */
+    static AliasTable of(int[] weights) {
+        long total = 0;
+        for (int weight : weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weights must not be negative");
+            }
+            total += weight;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("At least one weight must be positive");
+        }
+
+        int n = weights.length;
+        double[] probability = new double[n];
+        int[] alias = new int[n];
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = (double) weights[i] * n / total;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        // Fill each column of a short index with a tall one, which shrinks by what it gave.
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] -= 1.0 - scaled[less];
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // What remains is one up to rounding errors.
+        while (largeCount > 0) {
+            int index = large[--largeCount];
+            probability[index] = 1.0;
+            alias[index] = index;
+        }
+        while (smallCount > 0) {
+            int index = small[--smallCount];
+            probability[index] = 1.0;
+            alias[index] = index;
+        }
+        return new AliasTable(probability, alias);
+    }
+
+    /**
+     * @return A random index, with a probability of its share of the total weight.
+     */
+    int pick() {
+        double point = ThreadLocalRandom.current().nextDouble() * probability.length;
+        int column = Math.min((int) point, probability.length - 1);
+        return point - column < probability[column] ? column : alias[column];
+    }
+
+    /**
+     * @return The number of indexes the table picks from.
+     */
+    int size() {
+        return probability.length;
+    }
+}
@@ -0,0 +1,87 @@
+package com.github.rblessings.links;
+
+import org.springframework.data.mongodb.core.index.Indexed;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * The result of the most recent checks of a link's destination, embedded in {@link LinkEntity}.
+ *
+ * @param status              Whether the destination is currently considered reachable.
+ * @param httpStatus          The HTTP status of the last response, or {@code null} if the last check got none.
+ * @param etag                The destination's last {@code ETag}, sent back as {@code If-None-Match}.
+ * @param lastModified        The destination's last {@code Last-Modified}, sent back as {@code If-Modified-Since}.
+ * @param checkedAt           When the destination was last checked.
+ * @param nextCheckAt         When the destination is due to be checked again; indexed for the checker's sweep.
+ * @param consecutiveFailures Number of failed checks since the last successful one.
+ * @param claim               Identifies the checker run currently probing this destination, if any.
+ */
+public record DestinationHealth(
+        Status status,
+        Integer httpStatus,
+        String etag,
+        String lastModified,
+        Instant checkedAt,
+        @Indexed Instant nextCheckAt,
+        int consecutiveFailures,
+        String claim) {
+
+    public enum Status {
+        UNKNOWN,
+        HEALTHY,
+        BROKEN
+    }
+
+    /**
+     * @return The health of a link that has never been checked.
+     */
+    public static DestinationHealth unknown() {
+        return new DestinationHealth(Status.UNKNOWN, null, null, null, null, null, 0, null);
+    }
+
+    /**
+     * Computes the health after a probe.
+     * <p>
+     * A destination becomes {@link Status#BROKEN} only after {@code failureThreshold} consecutive failures, so a
+     * single blip does not flag it. Failing destinations are re-checked with exponential backoff: quickly at first to
+     * confirm the failure, then ever less often, up to {@code maxBackoff}. Throttled probes ({@code 429}) and slow
+     * hosts push the next check out without counting as failures. Skipped probes leave the health as it was and are
+     * retried after {@code retryDelay}.
+     * </p>
+     *
+     * @param result   The outcome of the probe.
+     * @param now      The current time.
+     * @param policy   The checker settings.
+     * @param slowHost Whether the destination's host is currently responding slowly.
+     * @return The new health.
+     */
+    public DestinationHealth after(ProbeResult result, Instant now, LinkHealthProperties policy, boolean slowHost) {
+        if (result.skipped()) {
+            return new DestinationHealth(status, httpStatus, etag, lastModified, checkedAt,
+                    now.plus(policy.retryDelay()), consecutiveFailures, null);
+        }
+        Duration interval = slowHost ? policy.checkInterval().multipliedBy(2) : policy.checkInterval();
+
+        if (result.throttled()) {
+            return new DestinationHealth(status, result.httpStatus(), etag, lastModified, now,
+                    now.plus(interval), consecutiveFailures, null);
+        }
+        if (result.reachable()) {
+            boolean notModified = result.httpStatus() != null && result.httpStatus() == 304;
+            return new DestinationHealth(Status.HEALTHY, result.httpStatus(),
+                    notModified || result.etag() == null ? etag : result.etag(),
+                    notModified || result.lastModified() == null ? lastModified : result.lastModified(),
+                    now, now.plus(interval), 0, null);
+        }
+
+        int failures = consecutiveFailures + 1;
+        Status next = failures >= policy.failureThreshold() ? Status.BROKEN : status;
+        Duration backoff = policy.retryDelay().multipliedBy(1L << Math.min(failures - 1, 20));
+        if (backoff.compareTo(policy.maxBackoff()) > 0) {
+            backoff = policy.maxBackoff();
+        }
+        return new DestinationHealth(next, result.httpStatus(), etag, lastModified, now, now.plus(backoff),
+                failures, null);
+    }
+}
@@ -0,0 +1,170 @@
+package com.github.rblessings.links;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.UUID;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Periodically checks link destinations and records which ones are broken.
+ * <p>
+ * Every sweep claims up to {@code batchSize} links whose {@code health.nextCheckAt} has passed, by stamping them with
+ * a claim ID and pushing their next check out by the claim timeout. Nodes therefore share the work without
+ * coordination, and links of a node that dies mid-sweep are picked up again once the claim expires.
+ * </p>
+ * <p>
+ * The claimed links are grouped by host and probed with bounded concurrency: at most {@code maxConcurrentHosts}
+ * hosts at a time, at most {@code perHostConcurrency} probes per host, and at most {@code maxConnections} probes
+ * overall, so that neither a destination nor this node is flooded. Hosts that respond slowly or throttle are probed
+ * one link at a time and re-checked less often, see {@link HostLatencies} and {@link DestinationHealth#after}.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "urlradar.links.health", name = "enabled", havingValue = "true")
+public class DestinationHealthChecker implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(DestinationHealthChecker.class);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final DestinationProber prober;
+    private final LinkHealthProperties properties;
+    private final HostLatencies hostLatencies;
+    private final Clock clock;
+
+    private volatile Disposable schedule;
+
+    public DestinationHealthChecker(ReactiveMongoTemplate mongoTemplate, DestinationProber prober,
+                                    LinkHealthProperties properties) {
+        this.mongoTemplate = mongoTemplate;
+        this.prober = prober;
+        this.properties = properties;
+        this.hostLatencies = new HostLatencies(properties.slowHostThreshold());
+        this.clock = Clock.systemUTC();
+    }
+
+    @Override
+    public void start() {
+        schedule = Flux.interval(properties.sweepInterval(), properties.sweepInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> sweep()
+                        .onErrorResume(e -> {
+                            log.warn("Destination health sweep failed", e);
+                            return Mono.empty();
+                        }), 0)
+                .subscribe();
+    }
+
+    @Override
+    public void stop() {
+        Disposable current = schedule;
+        if (current != null) {
+            current.dispose();
+            schedule = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return schedule != null;
+    }
+
+    /**
+     * Claims the links that are due and checks their destinations.
+     *
+     * @return A {@link Mono} completing once every claimed link has been checked.
+     */
+    public Mono<Void> sweep() {
+        Instant now = clock.instant();
+        String claim = UUID.randomUUID().toString();
+
+        Query dueLinks = Query.query(due(now)).limit(properties.batchSize());
+        dueLinks.fields().include("_id");
+
+        return mongoTemplate.find(dueLinks, LinkEntity.class)
+                .map(LinkEntity::id)
+                .collectList()
+                .filter(ids -> !ids.isEmpty())
+                .flatMapMany(ids -> mongoTemplate.updateMulti(
+                                Query.query(new Criteria().andOperator(where("_id").in(ids), due(now))),
+                                new Update()
+                                        .set("health.claim", claim)
+                                        .set("health.nextCheckAt", now.plus(properties.claimTimeout())),
+                                LinkEntity.class)
+                        .flatMapMany(claimed -> mongoTemplate.find(
+                                Query.query(where("_id").in(ids).and("health.claim").is(claim)), LinkEntity.class)))
+                .collectMultimap(link -> hostOf(link.destination()))
+                .flatMapMany(byHost -> Flux.fromIterable(byHost.entrySet()))
+                .flatMap(host -> checkHost(host.getKey(), host.getValue(), claim), concurrentHosts())
+                .then();
+    }
+
+    /**
+     * Caps the hosts probed at once so that, at full per-host concurrency, probes in flight never exceed the
+     * connection pool. Probes then never queue for a connection, where waiting would count against destinations.
+     */
+    private int concurrentHosts() {
+        return Math.max(1, Math.min(properties.maxConcurrentHosts(), properties.maxConnections() / perHost()));
+    }
+
+    private int perHost() {
+        return Math.max(1, Math.min(properties.perHostConcurrency(), properties.maxConnections()));
+    }
+
+    private Flux<Void> checkHost(String host, Collection<LinkEntity> links, String claim) {
+        int concurrency = hostLatencies.isSlow(host) ? 1 : perHost();
+        return Flux.fromIterable(links)
+                .flatMap(link -> check(host, link, claim), concurrency);
+    }
+
+    private Mono<Void> check(String host, LinkEntity link, String claim) {
+        DestinationHealth previous = link.health() != null && link.health().status() != null
+                ? link.health()
+                : DestinationHealth.unknown();
+
+        return prober.probe(link.destination(), previous)
+                .flatMap(result -> {
+                    hostLatencies.record(host, result);
+                    DestinationHealth next = previous.after(result, clock.instant(), properties,
+                            hostLatencies.isSlow(host));
+                    if (next.status() != previous.status()) {
+                        log.info("Destination of link {} is now {} (status {}, {})", link.id(), next.status(),
+                                result.httpStatus(), result.error());
+                    }
+                    return mongoTemplate.updateFirst(
+                            Query.query(where("_id").is(link.id()).and("health.claim").is(claim)),
+                            new Update().set("health", next),
+                            LinkEntity.class);
+                })
+                .then();
+    }
+
+    private static Criteria due(Instant now) {
+        return new Criteria().orOperator(
+                where("health.nextCheckAt").lte(now),
+                where("health.nextCheckAt").exists(false));
+    }
+
+    private static String hostOf(String destination) {
+        try {
+            String host = URI.create(destination).getHost();
+            return host != null ? host.toLowerCase() : "";
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+}
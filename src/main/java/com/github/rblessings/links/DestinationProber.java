@@ -0,0 +1,153 @@
+package com.github.rblessings.links;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Probes link destinations over HTTP.
+ * <p>
+ * Each probe is a {@code HEAD} request, so that no body is transferred. Servers that reject or mishandle {@code HEAD}
+ * get a second chance with a {@code GET} for the first byte only. Validators from the previous check are sent along
+ * ({@code If-None-Match}, {@code If-Modified-Since}), so unchanged destinations answer with an empty {@code 304}.
+ * Redirects are not followed: a redirecting destination is reachable as far as a short link is concerned.
+ * </p>
+ * <p>
+ * The prober has its own connection pool and event loop, sized by {@link LinkHealthProperties}. A flood of slow
+ * destinations can therefore never take connections or event loop time away from serving redirects.
+ * </p>
+ * <p>
+ * Timeouts and latencies cover the destination's part only: the connect, and the response once the request was sent.
+ * A probe that never got a pooled connection is reported as skipped rather than as a failure of the destination.
+ * Unless {@link LinkHealthProperties#allowPrivateAddresses()} is set, destinations on loopback, private or link-local
+ * addresses are refused, see {@link PublicAddresses}.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "urlradar.links.health", name = "enabled", havingValue = "true")
+public class DestinationProber implements DisposableBean {
+
+    static final String USER_AGENT = "urlradar-link-checker/1.0";
+
+    private final ConnectionProvider connectionProvider;
+    private final LoopResources loopResources;
+    private final WebClient webClient;
+    private final boolean allowPrivateAddresses;
+
+    public DestinationProber(WebClient.Builder webClientBuilder, LinkHealthProperties properties) {
+        this.connectionProvider = ConnectionProvider.builder("link-health")
+                .maxConnections(properties.maxConnections())
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(properties.acquireTimeout())
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build();
+        this.loopResources = LoopResources.create("link-health", 1, true);
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .runOn(loopResources)
+                .followRedirect(false)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.connectTimeout().toMillis())
+                .responseTimeout(properties.requestTimeout());
+        if (!properties.allowPrivateAddresses()) {
+            httpClient = httpClient.resolver(PublicAddresses.resolver(loopResources));
+        }
+        this.webClient = webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .defaultHeader(HttpHeaders.USER_AGENT, USER_AGENT)
+                .build();
+        this.allowPrivateAddresses = properties.allowPrivateAddresses();
+    }
+
+    /**
+     * Probes a destination once. Never fails: transport errors and timeouts are reported in the result.
+     *
+     * @param destination The absolute URL to probe.
+     * @param previous    The destination's health from the previous check, providing the validators to send.
+     * @return The probe's outcome.
+     */
+    public Mono<ProbeResult> probe(String destination, DestinationHealth previous) {
+        URI uri;
+        try {
+            uri = URI.create(destination);
+            if (uri.getHost() == null) {
+                throw new IllegalArgumentException(String.format("Destination '%s' has no host", destination));
+            }
+            if (!allowPrivateAddresses && PublicAddresses.isNonPublicLiteral(uri.getHost())) {
+                throw new IllegalArgumentException(String.format("Destination '%s' is not a public address",
+                        destination));
+            }
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ProbeResult.failure(e, Duration.ZERO));
+        }
+
+        return exchange(HttpMethod.HEAD, uri, previous)
+                .flatMap(result -> result.httpStatus() != null && !result.reachable() && !result.throttled()
+                        ? exchange(HttpMethod.GET, uri, previous)
+                        : Mono.just(result));
+    }
+
+    private Mono<ProbeResult> exchange(HttpMethod method, URI uri, DestinationHealth previous) {
+        return Mono.defer(() -> {
+            AtomicLong sentAt = new AtomicLong();
+            return webClient.method(method)
+                    .uri(uri)
+                    .headers(headers -> {
+                        if (previous != null && previous.etag() != null) {
+                            headers.set(HttpHeaders.IF_NONE_MATCH, previous.etag());
+                        }
+                        if (previous != null && previous.lastModified() != null) {
+                            headers.set(HttpHeaders.IF_MODIFIED_SINCE, previous.lastModified());
+                        }
+                        if (method == HttpMethod.GET) {
+                            headers.set(HttpHeaders.RANGE, "bytes=0-0");
+                        }
+                    })
+                    .httpRequest(request -> sentAt.set(System.nanoTime()))
+                    .exchangeToMono(response -> response.releaseBody().then(Mono.fromSupplier(() -> {
+                        HttpHeaders headers = response.headers().asHttpHeaders();
+                        return ProbeResult.response(response.statusCode().value(),
+                                headers.getFirst(HttpHeaders.ETAG), headers.getFirst(HttpHeaders.LAST_MODIFIED),
+                                since(sentAt.get()));
+                    })))
+                    .onErrorResume(e -> Mono.just(sentAt.get() == 0 && isAcquireTimeout(e)
+                            ? ProbeResult.skipped(e)
+                            : ProbeResult.failure(e, since(sentAt.get()))));
+        });
+    }
+
+    /**
+     * Connect timeouts are reported as {@code ConnectTimeoutException}, so a {@link TimeoutException} before the
+     * request was sent can only come from waiting for a pooled connection.
+     */
+    private static boolean isAcquireTimeout(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Duration since(long nanos) {
+        return nanos == 0 ? Duration.ZERO : Duration.ofNanos(System.nanoTime() - nanos);
+    }
+
+    @Override
+    public void destroy() {
+        connectionProvider.dispose();
+        loopResources.dispose();
+    }
+}
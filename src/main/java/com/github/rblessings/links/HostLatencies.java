@@ -0,0 +1,47 @@
+package com.github.rblessings.links;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * Tracks an exponentially weighted moving average of the response time per destination host.
+ * <p>
+ * The checker uses it to back off from hosts that respond slowly or throttle it: they are probed one link at a time
+ * and re-checked less often. Hosts not seen for an hour are forgotten, which also bounds the memory used.
+ * </p>
+ */
+class HostLatencies {
+
+    private static final double ALPHA = 0.2;
+
+    private final Duration slowThreshold;
+    private final Cache<String, Double> averages = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterAccess(Duration.ofHours(1))
+            .build();
+
+    HostLatencies(Duration slowThreshold) {
+        this.slowThreshold = slowThreshold;
+    }
+
+    /**
+     * Records the outcome of a probe against a host. Throttled probes count as twice the slow threshold; skipped
+     * probes never reached the host and are ignored.
+     */
+    void record(String host, ProbeResult result) {
+        if (result.skipped()) {
+            return;
+        }
+        double millis = result.throttled()
+                ? slowThreshold.toMillis() * 2.0
+                : result.latency().toMillis();
+        averages.asMap().merge(host, millis, (average, sample) -> average + ALPHA * (sample - average));
+    }
+
+    boolean isSlow(String host) {
+        Double average = averages.getIfPresent(host);
+        return average != null && average > slowThreshold.toMillis();
+    }
+}
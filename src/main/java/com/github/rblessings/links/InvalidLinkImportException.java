@@ -0,0 +1,11 @@
+package com.github.rblessings.links;
+
+/**
+ * Thrown when a link import file cannot be processed at all, e.g. because its header is missing.
+ */
+public class InvalidLinkImportException extends RuntimeException {
+
+    public InvalidLinkImportException(String message) {
+        super(message);
+    }
+}
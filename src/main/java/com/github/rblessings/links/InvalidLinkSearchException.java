@@ -0,0 +1,11 @@
+package com.github.rblessings.links;
+
+/**
+ * Thrown when a link search query cannot be run, e.g. because it is empty.
+ */
+public class InvalidLinkSearchException extends RuntimeException {
+
+    public InvalidLinkSearchException(String message) {
+        super(message);
+    }
+}
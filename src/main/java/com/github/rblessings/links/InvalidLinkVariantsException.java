@@ -0,0 +1,11 @@
+package com.github.rblessings.links;
+
+/**
+ * Thrown when the variants given for a link cannot be used, e.g. because a destination is not an http(s) URL.
+ */
+public class InvalidLinkVariantsException extends RuntimeException {
+
+    public InvalidLinkVariantsException(String message) {
+        super(message);
+    }
+}
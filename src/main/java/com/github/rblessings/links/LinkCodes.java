@@ -0,0 +1,34 @@
+package com.github.rblessings.links;
+
+import java.security.SecureRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Generates and validates short link codes.
+ */
+public final class LinkCodes {
+
+    private static final char[] ALPHABET =
+            "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+    private static final Pattern VALID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+    private static final int GENERATED_LENGTH = 8;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private LinkCodes() {
+    }
+
+    /**
+     * @return A random base62 code, unlikely enough to collide that a collision can be reported as an error.
+     */
+    public static String random() {
+        char[] code = new char[GENERATED_LENGTH];
+        for (int i = 0; i < code.length; i++) {
+            code[i] = ALPHABET[RANDOM.nextInt(ALPHABET.length)];
+        }
+        return new String(code);
+    }
+
+    public static boolean isValid(String code) {
+        return code != null && VALID.matcher(code).matches();
+    }
+}
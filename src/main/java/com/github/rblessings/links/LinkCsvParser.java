@@ -0,0 +1,202 @@
+package com.github.rblessings.links;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Parses link import files incrementally.
+ * <p>
+ * The file is split into lines as its {@link DataBuffer}s arrive, and each buffer is released once decoded, so only
+ * the current line is held in memory, however large the file. The first line is a header naming the columns; a
+ * {@code destination} column is required, and {@code code}, {@code tags}, {@code active_from}, {@code expires_at} and
+ * {@code max_clicks} columns are optional; further columns are ignored. Tags are separated by spaces or semicolons, and
+ * times are ISO-8601 instants. Fields follow RFC 4180: they may be quoted, and quotes inside quoted fields are doubled.
+ * Quoted line breaks are not supported.
+ * </p>
+ * <p>
+ * Invalid data rows do not fail the parse; they are emitted with an error so that they can be reported alongside the
+ * imported ones. Only a missing or unusable header fails it, with an {@link InvalidLinkImportException}.
+ * </p>
+ */
+class LinkCsvParser {
+
+    private static final ResolvableType STRING = ResolvableType.forClass(String.class);
+    private static final Pattern TAG_SEPARATOR = Pattern.compile("[;\\s]+");
+    private static final Pattern VALID_TAG = Pattern.compile("[a-z0-9_-]{1,32}");
+    private static final int MAX_TAGS = 16;
+
+    private final StringDecoder decoder;
+
+    LinkCsvParser(int maxLineLength) {
+        this.decoder = StringDecoder.textPlainOnly(List.of("\r\n", "\n"), true);
+        this.decoder.setMaxInMemorySize(maxLineLength);
+    }
+
+    Flux<LinkImportRow> parse(Flux<DataBuffer> content) {
+        return decoder.decode(content, STRING, null, null)
+                .index()
+                .switchOnFirst((first, lines) -> {
+                    if (!first.hasValue()) {
+                        return lines.thenMany(Flux.error(new InvalidLinkImportException("The file is empty")));
+                    }
+                    Header header;
+                    try {
+                        header = Header.parse(first.get().getT2());
+                    } catch (InvalidLinkImportException e) {
+                        return lines.thenMany(Flux.error(e));
+                    }
+                    return lines.skip(1)
+                            .filter(line -> !line.getT2().isBlank())
+                            .map(line -> header.row(line.getT1() + 1, line.getT2()));
+                });
+    }
+
+    /**
+     * Splits a line into its fields.
+     *
+     * @throws IllegalArgumentException If a quoted field is not terminated on the same line.
+     */
+    static List<String> fields(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private record Header(int destination, int code, int tags, int activeFrom, int expiresAt, int maxClicks) {
+
+        static Header parse(String line) {
+            List<String> names;
+            try {
+                names = fields(line.startsWith("\uFEFF") ? line.substring(1) : line).stream()
+                        .map(name -> name.trim().toLowerCase(Locale.ROOT))
+                        .toList();
+            } catch (IllegalArgumentException e) {
+                throw new InvalidLinkImportException(String.format("Invalid header: %s", e.getMessage()));
+            }
+            int destination = names.indexOf("destination");
+            if (destination < 0) {
+                throw new InvalidLinkImportException("The header must name a 'destination' column");
+            }
+            return new Header(destination, names.indexOf("code"), names.indexOf("tags"), names.indexOf("active_from"),
+                    names.indexOf("expires_at"), names.indexOf("max_clicks"));
+        }
+
+        LinkImportRow row(long number, String line) {
+            List<String> fields;
+            try {
+                fields = fields(line);
+            } catch (IllegalArgumentException e) {
+                return new LinkImportRow(number, null, null, List.of(), null, null, null, e.getMessage());
+            }
+
+            String code = field(fields, this.code);
+            String activeFrom = field(fields, this.activeFrom);
+            String expiresAt = field(fields, this.expiresAt);
+            String maxClicks = field(fields, this.maxClicks);
+            LinkImportRow row = new LinkImportRow(number, code.isEmpty() ? LinkCodes.random() : code,
+                    field(fields, this.destination), tags(field(fields, this.tags)), instant(activeFrom),
+                    instant(expiresAt), count(maxClicks), null);
+
+            if (!LinkCodes.isValid(row.code())) {
+                return row.withError("Code must be 1 to 64 letters, digits, '-' or '_'");
+            }
+            if (!isValidDestination(row.destination())) {
+                return row.withError("Destination must be an absolute http(s) URL");
+            }
+            if (row.tags().size() > MAX_TAGS
+                    || !row.tags().stream().allMatch(tag -> VALID_TAG.matcher(tag).matches())) {
+                return row.withError(String.format(
+                        "Tags must be at most %d words of 1 to 32 letters, digits, '-' or '_'", MAX_TAGS));
+            }
+            if (!activeFrom.isEmpty() && row.activeFrom() == null) {
+                return row.withError("Active from must be an ISO-8601 instant, e.g. 2030-01-01T00:00:00Z");
+            }
+            if (!expiresAt.isEmpty() && row.expiresAt() == null) {
+                return row.withError("Expires at must be an ISO-8601 instant, e.g. 2030-01-01T00:00:00Z");
+            }
+            if (row.activeFrom() != null && row.expiresAt() != null && !row.expiresAt().isAfter(row.activeFrom())) {
+                return row.withError("Expires at must be after active from");
+            }
+            if (!maxClicks.isEmpty() && row.maxClicks() == null) {
+                return row.withError("Max clicks must be a positive whole number");
+            }
+            return row;
+        }
+
+        private static String field(List<String> fields, int index) {
+            return index >= 0 && index < fields.size() ? fields.get(index).trim() : "";
+        }
+
+        private static List<String> tags(String field) {
+            return field.isEmpty()
+                    ? List.of()
+                    : Arrays.stream(TAG_SEPARATOR.split(field.toLowerCase(Locale.ROOT)))
+                    .filter(tag -> !tag.isEmpty())
+                    .distinct()
+                    .toList();
+        }
+
+        private static Instant instant(String field) {
+            try {
+                return field.isEmpty() ? null : Instant.parse(field);
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+        }
+
+        private static Long count(String field) {
+            try {
+                long count = Long.parseLong(field);
+                return count > 0 ? count : null;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+
+    static boolean isValidDestination(String destination) {
+        try {
+            URI uri = new URI(destination);
+            String scheme = uri.getScheme();
+            return ("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme)) && uri.getHost() != null;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.github.rblessings.links;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Represents a short link owned by a user.
+ * <p>
+ * The pair of {@code owner} and {@code code} identifies a link and is unique, so that the same code can be used by
+ * different users. The destination's reachability is tracked by the background health checker in {@code health}.
+ * </p>
+ * <p>
+ * A link may be scheduled to start redirecting at {@code activeFrom}, and limited to a deadline or a number of clicks.
+ * A TTL index deletes links once {@code expiresAt} passed, and using up the last click sets {@code expiresAt}, so
+ * expired links do not accumulate. MongoDB removes expired documents about once a minute, so reads must still check
+ * {@link #isLive} rather than rely on an expired link being gone.
+ * </p>
+ *
+ * @param id          The unique identifier for relational mapping.
+ * @param owner       The ID of the user who owns the link.
+ * @param code        The short code, unique per owner.
+ * @param destination The absolute URL the link redirects to, unless it has variants.
+ * @param variants    Destinations the link rotates among by weight instead, see {@link LinkVariant}; possibly empty.
+ * @param tags        Lowercase labels the owner attached to the link, for search; possibly empty.
+ * @param activeFrom  When the link starts redirecting, or {@code null} if it does right away.
+ * @param expiresAt   When the link stops redirecting and is deleted, or {@code null} if it does not expire.
+ * @param maxClicks   How many redirects the link serves before it expires, or {@code null} for no limit.
+ * @param clicks      How many redirects the link served, counted only if {@code maxClicks} is set.
+ * @param health      The state of the destination as last observed by the health checker.
+ * @param version     Used for optimistic locking on {@link LinkEntity} entity.
+ */
+@Document(collection = "links")
+@CompoundIndex(name = "owner_code", def = "{'owner': 1, 'code': 1}", unique = true)
+public record LinkEntity(
+        @Id String id,
+        String owner,
+        String code,
+        String destination,
+        List<LinkVariant> variants,
+        List<String> tags,
+        Instant activeFrom,
+        @Indexed(name = "expires_at", expireAfter = "0s") Instant expiresAt,
+        Long maxClicks,
+        long clicks,
+        DestinationHealth health,
+        @Version Integer version) {
+
+    /**
+     * @param now The current time.
+     * @return {@code true} if the link redirects at the given time, as far as its schedule and clicks tell.
+     */
+    public boolean isLive(Instant now) {
+        return (activeFrom == null || !now.isBefore(activeFrom))
+                && (expiresAt == null || now.isBefore(expiresAt))
+                && (maxClicks == null || clicks < maxClicks);
+    }
+
+    /**
+     * Equality is based on the owner and code, which together identify a link.
+     *
+     * @param o The object to compare.
+     * @return {@code true} if both links have the same owner and code.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        LinkEntity link = (LinkEntity) o;
+        return Objects.equals(owner, link.owner) && Objects.equals(code, link.code);
+    }
+
+    /**
+     * Hash code is derived from the owner and code for consistent behavior in hash-based collections.
+     *
+     * @return The hash code of the owner and code.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(owner, code);
+    }
+}
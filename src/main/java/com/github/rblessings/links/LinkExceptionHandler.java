@@ -0,0 +1,73 @@
+package com.github.rblessings.links;
+
+import com.github.rblessings.users.ApiResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import reactor.core.publisher.Mono;
+
+/**
+ * Exception handler for link-related exceptions thrown by REST controllers.
+ * <p>
+ * Ordered ahead of the global handler so that its specific handlers take precedence over the generic one.
+ * </p>
+ */
+@RestControllerAdvice
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class LinkExceptionHandler {
+
+    /**
+     * Handles the {@link InvalidLinkImportException} exception and returns a standardized response.
+     *
+     * @param ex The exception that was thrown.
+     * @return A standardized API response with the error message wrapped in a Mono.
+     */
+    @ExceptionHandler(InvalidLinkImportException.class)
+    public Mono<ResponseEntity<ApiResponse<String>>> handleInvalidLinkImport(InvalidLinkImportException ex) {
+        final var httpStatus = HttpStatus.BAD_REQUEST;
+        ApiResponse<String> response = ApiResponse.error(httpStatus.value(), ex.getMessage());
+        return Mono.just(new ResponseEntity<>(response, httpStatus));
+    }
+
+    /**
+     * Handles the {@link InvalidLinkSearchException} exception and returns a standardized response.
+     *
+     * @param ex The exception that was thrown.
+     * @return A standardized API response with the error message wrapped in a Mono.
+     */
+    @ExceptionHandler(InvalidLinkSearchException.class)
+    public Mono<ResponseEntity<ApiResponse<String>>> handleInvalidLinkSearch(InvalidLinkSearchException ex) {
+        final var httpStatus = HttpStatus.BAD_REQUEST;
+        ApiResponse<String> response = ApiResponse.error(httpStatus.value(), ex.getMessage());
+        return Mono.just(new ResponseEntity<>(response, httpStatus));
+    }
+
+    /**
+     * Handles the {@link InvalidLinkVariantsException} exception and returns a standardized response.
+     *
+     * @param ex The exception that was thrown.
+     * @return A standardized API response with the error message wrapped in a Mono.
+     */
+    @ExceptionHandler(InvalidLinkVariantsException.class)
+    public Mono<ResponseEntity<ApiResponse<String>>> handleInvalidLinkVariants(InvalidLinkVariantsException ex) {
+        final var httpStatus = HttpStatus.BAD_REQUEST;
+        ApiResponse<String> response = ApiResponse.error(httpStatus.value(), ex.getMessage());
+        return Mono.just(new ResponseEntity<>(response, httpStatus));
+    }
+
+    /**
+     * Handles the {@link LinkNotFoundException} exception and returns a standardized response.
+     *
+     * @param ex The exception that was thrown.
+     * @return A standardized API response with the error message wrapped in a Mono.
+     */
+    @ExceptionHandler(LinkNotFoundException.class)
+    public Mono<ResponseEntity<ApiResponse<String>>> handleLinkNotFound(LinkNotFoundException ex) {
+        final var httpStatus = HttpStatus.NOT_FOUND;
+        ApiResponse<String> response = ApiResponse.error(httpStatus.value(), ex.getMessage());
+        return Mono.just(new ResponseEntity<>(response, httpStatus));
+    }
+}
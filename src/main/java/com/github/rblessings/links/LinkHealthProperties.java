@@ -0,0 +1,50 @@
+package com.github.rblessings.links;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the background destination health checker.
+ *
+ * @param enabled               Whether the checker runs on this node.
+ * @param sweepInterval         How often the checker looks for links that are due for a check.
+ * @param batchSize             Maximum number of links claimed and probed per sweep.
+ * @param claimTimeout          How long a claimed link is reserved for this node before another node may probe it.
+ * @param checkInterval         How long a healthy destination stays unchecked.
+ * @param retryDelay            Delay before the first re-check of a failing destination; doubled on every further
+ *                              failure.
+ * @param maxBackoff            Upper bound for the re-check delay of failing destinations.
+ * @param failureThreshold      Consecutive failures after which a destination is reported broken.
+ * @param maxConnections        Maximum number of connections the checker opens, across all hosts. Probes in flight are
+ *                              capped at this number, so that no probe waits for a connection.
+ * @param maxConcurrentHosts    Maximum number of hosts probed at the same time.
+ * @param perHostConcurrency    Maximum number of concurrent probes against a single host.
+ * @param connectTimeout        Connect timeout per probe.
+ * @param requestTimeout        Timeout for a destination's response once a probe request was sent.
+ * @param slowHostThreshold     Average response time above which a host is probed one link at a time and less often.
+ * @param acquireTimeout        How long a probe may wait for a pooled connection before it is skipped. Skipped probes
+ *                              are retried later and never count against the destination.
+ * @param allowPrivateAddresses Whether destinations resolving to loopback, private or link-local addresses may be
+ *                              probed. Off by default, so that links cannot make the checker reach internal services.
+ */
+@ConfigurationProperties("urlradar.links.health")
+public record LinkHealthProperties(
+        boolean enabled,
+        @DefaultValue("1m") Duration sweepInterval,
+        @DefaultValue("1000") int batchSize,
+        @DefaultValue("10m") Duration claimTimeout,
+        @DefaultValue("24h") Duration checkInterval,
+        @DefaultValue("5m") Duration retryDelay,
+        @DefaultValue("7d") Duration maxBackoff,
+        @DefaultValue("3") int failureThreshold,
+        @DefaultValue("16") int maxConnections,
+        @DefaultValue("16") int maxConcurrentHosts,
+        @DefaultValue("2") int perHostConcurrency,
+        @DefaultValue("3s") Duration connectTimeout,
+        @DefaultValue("10s") Duration requestTimeout,
+        @DefaultValue("2s") Duration slowHostThreshold,
+        @DefaultValue("1m") Duration acquireTimeout,
+        boolean allowPrivateAddresses) {
+}
@@ -0,0 +1,19 @@
+package com.github.rblessings.links;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuration for bulk link imports.
+ *
+ * @param batchSize            Number of rows inserted per unordered bulk write.
+ * @param maxConcurrentBatches Maximum number of bulk writes in flight per import. Parsing pauses while it is reached.
+ * @param maxLineLength        Maximum length of a single CSV line.
+ */
+@ConfigurationProperties("urlradar.links.import")
+public record LinkImportProperties(
+        @DefaultValue("1000") int batchSize,
+        @DefaultValue("2") int maxConcurrentBatches,
+        @DefaultValue("16KB") DataSize maxLineLength) {
+}
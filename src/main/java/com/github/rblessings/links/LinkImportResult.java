@@ -0,0 +1,25 @@
+package com.github.rblessings.links;
+
+/**
+ * The outcome of importing one row, streamed back to the client as it becomes known.
+ *
+ * @param row     The 1-based line number in the file, counting the header.
+ * @param code    The short code of the link, if one could be determined.
+ * @param status  Whether the link was created.
+ * @param message Why the row was rejected, if it was.
+ */
+public record LinkImportResult(long row, String code, Status status, String message) {
+
+    public enum Status {
+        CREATED,
+        REJECTED
+    }
+
+    static LinkImportResult created(LinkImportRow row) {
+        return new LinkImportResult(row.row(), row.code(), Status.CREATED, null);
+    }
+
+    static LinkImportResult rejected(LinkImportRow row, String message) {
+        return new LinkImportResult(row.row(), row.code(), Status.REJECTED, message);
+    }
+}
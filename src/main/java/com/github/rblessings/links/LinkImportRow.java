@@ -0,0 +1,28 @@
+package com.github.rblessings.links;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A data row of a link import file.
+ *
+ * @param row         The 1-based line number in the file, counting the header.
+ * @param code        The requested short code, or a generated one if the row left it empty.
+ * @param destination The destination URL.
+ * @param tags        The link's tags, normalized to lowercase; possibly empty.
+ * @param activeFrom  When the link starts redirecting, or {@code null} if it does right away.
+ * @param expiresAt   When the link expires, or {@code null} if it does not.
+ * @param maxClicks   How many redirects the link serves before it expires, or {@code null} for no limit.
+ * @param error       Why the row cannot be imported, or {@code null} if it is valid.
+ */
+record LinkImportRow(long row, String code, String destination, List<String> tags, Instant activeFrom,
+                     Instant expiresAt, Long maxClicks, String error) {
+
+    boolean valid() {
+        return error == null;
+    }
+
+    LinkImportRow withError(String error) {
+        return new LinkImportRow(row, code, destination, tags, activeFrom, expiresAt, maxClicks, error);
+    }
+}
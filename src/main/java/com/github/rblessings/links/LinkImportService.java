@@ -0,0 +1,122 @@
+package com.github.rblessings.links;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.InsertOneModel;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Imports links in bulk from CSV files.
+ * <p>
+ * Rows are parsed as the upload arrives and inserted in unordered bulk writes of {@code batchSize} rows, with at most
+ * {@code maxConcurrentBatches} writes in flight. Demand flows from the client reading the results back through the
+ * inserts to the parser and the upload, so neither a slow database nor a slow client makes the server buffer rows.
+ * Memory use therefore depends on the batch settings only, not on the size of the file.
+ * </p>
+ * <p>
+ * Because writes are unordered, a rejected row (e.g. a code already in use) does not stop the rest of its batch.
+ * One result per data row is streamed back in file order, and the created links are added to the owner's
+ * {@link LinkSearchIndex}.
+ * </p>
+ */
+@Service
+public class LinkImportService {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final LinkImportProperties properties;
+    private final LinkSearchIndex searchIndex;
+    private final LinkCsvParser parser;
+
+    public LinkImportService(ReactiveMongoTemplate mongoTemplate, LinkImportProperties properties,
+                             LinkSearchIndex searchIndex) {
+        this.mongoTemplate = mongoTemplate;
+        this.properties = properties;
+        this.searchIndex = searchIndex;
+        this.parser = new LinkCsvParser((int) properties.maxLineLength().toBytes());
+    }
+
+    /**
+     * Imports the links of a CSV file for an owner.
+     *
+     * @param owner The ID of the user the links are created for.
+     * @param csv   The file's content.
+     * @return One result per data row, in file order.
+     */
+    public Flux<LinkImportResult> importLinks(String owner, Flux<DataBuffer> csv) {
+        return parser.parse(csv)
+                .buffer(properties.batchSize())
+                .flatMapSequential(batch -> insert(owner, batch), properties.maxConcurrentBatches(), 1);
+    }
+
+    private Flux<LinkImportResult> insert(String owner, List<LinkImportRow> batch) {
+        List<LinkImportRow> valid = batch.stream().filter(LinkImportRow::valid).toList();
+        if (valid.isEmpty()) {
+            return Flux.fromIterable(batch).map(row -> LinkImportResult.rejected(row, row.error()));
+        }
+
+        List<LinkEntity> links = valid.stream().map(row -> toEntity(owner, row)).toList();
+        List<InsertOneModel<Document>> inserts = links.stream()
+                .map(link -> new InsertOneModel<>(toDocument(link)))
+                .toList();
+
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(LinkEntity.class))
+                .flatMap(collection -> Mono.from(collection.bulkWrite(inserts, new BulkWriteOptions().ordered(false))))
+                .map(result -> Map.<LinkImportRow, String>of())
+                .onErrorResume(MongoBulkWriteException.class, e -> Mono.just(rejections(valid, e.getWriteErrors())))
+                .doOnNext(rejected -> searchIndex.added(owner, created(valid, links, rejected)))
+                .flatMapMany(rejected -> Flux.fromIterable(batch).map(row -> {
+                    if (!row.valid()) {
+                        return LinkImportResult.rejected(row, row.error());
+                    }
+                    String reason = rejected.get(row);
+                    return reason != null ? LinkImportResult.rejected(row, reason) : LinkImportResult.created(row);
+                }));
+    }
+
+    private static LinkEntity toEntity(String owner, LinkImportRow row) {
+        return new LinkEntity(new ObjectId().toHexString(), owner, row.code(), row.destination(), List.of(),
+                row.tags(), row.activeFrom(), row.expiresAt(), row.maxClicks(), 0, DestinationHealth.unknown(), 0);
+    }
+
+    private static List<LinkSearchHit> created(List<LinkImportRow> rows, List<LinkEntity> links,
+                                               Map<LinkImportRow, String> rejected) {
+        List<LinkSearchHit> created = new ArrayList<>(links.size());
+        for (int i = 0; i < rows.size(); i++) {
+            if (!rejected.containsKey(rows.get(i))) {
+                LinkEntity link = links.get(i);
+                created.add(new LinkSearchHit(link.id(), link.code(), link.destination(), link.tags()));
+            }
+        }
+        return created;
+    }
+
+    private Document toDocument(LinkEntity link) {
+        Document document = new Document();
+        mongoTemplate.getConverter().write(link, document);
+        return document;
+    }
+
+    private static Map<LinkImportRow, String> rejections(List<LinkImportRow> rows, List<BulkWriteError> errors) {
+        Map<LinkImportRow, String> rejected = new HashMap<>();
+        for (BulkWriteError error : errors) {
+            LinkImportRow row = rows.get(error.getIndex());
+            rejected.put(row, ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY
+                    ? String.format("Code '%s' is already in use", row.code())
+                    : error.getMessage());
+        }
+        return rejected;
+    }
+}
@@ -0,0 +1,11 @@
+package com.github.rblessings.links;
+
+/**
+ * Thrown when a link does not exist or does not belong to the caller.
+ */
+public class LinkNotFoundException extends RuntimeException {
+
+    public LinkNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,21 @@
+package com.github.rblessings.links;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration for resolving short links to their destinations.
+ *
+ * @param maximumCachedLinks Maximum number of links held in the local redirect cache.
+ * @param maxStaleness       How long a cached link is used before it is read again, bounding how long changes made
+ *                           through other nodes go unnoticed. Expiry does not depend on it.
+ * @param expiryTick         Resolution of the timing wheel evicting cached links at their expiry.
+ */
+@ConfigurationProperties("urlradar.links.redirects")
+public record LinkRedirectProperties(
+        @DefaultValue("100000") long maximumCachedLinks,
+        @DefaultValue("10m") Duration maxStaleness,
+        @DefaultValue("10ms") Duration expiryTick) {
+}
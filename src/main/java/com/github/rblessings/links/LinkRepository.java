@@ -0,0 +1,25 @@
+package com.github.rblessings.links;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+public interface LinkRepository extends ReactiveMongoRepository<LinkEntity, String> {
+
+    /**
+     * Returns those of the given links that belong to the owner.
+     */
+    Flux<LinkEntity> findByOwnerAndIdIn(String owner, Collection<String> ids);
+
+    /**
+     * Finds the link an owner's short code redirects through, expired or not.
+     */
+    Mono<LinkEntity> findByOwnerAndCode(String owner, String code);
+
+    /**
+     * Fetches only the searchable fields of an owner's links, to build their {@link LinkSearchIndex}.
+     */
+    Flux<LinkSearchHit> findSearchableByOwner(String owner);
+}
@@ -0,0 +1,266 @@
+package com.github.rblessings.links;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.rblessings.cache.TimingWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Resolves short links for redirects, from the links this node holds.
+ * <p>
+ * Links are read from the {@link LinkTable} replicated to every node, without a network hop, so redirects do not
+ * depend on MongoDB being reachable or fast. Links the table does not hold, because it is still being restored at
+ * startup or a new link was not replicated yet, are read from MongoDB and cached locally instead, as follows.
+ * </p>
+ * <p>
+ * Links are cached on first use, and the ones with a deadline are scheduled on a {@link TimingWheel} that evicts them
+ * from the cache on the tick their deadline passes. With millions of cached links, scheduling and evicting one stays
+ * O(1), and an idle tick costs one slot lookup. Eviction frees the memory; it is not what keeps expired links from
+ * being served: every resolution checks the cached link's schedule against the clock, so a link is never served past
+ * its deadline, even between ticks.
+ * </p>
+ * <p>
+ * Links limited to a number of clicks are counted in MongoDB on every redirect, with a conditional increment that
+ * fails once the limit is reached. Such links therefore never serve more clicks than allowed, whichever nodes serve
+ * them; the one serving the last click sets the link's {@code expiresAt} so that the TTL index deletes it.
+ * </p>
+ * <p>
+ * Links with variants are cached with an {@link AliasTable} of the variants' weights, built when the link is loaded
+ * or {@link #publish published}, so that choosing a variant for a redirect is O(1), without locks or allocation.
+ * </p>
+ */
+@Component
+public class LinkResolver implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(LinkResolver.class);
+
+    /**
+     * Four levels of 256 slots: at a 10ms tick, the finest level spans 2.56 seconds and the wheel 497 days.
+     */
+    private static final int WHEEL_SLOT_BITS = 8;
+    private static final int WHEEL_LEVELS = 4;
+
+    private final LinkRepository linkRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final LinkTable linkTable;
+    private final LinkRedirectProperties properties;
+    private final Clock clock;
+    private final TimingWheel<LinkKey> expiries;
+    private final AsyncCache<LinkKey, Route> links;
+    /**
+     * Routes of replicated links by the links' JSON, so that each version of a link is parsed once and a changed link
+     * is never served from an outdated route.
+     */
+    private final Cache<String, Route> replicatedRoutes;
+
+    private volatile Disposable schedule;
+
+    @Autowired
+    public LinkResolver(LinkRepository linkRepository, ReactiveMongoTemplate mongoTemplate, LinkTable linkTable,
+                        LinkRedirectProperties properties) {
+        this(linkRepository, mongoTemplate, linkTable, properties, Clock.systemUTC());
+    }
+
+    LinkResolver(LinkRepository linkRepository, ReactiveMongoTemplate mongoTemplate, LinkTable linkTable,
+                 LinkRedirectProperties properties, Clock clock) {
+        this.linkRepository = linkRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.linkTable = linkTable;
+        this.properties = properties;
+        this.clock = clock;
+        this.expiries = new TimingWheel<>(properties.expiryTick(), WHEEL_SLOT_BITS, WHEEL_LEVELS, clock.instant());
+        this.links = Caffeine.newBuilder()
+                .maximumSize(properties.maximumCachedLinks())
+                .expireAfterWrite(properties.maxStaleness())
+                // Runs atomically with the eviction, so it cannot cancel the deadline of a link cached again since.
+                .<LinkKey, Route>evictionListener((key, route, cause) -> expiries.cancel(key))
+                .buildAsync();
+        this.replicatedRoutes = Caffeine.newBuilder()
+                .maximumSize(properties.maximumCachedLinks())
+                .build();
+    }
+
+    @Override
+    public void start() {
+        schedule = Flux.interval(properties.expiryTick())
+                .onBackpressureDrop()
+                .concatMap(tick -> Mono.fromRunnable(this::expireDue)
+                        .onErrorResume(e -> {
+                            log.warn("Could not evict expired links", e);
+                            return Mono.empty();
+                        }), 0)
+                .subscribe();
+    }
+
+    @Override
+    public void stop() {
+        Disposable current = schedule;
+        if (current != null) {
+            current.dispose();
+            schedule = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return schedule != null;
+    }
+
+    /**
+     * Resolves the link of an owner's short code, choosing one of its variants by weight if it has any, and counting
+     * the click if the link is limited to a number of them.
+     *
+     * @param owner The ID of the user who owns the link.
+     * @param code  The link's short code.
+     * @return The link and its destination, or an empty {@link Mono} if it does not exist, is not active yet, expired
+     * or has no clicks left.
+     */
+    public Mono<ResolvedLink> resolve(String owner, String code) {
+        LinkKey key = new LinkKey(owner, code);
+        Route replicated = replicated(key);
+        Mono<Route> found = replicated != null
+                ? Mono.just(replicated)
+                : Mono.fromFuture(() -> links.get(key, (k, executor) -> load(k)), true);
+        return found
+                .filter(route -> route.link().isLive(clock.instant()))
+                .flatMap(route -> route.link().maxClicks() != null
+                        ? countClick(key, route.link()).map(counted -> route)
+                        : Mono.just(route))
+                .map(Route::choose);
+    }
+
+    /**
+     * Replaces the cached copy of a link that changed through this node, e.g. its variants. The copy, including its
+     * alias table, is built first and then swapped in at once, so redirects see either the old or the new one.
+     * Redirects served from the {@link LinkTable} see the change once it is replicated.
+     *
+     * @param link The link as saved.
+     */
+    void publish(LinkEntity link) {
+        LinkKey key = new LinkKey(link.owner(), link.code());
+        links.put(key, CompletableFuture.completedFuture(cache(key, link)));
+    }
+
+    /**
+     * Evicts the cached links whose deadline passed since the last tick.
+     */
+    void expireDue() {
+        List<LinkKey> due = expiries.advance(clock.instant());
+        if (!due.isEmpty()) {
+            links.synchronous().invalidateAll(due);
+        }
+    }
+
+    /**
+     * @return The number of cached links waiting for their deadline.
+     */
+    int pendingExpiries() {
+        return expiries.size();
+    }
+
+    /**
+     * @return The route of the link as replicated to this node, or {@code null} if the link table does not hold it.
+     */
+    private Route replicated(LinkKey key) {
+        String json = linkTable.get(key.owner(), key.code());
+        if (json == null) {
+            return null;
+        }
+        return replicatedRoutes.get(json, value -> {
+            LinkEntity link = linkTable.parse(value);
+            return link != null ? Route.of(link) : null;
+        });
+    }
+
+    private CompletableFuture<Route> load(LinkKey key) {
+        return linkRepository.findByOwnerAndCode(key.owner(), key.code())
+                .map(link -> cache(key, link))
+                .toFuture();
+    }
+
+    private Route cache(LinkKey key, LinkEntity link) {
+        Route route = Route.of(link);
+        if (link.expiresAt() != null) {
+            expiries.schedule(key, link.expiresAt());
+        } else {
+            expiries.cancel(key);
+        }
+        return route;
+    }
+
+    private Mono<LinkEntity> countClick(LinkKey key, LinkEntity link) {
+        return mongoTemplate.findAndModify(
+                        query(where("_id").is(link.id()).and("clicks").lt(link.maxClicks())),
+                        new Update().inc("clicks", 1),
+                        FindAndModifyOptions.options().returnNew(true),
+                        LinkEntity.class)
+                .flatMap(counted -> counted.clicks() < counted.maxClicks()
+                        ? Mono.just(counted)
+                        : lastClick(key, counted).thenReturn(counted))
+                .switchIfEmpty(Mono.fromRunnable(() -> evict(key)));
+    }
+
+    private Mono<Void> lastClick(LinkKey key, LinkEntity link) {
+        evict(key);
+        return mongoTemplate.updateFirst(query(where("_id").is(link.id())),
+                        new Update().min("expiresAt", clock.instant()), LinkEntity.class)
+                .then()
+                .onErrorResume(e -> {
+                    // The link serves no more clicks either way; it is just not deleted until its own deadline.
+                    log.warn("Could not expire link {} after its last click", link.id(), e);
+                    return Mono.empty();
+                });
+    }
+
+    private void evict(LinkKey key) {
+        expiries.cancel(key);
+        links.synchronous().invalidate(key);
+    }
+
+    private record LinkKey(String owner, String code) {
+    }
+
+    /**
+     * A cached link, with the alias table of its variants' weights if it has variants.
+     */
+    private record Route(LinkEntity link, AliasTable variants) {
+
+        static Route of(LinkEntity link) {
+            List<LinkVariant> variants = link.variants();
+            if (variants == null || variants.isEmpty()) {
+                return new Route(link, null);
+            }
+            try {
+                return new Route(link, AliasTable.of(variants.stream().mapToInt(LinkVariant::weight).toArray()));
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring the variants of link {}: {}", link.id(), e.getMessage());
+                return new Route(link, null);
+            }
+        }
+
+        ResolvedLink choose() {
+            if (variants == null) {
+                return new ResolvedLink(link, link.destination(), null);
+            }
+            int variant = variants.pick();
+            return new ResolvedLink(link, link.variants().get(variant).destination(), variant);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.github.rblessings.links;
+
+import java.util.List;
+
+/**
+ * A link found by a search, holding only what is searched and shown.
+ *
+ * @param id          The link's ID.
+ * @param code        The link's short code.
+ * @param destination The URL the link redirects to.
+ * @param tags        The link's tags; possibly empty.
+ */
+public record LinkSearchHit(String id, String code, String destination, List<String> tags) {
+}
@@ -0,0 +1,114 @@
+package com.github.rblessings.links;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Searches the links of a user through in-memory inverted indexes, one per user, see {@link OwnerLinkIndex}.
+ * <p>
+ * A user's index is built on their first search, from one query fetching the searchable fields of their links, and
+ * concurrent first searches share that build. Links created through this node are added to a built index as they are
+ * inserted; since other nodes cannot do so, indexes are rebuilt once they are {@code maxStaleness} old. Indexes are
+ * weighed by their number of links and the least recently used ones are evicted once {@code maxIndexedLinks} is
+ * exceeded, so memory use is bounded however many users search.
+ * </p>
+ */
+@Component
+public class LinkSearchIndex {
+
+    private final LinkRepository linkRepository;
+    private final LinkSearchProperties properties;
+    private final AsyncCache<String, OwnerLinkIndex> indexes;
+
+    public LinkSearchIndex(LinkRepository linkRepository, LinkSearchProperties properties) {
+        this.linkRepository = linkRepository;
+        this.properties = properties;
+        this.indexes = Caffeine.newBuilder()
+                .maximumWeight(properties.maxIndexedLinks())
+                .<String, OwnerLinkIndex>weigher((owner, index) -> Math.max(1, index.size()))
+                .expireAfter(sinceBuilt(properties.maxStaleness()))
+                .buildAsync();
+    }
+
+    /**
+     * Searches the links of an owner. All terms of the query must match; the last one also matches as a prefix
+     * unless the query ends with a space, so that results narrow down as the user types.
+     *
+     * @param owner The ID of the user whose links are searched.
+     * @param query Words of the destination, host, code or tags, or {@code host:} and {@code tag:} terms.
+     * @param limit The maximum number of links returned; capped at {@code maxResults}.
+     * @return The matching links, newest first, or an {@link InvalidLinkSearchException} if the query has no terms.
+     */
+    public Flux<LinkSearchHit> search(String owner, String query, int limit) {
+        List<String> terms = query != null ? OwnerLinkIndex.queryTerms(query) : List.of();
+        if (terms.isEmpty()) {
+            return Flux.error(new InvalidLinkSearchException("The query must contain at least one letter or digit"));
+        }
+        boolean lastIsPrefix = !Character.isWhitespace(query.charAt(query.length() - 1));
+        int cappedLimit = Math.max(1, Math.min(limit, properties.maxResults()));
+
+        return Mono.fromFuture(() -> indexes.get(owner, (key, executor) -> build(key)), true)
+                .flatMapIterable(index -> index.search(terms, lastIsPrefix, cappedLimit));
+    }
+
+    /**
+     * Adds newly created links to their owner's index, if it is built. An index still being built may or may not
+     * see them, so it is discarded and built again on the next search.
+     *
+     * @param owner   The ID of the user who owns the links.
+     * @param created The new links.
+     */
+    void added(String owner, Collection<LinkSearchHit> created) {
+        if (created.isEmpty()) {
+            return;
+        }
+        indexes.asMap().computeIfPresent(owner, (key, index) -> {
+            if (!index.isDone() || index.isCompletedExceptionally()) {
+                return null;
+            }
+            OwnerLinkIndex built = index.join();
+            built.addAll(created);
+            // A new future, so that the cache weighs the grown index again.
+            return CompletableFuture.completedFuture(built);
+        });
+    }
+
+    private CompletableFuture<OwnerLinkIndex> build(String owner) {
+        return linkRepository.findSearchableByOwner(owner)
+                .collectList()
+                .map(OwnerLinkIndex::of)
+                .toFuture();
+    }
+
+    /**
+     * Expires an index a fixed time after it was built, however often links were added to it since.
+     */
+    private static Expiry<String, OwnerLinkIndex> sinceBuilt(Duration maxStaleness) {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(String owner, OwnerLinkIndex index, long currentTime) {
+                return maxStaleness.toNanos();
+            }
+
+            @Override
+            public long expireAfterUpdate(String owner, OwnerLinkIndex index, long currentTime,
+                                          long currentDuration) {
+                return currentDuration;
+            }
+
+            @Override
+            public long expireAfterRead(String owner, OwnerLinkIndex index, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.rblessings.links;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration for searching links.
+ *
+ * @param maxIndexedLinks Maximum number of links held in the in-memory search indexes of all users together. The
+ *                        indexes of users who searched least recently are evicted first.
+ * @param maxStaleness    How long a user's index is used before it is rebuilt, bounding how long links created
+ *                        through other nodes can be missing from results. Links created through this node are
+ *                        indexed right away.
+ * @param maxResults      Maximum number of links returned by a search.
+ */
+@ConfigurationProperties("urlradar.links.search")
+public record LinkSearchProperties(
+        @DefaultValue("2000000") long maxIndexedLinks,
+        @DefaultValue("10m") Duration maxStaleness,
+        @DefaultValue("100") int maxResults) {
+}
@@ -0,0 +1,95 @@
+package com.github.rblessings.links;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.rblessings.config.KafkaStreamsReference;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Looks up links in the link table this node holds in memory, see {@link LinkTableTopology}.
+ * <p>
+ * Lookups never block and never leave the process. While the table is not available, i.e. Kafka Streams is not
+ * running yet because its global stores are still being restored from Kafka, or the table is disabled, every lookup
+ * misses, and callers fall back to MongoDB.
+ * </p>
+ */
+@Component
+public class LinkTable {
+    private static final Logger log = LoggerFactory.getLogger(LinkTable.class);
+
+    private final KafkaStreamsReference kafkaStreams;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private volatile Handle handle;
+
+    public LinkTable(KafkaStreamsReference kafkaStreams, ObjectMapper objectMapper, LinkTableProperties properties) {
+        this.kafkaStreams = kafkaStreams;
+        this.objectMapper = objectMapper;
+        this.enabled = properties.enabled();
+    }
+
+    /**
+     * @param owner The ID of the user who owns the link.
+     * @param code  The link's short code.
+     * @return The link as last replicated, in JSON, or {@code null} if the table does not hold it or is not available.
+     */
+    String get(String owner, String code) {
+        ReadOnlyKeyValueStore<String, String> store = store();
+        if (store == null) {
+            return null;
+        }
+        try {
+            return store.get(LinkTableTopology.key(owner, code));
+        } catch (InvalidStateStoreException e) {
+            handle = null;
+            return null;
+        }
+    }
+
+    /**
+     * @param json A link as returned by {@link #get(String, String)}.
+     * @return The link, or {@code null} if it cannot be read.
+     */
+    LinkEntity parse(String json) {
+        try {
+            return objectMapper.readValue(json, LinkEntity.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring unreadable link in the link table", e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the table's store, looked up once per Kafka Streams instance rather than on every redirect.
+     */
+    private ReadOnlyKeyValueStore<String, String> store() {
+        if (!enabled) {
+            return null;
+        }
+        KafkaStreams streams = kafkaStreams.running().orElse(null);
+        if (streams == null) {
+            return null;
+        }
+        Handle current = handle;
+        if (current == null || current.streams() != streams) {
+            try {
+                current = new Handle(streams, streams.store(StoreQueryParameters.fromNameAndType(
+                        LinkTableTopology.TABLE_STORE, QueryableStoreTypes.<String, String>keyValueStore())));
+            } catch (InvalidStateStoreException e) {
+                return null;
+            }
+            handle = current;
+        }
+        return current.store();
+    }
+
+    private record Handle(KafkaStreams streams, ReadOnlyKeyValueStore<String, String> store) {
+    }
+}
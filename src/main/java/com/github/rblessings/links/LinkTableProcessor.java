@@ -0,0 +1,88 @@
+package com.github.rblessings.links;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+/**
+ * Turns the change events of the {@code links} collection into versions of links keyed by owner and code.
+ * <p>
+ * Change events are keyed by document ID, and delete events carry nothing but that ID. The table key of every link is
+ * therefore kept in a changelogged store, so that its deletion can be published as a tombstone under that key.
+ * Updates of a document whose full version is no longer available, because it was deleted since, are skipped: its
+ * delete event follows. Re-published events, e.g. after an outbox relay crash, just publish the same version again.
+ * </p>
+ */
+class LinkTableProcessor implements Processor<String, String, String, String> {
+    private static final Logger log = LoggerFactory.getLogger(LinkTableProcessor.class);
+
+    private final MongoConverter mongoConverter;
+    private final ObjectMapper objectMapper;
+
+    private ProcessorContext<String, String> context;
+    private KeyValueStore<String, String> keys;
+
+    LinkTableProcessor(MongoConverter mongoConverter, ObjectMapper objectMapper) {
+        this.mongoConverter = mongoConverter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void init(ProcessorContext<String, String> context) {
+        this.context = context;
+        this.keys = context.getStateStore(LinkTableTopology.KEYS_STORE);
+    }
+
+    @Override
+    public void process(Record<String, String> change) {
+        if (change.key() == null || change.value() == null) {
+            return;
+        }
+        String documentId = change.key();
+        String previous = keys.get(documentId);
+
+        Document event;
+        LinkEntity link = null;
+        try {
+            event = Document.parse(change.value());
+            Document document = event.get("document", Document.class);
+            if (document != null) {
+                link = mongoConverter.read(LinkEntity.class, document);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Skipping malformed change of link {}", documentId, e);
+            return;
+        }
+
+        if (link == null) {
+            if ("delete".equals(event.getString("operation")) && previous != null) {
+                keys.delete(documentId);
+                context.forward(change.withKey(previous).withValue(null));
+            }
+            return;
+        }
+
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(link);
+        } catch (JsonProcessingException e) {
+            log.warn("Skipping link {} that cannot be serialized", documentId, e);
+            return;
+        }
+        String key = LinkTableTopology.key(link.owner(), link.code());
+        if (previous != null && !previous.equals(key)) {
+            context.forward(change.withKey(previous).withValue(null));
+        }
+        if (!key.equals(previous)) {
+            keys.put(documentId, key);
+        }
+        context.forward(change.withKey(key).withValue(json));
+    }
+}
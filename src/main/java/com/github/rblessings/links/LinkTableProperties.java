@@ -0,0 +1,19 @@
+package com.github.rblessings.links;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration for the link table replicated to every node, see {@link LinkTableTopology}.
+ *
+ * @param enabled      Whether links are replicated, and redirects read from the replica.
+ * @param changesTopic The topic the outbox relay publishes the changes of the {@code links} collection to; must match
+ *                     {@code urlradar.outbox.collections.links}.
+ * @param topic        The compacted topic holding the latest version of every link, keyed by owner and code.
+ */
+@ConfigurationProperties("urlradar.links.table")
+public record LinkTableProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("urlradar.links.changes") String changesTopic,
+        @DefaultValue("urlradar.links.table") String topic) {
+}
@@ -0,0 +1,105 @@
+package com.github.rblessings.links;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.Produced;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.Stores;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.kafka.config.TopicBuilder;
+
+/**
+ * The Kafka Streams topology replicating links to every node.
+ * <p>
+ * The outbox relay publishes every committed change of the {@code links} collection, keyed by document ID.
+ * {@link LinkTableProcessor} turns these changes into the link table: the latest version of each link keyed by owner
+ * and code, and a tombstone once it is deleted, published to a compacted topic. Every node reads that topic into a
+ * global store, from which {@link LinkTable} answers redirects without a network hop.
+ * </p>
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "urlradar.links.table", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class LinkTableTopology {
+
+    static final String KEYS_STORE = "link-table-keys";
+    static final String TABLE_STORE = "link-table";
+
+    /**
+     * Declares the changes topic, which Kafka Streams requires to exist before it starts reading it.
+     */
+    @Bean
+    public NewTopic linkChangesTopic(LinkTableProperties properties) {
+        return TopicBuilder.name(properties.changesTopic()).build();
+    }
+
+    /**
+     * Declares the table topic as compacted: only the latest version of each link matters, and the global store
+     * restores the whole topic on every start.
+     */
+    @Bean
+    public NewTopic linkTableTopic(LinkTableProperties properties) {
+        return TopicBuilder.name(properties.topic())
+                .compact()
+                .build();
+    }
+
+    /**
+     * Adds the link table to the application's topology.
+     *
+     * @return The stream of published link versions and tombstones.
+     */
+    @Bean
+    public KStream<String, String> linkTableUpdates(StreamsBuilder builder, LinkTableProperties properties,
+                                                    MongoConverter mongoConverter, ObjectMapper objectMapper) {
+        return build(builder, properties, mongoConverter, objectMapper);
+    }
+
+    static KStream<String, String> build(StreamsBuilder builder, LinkTableProperties properties,
+                                         MongoConverter mongoConverter, ObjectMapper objectMapper) {
+        builder.addStateStore(Stores.keyValueStoreBuilder(
+                Stores.inMemoryKeyValueStore(KEYS_STORE), Serdes.String(), Serdes.String()));
+
+        KStream<String, String> links = builder
+                .stream(properties.changesTopic(), Consumed.with(Serdes.String(), Serdes.String()))
+                .process(() -> new LinkTableProcessor(mongoConverter, objectMapper), KEYS_STORE);
+        links.to(properties.topic(), Produced.with(Serdes.String(), Serdes.String()));
+
+        builder.addGlobalStore(
+                Stores.keyValueStoreBuilder(Stores.inMemoryKeyValueStore(TABLE_STORE), Serdes.String(),
+                        Serdes.String()).withLoggingDisabled(),
+                properties.topic(),
+                Consumed.with(Serdes.String(), Serdes.String()),
+                () -> new Processor<String, String, Void, Void>() {
+                    private KeyValueStore<String, String> store;
+
+                    @Override
+                    public void init(ProcessorContext<Void, Void> context) {
+                        store = context.getStateStore(TABLE_STORE);
+                    }
+
+                    @Override
+                    public void process(Record<String, String> link) {
+                        // Tombstones have a null value, which deletes the link.
+                        store.put(link.key(), link.value());
+                    }
+                });
+        return links;
+    }
+
+    /**
+     * @return The key of a link in the table.
+     */
+    static String key(String owner, String code) {
+        return owner + ":" + code;
+    }
+}
@@ -0,0 +1,10 @@
+package com.github.rblessings.links;
+
+/**
+ * One of the destinations a link rotates among, e.g. an arm of an A/B test or a regional mirror.
+ *
+ * @param destination The absolute URL redirected to when this variant is chosen.
+ * @param weight      The variant's share of redirects, relative to the weights of the link's other variants.
+ */
+public record LinkVariant(String destination, int weight) {
+}
@@ -0,0 +1,85 @@
+package com.github.rblessings.links;
+
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Manages the weighted variants a link rotates among.
+ * <p>
+ * Weight changes are saved and then {@link LinkResolver#publish published} to this node's redirect cache, which builds
+ * the new alias table before swapping it in, so redirects never wait for a rebuild. Other nodes rebuild theirs when
+ * they next load the link, after {@code urlradar.links.redirects.max-staleness} at the latest.
+ * </p>
+ */
+@Service
+public class LinkVariantService {
+    static final int MAX_VARIANTS = 32;
+    static final int MAX_WEIGHT = 1_000_000;
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final LinkResolver linkResolver;
+
+    public LinkVariantService(ReactiveMongoTemplate mongoTemplate, LinkResolver linkResolver) {
+        this.mongoTemplate = mongoTemplate;
+        this.linkResolver = linkResolver;
+    }
+
+    /**
+     * Replaces the variants of an owner's link.
+     *
+     * @param owner    The ID of the user who owns the link.
+     * @param linkId   The ID of the link.
+     * @param variants The new variants; empty to redirect to the link's destination only.
+     * @return The link as saved, or an {@link InvalidLinkVariantsException} if the variants cannot be used, or a
+     * {@link LinkNotFoundException} if the owner has no such link.
+     */
+    public Mono<LinkEntity> updateVariants(String owner, String linkId, List<LinkVariant> variants) {
+        String problem = problem(variants);
+        if (problem != null) {
+            return Mono.error(new InvalidLinkVariantsException(problem));
+        }
+        return mongoTemplate.findAndModify(
+                        query(where("_id").is(linkId).and("owner").is(owner)),
+                        new Update().set("variants", variants),
+                        FindAndModifyOptions.options().returnNew(true),
+                        LinkEntity.class)
+                .switchIfEmpty(Mono.error(() -> new LinkNotFoundException(
+                        String.format("Link with ID %s not found", linkId))))
+                .doOnNext(linkResolver::publish);
+    }
+
+    /**
+     * @param variants The variants of a link.
+     * @return Why the variants cannot be used, or {@code null} if they can.
+     */
+    static String problem(List<LinkVariant> variants) {
+        if (variants == null) {
+            return "Variants are required; send an empty list to remove them";
+        }
+        if (variants.size() > MAX_VARIANTS) {
+            return String.format("A link can have at most %d variants", MAX_VARIANTS);
+        }
+        long total = 0;
+        for (LinkVariant variant : variants) {
+            if (variant == null || !LinkCsvParser.isValidDestination(variant.destination())) {
+                return "Every variant's destination must be an absolute http(s) URL";
+            }
+            if (variant.weight() < 0 || variant.weight() > MAX_WEIGHT) {
+                return String.format("Weights must be between 0 and %d", MAX_WEIGHT);
+            }
+            total += variant.weight();
+        }
+        if (!variants.isEmpty() && total == 0) {
+            return "At least one variant must have a positive weight";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,11 @@
+package com.github.rblessings.links;
+
+import java.util.List;
+
+/**
+ * The variants a link should rotate among; empty to redirect to the link's destination only.
+ *
+ * @param variants The destinations and their weights.
+ */
+public record LinkVariantsRequest(List<LinkVariant> variants) {
+}
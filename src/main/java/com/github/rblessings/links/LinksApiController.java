@@ -0,0 +1,92 @@
+package com.github.rblessings.links;
+
+import com.github.rblessings.users.ApiResponse;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.multipart.FilePartEvent;
+import org.springframework.http.codec.multipart.PartEvent;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/links")
+public class LinksApiController {
+    static final String IMPORT_FILE_PART = "file";
+
+    private final LinkImportService linkImportService;
+    private final LinkSearchIndex linkSearchIndex;
+    private final LinkVariantService linkVariantService;
+
+    public LinksApiController(LinkImportService linkImportService, LinkSearchIndex linkSearchIndex,
+                              LinkVariantService linkVariantService) {
+        this.linkImportService = linkImportService;
+        this.linkSearchIndex = linkSearchIndex;
+        this.linkVariantService = linkVariantService;
+    }
+
+    /**
+     * Replaces the weighted destinations one of the caller's links rotates among, e.g. for an A/B test.
+     */
+    @PutMapping("/{id}/variants")
+    public Mono<ResponseEntity<ApiResponse<List<LinkVariant>>>> updateVariants(
+            @PathVariable String id,
+            @RequestBody LinkVariantsRequest request,
+            Mono<Authentication> authenticationMono) {
+        return authenticationMono
+                .flatMap(authentication -> linkVariantService.updateVariants(authentication.getName(), id,
+                        request.variants()))
+                .map(link -> ResponseEntity.ok(ApiResponse.success(HttpStatus.OK.value(), link.variants())));
+    }
+
+    /**
+     * Searches the caller's links by words of their destination, code and tags, newest first. The last word of the
+     * query also matches as a prefix, so the endpoint can back a search-as-you-type box.
+     */
+    @GetMapping("/search")
+    public Mono<ResponseEntity<ApiResponse<List<LinkSearchHit>>>> searchLinks(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit,
+            Mono<Authentication> authenticationMono) {
+        return authenticationMono
+                .flatMap(authentication -> linkSearchIndex.search(authentication.getName(), q, limit).collectList())
+                .map(links -> ResponseEntity.ok(ApiResponse.success(HttpStatus.OK.value(), links)));
+    }
+
+    /**
+     * Imports links for the caller from a CSV file uploaded as the {@value #IMPORT_FILE_PART} part.
+     * <p>
+     * The upload is consumed as a stream of {@link PartEvent}s rather than as a {@code FilePart}, which would be
+     * buffered to memory or disk in full before the handler runs. Results are streamed back as newline-delimited
+     * JSON while the upload is still being read.
+     * </p>
+     */
+    @PostMapping(path = "/import",
+            consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<LinkImportResult> importLinks(@RequestBody Flux<PartEvent> parts,
+                                              Mono<Authentication> authenticationMono) {
+        Flux<DataBuffer> csv = parts.concatMap(event -> {
+            if (event instanceof FilePartEvent && IMPORT_FILE_PART.equals(event.name())) {
+                return Mono.just(event.content());
+            }
+            DataBufferUtils.release(event.content());
+            return Mono.empty();
+        });
+        return authenticationMono
+                .flatMapMany(authentication -> linkImportService.importLinks(authentication.getName(), csv));
+    }
+}
@@ -0,0 +1,249 @@
+package com.github.rblessings.links;
+
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * An inverted index over the links of one owner.
+ * <p>
+ * Links are numbered in creation order, and every term maps to the ascending numbers of the links containing it, kept
+ * in a growable {@code int[]}. Terms are sorted, so that a prefix matches a contiguous range of them. A query is
+ * answered by turning each of its terms into a {@link BitSet} of matching links and intersecting those; even for an
+ * owner with a hundred thousand links, that is a few kilobytes of words per term and no string comparison.
+ * </p>
+ * <p>
+ * Terms are the lowercase words of the destination's host, path and query, the host itself, the code and the tags.
+ * The host and the tags are also indexed as {@code host:} and {@code tag:} terms, so a query can be restricted to
+ * them. Links are only ever added; the index is rebuilt from the database to reflect anything else.
+ * </p>
+ */
+final class OwnerLinkIndex {
+
+    static final String HOST_FIELD = "host:";
+    static final String TAG_FIELD = "tag:";
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MAX_TERM_LENGTH = 64;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<LinkSearchHit> links = new ArrayList<>();
+    private final Set<String> ids = new HashSet<>();
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+
+    private OwnerLinkIndex() {
+    }
+
+    /**
+     * @param links The links of an owner, in any order.
+     * @return An index of the links, numbered in creation order, i.e. by ObjectId.
+     */
+    static OwnerLinkIndex of(Collection<LinkSearchHit> links) {
+        OwnerLinkIndex index = new OwnerLinkIndex();
+        links.stream()
+                .sorted(Comparator.comparing(LinkSearchHit::id))
+                .forEach(index::append);
+        return index;
+    }
+
+    /**
+     * Adds links created after the index was built. Links already in the index are ignored.
+     *
+     * @param created The new links.
+     */
+    void addAll(Collection<LinkSearchHit> created) {
+        lock.writeLock().lock();
+        try {
+            created.forEach(this::append);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the links matching all terms, newest first.
+     *
+     * @param query        The lowercase query terms, see {@link #queryTerms(String)}.
+     * @param lastIsPrefix Whether the last term also matches terms it is a prefix of, as while the user types it.
+     * @param limit        The maximum number of links returned.
+     * @return The matching links.
+     */
+    List<LinkSearchHit> search(List<String> query, boolean lastIsPrefix, int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = null;
+            for (int i = 0; i < query.size() && (matches == null || !matches.isEmpty()); i++) {
+                String term = query.get(i);
+                BitSet termMatches = lastIsPrefix && i == query.size() - 1 ? prefixMatches(term) : matches(term);
+                if (matches == null) {
+                    matches = termMatches;
+                } else {
+                    matches.and(termMatches);
+                }
+            }
+
+            List<LinkSearchHit> hits = new ArrayList<>(Math.min(limit, links.size()));
+            if (matches == null) {
+                return hits;
+            }
+            for (int link = matches.previousSetBit(links.size() - 1); link >= 0 && hits.size() < limit;
+                 link = matches.previousSetBit(link - 1)) {
+                hits.add(links.get(link));
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The number of indexed links.
+     */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return links.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Splits a query into terms the way links are split, except that {@code host:} and {@code tag:} terms are kept
+     * whole.
+     *
+     * @param query A search query.
+     * @return The lowercase terms of the query, in order.
+     */
+    static List<String> queryTerms(String query) {
+        List<String> terms = new ArrayList<>();
+        for (String part : query.strip().toLowerCase(Locale.ROOT).split("\\s+")) {
+            if (part.startsWith(HOST_FIELD) || part.startsWith(TAG_FIELD)) {
+                if (part.length() > part.indexOf(':') + 1) {
+                    terms.add(truncate(part));
+                }
+            } else {
+                words(part, terms);
+            }
+        }
+        return terms;
+    }
+
+    private void append(LinkSearchHit link) {
+        if (!ids.add(link.id())) {
+            return;
+        }
+        int number = links.size();
+        links.add(link);
+        for (String term : termsOf(link)) {
+            terms.computeIfAbsent(term, key -> new Postings()).add(number);
+        }
+    }
+
+    private BitSet matches(String term) {
+        BitSet matches = new BitSet(links.size());
+        Postings postings = terms.get(term);
+        if (postings != null) {
+            postings.setIn(matches);
+        }
+        return matches;
+    }
+
+    private BitSet prefixMatches(String prefix) {
+        BitSet matches = new BitSet(links.size());
+        terms.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values()
+                .forEach(postings -> postings.setIn(matches));
+        return matches;
+    }
+
+    private static Set<String> termsOf(LinkSearchHit link) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (link.code() != null) {
+            terms.add(truncate(link.code().toLowerCase(Locale.ROOT)));
+            words(link.code(), terms);
+        }
+        if (link.tags() != null) {
+            for (String tag : link.tags()) {
+                String normalized = truncate(tag.toLowerCase(Locale.ROOT));
+                terms.add(TAG_FIELD + normalized);
+                words(normalized, terms);
+            }
+        }
+        URI destination;
+        try {
+            destination = URI.create(link.destination());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return terms;
+        }
+        if (destination.getHost() != null) {
+            String host = truncate(destination.getHost().toLowerCase(Locale.ROOT));
+            terms.add(host);
+            terms.add(HOST_FIELD + host);
+            words(host, terms);
+        }
+        words(decode(destination.getRawPath()), terms);
+        words(decode(destination.getRawQuery()), terms);
+        return terms;
+    }
+
+    private static void words(String text, Collection<String> terms) {
+        if (text == null) {
+            return;
+        }
+        for (String word : WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) {
+                terms.add(truncate(word));
+            }
+        }
+    }
+
+    private static String decode(String raw) {
+        if (raw == null) {
+            return null;
+        }
+        try {
+            return URLDecoder.decode(raw, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return raw;
+        }
+    }
+
+    private static String truncate(String term) {
+        return term.length() > MAX_TERM_LENGTH ? term.substring(0, MAX_TERM_LENGTH) : term;
+    }
+
+    /**
+     * The ascending numbers of the links containing a term.
+     */
+    private static final class Postings {
+        private int[] links = new int[1];
+        private int size;
+
+        void add(int link) {
+            if (size == links.length) {
+                links = Arrays.copyOf(links, size + (size >> 1) + 1);
+            }
+            links[size++] = link;
+        }
+
+        void setIn(BitSet matches) {
+            for (int i = 0; i < size; i++) {
+                matches.set(links[i]);
+            }
+        }
+    }
+}
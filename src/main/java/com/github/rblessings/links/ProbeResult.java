@@ -0,0 +1,52 @@
+package com.github.rblessings.links;
+
+import java.time.Duration;
+
+/**
+ * The outcome of probing a link's destination once.
+ *
+ * @param httpStatus   The response status, or {@code null} if no response was received.
+ * @param etag         The response's {@code ETag}, if any.
+ * @param lastModified The response's {@code Last-Modified}, if any.
+ * @param latency      How long the destination took to respond, from sending the request.
+ * @param error        Why no response was received, if so.
+ * @param skipped      Whether the probe never reached the destination for reasons of our own, such as no pooled
+ *                     connection becoming available in time. Such a probe says nothing about the destination.
+ */
+public record ProbeResult(Integer httpStatus, String etag, String lastModified, Duration latency, String error,
+                          boolean skipped) {
+
+    public static ProbeResult response(int httpStatus, String etag, String lastModified, Duration latency) {
+        return new ProbeResult(httpStatus, etag, lastModified, latency, null, false);
+    }
+
+    public static ProbeResult failure(Throwable error, Duration latency) {
+        return new ProbeResult(null, null, null, latency, describe(error), false);
+    }
+
+    public static ProbeResult skipped(Throwable error) {
+        return new ProbeResult(null, null, null, Duration.ZERO, describe(error), true);
+    }
+
+    private static String describe(Throwable error) {
+        return error.getClass().getSimpleName() + ": " + error.getMessage();
+    }
+
+    /**
+     * A destination is reachable if it answers with success, a redirect or "not modified". Destinations behind
+     * authentication ({@code 401}, {@code 403}) exist too; whether a visitor may see them is not the checker's concern.
+     *
+     * @return {@code true} if the destination is reachable.
+     */
+    public boolean reachable() {
+        return httpStatus != null
+                && ((httpStatus >= 200 && httpStatus < 400) || httpStatus == 401 || httpStatus == 403);
+    }
+
+    /**
+     * @return {@code true} if the destination asked us to slow down, which says nothing about its health.
+     */
+    public boolean throttled() {
+        return httpStatus != null && httpStatus == 429;
+    }
+}
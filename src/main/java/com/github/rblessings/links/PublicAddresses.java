@@ -0,0 +1,156 @@
+package com.github.rblessings.links;
+
+import io.netty.channel.EventLoop;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.resolver.AddressResolver;
+import io.netty.resolver.AddressResolverGroup;
+import io.netty.resolver.InetNameResolver;
+import io.netty.resolver.dns.DnsNameResolver;
+import io.netty.resolver.dns.DnsNameResolverBuilder;
+import io.netty.util.NetUtil;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+import reactor.netty.resources.LoopResources;
+
+import java.net.Inet4Address;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keeps the destination health checker from being pointed at internal services (server-side request forgery).
+ * <p>
+ * Destinations are user-supplied, so a link to {@code http://169.254.169.254/} or {@code http://localhost:8080/}
+ * would otherwise have the checker probe cloud metadata or this node's own endpoints. Host names are checked on the
+ * addresses they resolve to, at connect time, so a name that resolves to a public address when a link is created and
+ * to a private one later is still refused.
+ * </p>
+ */
+final class PublicAddresses {
+
+    private PublicAddresses() {
+    }
+
+    /**
+     * @return {@code true} unless the address is a loopback, wildcard, private, unique-local, shared (carrier-grade
+     * NAT), link-local or multicast address, including IPv4 addresses embedded in IPv6 ones.
+     */
+    static boolean isPublic(InetAddress address) {
+        if (address.isLoopbackAddress() || address.isAnyLocalAddress() || address.isSiteLocalAddress()
+                || address.isLinkLocalAddress() || address.isMulticastAddress()) {
+            return false;
+        }
+        byte[] bytes = address.getAddress();
+        if (address instanceof Inet4Address) {
+            int first = bytes[0] & 0xFF;
+            int second = bytes[1] & 0xFF;
+            return first != 0 && !(first == 100 && second >= 64 && second < 128);
+        }
+        if (address instanceof Inet6Address) {
+            if ((bytes[0] & 0xFE) == 0xFC) {
+                return false;
+            }
+            if (isZero(bytes, 0, 10) && (bytes[10] & 0xFF) == 0xFF && (bytes[11] & 0xFF) == 0xFF) {
+                return isPublic(embeddedIpv4(bytes));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * IP literals bypass name resolution, and with it {@link #resolver(LoopResources)}, so they are checked up front.
+     *
+     * @param host A URI host, possibly an IP literal, IPv6 ones in brackets.
+     * @return {@code true} if the host is an IP literal of a non-public address.
+     */
+    static boolean isNonPublicLiteral(String host) {
+        String bare = host.startsWith("[") && host.endsWith("]") ? host.substring(1, host.length() - 1) : host;
+        InetAddress literal = NetUtil.createInetAddressFromIpAddressString(bare);
+        return literal != null && !isPublic(literal);
+    }
+
+    /**
+     * @param loopResources The event loops the resolver runs on, which determine the channel types of DNS queries.
+     * @return A resolver that fails resolution of any host name that resolves to a non-public address.
+     */
+    static AddressResolverGroup<InetSocketAddress> resolver(LoopResources loopResources) {
+        return new AddressResolverGroup<>() {
+            @Override
+            protected AddressResolver<InetSocketAddress> newResolver(EventExecutor executor) {
+                EventLoop eventLoop = (EventLoop) executor;
+                DnsNameResolver dns = new DnsNameResolverBuilder(eventLoop)
+                        .datagramChannelType(loopResources.onChannelClass(DatagramChannel.class, eventLoop.parent()))
+                        .socketChannelType(loopResources.onChannelClass(SocketChannel.class, eventLoop.parent()))
+                        .build();
+                return new PublicNameResolver(eventLoop, dns).asAddressResolver();
+            }
+        };
+    }
+
+    private static boolean isZero(byte[] bytes, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static InetAddress embeddedIpv4(byte[] bytes) {
+        try {
+            return InetAddress.getByAddress(Arrays.copyOfRange(bytes, 12, 16));
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Resolves host names with Netty's non-blocking DNS resolver, so a slow DNS answer never holds up the event loop,
+     * and refuses names with a non-public address.
+     */
+    private static final class PublicNameResolver extends InetNameResolver {
+        private final DnsNameResolver dns;
+
+        private PublicNameResolver(EventExecutor executor, DnsNameResolver dns) {
+            super(executor);
+            this.dns = dns;
+        }
+
+        @Override
+        protected void doResolve(String host, Promise<InetAddress> promise) {
+            Promise<List<InetAddress>> all = executor().newPromise();
+            all.addListener((Future<List<InetAddress>> resolved) -> {
+                if (resolved.isSuccess()) {
+                    promise.trySuccess(resolved.getNow().getFirst());
+                } else {
+                    promise.tryFailure(resolved.cause());
+                }
+            });
+            doResolveAll(host, all);
+        }
+
+        @Override
+        protected void doResolveAll(String host, Promise<List<InetAddress>> promise) {
+            dns.resolveAll(host).addListener((Future<List<InetAddress>> resolved) -> {
+                if (!resolved.isSuccess()) {
+                    promise.tryFailure(resolved.cause());
+                } else if (!resolved.getNow().stream().allMatch(PublicAddresses::isPublic)) {
+                    promise.tryFailure(new UnknownHostException(
+                            String.format("Host '%s' resolves to a non-public address", host)));
+                } else {
+                    promise.trySuccess(resolved.getNow());
+                }
+            });
+        }
+
+        @Override
+        public void close() {
+            dns.close();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.github.rblessings.links;
+
+import com.github.rblessings.analytics.ClickRecorder;
+import com.github.rblessings.users.UsernameIndex;
+import com.github.rblessings.users.Usernames;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+@RestController
+public class RedirectController {
+
+    private final UsernameIndex usernameIndex;
+    private final LinkResolver linkResolver;
+    private final ClickRecorder clickRecorder;
+
+    public RedirectController(UsernameIndex usernameIndex, LinkResolver linkResolver, ClickRecorder clickRecorder) {
+        this.usernameIndex = usernameIndex;
+        this.linkResolver = linkResolver;
+        this.clickRecorder = clickRecorder;
+    }
+
+    /**
+     * Redirects to the destination of a user's short link. Links that do not exist, are not active yet, expired or
+     * used up their clicks are all not found, so that they cannot be told apart. Every redirect is recorded as a
+     * click, with the variant that was served.
+     */
+    @GetMapping("/{username}/{code}")
+    public Mono<ResponseEntity<Void>> redirect(@PathVariable String username, @PathVariable String code,
+                                               ServerHttpRequest request) {
+        return usernameIndex.resolveOwner(Usernames.normalize(username))
+                .flatMap(owner -> linkResolver.resolve(owner, code))
+                .map(resolved -> {
+                    clickRecorder.record(resolved.link().id(), resolved.link().owner(), resolved.variant(),
+                            request.getHeaders().getFirst(HttpHeaders.REFERER),
+                            request.getHeaders().getFirst(HttpHeaders.USER_AGENT));
+                    return ResponseEntity.status(HttpStatus.FOUND)
+                            .location(URI.create(resolved.destination()))
+                            .<Void>build();
+                })
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
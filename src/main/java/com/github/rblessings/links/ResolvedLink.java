@@ -0,0 +1,11 @@
+package com.github.rblessings.links;
+
+/**
+ * A link resolved for one redirect.
+ *
+ * @param link        The link.
+ * @param destination The URL to redirect to: the chosen variant's, or the link's if it has no variants.
+ * @param variant     The index of the chosen variant, or {@code null} if the link has no variants.
+ */
+public record ResolvedLink(LinkEntity link, String destination, Integer variant) {
+}
@@ -0,0 +1,164 @@
+package com.github.rblessings.outbox;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Relays document changes from MongoDB to Kafka without dual writes in the request path.
+ * <p>
+ * Request handlers such as {@code UserService#registerUser} only write to MongoDB. This relay tails the change stream
+ * of every configured collection and publishes each change as an {@link OutboxEvent} to the collection's topic.
+ * Because the change stream is the outbox, an event exists if and only if the write was committed.
+ * </p>
+ * <p>Delivery guarantees:</p>
+ * <ul>
+ *     <li><strong>No loss:</strong> events are published in batches, and the resume token of a batch's last event is
+ *     persisted only after Kafka has acknowledged the whole batch. A restart resumes right after that token.</li>
+ *     <li><strong>Bounded replay:</strong> at most the batch in flight during a crash is published again. Events are
+ *     keyed by document id, so consumers can de-duplicate.</li>
+ *     <li><strong>Single active relay:</strong> only the holder of the {@link OutboxLease} tails the streams. Losing the
+ *     lease cancels the streams; a standby node resumes from the persisted tokens once the lease expires.</li>
+ * </ul>
+ */
+@Component
+@ConditionalOnProperty(prefix = "urlradar.outbox", name = "enabled", havingValue = "true")
+public class ChangeStreamOutboxRelay implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(ChangeStreamOutboxRelay.class);
+
+    private static final List<String> RELAYED_OPERATIONS = List.of("insert", "update", "replace", "delete");
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final OutboxProperties properties;
+    private final OutboxLease lease;
+    private final ResumeTokenStore resumeTokenStore;
+
+    private volatile Disposable subscription;
+
+    public ChangeStreamOutboxRelay(ReactiveMongoTemplate mongoTemplate,
+                                   KafkaTemplate<String, String> kafkaTemplate,
+                                   OutboxProperties properties) {
+        this.mongoTemplate = mongoTemplate;
+        this.kafkaTemplate = kafkaTemplate;
+        this.properties = properties;
+        this.lease = new OutboxLease(mongoTemplate, properties.lease(), Clock.systemUTC());
+        this.resumeTokenStore = new ResumeTokenStore(mongoTemplate);
+    }
+
+    @Override
+    public void start() {
+        subscription = Flux.interval(Duration.ZERO, properties.lease().renewInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> lease.tryAcquire())
+                .distinctUntilChanged()
+                .doOnNext(leader -> log.info(leader ? "Acquired outbox lease; relaying {}" : "Outbox relay on standby",
+                        properties.collections().keySet()))
+                .switchMap(leader -> leader ? relayAll() : Flux.empty())
+                .subscribe(null, e -> log.error("Outbox relay stopped", e));
+    }
+
+    @Override
+    public void stop() {
+        Disposable current = subscription;
+        if (current != null) {
+            current.dispose();
+            lease.release().block(Duration.ofSeconds(5));
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        Disposable current = subscription;
+        return current != null && !current.isDisposed();
+    }
+
+    private Flux<Void> relayAll() {
+        return Flux.fromIterable(properties.collections().entrySet())
+                .flatMap(this::relay);
+    }
+
+    /**
+     * Tails one collection from its last persisted resume token, retrying with backoff on transient failures.
+     * <p>
+     * Batching uses fair backpressure: the change stream is only asked for as many events as fit into the batches
+     * the publisher has requested, so a slow Kafka holds events back in MongoDB instead of piling them up here.
+     * </p>
+     */
+    private Flux<Void> relay(Map.Entry<String, String> collectionToTopic) {
+        String collection = collectionToTopic.getKey();
+        String topic = collectionToTopic.getValue();
+
+        return Mono.defer(() -> resumeTokenStore.load(collection))
+                .map(this::optionsResumingAfter)
+                .defaultIfEmpty(options().build())
+                .flatMapMany(options -> mongoTemplate.changeStream(collection, options, Document.class))
+                .bufferTimeout(properties.batchSize(), properties.maxBatchWait(), true)
+                .concatMap(batch -> publish(topic, batch)
+                        .then(Mono.defer(() -> resumeTokenStore.save(collection, batch.getLast().getResumeToken()))))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofMinutes(1))
+                        .doBeforeRetry(signal -> log.warn("Outbox relay for '{}' failed; resuming from last token",
+                                collection, signal.failure())));
+    }
+
+    /**
+     * Publishes a batch and completes only when Kafka has acknowledged every record in it.
+     */
+    private Mono<Void> publish(String topic, List<ChangeStreamEvent<Document>> batch) {
+        return Flux.fromIterable(batch)
+                .map(this::toOutboxEvent)
+                .map(event -> new ProducerRecord<>(topic, event.documentId(), event.toJson()))
+                .flatMapSequential(record -> Mono.fromFuture(() -> kafkaTemplate.send(record)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    private OutboxEvent toOutboxEvent(ChangeStreamEvent<Document> event) {
+        BsonValue id = event.getRaw().getDocumentKey().get("_id");
+        return OutboxEvent.of(event.getCollectionName(), event.getRaw().getOperationTypeString(), idAsString(id),
+                event.getTimestamp(), event.getBody(), properties.excludedFields());
+    }
+
+    private static String idAsString(BsonValue id) {
+        if (id.isObjectId()) {
+            return id.asObjectId().getValue().toHexString();
+        }
+        if (id.isString()) {
+            return id.asString().getValue();
+        }
+        return id.toString();
+    }
+
+    private ChangeStreamOptions optionsResumingAfter(BsonValue token) {
+        return options().resumeAfter(token).build();
+    }
+
+    private static ChangeStreamOptions.ChangeStreamOptionsBuilder options() {
+        return ChangeStreamOptions.builder()
+                .filter(Aggregation.newAggregation(Aggregation.match(where("operationType").in(RELAYED_OPERATIONS))))
+                .returnFullDocumentOnUpdate();
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.rblessings.outbox;
+
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A single document change as published to Kafka by the {@link ChangeStreamOutboxRelay}.
+ * <p>
+ * The event is keyed by the document id so that all changes to one document land on the same partition and keep
+ * their order. Consumers must be idempotent: after a crash the relay re-publishes the batch that was in flight.
+ * </p>
+ *
+ * @param collection  The source MongoDB collection.
+ * @param operation   The change stream operation type (insert, update, replace, delete).
+ * @param documentId  The {@code _id} of the changed document, used as the Kafka record key.
+ * @param clusterTime When the change was committed on the cluster, or {@code null} if unknown.
+ * @param document    The full document after the change, or {@code null} for deletes.
+ */
+public record OutboxEvent(
+        String collection,
+        String operation,
+        String documentId,
+        Instant clusterTime,
+        Document document) {
+
+    private static final JsonWriterSettings JSON_SETTINGS = JsonWriterSettings.builder()
+            .outputMode(JsonMode.RELAXED)
+            .build();
+
+    public OutboxEvent {
+        Objects.requireNonNull(collection);
+        Objects.requireNonNull(operation);
+        Objects.requireNonNull(documentId);
+    }
+
+    /**
+     * Creates an event, dropping the given top-level fields from the document so that secrets never leave MongoDB.
+     *
+     * @param excludedFields Fields removed from a copy of {@code document}; the original is left untouched.
+     */
+    public static OutboxEvent of(String collection, String operation, String documentId, Instant clusterTime,
+                                 Document document, Set<String> excludedFields) {
+        Document payload = null;
+        if (document != null) {
+            payload = new Document(document);
+            payload.keySet().removeAll(excludedFields);
+        }
+        return new OutboxEvent(collection, operation, documentId, clusterTime, payload);
+    }
+
+    /**
+     * Serializes the event as relaxed extended JSON, the format published as the Kafka record value.
+     *
+     * @return The JSON representation of this event.
+     */
+    public String toJson() {
+        Document json = new Document("collection", collection)
+                .append("operation", operation)
+                .append("documentId", documentId)
+                .append("clusterTime", clusterTime == null ? null : clusterTime.toString())
+                .append("document", document);
+        return json.toJson(JSON_SETTINGS);
+    }
+}
@@ -0,0 +1,85 @@
+package com.github.rblessings.outbox;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * A time-bound, cluster-wide lease stored in MongoDB that elects a single active outbox relay.
+ * <p>
+ * The lease is one document per lease name holding the current owner and an expiry. {@link #tryAcquire()} atomically
+ * takes the lease if it is free, expired, or already ours, and extends the expiry. Competing upserts on a lease
+ * held by another node fail with a duplicate key on {@code _id}, which is reported as "not acquired".
+ * </p>
+ * <p>
+ * Any error talking to MongoDB, or a renewal taking longer than {@link OutboxProperties.Lease#renewTimeout()}, is
+ * treated as having lost the lease: a relay that cannot renew must stop publishing before its lease expires and
+ * another node takes over.
+ * </p>
+ */
+class OutboxLease {
+    static final String COLLECTION = "outbox_leases";
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxLease.class);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final OutboxProperties.Lease properties;
+    private final Clock clock;
+    private final String ownerId = UUID.randomUUID().toString();
+
+    OutboxLease(ReactiveMongoTemplate mongoTemplate, OutboxProperties.Lease properties, Clock clock) {
+        this.mongoTemplate = mongoTemplate;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * Acquires or renews the lease for this node.
+     *
+     * @return A {@link Mono} emitting {@code true} if this node holds the lease after the call.
+     */
+    Mono<Boolean> tryAcquire() {
+        Date now = Date.from(clock.instant());
+        Query query = Query.query(where("_id").is(properties.name())
+                .orOperator(where("owner").is(ownerId), where("expiresAt").lt(now)));
+        Update update = new Update()
+                .set("owner", ownerId)
+                .set("expiresAt", Date.from(clock.instant().plus(properties.ttl())));
+
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().upsert(true).returnNew(true),
+                        Document.class, COLLECTION)
+                .map(lease -> ownerId.equals(lease.getString("owner")))
+                .defaultIfEmpty(false)
+                .timeout(properties.renewTimeout())
+                .onErrorResume(DuplicateKeyException.class, e -> Mono.just(false))
+                .onErrorResume(e -> {
+                    log.warn("Could not renew outbox lease '{}'; stepping down", properties.name(), e);
+                    return Mono.just(false);
+                });
+    }
+
+    /**
+     * Releases the lease if this node holds it, so a standby can take over without waiting for expiry.
+     *
+     * @return A {@link Mono} completing once the release has been attempted.
+     */
+    Mono<Void> release() {
+        Query query = Query.query(where("_id").is(properties.name()).and("owner").is(ownerId));
+        Update update = new Update().set("expiresAt", Date.from(clock.instant()));
+        return mongoTemplate.updateFirst(query, update, COLLECTION)
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+}
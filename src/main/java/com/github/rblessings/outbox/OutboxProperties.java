@@ -0,0 +1,61 @@
+package com.github.rblessings.outbox;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Configuration for the change-stream driven outbox relay.
+ *
+ * @param enabled        Whether the relay runs on this node. Change streams require a replica set, so this is off
+ *                       by default and must be enabled explicitly per environment.
+ * @param collections    MongoDB collection name mapped to the Kafka topic its change events are published to.
+ * @param excludedFields Top-level document fields that are never published (e.g. password hashes).
+ * @param batchSize      Maximum number of change events published to Kafka before the resume token is persisted.
+ * @param maxBatchWait   Maximum time a partially filled batch waits before it is flushed.
+ * @param lease          Settings for the cluster-wide lease that keeps a single relay active.
+ */
+@ConfigurationProperties("urlradar.outbox")
+public record OutboxProperties(
+        boolean enabled,
+        Map<String, String> collections,
+        @DefaultValue("password") Set<String> excludedFields,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("200ms") Duration maxBatchWait,
+        @DefaultValue Lease lease) {
+
+    public OutboxProperties {
+        collections = collections == null ? Map.of() : Map.copyOf(collections);
+        excludedFields = Set.copyOf(excludedFields);
+    }
+
+    /**
+     * @param name          Identifier of the lease document shared by all relay instances.
+     * @param ttl           How long a lease stays valid without renewal. Must comfortably exceed {@code renewInterval}.
+     * @param renewInterval How often the holder renews, and how often standbys try to take over.
+     */
+    public record Lease(
+            @DefaultValue("outbox-relay") String name,
+            @DefaultValue("15s") Duration ttl,
+            @DefaultValue("5s") Duration renewInterval) {
+
+        public Lease {
+            if (ttl.compareTo(renewInterval) <= 0) {
+                throw new IllegalArgumentException(String.format("Outbox lease TTL %s must exceed renew interval %s",
+                        ttl, renewInterval));
+            }
+        }
+
+        /**
+         * @return How long a renewal may take before it counts as failed: half the time left between the next
+         * renewal and the expiry of the current lease, so a relay whose renewal hangs stops before another node can
+         * take over.
+         */
+        public Duration renewTimeout() {
+            return ttl.minus(renewInterval).dividedBy(2);
+        }
+    }
+}
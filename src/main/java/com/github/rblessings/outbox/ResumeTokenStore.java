@@ -0,0 +1,47 @@
+package com.github.rblessings.outbox;
+
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Persists the change stream resume token of each relayed collection.
+ * <p>
+ * A token is saved only after every event up to and including it has been acknowledged by Kafka, so resuming from
+ * the stored token never skips an event. Tokens are stored as extended JSON to keep them opaque to the mapping layer.
+ * </p>
+ */
+class ResumeTokenStore {
+    static final String COLLECTION = "outbox_resume_tokens";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    ResumeTokenStore(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * @param collection The relayed collection.
+     * @return A {@link Mono} emitting the last acknowledged resume token, or empty if the collection was never relayed.
+     */
+    Mono<BsonValue> load(String collection) {
+        return mongoTemplate.findById(collection, Document.class, COLLECTION)
+                .map(document -> BsonDocument.parse(document.getString("token")));
+    }
+
+    /**
+     * @param collection The relayed collection.
+     * @param token      The resume token of the last event acknowledged by Kafka.
+     * @return A {@link Mono} completing once the token is durably stored.
+     */
+    Mono<Void> save(String collection, BsonValue token) {
+        Update update = new Update().set("token", token.asDocument().toJson());
+        return mongoTemplate.upsert(Query.query(where("_id").is(collection)), update, COLLECTION).then();
+    }
+}
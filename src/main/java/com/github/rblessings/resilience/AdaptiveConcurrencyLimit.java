@@ -0,0 +1,130 @@
+package com.github.rblessings.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Estimates how many requests the server can have in flight before queueing makes them slower, and admits no more.
+ * <p>
+ * The limit follows the gradient of round-trip times: requests are sampled in windows of {@code windowSamples}, and
+ * each window's average RTT is compared with a long-term average of past windows. As long as requests are not much
+ * slower than usual, the limit grows by the square root of itself, the Vegas-style allowance for a small queue. Once
+ * they get slower than {@code rttTolerance} times the long-term average, it shrinks in proportion, down to half per
+ * window. This reacts to latency rising, which precedes timeouts, instead of to errors, which follow them; and no
+ * fixed limit has to be tuned, since it tracks whatever the dependencies can currently take.
+ * </p>
+ * <p>
+ * Key design decisions:
+ * <ul>
+ *     <li><strong>Only learn from load:</strong> while fewer than half the limit's requests are in flight, RTTs say
+ *     nothing about the limit, so it neither grows without bound while idle nor shrinks on a slow but quiet
+ *     window.</li>
+ *     <li><strong>Recover after overload:</strong> a long overload raises the long-term average, which would then
+ *     tolerate slow requests for as long; when requests get fast again, the average is decayed quickly.</li>
+ *     <li><strong>Cheap admission:</strong> admitting a request is a CAS on the in-flight count; only the completion
+ *     of a request takes a lock, for a few arithmetic operations.</li>
+ * </ul>
+ * </p>
+ */
+public final class AdaptiveConcurrencyLimit {
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double LONG_RTT_DRIFT = 2.0;
+    private static final double LONG_RTT_DECAY = 0.95;
+
+    private final ResilienceProperties.Concurrency properties;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // The current sample window and the estimate, guarded by this.
+    private long windowRttNanos;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    private double longRttNanos;
+    private double estimate;
+
+    public AdaptiveConcurrencyLimit(ResilienceProperties.Concurrency properties) {
+        this.properties = properties;
+        this.estimate = properties.initialLimit();
+        this.limit = properties.initialLimit();
+    }
+
+    /**
+     * Admits a request if there is room for it.
+     *
+     * @param redirect Whether the request is a redirect, which may use the whole limit; other requests may only use
+     *                 {@code apiShare} of it, so that they are shed first.
+     * @return {@code true} if the request was admitted; it must then be released exactly once.
+     */
+    public boolean tryAcquire(boolean redirect) {
+        int current = limit;
+        int allowed = redirect ? current : Math.max(1, (int) (current * properties.apiShare()));
+        int admitted;
+        do {
+            admitted = inFlight.get();
+            if (admitted >= allowed) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(admitted, admitted + 1));
+        return true;
+    }
+
+    /**
+     * Releases a request that completed, learning from its round-trip time.
+     *
+     * @param rttNanos How long the request took.
+     */
+    public void release(long rttNanos) {
+        sample(rttNanos, inFlight.getAndDecrement());
+    }
+
+    /**
+     * Releases a request whose round-trip time means nothing, e.g. because the client went away.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * @return The number of requests currently admitted.
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return The current limit on requests in flight.
+     */
+    public int limit() {
+        return limit;
+    }
+
+    private synchronized void sample(long rttNanos, int inFlightBefore) {
+        windowRttNanos += rttNanos;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightBefore);
+        if (++windowSamples < properties.windowSamples()) {
+            return;
+        }
+        update((double) windowRttNanos / windowSamples, windowMaxInFlight);
+        windowRttNanos = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+    }
+
+    private void update(double shortRttNanos, int maxInFlight) {
+        shortRttNanos = Math.max(1, shortRttNanos);
+        longRttNanos = longRttNanos == 0
+                ? shortRttNanos
+                : longRttNanos + (shortRttNanos - longRttNanos) / properties.longWindow();
+        if (longRttNanos / shortRttNanos > LONG_RTT_DRIFT) {
+            longRttNanos *= LONG_RTT_DECAY;
+        }
+        if (maxInFlight < estimate / 2) {
+            return;
+        }
+
+        double gradient = Math.clamp(properties.rttTolerance() * longRttNanos / shortRttNanos, MIN_GRADIENT, 1.0);
+        double next = estimate * gradient + Math.sqrt(estimate);
+        estimate = Math.clamp((1 - properties.smoothing()) * estimate + properties.smoothing() * next,
+                properties.minLimit(), properties.maxLimit());
+        limit = (int) estimate;
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.rblessings.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.List;
+
+/**
+ * Sheds load beyond what the server can serve without slowing down, see {@link AdaptiveConcurrencyLimit}.
+ * <p>
+ * Requests over the limit are answered with {@code 503 Service Unavailable} and a {@code Retry-After} header right
+ * away, before authentication or any other work, so that the requests that are admitted keep their usual latency
+ * instead of all of them queueing until MongoDB times out. Redirects are what visitors wait for, so they may use the
+ * whole limit, while the {@code /api/} endpoints are shed once they hold {@code apiShare} of it. Health checks and
+ * long-lived streams are configured as unlimited paths: the former must answer under load, and the latter would hold
+ * a slot and skew the round-trip times for as long as they stream.
+ * </p>
+ * <p>
+ * The limit, the requests in flight and the rejected requests per priority are exported as
+ * {@code urlradar.concurrency.limit}, {@code urlradar.concurrency.inflight} and {@code urlradar.concurrency.rejected}.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "urlradar.resilience.concurrency", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+public class ConcurrencyLimitFilter implements WebFilter, Ordered {
+    static final String API_PREFIX = "/api/";
+    static final String RETRY_AFTER_SECONDS = "1";
+
+    private final AdaptiveConcurrencyLimit limit;
+    private final List<PathPattern> unlimitedPaths;
+    private final Counter rejectedRedirects;
+    private final Counter rejectedApiRequests;
+
+    @Autowired
+    public ConcurrencyLimitFilter(ResilienceProperties properties, MeterRegistry registry) {
+        this(new AdaptiveConcurrencyLimit(properties.concurrency()), properties.concurrency().unlimitedPaths(),
+                registry);
+    }
+
+    ConcurrencyLimitFilter(AdaptiveConcurrencyLimit limit, List<String> unlimitedPaths, MeterRegistry registry) {
+        this.limit = limit;
+        this.unlimitedPaths = unlimitedPaths.stream().map(PathPatternParser.defaultInstance::parse).toList();
+        Gauge.builder("urlradar.concurrency.limit", limit, AdaptiveConcurrencyLimit::limit)
+                .description("Current limit on requests in flight")
+                .register(registry);
+        Gauge.builder("urlradar.concurrency.inflight", limit, AdaptiveConcurrencyLimit::inFlight)
+                .description("Requests in flight that count against the limit")
+                .register(registry);
+        this.rejectedRedirects = rejected(registry, "redirect");
+        this.rejectedApiRequests = rejected(registry, "api");
+    }
+
+    @Override
+    public int getOrder() {
+        // Before the security filter chain, so that shed requests cost as little as possible.
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        PathContainer path = exchange.getRequest().getPath().pathWithinApplication();
+        if (unlimitedPaths.stream().anyMatch(pattern -> pattern.matches(path))) {
+            return chain.filter(exchange);
+        }
+
+        boolean redirect = !path.value().startsWith(API_PREFIX);
+        if (!limit.tryAcquire(redirect)) {
+            (redirect ? rejectedRedirects : rejectedApiRequests).increment();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            return response.setComplete();
+        }
+
+        long start = System.nanoTime();
+        return Mono.defer(() -> chain.filter(exchange))
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL) {
+                        limit.release();
+                    } else {
+                        limit.release(System.nanoTime() - start);
+                    }
+                });
+    }
+
+    private static Counter rejected(MeterRegistry registry, String priority) {
+        return Counter.builder("urlradar.concurrency.rejected")
+                .description("Requests rejected because the concurrency limit was reached")
+                .tag("priority", priority)
+                .register(registry);
+    }
+}
@@ -0,0 +1,130 @@
+package com.github.rblessings.resilience;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Hedges idempotent reads to cut tail latency.
+ * <p>
+ * A read is issued once. If it has not completed after the hedge delay, an identical backup read is issued and
+ * whichever signals first wins; the other is cancelled. The delay tracks a configurable percentile (e.g. p95) of
+ * recently observed latencies, so only the slowest few percent of reads are ever duplicated.
+ * </p>
+ * <p>
+ * Key design decisions:
+ * <ul>
+ *     <li><strong>Bounded extra load:</strong> every read earns {@code maxHedgeRatio} of a hedge token and every
+ *     backup spends a whole one. The bucket holds at most the tokens earned over one latency window, so hedges stay
+ *     below that ratio of recent reads, and a slow dependency is not hit with twice the traffic however long the
+ *     process has been running.</li>
+ *     <li><strong>Cheap on the hot path:</strong> latencies go into a fixed-size ring buffer, and the percentile is
+ *     recomputed only once per quarter of the window rather than on every read.</li>
+ * </ul>
+ * </p>
+ * <p>Only use this for side-effect free operations; both attempts may reach the dependency.</p>
+ */
+public final class HedgingPolicy {
+    /**
+     * Hedge tokens are kept in thousandths, so that fractional ratios accumulate exactly.
+     */
+    private static final long HEDGE_COST = 1000;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final long tokensPerRead;
+    private final long maxTokens;
+
+    private final AtomicLongArray latencies;
+    private final AtomicInteger recorded = new AtomicInteger();
+    private final AtomicLong hedgeTokens = new AtomicLong();
+    private volatile long hedgeDelayNanos;
+
+    public HedgingPolicy(ResilienceProperties.Hedging properties) {
+        this.enabled = properties.enabled();
+        this.percentile = properties.percentile();
+        this.minDelayNanos = properties.minDelay().toNanos();
+        this.maxDelayNanos = properties.maxDelay().toNanos();
+        this.tokensPerRead = Math.round(properties.maxHedgeRatio() * HEDGE_COST);
+        this.maxTokens = Math.max(HEDGE_COST, tokensPerRead * properties.windowSize());
+        this.latencies = new AtomicLongArray(properties.windowSize());
+        this.hedgeDelayNanos = maxDelayNanos;
+    }
+
+    /**
+     * @return A policy that never hedges, for callers that want the same API without the duplicate reads.
+     */
+    public static HedgingPolicy disabled() {
+        return new HedgingPolicy(new ResilienceProperties.Hedging(false, 0.95, Duration.ofMillis(5),
+                Duration.ofMillis(100), 0.1, 1024));
+    }
+
+    /**
+     * Runs the read, issuing a backup read if the first one is slower than the current hedge delay.
+     *
+     * @param read Supplier of the read; invoked once per attempt, so it must build a fresh publisher each time.
+     * @param <T>  The type of the value read.
+     * @return A {@link Mono} mirroring whichever attempt signals first.
+     */
+    public <T> Mono<T> hedge(Supplier<Mono<T>> read) {
+        if (!enabled) {
+            return Mono.defer(read);
+        }
+        return Mono.defer(() -> {
+            hedgeTokens.accumulateAndGet(tokensPerRead, (tokens, earned) -> Math.min(maxTokens, tokens + earned));
+            Mono<T> backup = Mono.delay(Duration.ofNanos(hedgeDelayNanos))
+                    .flatMap(tick -> tryAcquireHedge() ? timed(read) : Mono.never());
+            return Mono.firstWithSignal(timed(read), backup);
+        });
+    }
+
+    /**
+     * @return The delay after which a backup read is currently issued.
+     */
+    public Duration currentDelay() {
+        return Duration.ofNanos(hedgeDelayNanos);
+    }
+
+    private <T> Mono<T> timed(Supplier<Mono<T>> read) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return read.get().doOnTerminate(() -> record(System.nanoTime() - start));
+        });
+    }
+
+    private boolean tryAcquireHedge() {
+        long tokens;
+        do {
+            tokens = hedgeTokens.get();
+            if (tokens < HEDGE_COST) {
+                return false;
+            }
+        } while (!hedgeTokens.compareAndSet(tokens, tokens - HEDGE_COST));
+        return true;
+    }
+
+    private void record(long latencyNanos) {
+        int count = recorded.getAndIncrement();
+        latencies.set(Math.floorMod(count, latencies.length()), latencyNanos);
+        if ((count + 1) % Math.max(1, latencies.length() / 4) == 0) {
+            recomputeDelay(Math.min(count + 1, latencies.length()));
+        }
+    }
+
+    private void recomputeDelay(int samples) {
+        long[] snapshot = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            snapshot[i] = latencies.get(i);
+        }
+        Arrays.sort(snapshot);
+        long observed = snapshot[(int) Math.min(samples - 1, Math.ceil(percentile * samples) - 1)];
+        hedgeDelayNanos = Math.clamp(observed, minDelayNanos, maxDelayNanos);
+    }
+}
@@ -0,0 +1,89 @@
+package com.github.rblessings.resilience;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Settings that complement the Resilience4j instances configured under {@code resilience4j.*}.
+ * <p>
+ * Circuit breakers, bulkheads and time limiters are configured per dependency ({@code redis}, {@code mongo}) through
+ * the standard Resilience4j properties; only hedging and the server's concurrency limit, which Resilience4j does not
+ * provide, are configured here.
+ * </p>
+ *
+ * @param hedging     Hedged read settings for idempotent MongoDB reads.
+ * @param concurrency Settings for the adaptive limit on requests in flight, see {@link AdaptiveConcurrencyLimit}.
+ */
+@ConfigurationProperties("urlradar.resilience")
+public record ResilienceProperties(@DefaultValue Hedging hedging, @DefaultValue Concurrency concurrency) {
+
+    /**
+     * @param enabled       Whether backup reads are issued at all.
+     * @param percentile    Latency percentile (0, 1] after which a backup read is issued.
+     * @param minDelay      Lower bound for the hedge delay, so that fast, noisy latencies do not trigger hedges.
+     * @param maxDelay      Upper bound for the hedge delay, also used before enough latencies have been observed.
+     * @param maxHedgeRatio Maximum fraction of reads that may be hedged.
+     * @param windowSize    Number of recent latencies the percentile is computed over.
+     */
+    public record Hedging(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("0.95") double percentile,
+            @DefaultValue("5ms") Duration minDelay,
+            @DefaultValue("100ms") Duration maxDelay,
+            @DefaultValue("0.1") double maxHedgeRatio,
+            @DefaultValue("1024") int windowSize) {
+
+        public Hedging {
+            if (percentile <= 0 || percentile > 1) {
+                throw new IllegalArgumentException(String.format("Invalid hedging percentile: %s", percentile));
+            }
+            if (windowSize <= 0) {
+                throw new IllegalArgumentException(String.format("Invalid hedging window size: %d", windowSize));
+            }
+        }
+    }
+
+    /**
+     * @param enabled        Whether requests beyond the limit are rejected at all.
+     * @param initialLimit   The limit before enough round-trip times have been observed.
+     * @param minLimit       The limit never goes below this, however slow requests get.
+     * @param maxLimit       The limit never goes above this, however fast requests are.
+     * @param smoothing      Fraction (0, 1] of each new estimate applied to the limit; lower values adapt slower.
+     * @param rttTolerance   How many times the long-term round-trip time requests may take before the limit shrinks.
+     * @param windowSamples  Number of requests whose average round-trip time makes one sample.
+     * @param longWindow     Number of samples the long-term round-trip time is averaged over.
+     * @param apiShare       Fraction (0, 1] of the limit the APIs may use; the rest is kept for redirects.
+     * @param unlimitedPaths Path patterns never limited nor measured, e.g. health checks and long-lived streams.
+     */
+    public record Concurrency(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("200") int initialLimit,
+            @DefaultValue("20") int minLimit,
+            @DefaultValue("2000") int maxLimit,
+            @DefaultValue("0.2") double smoothing,
+            @DefaultValue("1.5") double rttTolerance,
+            @DefaultValue("100") int windowSamples,
+            @DefaultValue("100") int longWindow,
+            @DefaultValue("0.75") double apiShare,
+            @DefaultValue List<String> unlimitedPaths) {
+
+        public Concurrency {
+            if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit) {
+                throw new IllegalArgumentException(String.format(
+                        "Invalid concurrency limits: initial %d, min %d, max %d", initialLimit, minLimit, maxLimit));
+            }
+            if (smoothing <= 0 || smoothing > 1 || apiShare <= 0 || apiShare > 1) {
+                throw new IllegalArgumentException(String.format(
+                        "Invalid concurrency smoothing %s or API share %s", smoothing, apiShare));
+            }
+            if (rttTolerance < 1 || windowSamples < 1 || longWindow < 1) {
+                throw new IllegalArgumentException(String.format(
+                        "Invalid concurrency RTT tolerance %s or windows of %d and %d samples",
+                        rttTolerance, windowSamples, longWindow));
+            }
+        }
+    }
+}
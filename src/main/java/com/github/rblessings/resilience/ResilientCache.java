@@ -0,0 +1,184 @@
+package com.github.rblessings.resilience;
+
+import com.github.rblessings.cache.BulkCache;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.timelimiter.TimeLimiterOperator;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Cache} decorator that treats a slow or failing cache tier as a cache miss.
+ * <p>
+ * Reads run under a circuit breaker and a bulkhead; reactive reads ({@link #retrieve(Object)}) additionally get a
+ * tight time budget. Synchronous calls cannot be abandoned without leaving the blocked thread behind, so their budget
+ * is the short command timeout of the cache's Redis connection instead, see
+ * {@code urlradar.redis.cache-command-timeout}. A read that fails, times out, or is rejected because the breaker is
+ * open returns "no entry", so the cached method falls back to the database instead of waiting on the cache tier.
+ * Writes are best effort and never fail the caller, while evictions still propagate errors so that a failed
+ * invalidation is not silently ignored.
+ * </p>
+ */
+public class ResilientCache implements Cache, BulkCache {
+    private static final Logger log = LoggerFactory.getLogger(ResilientCache.class);
+
+    private final Cache delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final TimeLimiter timeLimiter;
+
+    public ResilientCache(Cache delegate, CircuitBreaker circuitBreaker, Bulkhead bulkhead, TimeLimiter timeLimiter) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.timeLimiter = timeLimiter;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return guarded(() -> delegate.get(key), null);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return guarded(() -> delegate.get(key, type), null);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        return guardedAsync(() -> delegate.retrieve(key));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        return guardedAsync(() -> delegate.retrieve(key))
+                .thenCompose(cached -> cached != null
+                        ? CompletableFuture.completedFuture(unwrap(cached))
+                        : valueLoader.get().thenApply(value -> {
+                            put(key, value);
+                            return value;
+                        }));
+    }
+
+    /**
+     * Looks up many entries under the same guards as a single reactive read; when the tier is unavailable, every key
+     * is a miss.
+     */
+    @Override
+    public CompletableFuture<Map<Object, Object>> retrieveAll(Collection<?> keys) {
+        return guardedMono(() -> BulkCache.of(delegate).retrieveAll(keys))
+                .defaultIfEmpty(Map.of())
+                .toFuture();
+    }
+
+    /**
+     * Writes many entries on a best-effort basis, like {@link #put(Object, Object)}.
+     */
+    @Override
+    public CompletableFuture<Void> storeAll(Map<?, ?> entries) {
+        return guardedMono(() -> BulkCache.of(delegate).storeAll(entries)).toFuture();
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        guarded(() -> {
+            delegate.put(key, value);
+            return null;
+        }, null);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return guarded(() -> delegate.putIfAbsent(key, value), null);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+
+    private <T> T guarded(Supplier<T> operation, T fallback) {
+        try {
+            return CircuitBreaker.decorateSupplier(circuitBreaker, Bulkhead.decorateSupplier(bulkhead, operation)).get();
+        } catch (RuntimeException ex) {
+            log.debug("Cache '{}' unavailable; treating as a miss", getName(), ex);
+            return fallback;
+        }
+    }
+
+    private CompletableFuture<Object> guardedAsync(Supplier<CompletableFuture<?>> operation) {
+        return guardedMono(operation).toFuture();
+    }
+
+    private <T> Mono<T> guardedMono(Supplier<? extends CompletableFuture<? extends T>> operation) {
+        return Mono.<T>defer(() -> {
+                    CompletableFuture<? extends T> future = operation.get();
+                    return future == null ? Mono.empty() : Mono.fromFuture(future);
+                })
+                .transformDeferred(TimeLimiterOperator.of(timeLimiter))
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .onErrorResume(ex -> {
+                    log.debug("Cache '{}' unavailable; treating as a miss", getName(), ex);
+                    return Mono.empty();
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T unwrap(Object cached) {
+        return (T) (cached instanceof ValueWrapper wrapper ? wrapper.get() : cached);
+    }
+}
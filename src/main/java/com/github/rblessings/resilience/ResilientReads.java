@@ -0,0 +1,60 @@
+package com.github.rblessings.resilience;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.timelimiter.TimeLimiterOperator;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * Guards reads against one dependency with a circuit breaker, a bulkhead, a time budget and hedging.
+ * <p>
+ * The operators are applied from the inside out: the (possibly hedged) read must finish within the time limiter's
+ * budget, counts as a single call against the bulkhead, and every outcome, including timeouts and bulkhead
+ * rejections, is recorded by the circuit breaker. Once the breaker is open, reads fail immediately with
+ * {@link io.github.resilience4j.circuitbreaker.CallNotPermittedException} instead of queueing on a sick dependency.
+ * </p>
+ */
+public final class ResilientReads {
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final TimeLimiter timeLimiter;
+    private final HedgingPolicy hedgingPolicy;
+
+    public ResilientReads(CircuitBreaker circuitBreaker, Bulkhead bulkhead, TimeLimiter timeLimiter,
+                          HedgingPolicy hedgingPolicy) {
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.timeLimiter = timeLimiter;
+        this.hedgingPolicy = hedgingPolicy;
+    }
+
+    /**
+     * Creates guards with Resilience4j's default settings and no hedging, e.g. for unit tests.
+     *
+     * @param name The name of the guarded dependency.
+     * @return A new {@code ResilientReads} instance.
+     */
+    public static ResilientReads withDefaults(String name) {
+        return new ResilientReads(CircuitBreaker.ofDefaults(name), Bulkhead.ofDefaults(name),
+                TimeLimiter.ofDefaults(name), HedgingPolicy.disabled());
+    }
+
+    /**
+     * Runs an idempotent read under the guards.
+     *
+     * @param read Supplier of the read; may be invoked more than once when the read is hedged.
+     * @param <T>  The type of the value read.
+     * @return A {@link Mono} emitting the read's result, or an error if the read failed or was not permitted.
+     */
+    public <T> Mono<T> read(Supplier<Mono<T>> read) {
+        return hedgingPolicy.hedge(read)
+                .transformDeferred(TimeLimiterOperator.of(timeLimiter))
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+    }
+}
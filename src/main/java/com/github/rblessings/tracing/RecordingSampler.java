@@ -0,0 +1,53 @@
+package com.github.rblessings.tracing;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+
+import java.util.List;
+
+/**
+ * Samples a ratio of traces, like OpenTelemetry's trace ID ratio sampler, but records the others instead of dropping
+ * them, so that {@link SlowTraceSpanProcessor} can still keep them once they turn out to be slow.
+ * <p>
+ * Recorded but unsampled spans are not exported by the regular pipeline, and are propagated as unsampled, so services
+ * downstream make their own decision.
+ * </p>
+ */
+public final class RecordingSampler implements Sampler {
+
+    private final Sampler ratio;
+
+    private RecordingSampler(double probability) {
+        this.ratio = Sampler.traceIdRatioBased(probability);
+    }
+
+    /**
+     * @param probability The fraction of new traces sampled, i.e. always exported.
+     * @return A sampler that samples a ratio of new traces and records the others, follows sampled parents, and
+     * records the children of unsampled ones, so that a trace is never partly sampled.
+     */
+    public static Sampler of(double probability) {
+        Sampler recordOnly = new RecordingSampler(0);
+        return Sampler.parentBasedBuilder(new RecordingSampler(probability))
+                .setRemoteParentNotSampled(recordOnly)
+                .setLocalParentNotSampled(recordOnly)
+                .build();
+    }
+
+    @Override
+    public SamplingResult shouldSample(Context parentContext, String traceId, String name, SpanKind spanKind,
+                                       Attributes attributes, List<LinkData> parentLinks) {
+        SamplingResult result = ratio.shouldSample(parentContext, traceId, name, spanKind, attributes, parentLinks);
+        return result.getDecision() == SamplingDecision.RECORD_AND_SAMPLE ? result : SamplingResult.recordOnly();
+    }
+
+    @Override
+    public String getDescription() {
+        return "RecordingSampler{" + ratio.getDescription() + "}";
+    }
+}
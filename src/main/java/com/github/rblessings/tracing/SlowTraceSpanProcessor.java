@@ -0,0 +1,106 @@
+package com.github.rblessings.tracing;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exports the traces of slow or failed requests that were not sampled, so that the requests worth looking at are
+ * traced whatever the sampling probability.
+ * <p>
+ * Head sampling decides before a request runs, so it cannot favour the slow ones. Unsampled traces are therefore
+ * recorded too, see {@link RecordingSampler}: as their spans end, they are buffered per trace, and once the span the
+ * trace started with on this node ends, usually the server span of the request, the trace is exported if that span
+ * took at least {@code slowThreshold} or failed, and dropped otherwise. Sampled traces are left to the regular
+ * pipeline.
+ * </p>
+ * <p>
+ * The decision is made per node, over the part of the trace this node recorded. Buffers are bounded in number, size
+ * and age, so that traces whose request never completes, or spans ending after their request, cannot pile up.
+ * </p>
+ */
+public final class SlowTraceSpanProcessor implements SpanProcessor {
+
+    private final SpanExporter exporter;
+    private final long slowThresholdNanos;
+    private final int maxSpansPerTrace;
+    private final Cache<String, List<SpanData>> traces;
+
+    /**
+     * @param exporter   The exporter of kept traces. It is shared with the regular pipeline, which owns it.
+     * @param properties The tail sampling configuration.
+     */
+    public SlowTraceSpanProcessor(SpanExporter exporter, TailSamplingProperties properties) {
+        this.exporter = exporter;
+        this.slowThresholdNanos = properties.slowThreshold().toNanos();
+        this.maxSpansPerTrace = properties.maxSpansPerTrace();
+        this.traces = Caffeine.newBuilder()
+                .maximumSize(properties.maxBufferedTraces())
+                .expireAfterWrite(properties.maxTraceDuration())
+                .build();
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return false;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        SpanContext context = span.getSpanContext();
+        if (context.isSampled()) {
+            return;
+        }
+        SpanContext parent = span.getParentSpanContext();
+        if (parent.isValid() && !parent.isRemote()) {
+            List<SpanData> spans = traces.get(context.getTraceId(), traceId -> new ArrayList<>());
+            synchronized (spans) {
+                if (spans.size() < maxSpansPerTrace) {
+                    spans.add(span.toSpanData());
+                }
+            }
+            return;
+        }
+
+        List<SpanData> spans = traces.asMap().remove(context.getTraceId());
+        SpanData root = span.toSpanData();
+        if (span.getLatencyNanos() < slowThresholdNanos && root.getStatus().getStatusCode() != StatusCode.ERROR) {
+            return;
+        }
+        List<SpanData> trace = new ArrayList<>();
+        if (spans != null) {
+            synchronized (spans) {
+                trace.addAll(spans);
+            }
+        }
+        trace.add(root);
+        // Asynchronous; the exporter logs its own failures.
+        exporter.export(trace);
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        traces.invalidateAll();
+        return CompletableResultCode.ofSuccess();
+    }
+}
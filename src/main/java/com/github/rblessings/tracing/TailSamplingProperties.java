@@ -0,0 +1,24 @@
+package com.github.rblessings.tracing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration for keeping the traces of slow requests beyond the sampled ones, see {@link SlowTraceSpanProcessor}.
+ *
+ * @param enabled           Whether unsampled traces are recorded and kept when slow.
+ * @param slowThreshold     Requests taking at least this long on this node are traced, whether sampled or not.
+ * @param maxBufferedTraces Maximum number of unsampled traces recorded at once; further ones are not kept.
+ * @param maxSpansPerTrace  Maximum number of spans kept per unsampled trace; further ones are dropped.
+ * @param maxTraceDuration  How long the spans of a trace are kept waiting for its request to complete.
+ */
+@ConfigurationProperties("urlradar.tracing.tail-sampling")
+public record TailSamplingProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("500ms") Duration slowThreshold,
+        @DefaultValue("10000") long maxBufferedTraces,
+        @DefaultValue("256") int maxSpansPerTrace,
+        @DefaultValue("1m") Duration maxTraceDuration) {
+}
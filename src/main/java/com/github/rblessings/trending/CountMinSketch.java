@@ -0,0 +1,110 @@
+package com.github.rblessings.trending;
+
+import org.apache.kafka.common.utils.Utils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A Count-Min Sketch estimating how often keys were added, in memory fixed by its dimensions.
+ * <p>
+ * Estimates never undercount. With {@code width} counters per row, an estimate exceeds the true count by more than
+ * {@code e / width} times the total count with probability at most {@code e^-depth}. Increments use the conservative
+ * update rule, raising only the counters that are at the current minimum, which keeps overestimates lower still.
+ * </p>
+ * <p>Not thread-safe.</p>
+ */
+final class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final int[] counters;
+
+    CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1) {
+            throw new IllegalArgumentException(String.format("Invalid sketch dimensions: %dx%d", depth, width));
+        }
+        this.depth = depth;
+        this.width = width;
+        this.counters = new int[depth * width];
+    }
+
+    /**
+     * Counts one occurrence of a key.
+     *
+     * @return The key's new estimate.
+     */
+    int add(String key) {
+        int[] indexes = indexes(key);
+        int estimate = Integer.MAX_VALUE;
+        for (int index : indexes) {
+            estimate = Math.min(estimate, counters[index]);
+        }
+        int next = estimate == Integer.MAX_VALUE ? estimate : estimate + 1;
+        for (int index : indexes) {
+            if (counters[index] < next) {
+                counters[index] = next;
+            }
+        }
+        return next;
+    }
+
+    int estimate(String key) {
+        int estimate = Integer.MAX_VALUE;
+        for (int index : indexes(key)) {
+            estimate = Math.min(estimate, counters[index]);
+        }
+        return estimate;
+    }
+
+    void clear() {
+        Arrays.fill(counters, 0);
+    }
+
+    int sizeInBytes() {
+        return counters.length * Integer.BYTES;
+    }
+
+    int depth() {
+        return depth;
+    }
+
+    int width() {
+        return width;
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        buffer.asIntBuffer().put(counters);
+        buffer.position(buffer.position() + sizeInBytes());
+    }
+
+    void readFrom(ByteBuffer buffer) {
+        buffer.asIntBuffer().get(counters);
+        buffer.position(buffer.position() + sizeInBytes());
+    }
+
+    /**
+     * Derives the key's counter in every row by re-mixing one 64-bit hash of the key with a per-row constant. Unlike
+     * deriving rows from two 32-bit hashes (Kirsch-Mitzenmacher), which for a narrow sketch only uses a few bits of
+     * each, two keys then share counters in every row only if their full 64-bit hashes collide.
+     */
+    private int[] indexes(String key) {
+        long hash = ((long) Utils.murmur2(key.getBytes(StandardCharsets.UTF_8)) << 32)
+                ^ (key.hashCode() & 0xFFFFFFFFL);
+        int[] indexes = new int[depth];
+        for (int row = 0; row < depth; row++) {
+            indexes[row] = row * width + Math.floorMod(mix(hash + (row + 1) * 0x9E3779B97F4A7C15L), width);
+        }
+        return indexes;
+    }
+
+    /**
+     * The SplitMix64 finalizer.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
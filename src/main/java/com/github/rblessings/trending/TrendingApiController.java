@@ -0,0 +1,30 @@
+package com.github.rblessings.trending;
+
+import com.github.rblessings.users.ApiResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/trending")
+public class TrendingApiController {
+    private final TrendingLinksService trendingLinksService;
+
+    public TrendingApiController(TrendingLinksService trendingLinksService) {
+        this.trendingLinksService = trendingLinksService;
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<ApiResponse<List<TrendingLink>>>> getTrendingLinks(
+            @RequestParam(defaultValue = "5m") String window,
+            @RequestParam(defaultValue = "10") int limit) {
+        return Mono.fromSupplier(() -> trendingLinksService.top(window, Math.max(limit, 0)))
+                .map(links -> ResponseEntity.ok(ApiResponse.success(HttpStatus.OK.value(), links)));
+    }
+}
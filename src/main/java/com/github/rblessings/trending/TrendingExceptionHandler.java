@@ -0,0 +1,47 @@
+package com.github.rblessings.trending;
+
+import com.github.rblessings.users.ApiResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import reactor.core.publisher.Mono;
+
+/**
+ * Exception handler for trending-related exceptions thrown by REST controllers.
+ * <p>
+ * Ordered ahead of the global handler so that its specific handlers take precedence over the generic one.
+ * </p>
+ */
+@RestControllerAdvice
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TrendingExceptionHandler {
+
+    /**
+     * Handles the {@link UnknownTrendingWindowException} exception and returns a standardized response.
+     *
+     * @param ex The exception that was thrown.
+     * @return A standardized API response with the error message wrapped in a Mono.
+     */
+    @ExceptionHandler(UnknownTrendingWindowException.class)
+    public Mono<ResponseEntity<ApiResponse<String>>> handleUnknownWindow(UnknownTrendingWindowException ex) {
+        final var httpStatus = HttpStatus.BAD_REQUEST;
+        ApiResponse<String> response = ApiResponse.error(httpStatus.value(), ex.getMessage());
+        return Mono.just(new ResponseEntity<>(response, httpStatus));
+    }
+
+    /**
+     * Handles the {@link TrendingUnavailableException} exception and returns a standardized response.
+     *
+     * @param ex The exception that was thrown.
+     * @return A standardized API response with the error message wrapped in a Mono.
+     */
+    @ExceptionHandler(TrendingUnavailableException.class)
+    public Mono<ResponseEntity<ApiResponse<String>>> handleUnavailable(TrendingUnavailableException ex) {
+        final var httpStatus = HttpStatus.SERVICE_UNAVAILABLE;
+        ApiResponse<String> response = ApiResponse.error(httpStatus.value(), ex.getMessage());
+        return Mono.just(new ResponseEntity<>(response, httpStatus));
+    }
+}
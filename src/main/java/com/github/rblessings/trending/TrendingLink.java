@@ -0,0 +1,10 @@
+package com.github.rblessings.trending;
+
+/**
+ * A link and its approximate number of clicks within a window.
+ *
+ * @param linkId The ID of the link.
+ * @param clicks The estimated number of clicks, never lower than the true number.
+ */
+public record TrendingLink(String linkId, long clicks) {
+}
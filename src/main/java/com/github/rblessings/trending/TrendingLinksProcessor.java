@@ -0,0 +1,86 @@
+package com.github.rblessings.trending;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.streams.processor.PunctuationType;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Ranks the clicked links of one clicks partition per window and publishes the ranking periodically.
+ * <p>
+ * Windows advance with the clicks' timestamps and, at every emission, with wall-clock time, so that rankings decay
+ * when clicks stop. Window state is saved to a changelogged store at every checkpoint and restored when the task
+ * starts, so a restart or rebalance loses at most one checkpoint interval of clicks.
+ * </p>
+ */
+class TrendingLinksProcessor implements Processor<String, String, String, String> {
+    private static final Logger log = LoggerFactory.getLogger(TrendingLinksProcessor.class);
+
+    private final TrendingProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Map<String, TrendingWindow> windows = new LinkedHashMap<>();
+
+    private ProcessorContext<String, String> context;
+    private KeyValueStore<String, byte[]> checkpoints;
+
+    TrendingLinksProcessor(TrendingProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void init(ProcessorContext<String, String> context) {
+        this.context = context;
+        this.checkpoints = context.getStateStore(TrendingTopology.CHECKPOINT_STORE);
+        for (Duration size : properties.windows()) {
+            String label = TrendingProperties.label(size);
+            TrendingWindow window = new TrendingWindow(size, properties.bucketsPerWindow(),
+                    properties.sketchDepth(), properties.sketchWidth(), properties.candidates());
+            byte[] checkpoint = checkpoints.get(label);
+            if (checkpoint != null && !window.restore(checkpoint)) {
+                log.info("Discarding trending checkpoint of window {} after a configuration change", label);
+            }
+            windows.put(label, window);
+        }
+        context.schedule(properties.emitInterval(), PunctuationType.WALL_CLOCK_TIME, this::emit);
+        context.schedule(properties.checkpointInterval(), PunctuationType.WALL_CLOCK_TIME, this::checkpoint);
+    }
+
+    @Override
+    public void process(Record<String, String> click) {
+        if (click.key() == null) {
+            return;
+        }
+        windows.values().forEach(window -> window.add(click.key(), click.timestamp()));
+    }
+
+    private void emit(long now) {
+        int partition = context.taskId().partition();
+        windows.forEach((label, window) -> {
+            window.advanceTo(now);
+            TrendingSnapshot snapshot = new TrendingSnapshot(label, partition, Instant.ofEpochMilli(now),
+                    window.top(properties.topK()));
+            try {
+                context.forward(new Record<>(TrendingSnapshot.key(label, partition),
+                        objectMapper.writeValueAsString(snapshot), now));
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void checkpoint(long now) {
+        windows.forEach((label, window) -> checkpoints.put(label, window.toBytes()));
+    }
+}
@@ -0,0 +1,99 @@
+package com.github.rblessings.trending;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.rblessings.config.KafkaStreamsReference;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Answers trending links queries from this node's copy of the published snapshots.
+ */
+@Service
+public class TrendingLinksService {
+    private static final Logger log = LoggerFactory.getLogger(TrendingLinksService.class);
+
+    private final KafkaStreamsReference kafkaStreams;
+    private final ObjectMapper objectMapper;
+    private final TrendingProperties properties;
+    private final Map<String, Duration> windows;
+
+    public TrendingLinksService(KafkaStreamsReference kafkaStreams, ObjectMapper objectMapper,
+                                TrendingProperties properties) {
+        this.kafkaStreams = kafkaStreams;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.windows = properties.windows().stream()
+                .collect(Collectors.toUnmodifiableMap(TrendingProperties::label, Function.identity()));
+    }
+
+    /**
+     * Returns the most clicked links of a window, merged across all clicks partitions.
+     * <p>
+     * Snapshots older than the window itself describe clicks that have all left it and are skipped; this covers
+     * partitions that are no longer processed.
+     * </p>
+     *
+     * @param window The window label, e.g. {@code 5m}.
+     * @param limit  The maximum number of links, capped at {@code topK}.
+     * @return The top links, highest count first.
+     * @throws UnknownTrendingWindowException If the window is not computed.
+     * @throws TrendingUnavailableException   If stream processing is not running on this node.
+     */
+    public List<TrendingLink> top(String window, int limit) {
+        Duration size = windows.get(window);
+        if (size == null) {
+            throw new UnknownTrendingWindowException(String.format("Unknown window '%s', expected one of %s",
+                    window, windows.keySet()));
+        }
+        Instant oldest = Instant.now().minus(size);
+
+        List<TrendingLink> merged = new ArrayList<>();
+        try (KeyValueIterator<String, String> snapshots =
+                     store().prefixScan(window + ":", new StringSerializer())) {
+            while (snapshots.hasNext()) {
+                KeyValue<String, String> entry = snapshots.next();
+                TrendingSnapshot snapshot = parse(entry.value);
+                if (snapshot != null && !snapshot.asOf().isBefore(oldest)) {
+                    merged.addAll(snapshot.links());
+                }
+            }
+        }
+        return merged.stream()
+                .sorted(Comparator.comparingLong(TrendingLink::clicks).reversed())
+                .limit(Math.min(limit, properties.topK()))
+                .toList();
+    }
+
+    private ReadOnlyKeyValueStore<String, String> store() {
+        return kafkaStreams.running()
+                .map(streams -> streams.store(StoreQueryParameters.fromNameAndType(TrendingTopology.SNAPSHOT_STORE,
+                        QueryableStoreTypes.<String, String>keyValueStore())))
+                .orElseThrow(() -> new TrendingUnavailableException("Trending links are not available yet"));
+    }
+
+    private TrendingSnapshot parse(String value) {
+        try {
+            return objectMapper.readValue(value, TrendingSnapshot.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Skipping malformed trending snapshot", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.github.rblessings.trending;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Configuration for trending links.
+ *
+ * @param clicksTopic        The topic of click events, keyed by link ID, as published by {@code ClickRecorder}; must
+ *                           match {@code urlradar.analytics.recording.topic}.
+ * @param snapshotsTopic     The compacted topic per-partition top links are published to.
+ * @param windows            The sliding windows to rank links over.
+ * @param bucketsPerWindow   Number of buckets a window slides by; the window's resolution is its size divided by it.
+ * @param sketchDepth        Rows of each Count-Min Sketch; failure probability is {@code e^-depth}.
+ * @param sketchWidth        Counters per sketch row; overestimates stay within {@code e / width} of all clicks.
+ * @param candidates         Number of links tracked per window and partition to rank the top links from.
+ * @param topK               Number of top links published per window and partition, and the maximum query limit.
+ * @param emitInterval       How often snapshots are published.
+ * @param checkpointInterval How often the sketches are saved to a changelogged store, to survive restarts.
+ */
+@ConfigurationProperties("urlradar.trending")
+public record TrendingProperties(
+        @DefaultValue("urlradar.clicks") String clicksTopic,
+        @DefaultValue("urlradar.trending") String snapshotsTopic,
+        @DefaultValue({"5m", "1h", "24h"}) List<Duration> windows,
+        @DefaultValue("12") int bucketsPerWindow,
+        @DefaultValue("4") int sketchDepth,
+        @DefaultValue("2048") int sketchWidth,
+        @DefaultValue("1000") int candidates,
+        @DefaultValue("100") int topK,
+        @DefaultValue("10s") Duration emitInterval,
+        @DefaultValue("1m") Duration checkpointInterval) {
+
+    public TrendingProperties {
+        windows = List.copyOf(windows);
+    }
+
+    /**
+     * @return A compact label for a window, e.g. {@code 5m} or {@code 24h}.
+     */
+    static String label(Duration window) {
+        if (window.toSeconds() % 3600 == 0) {
+            return window.toHours() + "h";
+        }
+        if (window.toSeconds() % 60 == 0) {
+            return window.toMinutes() + "m";
+        }
+        return window.toSeconds() + "s";
+    }
+}
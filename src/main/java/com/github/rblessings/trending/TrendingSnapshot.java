@@ -0,0 +1,23 @@
+package com.github.rblessings.trending;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The top links of one window as computed by one stream task, published to the trending topic.
+ * <p>
+ * Clicks are partitioned by link, so the snapshots of a window's partitions cover disjoint links and merging them
+ * yields the window's overall top links.
+ * </p>
+ *
+ * @param window    The window label, e.g. {@code 5m}.
+ * @param partition The clicks partition the snapshot was computed from.
+ * @param asOf      When the snapshot was taken.
+ * @param links     The partition's top links, highest count first.
+ */
+public record TrendingSnapshot(String window, int partition, Instant asOf, List<TrendingLink> links) {
+
+    static String key(String window, int partition) {
+        return window + ":" + partition;
+    }
+}
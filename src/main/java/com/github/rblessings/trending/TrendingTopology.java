@@ -0,0 +1,93 @@
+package com.github.rblessings.trending;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.Produced;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.Stores;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+/**
+ * The Kafka Streams topology behind trending links.
+ * <p>
+ * Clicks, partitioned by link, are ranked per partition by {@link TrendingLinksProcessor}, which publishes each
+ * window's top links to the compacted snapshots topic, keyed by window and partition. Every node reads that topic into
+ * a global store, so any node can answer a query by merging the partitions' snapshots locally.
+ * </p>
+ */
+@Configuration
+public class TrendingTopology {
+
+    static final String CHECKPOINT_STORE = "trending-checkpoints";
+    static final String SNAPSHOT_STORE = "trending-snapshots";
+
+    /**
+     * Declares the clicks topic, which Kafka Streams requires to exist before it starts reading it.
+     */
+    @Bean
+    public NewTopic clicksTopic(TrendingProperties properties) {
+        return TopicBuilder.name(properties.clicksTopic()).build();
+    }
+
+    /**
+     * Declares the snapshots topic as compacted: only the latest snapshot per window and partition matters, and the
+     * global store restores the whole topic on every start.
+     */
+    @Bean
+    public NewTopic trendingSnapshotsTopic(TrendingProperties properties) {
+        return TopicBuilder.name(properties.snapshotsTopic())
+                .compact()
+                .build();
+    }
+
+    /**
+     * Adds the trending links processing to the application's topology.
+     *
+     * @return The stream of published snapshots.
+     */
+    @Bean
+    public KStream<String, String> trendingLinks(StreamsBuilder builder, TrendingProperties properties,
+                                                 ObjectMapper objectMapper) {
+        return build(builder, properties, objectMapper);
+    }
+
+    static KStream<String, String> build(StreamsBuilder builder, TrendingProperties properties,
+                                         ObjectMapper objectMapper) {
+        builder.addStateStore(Stores.keyValueStoreBuilder(
+                Stores.inMemoryKeyValueStore(CHECKPOINT_STORE), Serdes.String(), Serdes.ByteArray()));
+
+        KStream<String, String> snapshots = builder
+                .stream(properties.clicksTopic(), Consumed.with(Serdes.String(), Serdes.String()))
+                .process(() -> new TrendingLinksProcessor(properties, objectMapper), CHECKPOINT_STORE);
+        snapshots.to(properties.snapshotsTopic(), Produced.with(Serdes.String(), Serdes.String()));
+
+        builder.addGlobalStore(
+                Stores.keyValueStoreBuilder(Stores.inMemoryKeyValueStore(SNAPSHOT_STORE), Serdes.String(),
+                        Serdes.String()).withLoggingDisabled(),
+                properties.snapshotsTopic(),
+                Consumed.with(Serdes.String(), Serdes.String()),
+                () -> new Processor<String, String, Void, Void>() {
+                    private KeyValueStore<String, String> store;
+
+                    @Override
+                    public void init(ProcessorContext<Void, Void> context) {
+                        store = context.getStateStore(SNAPSHOT_STORE);
+                    }
+
+                    @Override
+                    public void process(Record<String, String> snapshot) {
+                        store.put(snapshot.key(), snapshot.value());
+                    }
+                });
+        return snapshots;
+    }
+}
@@ -0,0 +1,11 @@
+package com.github.rblessings.trending;
+
+/**
+ * Thrown when trending links are queried before this node's stream processing is running.
+ */
+public class TrendingUnavailableException extends RuntimeException {
+
+    public TrendingUnavailableException(String message) {
+        super(message);
+    }
+}
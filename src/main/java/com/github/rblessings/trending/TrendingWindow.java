@@ -0,0 +1,202 @@
+package com.github.rblessings.trending;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Approximate click counts of the most clicked links over a sliding time window.
+ * <p>
+ * The window is divided into buckets with a {@link CountMinSketch} each, so it slides one bucket at a time: when event
+ * time enters a new bucket, the oldest one is cleared and reused. A link's count over the window is the sum of its
+ * estimates in the live buckets.
+ * </p>
+ * <p>
+ * The links worth reporting are tracked in a bounded set of candidates ordered by count, acting as an indexed min-heap:
+ * a clicked link whose count exceeds the smallest candidate's replaces it. Whenever the window slides, all candidates
+ * are re-estimated, so links whose clicks left the window sink and are displaced. Memory is therefore fixed by the
+ * sketch dimensions and the number of candidates, however many distinct links are clicked.
+ * </p>
+ * <p>Not thread-safe.</p>
+ */
+final class TrendingWindow {
+
+    private static final Comparator<Candidate> BY_COUNT = Comparator.comparingLong(Candidate::count)
+            .thenComparing(Candidate::linkId);
+
+    private final long bucketMillis;
+    private final CountMinSketch[] buckets;
+    private final long[] epochs;
+    private final int capacity;
+    private final Map<String, Candidate> candidates = new HashMap<>();
+    private final TreeSet<Candidate> ranking = new TreeSet<>(BY_COUNT);
+    private long latestEpoch = Long.MIN_VALUE;
+
+    TrendingWindow(Duration size, int bucketCount, int sketchDepth, int sketchWidth, int capacity) {
+        if (size.toMillis() % bucketCount != 0) {
+            throw new IllegalArgumentException(String.format("Window %s cannot be divided into %d buckets",
+                    size, bucketCount));
+        }
+        this.bucketMillis = size.toMillis() / bucketCount;
+        this.buckets = new CountMinSketch[bucketCount];
+        this.epochs = new long[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new CountMinSketch(sketchDepth, sketchWidth);
+            epochs[i] = Long.MIN_VALUE;
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Counts a click at the given event time. Clicks older than the window are ignored.
+     */
+    void add(String linkId, long timestamp) {
+        long epoch = Math.floorDiv(timestamp, bucketMillis);
+        advanceTo(timestamp);
+        if (epoch <= latestEpoch - buckets.length) {
+            return;
+        }
+        int slot = slot(epoch);
+        if (epochs[slot] != epoch) {
+            buckets[slot].clear();
+            epochs[slot] = epoch;
+        }
+        buckets[slot].add(linkId);
+        offer(linkId, estimate(linkId));
+    }
+
+    /**
+     * Slides the window up to the given time, also without clicks, and re-ranks the candidates if it moved.
+     */
+    void advanceTo(long timestamp) {
+        long epoch = Math.floorDiv(timestamp, bucketMillis);
+        if (epoch <= latestEpoch) {
+            return;
+        }
+        latestEpoch = epoch;
+        List<Candidate> current = new ArrayList<>(candidates.values());
+        candidates.clear();
+        ranking.clear();
+        for (Candidate candidate : current) {
+            long count = estimate(candidate.linkId());
+            if (count > 0) {
+                Candidate updated = new Candidate(candidate.linkId(), count);
+                candidates.put(updated.linkId(), updated);
+                ranking.add(updated);
+            }
+        }
+    }
+
+    /**
+     * @return The estimated count of a link over the window.
+     */
+    long estimate(String linkId) {
+        long count = 0;
+        for (int slot = 0; slot < buckets.length; slot++) {
+            if (epochs[slot] != Long.MIN_VALUE && epochs[slot] > latestEpoch - buckets.length) {
+                count += buckets[slot].estimate(linkId);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return Up to {@code limit} links with the highest counts, highest first.
+     */
+    List<TrendingLink> top(int limit) {
+        List<TrendingLink> top = new ArrayList<>(Math.min(limit, ranking.size()));
+        for (Candidate candidate : ranking.descendingSet()) {
+            if (top.size() == limit) {
+                break;
+            }
+            top.add(new TrendingLink(candidate.linkId(), candidate.count()));
+        }
+        return top;
+    }
+
+    /**
+     * Serializes the window for a checkpoint.
+     */
+    byte[] toBytes() {
+        List<byte[]> ids = candidates.keySet().stream().map(id -> id.getBytes(StandardCharsets.UTF_8)).toList();
+        int size = Long.BYTES + 3 * Integer.BYTES + buckets.length * (Long.BYTES + buckets[0].sizeInBytes())
+                + Integer.BYTES + ids.stream().mapToInt(id -> Integer.BYTES + id.length).sum();
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putLong(latestEpoch);
+        buffer.putInt(buckets.length);
+        buffer.putInt(buckets[0].depth());
+        buffer.putInt(buckets[0].width());
+        for (int slot = 0; slot < buckets.length; slot++) {
+            buffer.putLong(epochs[slot]);
+            buckets[slot].writeTo(buffer);
+        }
+        buffer.putInt(ids.size());
+        ids.forEach(id -> buffer.putInt(id.length).put(id));
+        return buffer.array();
+    }
+
+    /**
+     * Restores a checkpoint written by {@link #toBytes()} with the same dimensions.
+     *
+     * @return {@code false} if the checkpoint does not fit this window, e.g. because the number of buckets or the
+     * sketch dimensions changed since, in which case the window is left empty.
+     */
+    boolean restore(byte[] bytes) {
+        int header = Long.BYTES + 3 * Integer.BYTES;
+        if (bytes.length < header) {
+            return false;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long epoch = buffer.getLong();
+        int bucketCount = buffer.getInt();
+        int depth = buffer.getInt();
+        int width = buffer.getInt();
+        if (bucketCount != buckets.length || depth != buckets[0].depth() || width != buckets[0].width()
+                || bytes.length < header + bucketCount * (Long.BYTES + buckets[0].sizeInBytes()) + Integer.BYTES) {
+            return false;
+        }
+        for (int slot = 0; slot < buckets.length; slot++) {
+            epochs[slot] = buffer.getLong();
+            buckets[slot].readFrom(buffer);
+        }
+        latestEpoch = epoch;
+        int count = buffer.getInt();
+        for (int i = 0; i < count; i++) {
+            byte[] id = new byte[buffer.getInt()];
+            buffer.get(id);
+            String linkId = new String(id, StandardCharsets.UTF_8);
+            offer(linkId, estimate(linkId));
+        }
+        return true;
+    }
+
+    private void offer(String linkId, long count) {
+        Candidate existing = candidates.get(linkId);
+        if (existing != null) {
+            ranking.remove(existing);
+        } else if (candidates.size() >= capacity) {
+            Candidate smallest = ranking.first();
+            if (smallest.count() >= count) {
+                return;
+            }
+            ranking.pollFirst();
+            candidates.remove(smallest.linkId());
+        }
+        Candidate candidate = new Candidate(linkId, count);
+        candidates.put(linkId, candidate);
+        ranking.add(candidate);
+    }
+
+    private int slot(long epoch) {
+        return (int) Math.floorMod(epoch, (long) buckets.length);
+    }
+
+    private record Candidate(String linkId, long count) {
+    }
+}
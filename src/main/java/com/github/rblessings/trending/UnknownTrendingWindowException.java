@@ -0,0 +1,11 @@
+package com.github.rblessings.trending;
+
+/**
+ * Thrown when trending links are queried for a window that is not computed.
+ */
+public class UnknownTrendingWindowException extends RuntimeException {
+
+    public UnknownTrendingWindowException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.github.rblessings.users;
+
+/**
+ * Exception thrown when a requested username does not meet the rules of {@link Usernames}.
+ */
+public final class InvalidUsernameException extends RuntimeException {
+
+    /**
+     * @param message Why the username cannot be used.
+     */
+    public InvalidUsernameException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.rblessings.users;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration for batch user lookups.
+ *
+ * @param maxSize Maximum number of ids and emails, together, a single batch lookup may ask for.
+ */
+@ConfigurationProperties("urlradar.users.batch")
+public record UserBatchProperties(
+        @DefaultValue("500") int maxSize) {
+
+    public UserBatchProperties {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException(String.format("Invalid user batch max size: %d", maxSize));
+        }
+    }
+}
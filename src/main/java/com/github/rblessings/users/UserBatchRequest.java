@@ -0,0 +1,20 @@
+package com.github.rblessings.users;
+
+import java.util.List;
+
+/**
+ * Users to look up at once, by id, by email, or both.
+ *
+ * @param ids    The ids of users to look up; may be omitted.
+ * @param emails The emails of users to look up; may be omitted.
+ */
+public record UserBatchRequest(
+        List<String> ids,
+        List<String> emails
+) {
+
+    public UserBatchRequest {
+        ids = ids != null ? ids : List.of();
+        emails = emails != null ? emails : List.of();
+    }
+}
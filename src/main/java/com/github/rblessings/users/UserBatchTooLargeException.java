@@ -0,0 +1,15 @@
+package com.github.rblessings.users;
+
+/**
+ * Exception thrown when a batch lookup asks for more users than {@link UserBatchProperties#maxSize()}.
+ */
+public final class UserBatchTooLargeException extends RuntimeException {
+
+    /**
+     * @param requested The number of ids and emails asked for.
+     * @param maxSize   The most a batch may ask for.
+     */
+    public UserBatchTooLargeException(int requested, int maxSize) {
+        super(String.format("A batch may look up at most %d users, but %d were requested.", maxSize, requested));
+    }
+}
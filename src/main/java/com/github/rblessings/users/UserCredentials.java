@@ -0,0 +1,11 @@
+package com.github.rblessings.users;
+
+/**
+ * Projection of a {@link UserEntity} onto its identity, optimistic locking version, and password hash.
+ *
+ * @param id       The user's ID.
+ * @param version  The user's current {@link org.springframework.data.annotation.Version}.
+ * @param password The user's encoded password.
+ */
+public record UserCredentials(String id, Integer version, String password) {
+}
@@ -1,5 +1,7 @@
 package com.github.rblessings.users;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.io.Serializable;
 import java.util.Objects;
 
@@ -8,12 +10,19 @@ public record UserDTO(
         String firstName,
         String lastName,
         String email,
-        String password
+        String username,
+        String password,
+        @JsonIgnore Integer version
 ) implements Serializable {
 
+    public UserDTO(String id, String firstName, String lastName, String email, String password) {
+        this(id, firstName, lastName, email, null, password, null);
+    }
+
     public static UserDTO from(final UserEntity user) {
         Objects.requireNonNull(user);
-        return new UserDTO(user.id(), user.firstName(), user.lastName(), user.email(), user.password());
+        return new UserDTO(user.id(), user.firstName(), user.lastName(), user.email(), user.username(), user.password(),
+                user.version());
     }
 
     @Override
@@ -17,6 +17,8 @@ import java.util.Objects;
  *     <li><strong>Email as Identity:</strong> Uniqueness is based on email, minimizing errors in comparisons and storage.</li>
  *     <li><strong>Email is indexed:</strong> Indexing the email field provides efficient query performance for
  *     operations that frequently rely on email lookups, such as authentication, user retrieval, and validation.
+ *     <li><strong>Username is optional but unique:</strong> Users claim it once, after registering, as the namespace
+ *     of their short links. The unique index is sparse, so any number of users can still be without one.</li>
  * </ul>
  *
  * <p>Password security is handled externally, but it is sensitive and should be treated securely.</p>
@@ -25,6 +27,7 @@ import java.util.Objects;
  * @param firstName The user’s first name.
  * @param lastName  The user’s last name.
  * @param email     The user’s email, used as the identity key.
+ * @param username  The user’s username, the first path segment of their short links, or {@code null} if unclaimed.
  * @param password  The user’s password (securely handled externally).
  * @param version   Used for optimistic locking on {@link UserEntity} entity.
  */
@@ -34,6 +37,7 @@ public record UserEntity(
         String firstName,
         String lastName,
         @Indexed(unique = true) String email,
+        @Indexed(unique = true, sparse = true) String username,
         String password,
         @Version Integer version) {
 
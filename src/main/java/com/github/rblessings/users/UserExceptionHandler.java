@@ -28,6 +28,46 @@ public class UserExceptionHandler {
         return Mono.just(new ResponseEntity<>(response, httpStatus));
     }
 
+    /**
+     * Handles the {@link InvalidUsernameException} exception and returns a standardized response.
+     *
+     * @param ex The exception that was thrown.
+     * @return A standardized API response with the error message wrapped in a Mono.
+     */
+    @ExceptionHandler(InvalidUsernameException.class)
+    public Mono<ResponseEntity<ApiResponse<String>>> handleInvalidUsername(InvalidUsernameException ex) {
+        final var httpStatus = HttpStatus.BAD_REQUEST;
+        ApiResponse<String> response = ApiResponse.error(httpStatus.value(), ex.getMessage());
+        return Mono.just(new ResponseEntity<>(response, httpStatus));
+    }
+
+    /**
+     * Handles the {@link UserBatchTooLargeException} exception and returns a standardized response.
+     *
+     * @param ex The exception that was thrown.
+     * @return A standardized API response with the error message wrapped in a Mono.
+     */
+    @ExceptionHandler(UserBatchTooLargeException.class)
+    public Mono<ResponseEntity<ApiResponse<String>>> handleUserBatchTooLarge(UserBatchTooLargeException ex) {
+        final var httpStatus = HttpStatus.BAD_REQUEST;
+        ApiResponse<String> response = ApiResponse.error(httpStatus.value(), ex.getMessage());
+        return Mono.just(new ResponseEntity<>(response, httpStatus));
+    }
+
+    /**
+     * Handles the {@link UsernameAlreadyTakenException} and {@link UsernameAlreadyClaimedException} exceptions and
+     * returns a standardized response.
+     *
+     * @param ex The exception that was thrown.
+     * @return A standardized API response with the error message wrapped in a Mono.
+     */
+    @ExceptionHandler({UsernameAlreadyTakenException.class, UsernameAlreadyClaimedException.class})
+    public Mono<ResponseEntity<ApiResponse<String>>> handleUsernameConflict(RuntimeException ex) {
+        final var httpStatus = HttpStatus.CONFLICT;
+        ApiResponse<String> response = ApiResponse.error(httpStatus.value(), ex.getMessage());
+        return Mono.just(new ResponseEntity<>(response, httpStatus));
+    }
+
     /**
      * Handles all other exceptions and returns a generic error response.
      *
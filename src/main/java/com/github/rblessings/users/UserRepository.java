@@ -1,8 +1,32 @@
 package com.github.rblessings.users;
 
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 public interface UserRepository extends ReactiveMongoRepository<UserEntity, String> {
     Mono<UserEntity> findByEmail(String email);
+
+    /**
+     * Fetches the users with any of the given ids or emails in one query, e.g. for batch lookups.
+     */
+    Flux<UserEntity> findByIdInOrEmailIn(Collection<String> ids, Collection<String> emails);
+
+    /**
+     * Fetches only the id, version, and password hash of the given users, e.g. to check cached copies for staleness.
+     */
+    Flux<UserCredentials> findCredentialsByIdIn(Collection<String> ids);
+
+    /**
+     * Fetches only the id and username of the users that claimed one, e.g. to rebuild the {@link UsernameIndex}.
+     */
+    Flux<UsernameClaim> findUsernamesByUsernameExists(boolean exists);
+
+    /**
+     * Fetches only the id and username of the user who claimed a username, e.g. for usernames missing from the
+     * {@link UsernameIndex}.
+     */
+    Mono<UsernameClaim> findClaimByUsername(String username);
 }
@@ -1,18 +1,43 @@
 package com.github.rblessings.users;
 
+import com.github.rblessings.cache.BulkCache;
+import com.github.rblessings.resilience.ResilientReads;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Service
 public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ResilientReads mongoReads;
+    private final UsernameIndex usernameIndex;
+    private final UsernameProperties usernameProperties;
+    private final CacheManager cacheManager;
+    private final UserBatchProperties batchProperties;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, ResilientReads mongoReads,
+                       UsernameIndex usernameIndex, UsernameProperties usernameProperties, CacheManager cacheManager,
+                       UserBatchProperties batchProperties) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.mongoReads = mongoReads;
+        this.usernameIndex = usernameIndex;
+        this.usernameProperties = usernameProperties;
+        this.cacheManager = cacheManager;
+        this.batchProperties = batchProperties;
     }
 
     /**
@@ -33,7 +58,7 @@ public class UserService {
                 .flatMap(existingUser -> Mono.<UserDTO>error(new EmailAlreadyInUseException(existingUser.email())))
                 .switchIfEmpty(Mono.defer(() -> {
                     final String encodedPassword = passwordEncoder.encode(password);
-                    UserEntity user = new UserEntity(null, firstName, lastName, email, encodedPassword, null);
+                    UserEntity user = new UserEntity(null, firstName, lastName, email, null, encodedPassword, null);
                     return userRepository.save(user).map(UserDTO::from);
                 }));
     }
@@ -42,7 +67,8 @@ public class UserService {
      * Retrieves a user by their email with caching.
      * <p>
      * Searches for a user using the provided email. If found, emits the corresponding {@link UserDTO}.
-     * If not found, emits an empty signal. Caching is applied to avoid repeated database queries.
+     * If not found, emits an empty signal. Caching is applied to avoid repeated database queries; if the cache is
+     * unavailable, the lookup falls back to the database. Database reads are guarded and hedged by {@link ResilientReads}.
      * </p>
      *
      * @param email The email address of the user.
@@ -50,21 +76,134 @@ public class UserService {
      */
     @Cacheable(value = "users", key = "#email")
     public Mono<UserDTO> findByEmail(String email) {
-        return userRepository.findByEmail(email).map(UserDTO::from).switchIfEmpty(Mono.empty());
+        return mongoReads.read(() -> userRepository.findByEmail(email)).map(UserDTO::from);
     }
 
     /**
      * Retrieves a user by their ID.
      * <p>
      * Searches for a user using the provided ID. If found, emits the corresponding {@link UserDTO}.
-     * If not found, emits an empty signal.
+     * If not found, emits an empty signal. The read is guarded and hedged by {@link ResilientReads}.
      * </p>
      *
      * @param id The unique ID of the user.
      * @return A {@link Mono} emitting the {@link UserDTO} if found, or an empty signal if not.
      */
     public Mono<UserDTO> findById(String id) {
-        return userRepository.findById(id).map(UserDTO::from);
+        return mongoReads.read(() -> userRepository.findById(id)).map(UserDTO::from);
     }
-}
 
+    /**
+     * Retrieves many users at once, by ID or by email.
+     * <p>
+     * Users asked for by email are first looked up in the {@code users} cache, with one multi-get. The remaining ones,
+     * and the users asked for by ID since the cache is keyed by email, are fetched with one {@code $in} query and
+     * written back to the cache in one pipelined write, which the response does not wait for. If the cache is
+     * unavailable, all users are fetched from the database. The database read is guarded and hedged by
+     * {@link ResilientReads}.
+     * </p>
+     * <p>
+     * IDs and emails are deduplicated; if more than {@link UserBatchProperties#maxSize()} remain, emits an error
+     * signal with {@link UserBatchTooLargeException}.
+     * </p>
+     *
+     * @param ids    The IDs of the users.
+     * @param emails The email addresses of the users.
+     * @return A {@link Flux} emitting each user found once, in no particular order. Unknown users are left out.
+     */
+    public Flux<UserDTO> findAllByIdOrEmail(Collection<String> ids, Collection<String> emails) {
+        Set<String> distinctIds = new LinkedHashSet<>(ids);
+        Set<String> distinctEmails = new LinkedHashSet<>(emails);
+        int requested = distinctIds.size() + distinctEmails.size();
+        if (requested > batchProperties.maxSize()) {
+            return Flux.error(new UserBatchTooLargeException(requested, batchProperties.maxSize()));
+        }
+        if (requested == 0) {
+            return Flux.empty();
+        }
+
+        BulkCache cache = BulkCache.of(cacheManager.getCache("users"));
+        return Mono.fromFuture(() -> cache.retrieveAll(distinctEmails))
+                .flatMapMany(cached -> {
+                    Flux<UserDTO> hits = Flux.fromIterable(cached.values()).cast(UserDTO.class);
+                    List<String> missingEmails = distinctEmails.stream()
+                            .filter(email -> !cached.containsKey(email))
+                            .toList();
+                    if (distinctIds.isEmpty() && missingEmails.isEmpty()) {
+                        return hits;
+                    }
+                    Flux<UserDTO> fetched = mongoReads
+                            .read(() -> userRepository.findByIdInOrEmailIn(distinctIds, missingEmails)
+                                    .map(UserDTO::from)
+                                    .collectList())
+                            .doOnNext(users -> cache.storeAll(users.stream()
+                                    .collect(Collectors.toMap(UserDTO::email, Function.identity(), (a, b) -> a))))
+                            .flatMapIterable(Function.identity());
+                    return Flux.concat(hits, fetched).distinct(UserDTO::id);
+                });
+    }
+
+    /**
+     * Claims a username for a user.
+     * <p>
+     * Usernames are normalized first, see {@link Usernames}. A username known to be taken is refused without a write;
+     * otherwise the unique index decides, so two users racing for the same username cannot both get it. Claiming the
+     * username the user already holds succeeds without a change, any other claim by a user with a username fails with
+     * {@link UsernameAlreadyClaimedException}. The cached copy of the user is replaced with the updated one.
+     * </p>
+     *
+     * @param userId   The ID of the claiming user.
+     * @param username The requested username.
+     * @return A {@link Mono} emitting the updated {@link UserDTO}, or an empty signal if the user does not exist.
+     */
+    @CachePut(value = "users", key = "#result.email", unless = "#result == null")
+    public Mono<UserDTO> claimUsername(String userId, String username) {
+        String normalized = Usernames.normalize(username);
+        String problem = Usernames.problem(normalized);
+        if (problem != null) {
+            return Mono.error(new InvalidUsernameException(problem));
+        }
+        String owner = usernameIndex.ownerOf(normalized);
+        if (owner != null && !owner.equals(userId)) {
+            return Mono.error(new UsernameAlreadyTakenException(normalized, null));
+        }
+
+        return userRepository.findById(userId)
+                .flatMap(user -> {
+                    if (normalized.equals(user.username())) {
+                        return Mono.just(user);
+                    }
+                    if (user.username() != null) {
+                        return Mono.error(new UsernameAlreadyClaimedException(user.username()));
+                    }
+                    return userRepository.save(new UserEntity(user.id(), user.firstName(), user.lastName(),
+                            user.email(), normalized, user.password(), user.version()));
+                })
+                .onErrorMap(DuplicateKeyException.class, e -> new UsernameAlreadyTakenException(normalized, e))
+                .map(UserDTO::from);
+    }
+
+    /**
+     * Checks whether a username can be claimed, answered from the in-memory {@link UsernameIndex}.
+     * <p>
+     * Meant for typeahead, so it never queries the database. Usernames claimed through other nodes moments ago may
+     * still be reported as available; {@link #claimUsername(String, String)} has the final word.
+     * </p>
+     *
+     * @param username The username to check.
+     * @return The availability of the normalized username, with free alternatives if it is taken.
+     */
+    public UsernameAvailability checkUsername(String username) {
+        String normalized = Usernames.normalize(username);
+        String problem = Usernames.problem(normalized);
+        if (problem != null) {
+            return new UsernameAvailability(normalized, false, problem, List.of());
+        }
+        if (usernameIndex.isTaken(normalized)) {
+            return new UsernameAvailability(normalized, false,
+                    String.format("The username '%s' is already taken.", normalized),
+                    usernameIndex.suggest(normalized, usernameProperties.suggestions()));
+        }
+        return new UsernameAvailability(normalized, true, null, List.of());
+    }
+}
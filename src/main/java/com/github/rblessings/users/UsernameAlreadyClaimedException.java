@@ -0,0 +1,17 @@
+package com.github.rblessings.users;
+
+/**
+ * Exception thrown when a user who already has a username claims another one.
+ * <p>
+ * Usernames are part of every short link of their user, so they cannot be changed once claimed.
+ * </p>
+ */
+public final class UsernameAlreadyClaimedException extends RuntimeException {
+
+    /**
+     * @param username The username the user already holds.
+     */
+    public UsernameAlreadyClaimedException(String username) {
+        super(String.format("You already claimed the username '%s'; usernames cannot be changed.", username));
+    }
+}
@@ -0,0 +1,15 @@
+package com.github.rblessings.users;
+
+/**
+ * Exception thrown when a username is claimed that another user already holds.
+ */
+public final class UsernameAlreadyTakenException extends RuntimeException {
+
+    /**
+     * @param username The username that is taken.
+     * @param cause    The cause of the exception, if any.
+     */
+    public UsernameAlreadyTakenException(String username, Throwable cause) {
+        super(String.format("The username '%s' is already taken.", username), cause);
+    }
+}
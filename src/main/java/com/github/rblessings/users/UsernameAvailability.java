@@ -0,0 +1,14 @@
+package com.github.rblessings.users;
+
+import java.util.List;
+
+/**
+ * The answer to a username availability check.
+ *
+ * @param username    The username as it would be stored, i.e. normalized.
+ * @param available   Whether the username is valid and not taken, as far as this node knows.
+ * @param reason      Why the username is not available, if it is not.
+ * @param suggestions Free alternatives if the username is taken, otherwise empty.
+ */
+public record UsernameAvailability(String username, boolean available, String reason, List<String> suggestions) {
+}
@@ -0,0 +1,10 @@
+package com.github.rblessings.users;
+
+/**
+ * Projection of a {@link UserEntity} onto its identity and claimed username.
+ *
+ * @param id       The user's ID.
+ * @param username The user's username.
+ */
+public record UsernameClaim(String id, String username) {
+}
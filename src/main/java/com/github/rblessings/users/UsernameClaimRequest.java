@@ -0,0 +1,10 @@
+package com.github.rblessings.users;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record UsernameClaimRequest(
+        @NotBlank(message = "Username is required")
+        String username
+) {
+
+}
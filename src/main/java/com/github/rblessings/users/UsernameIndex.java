@@ -0,0 +1,173 @@
+package com.github.rblessings.users;
+
+import org.bson.Document;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.mongodb.core.mapping.event.ReactiveAfterSaveCallback;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * An in-memory, sorted index of claimed usernames, answering availability checks and suggestions without a query.
+ * <p>
+ * Typeahead checks availability on every keystroke, so the index maps every claimed username to its user's ID in a
+ * {@link ConcurrentSkipListMap}: a lookup is a lock-free O(log n) descent, and the usernames sharing a prefix are a
+ * contiguous sub-map, which is where free suggestions are looked for. Redirects resolve usernames to owners through
+ * it, too, see {@link #resolveOwner}.
+ * </p>
+ * <p>
+ * Every user saved through the repository on this node is indexed as soon as the save completes. Claims made through
+ * other nodes are picked up by a periodic reload, so the index may briefly report a username as available that was
+ * just taken; the unique index on {@code username} stays the authority, and a claim of such a username is refused.
+ * Usernames are never released, so the index only ever grows.
+ * </p>
+ */
+@Component
+public class UsernameIndex implements SmartLifecycle, ReactiveAfterSaveCallback<UserEntity> {
+    private static final Logger log = LoggerFactory.getLogger(UsernameIndex.class);
+
+    private final UserRepository userRepository;
+    private final UsernameProperties properties;
+    private final ConcurrentSkipListMap<String, String> owners = new ConcurrentSkipListMap<>();
+
+    private volatile Disposable schedule;
+
+    /**
+     * @param userRepository Injected lazily: the index is a save callback of the mapping converter, which the
+     *                       repository itself depends on.
+     * @param properties     The index configuration.
+     */
+    public UsernameIndex(@Lazy UserRepository userRepository, UsernameProperties properties) {
+        this.userRepository = userRepository;
+        this.properties = properties;
+    }
+
+    @Override
+    public void start() {
+        schedule = Flux.interval(Duration.ZERO, properties.refreshInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> reload()
+                        .onErrorResume(e -> {
+                            log.warn("Could not reload the username index", e);
+                            return Mono.empty();
+                        }), 0)
+                .subscribe();
+    }
+
+    @Override
+    public void stop() {
+        Disposable current = schedule;
+        if (current != null) {
+            current.dispose();
+            schedule = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return schedule != null;
+    }
+
+    @Override
+    public Publisher<UserEntity> onAfterSave(UserEntity user, Document document, String collection) {
+        if (user.username() != null && user.id() != null) {
+            owners.put(user.username(), user.id());
+        }
+        return Mono.just(user);
+    }
+
+    /**
+     * Adds every claimed username in the database to the index.
+     *
+     * @return A {@link Mono} completing once all usernames were indexed.
+     */
+    Mono<Void> reload() {
+        return userRepository.findUsernamesByUsernameExists(true)
+                .filter(claim -> claim.username() != null)
+                .doOnNext(claim -> owners.put(claim.username(), claim.id()))
+                .then();
+    }
+
+    /**
+     * @param username A normalized username.
+     * @return {@code true} if the username was claimed, as far as this node knows.
+     */
+    public boolean isTaken(String username) {
+        return owners.containsKey(username);
+    }
+
+    /**
+     * @param username A normalized username.
+     * @return The ID of the user who claimed the username, or {@code null} if this node does not know of one.
+     */
+    public String ownerOf(String username) {
+        return owners.get(username);
+    }
+
+    /**
+     * Resolves a username to the user who claimed it, looking it up in the database if this node does not know of it,
+     * e.g. because it was claimed through another node since the last reload.
+     *
+     * @param username A normalized username.
+     * @return The ID of the user who claimed the username, or an empty {@link Mono} if nobody did.
+     */
+    public Mono<String> resolveOwner(String username) {
+        String owner = owners.get(username);
+        if (owner != null) {
+            return Mono.just(owner);
+        }
+        if (!Usernames.isValid(username)) {
+            return Mono.empty();
+        }
+        return userRepository.findClaimByUsername(username)
+                .doOnNext(claim -> owners.put(claim.username(), claim.id()))
+                .map(UsernameClaim::id);
+    }
+
+    /**
+     * Suggests free usernames for a taken one, by appending the lowest numbers not yet claimed: {@code jane1},
+     * {@code jane2}, and so on. Only the claimed usernames starting with {@code username} are looked at, so at most
+     * that many plus {@code limit} candidates are tried.
+     *
+     * @param username A normalized username.
+     * @param limit    The maximum number of suggestions.
+     * @return Up to {@code limit} valid usernames that are not taken, as far as this node knows.
+     */
+    public List<String> suggest(String username, int limit) {
+        String base = username.length() > Usernames.MAX_LENGTH - 2
+                ? username.substring(0, Usernames.MAX_LENGTH - 2)
+                : username;
+        NavigableMap<String, String> taken = owners.subMap(base, true, base + Character.MAX_VALUE, true);
+
+        List<String> suggestions = new ArrayList<>(limit);
+        for (int n = 1; suggestions.size() < limit && base.length() + digits(n) <= Usernames.MAX_LENGTH; n++) {
+            String candidate = base + n;
+            if (!taken.containsKey(candidate) && Usernames.isValid(candidate)) {
+                suggestions.add(candidate);
+            }
+        }
+        return suggestions;
+    }
+
+    /**
+     * @return The number of indexed usernames.
+     */
+    int size() {
+        return owners.size();
+    }
+
+    private static int digits(int n) {
+        return (int) Math.log10(n) + 1;
+    }
+}
@@ -0,0 +1,19 @@
+package com.github.rblessings.users;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the in-memory username index.
+ *
+ * @param refreshInterval How often the index is reloaded from the database, to learn usernames claimed through
+ *                        other nodes. Claims through this node are indexed as they are saved.
+ * @param suggestions     Maximum number of free alternatives suggested for a username that is taken.
+ */
+@ConfigurationProperties("urlradar.users.usernames")
+public record UsernameProperties(
+        @DefaultValue("5m") Duration refreshInterval,
+        @DefaultValue("3") int suggestions) {
+}
@@ -0,0 +1,58 @@
+package com.github.rblessings.users;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Normalizes and validates usernames.
+ * <p>
+ * Usernames are the first path segment of short links, {@code /{username}/{code}}, so they are restricted to
+ * lowercase letters, digits and inner hyphens, and must not shadow the application's own top-level paths.
+ * </p>
+ */
+public final class Usernames {
+
+    static final int MIN_LENGTH = 3;
+    static final int MAX_LENGTH = 30;
+
+    private static final Pattern VALID = Pattern.compile("[a-z0-9][a-z0-9-]*[a-z0-9]");
+    private static final Set<String> RESERVED = Set.of(
+            "about", "actuator", "admin", "api", "assets", "docs", "error", "health", "help", "login", "logout",
+            "oauth2", "root", "settings", "static", "support", "system", "www");
+
+    private Usernames() {
+    }
+
+    /**
+     * Usernames are case-insensitive; they are stored and compared in their normalized form.
+     *
+     * @param username A username as entered.
+     * @return The username trimmed and in lowercase, or {@code null} if none was given.
+     */
+    public static String normalize(String username) {
+        return username != null ? username.strip().toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * @param username A normalized username.
+     * @return Why the username cannot be used, or {@code null} if it can.
+     */
+    static String problem(String username) {
+        if (username == null || username.length() < MIN_LENGTH || username.length() > MAX_LENGTH) {
+            return String.format("A username must be between %d and %d characters long", MIN_LENGTH, MAX_LENGTH);
+        }
+        if (!VALID.matcher(username).matches()) {
+            return "A username may only contain letters, digits and hyphens, and must start and end with a letter "
+                    + "or digit";
+        }
+        if (RESERVED.contains(username)) {
+            return String.format("The username '%s' is reserved", username);
+        }
+        return null;
+    }
+
+    public static boolean isValid(String username) {
+        return problem(username) == null;
+    }
+}
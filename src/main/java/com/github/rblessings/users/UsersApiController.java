@@ -9,6 +9,7 @@ import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Mono;
 
 import java.net.URI;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/users")
@@ -43,6 +44,17 @@ public class UsersApiController {
                         .body(ApiResponse.error(HttpStatus.NOT_FOUND.value(), "User with ID %s not found".formatted(id))));
     }
 
+    /**
+     * Looks up many users at once by ID or email, for services that would otherwise fetch them one by one. Unknown
+     * users are left out of the response.
+     */
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<ApiResponse<List<UserDTO>>>> getUsers(@RequestBody Mono<UserBatchRequest> requestMono) {
+        return requestMono
+                .flatMap(request -> userService.findAllByIdOrEmail(request.ids(), request.emails()).collectList())
+                .map(users -> ResponseEntity.ok(ApiResponse.success(HttpStatus.OK.value(), users)));
+    }
+
     @GetMapping("/principal")
     public Mono<ResponseEntity<ApiResponse<Authentication>>> getPrincipal(Mono<Authentication> authenticationMono) {
         return authenticationMono
@@ -51,4 +63,27 @@ public class UsersApiController {
                     return ResponseEntity.ok(body);
                 });
     }
+
+    /**
+     * Claims a username for the caller, the namespace of their short links. Usernames cannot be changed once claimed.
+     */
+    @PutMapping("/principal/username")
+    public Mono<ResponseEntity<ApiResponse<UserDTO>>> claimUsername(
+            @Valid @RequestBody Mono<UsernameClaimRequest> requestMono, Mono<Authentication> authenticationMono) {
+        return Mono.zip(requestMono, authenticationMono)
+                .flatMap(claim -> userService.claimUsername(claim.getT2().getName(), claim.getT1().username())
+                        .map(user -> ResponseEntity.ok(ApiResponse.success(HttpStatus.OK.value(), user)))
+                        .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                                .body(ApiResponse.error(HttpStatus.NOT_FOUND.value(),
+                                        "User with ID %s not found".formatted(claim.getT2().getName())))));
+    }
+
+    /**
+     * Checks whether a username is available, suggesting alternatives if it is taken. Cheap enough for typeahead.
+     */
+    @GetMapping("/usernames/{username}")
+    public Mono<ResponseEntity<ApiResponse<UsernameAvailability>>> checkUsername(@PathVariable String username) {
+        UsernameAvailability availability = userService.checkUsername(username);
+        return Mono.just(ResponseEntity.ok(ApiResponse.success(HttpStatus.OK.value(), availability)));
+    }
 }
@@ -0,0 +1,30 @@
+package com.github.rblessings.users;
+
+import com.github.rblessings.cache.CacheValueLoader;
+import com.github.rblessings.resilience.ResilientReads;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reloads entries of the {@code users} cache, keyed by email, straight from MongoDB for refresh-ahead.
+ */
+@Component
+public class UsersCacheLoader implements CacheValueLoader {
+    private final UserRepository userRepository;
+    private final ResilientReads mongoReads;
+
+    public UsersCacheLoader(UserRepository userRepository, ResilientReads mongoReads) {
+        this.userRepository = userRepository;
+        this.mongoReads = mongoReads;
+    }
+
+    @Override
+    public String cacheName() {
+        return "users";
+    }
+
+    @Override
+    public Mono<UserDTO> load(Object key) {
+        return mongoReads.read(() -> userRepository.findByEmail((String) key)).map(UserDTO::from);
+    }
+}
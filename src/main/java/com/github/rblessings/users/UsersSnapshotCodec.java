@@ -0,0 +1,90 @@
+package com.github.rblessings.users;
+
+import com.github.rblessings.cache.SnapshotCodec;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.github.rblessings.cache.CacheSnapshotFile.getString;
+import static com.github.rblessings.cache.CacheSnapshotFile.putString;
+
+/**
+ * Snapshots the {@code users} near cache.
+ * <p>
+ * Restored users are kept only if their {@link UserEntity#version()} still matches the database, which is checked with
+ * one {@code $in} query that fetches ids, versions, and password hashes only. Users that changed or were deleted while
+ * the node was down are dropped and will be loaded normally on first use.
+ * </p>
+ * <p>
+ * Password hashes are never written to disk. The same query reloads them for the users that are kept, so restored
+ * users are identical to those cached in Redis.
+ * </p>
+ */
+@Component
+public class UsersSnapshotCodec implements SnapshotCodec<UserDTO> {
+    private static final int NO_VERSION = -1;
+
+    private final UserRepository userRepository;
+
+    public UsersSnapshotCodec(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public String cacheName() {
+        return "users";
+    }
+
+    @Override
+    public Class<UserDTO> valueType() {
+        return UserDTO.class;
+    }
+
+    @Override
+    public void encode(UserDTO user, ByteBuffer buffer) {
+        putString(buffer, user.id());
+        putString(buffer, user.firstName());
+        putString(buffer, user.lastName());
+        putString(buffer, user.email());
+        putString(buffer, user.username());
+        buffer.putInt(user.version() != null ? user.version() : NO_VERSION);
+    }
+
+    @Override
+    public UserDTO decode(ByteBuffer buffer) {
+        String id = getString(buffer);
+        String firstName = getString(buffer);
+        String lastName = getString(buffer);
+        String email = getString(buffer);
+        String username = getString(buffer);
+        int version = buffer.getInt();
+        return new UserDTO(id, firstName, lastName, email, username, null, version != NO_VERSION ? version : null);
+    }
+
+    @Override
+    public Mono<Map<String, UserDTO>> reconcile(Map<String, UserDTO> restored) {
+        List<String> ids = restored.values().stream()
+                .filter(user -> user.id() != null && user.version() != null)
+                .map(UserDTO::id)
+                .toList();
+
+        return userRepository.findCredentialsByIdIn(ids)
+                .collectMap(UserCredentials::id)
+                .map(credentials -> {
+                    Map<String, UserDTO> current = new LinkedHashMap<>();
+                    restored.forEach((key, user) -> {
+                        UserCredentials stored = user.id() != null ? credentials.get(user.id()) : null;
+                        if (stored != null && Objects.equals(stored.version(), user.version())) {
+                            current.put(key, new UserDTO(user.id(), user.firstName(), user.lastName(), user.email(),
+                                    user.username(), stored.password(), user.version()));
+                        }
+                    });
+                    return current;
+                });
+    }
+}
@@ -0,0 +1,75 @@
+package com.github.rblessings.analytics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ClickCountTopologyTest {
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final AnalyticsProperties properties = new AnalyticsProperties(
+            new AnalyticsProperties.Export(1000, 256),
+            new AnalyticsProperties.Live(true, "counts", 100, 1000, Duration.ofSeconds(15)),
+            new AnalyticsProperties.Recording(1000, 100, Duration.ofSeconds(1), "clicks"));
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, String> clicks;
+    private TestOutputTopic<String, String> counts;
+
+    @BeforeEach
+    void setUp() {
+        StreamsBuilder builder = new StreamsBuilder();
+        ClickCountTopology.build(builder, properties, objectMapper);
+
+        Properties config = new Properties();
+        config.put(StreamsConfig.APPLICATION_ID_CONFIG, "click-counts-test");
+        config.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        driver = new TopologyTestDriver(builder.build(), config, START);
+        clicks = driver.createInputTopic("clicks", new StringSerializer(), new StringSerializer());
+        counts = driver.createOutputTopic("counts", new StringDeserializer(), new StringDeserializer());
+    }
+
+    @AfterEach
+    void tearDown() {
+        driver.close();
+    }
+
+    @Test
+    void shouldPublishTheRunningCount_ofEachLink_asOfItsLatestClick() throws Exception {
+        // Act
+        clicks.pipeInput("link-1", "{}", START);
+        clicks.pipeInput("link-2", "{}", START.plusSeconds(1));
+        clicks.pipeInput("link-1", "{}", START.plusSeconds(2));
+
+        // Assert
+        List<ClickCount> published = new ArrayList<>();
+        for (String count : counts.readValuesToList()) {
+            published.add(objectMapper.readValue(count, ClickCount.class));
+        }
+        assertEquals(List.of(
+                new ClickCount("link-1", 1, START),
+                new ClickCount("link-2", 1, START.plusSeconds(1)),
+                new ClickCount("link-1", 2, START.plusSeconds(2))), published);
+    }
+}
@@ -0,0 +1,127 @@
+package com.github.rblessings.analytics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ClickExportServiceTest {
+
+    private static final String FIRST_ID = new ObjectId().toHexString();
+    private static final String SECOND_ID = new ObjectId().toHexString();
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    private ClickExportService clickExportService;
+
+    @BeforeEach
+    void setUp() {
+        // Configured like Spring Boot's auto-configured mapper.
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        clickExportService = new ClickExportService(mongoTemplate, objectMapper,
+                new AnalyticsProperties(new AnalyticsProperties.Export(100, 1), null, null));
+    }
+
+    @Test
+    void shouldExportCsv_withHeaderAndQuotedFields() {
+        // Arrange
+        when(mongoTemplate.find(any(Query.class), eq(ClickEvent.class))).thenReturn(clicks());
+
+        // Act
+        String csv = collect(clickExportService.export("user-1", null, null, ClickExportFormat.CSV, false));
+
+        // Assert
+        String[] lines = csv.split("\r\n");
+        assertEquals(3, lines.length);
+        assertEquals("cursor,id,link_id,occurred_at,referrer,user_agent,country,variant", lines[0]);
+        assertEquals(ExportCursor.encode(FIRST_ID) + "," + FIRST_ID
+                + ",link-1,2026-01-01T00:00:00Z,https://example.com,\"Agent \"\"X\"\", v1\",NL,1", lines[1]);
+    }
+
+    @Test
+    void shouldResumeAfterCursor_withoutRepeatingHeader() {
+        // Arrange
+        when(mongoTemplate.find(any(Query.class), eq(ClickEvent.class))).thenReturn(clicks().skip(1));
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+
+        // Act
+        String csv = collect(clickExportService.export("user-1", "link-1", ExportCursor.encode(FIRST_ID),
+                ClickExportFormat.CSV, false));
+
+        // Assert
+        verify(mongoTemplate).find(query.capture(), eq(ClickEvent.class));
+        assertEquals(new ObjectId(FIRST_ID), query.getValue().getQueryObject().get("_id", Document.class)
+                .get("$gt"));
+        assertTrue(csv.startsWith(ExportCursor.encode(SECOND_ID)));
+    }
+
+    @Test
+    void shouldGzipNdjson_onTheFly() throws IOException {
+        // Arrange
+        when(mongoTemplate.find(any(Query.class), eq(ClickEvent.class))).thenReturn(clicks());
+
+        // Act
+        byte[] gzipped = concat(clickExportService.export("user-1", null, null, ClickExportFormat.NDJSON, true));
+
+        // Assert
+        String ndjson;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            ndjson = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String[] lines = ndjson.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"occurredAt\":\"2026-01-01T00:00:00Z\""), lines[0]);
+        assertTrue(lines[1].contains("\"cursor\":\"" + ExportCursor.encode(SECOND_ID) + "\""), lines[1]);
+    }
+
+    @Test
+    void shouldRejectInvalidCursor_beforeStreaming() {
+        assertThrows(InvalidExportRequestException.class, () ->
+                clickExportService.export("user-1", null, "not-a-cursor", ClickExportFormat.NDJSON, false));
+    }
+
+    private static Flux<ClickEvent> clicks() {
+        return Flux.just(
+                new ClickEvent(FIRST_ID, "link-1", "user-1", Instant.parse("2026-01-01T00:00:00Z"),
+                        "https://example.com", "Agent \"X\", v1", "NL", 1),
+                new ClickEvent(SECOND_ID, "link-1", "user-1", Instant.parse("2026-01-01T00:00:01Z"),
+                        null, null, null, null));
+    }
+
+    private static String collect(Flux<byte[]> export) {
+        return new String(concat(export), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] concat(Flux<byte[]> export) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        export.toStream().forEach(out::writeBytes);
+        return out.toByteArray();
+    }
+}
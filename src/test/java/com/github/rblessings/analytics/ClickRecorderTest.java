@@ -0,0 +1,141 @@
+package com.github.rblessings.analytics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.kafka.core.KafkaTemplate;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClickRecorderTest {
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldWriteQueuedClicks_inBatches() {
+        // Arrange
+        ClickRecorder recorder = recorder(10, 2);
+        when(mongoTemplate.insert(anyCollection(), eq(ClickEvent.class))).thenReturn(Flux.empty());
+        recorder.record("link-1", "owner-1", 1, "https://example.com", "Agent");
+        recorder.record("link-1", "owner-1", 0, null, null);
+        recorder.record("link-2", "owner-1", null, null, null);
+
+        // Act
+        StepVerifier.create(recorder.flush()).verifyComplete();
+
+        // Assert
+        ArgumentCaptor<Collection<ClickEvent>> batches = ArgumentCaptor.forClass(Collection.class);
+        verify(mongoTemplate, times(2)).insert(batches.capture(), eq(ClickEvent.class));
+        assertEquals(List.of(2, 1), batches.getAllValues().stream().map(Collection::size).toList());
+        ClickEvent first = batches.getAllValues().getFirst().iterator().next();
+        assertEquals("link-1", first.linkId());
+        assertEquals(1, first.variant());
+        assertEquals(NOW, first.occurredAt());
+        assertEquals("https://example.com", first.referrer());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldDropClicks_ratherThanQueueBeyondCapacity() {
+        // Arrange
+        ClickRecorder recorder = recorder(2, 10);
+        when(mongoTemplate.insert(anyCollection(), eq(ClickEvent.class))).thenReturn(Flux.empty());
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            recorder.record("link-" + i, "owner-1", null, null, null);
+        }
+        StepVerifier.create(recorder.flush()).verifyComplete();
+
+        // Assert
+        ArgumentCaptor<Collection<ClickEvent>> batch = ArgumentCaptor.forClass(Collection.class);
+        verify(mongoTemplate).insert(batch.capture(), eq(ClickEvent.class));
+        assertEquals(List.of("link-0", "link-1"), batch.getValue().stream().map(ClickEvent::linkId).toList());
+    }
+
+    @Test
+    void shouldNotWrite_withoutClicks() {
+        StepVerifier.create(recorder(10, 10).flush()).verifyComplete();
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldPublishClicks_keyedByLink_atTheTimeOfTheRedirect() throws Exception {
+        // Arrange
+        ClickRecorder recorder = recorder(10, 2);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+        recorder.record("link-1", "owner-1", 1, null, null);
+        recorder.record("link-2", "owner-1", null, null, null);
+        recorder.record("link-1", "owner-1", 0, null, null);
+
+        // Act
+        StepVerifier.create(recorder.publish()).verifyComplete();
+
+        // Assert: published independently of MongoDB.
+        ArgumentCaptor<ProducerRecord<String, String>> records = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(3)).send(records.capture());
+        assertEquals(List.of("link-1", "link-2", "link-1"),
+                records.getAllValues().stream().map(ProducerRecord::key).toList());
+        ProducerRecord<String, String> first = records.getAllValues().getFirst();
+        assertEquals("clicks", first.topic());
+        assertEquals(NOW.toEpochMilli(), first.timestamp());
+        assertEquals("link-1", objectMapper.readValue(first.value(), ClickEvent.class).linkId());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldStopPublishingABatch_atTheFirstClickKafkaRefuses() {
+        // Arrange: the producer gave up waiting for the topic's metadata.
+        ClickRecorder recorder = recorder(10, 10);
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new TimeoutException("Topic not present in metadata")));
+        for (int i = 0; i < 5; i++) {
+            recorder.record("link-" + i, "owner-1", null, null, null);
+        }
+
+        // Act & Assert
+        StepVerifier.create(recorder.publish()).expectError(TimeoutException.class).verify();
+        verify(kafkaTemplate, times(1)).send(any(ProducerRecord.class));
+    }
+
+    private ClickRecorder recorder(int queueCapacity, int batchSize) {
+        return new ClickRecorder(mongoTemplate, kafkaTemplate, objectMapper,
+                new AnalyticsProperties.Recording(queueCapacity, batchSize, Duration.ofSeconds(1), "clicks"),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,35 @@
+package com.github.rblessings.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClicksApiControllerTest {
+
+    @Test
+    void shouldAcceptGzip_whenListedWithPositiveQuality() {
+        assertTrue(ClicksApiController.acceptsGzip(List.of("gzip")));
+        assertTrue(ClicksApiController.acceptsGzip(List.of("br, GZIP;q=0.5")));
+        assertTrue(ClicksApiController.acceptsGzip(List.of("deflate", "x-gzip ; Q=0.001")));
+        assertTrue(ClicksApiController.acceptsGzip(List.of("br;q=1, *;q=0.1")));
+    }
+
+    @Test
+    void shouldRefuseGzip_whenQualityIsZero_orGzipIsNotAccepted() {
+        assertFalse(ClicksApiController.acceptsGzip(List.of()));
+        assertFalse(ClicksApiController.acceptsGzip(List.of("gzip;q=0")));
+        assertFalse(ClicksApiController.acceptsGzip(List.of("gzip; q=0.000")));
+        assertFalse(ClicksApiController.acceptsGzip(List.of("gzip;q=0.0, identity")));
+        assertFalse(ClicksApiController.acceptsGzip(List.of("br, deflate")));
+        assertFalse(ClicksApiController.acceptsGzip(List.of("*;q=0")));
+    }
+
+    @Test
+    void shouldLetExplicitGzipEntry_overrideWildcard() {
+        assertFalse(ClicksApiController.acceptsGzip(List.of("*, gzip;q=0")));
+        assertTrue(ClicksApiController.acceptsGzip(List.of("*;q=0, gzip;q=0.8")));
+    }
+}
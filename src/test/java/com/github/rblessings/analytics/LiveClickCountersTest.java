@@ -0,0 +1,55 @@
+package com.github.rblessings.analytics;
+
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveClickCountersTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final LiveClickCounters counters = new LiveClickCounters(new AnalyticsProperties(null,
+            new AnalyticsProperties.Live(true, "counts", 100, 1000, Duration.ofSeconds(15)), null));
+
+    @Test
+    void shouldConflateUpdates_forSlowSubscriber() {
+        StepVerifier.create(counters.subscribe(List.of("a", "b")), 0)
+                // Arrange: updates arrive while the subscriber requests nothing.
+                .then(() -> {
+                    counters.publish(new ClickCount("a", 1, NOW));
+                    counters.publish(new ClickCount("b", 7, NOW));
+                    counters.publish(new ClickCount("a", 2, NOW.plusSeconds(1)));
+                    counters.publish(new ClickCount("a", 3, NOW.plusSeconds(2)));
+                    counters.publish(new ClickCount("c", 9, NOW));
+                })
+                // Act & Assert: only the latest count per link is delivered once it catches up.
+                .thenRequest(10)
+                .assertNext(count -> assertEquals(new ClickCount("a", 3, NOW.plusSeconds(2)), count))
+                .assertNext(count -> assertEquals(7, count.count()))
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenCancel()
+                .verify();
+
+        assertEquals(0, counters.subscribedLinks(), "Cancelled subscribers must be unregistered.");
+    }
+
+    @Test
+    void shouldStartWithLatestCount_andIgnoreOutOfOrderUpdates() {
+        // Arrange
+        counters.publish(new ClickCount("a", 5, NOW.plusSeconds(5)));
+        counters.publish(new ClickCount("a", 4, NOW));
+
+        // Act & Assert
+        StepVerifier.create(counters.subscribe(List.of("a")))
+                .assertNext(count -> assertEquals(5, count.count()))
+                .then(() -> counters.publish(new ClickCount("a", 6, NOW.plusSeconds(6))))
+                .assertNext(count -> assertEquals(6, count.count()))
+                .thenCancel()
+                .verify();
+    }
+}
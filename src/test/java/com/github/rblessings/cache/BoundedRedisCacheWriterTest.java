@@ -0,0 +1,167 @@
+package com.github.rblessings.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.ReactiveKeyCommands;
+import org.springframework.data.redis.connection.ReactiveRedisConnection;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.connection.ReactiveStringCommands;
+import org.springframework.data.redis.connection.ReactiveZSetCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.zset.Tuple;
+import org.springframework.data.redis.core.types.Expiration;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BoundedRedisCacheWriterTest {
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+    private static final ByteBuffer INDEX_KEY =
+            ByteBuffer.wrap("urlradar:cache-index:users".getBytes(StandardCharsets.UTF_8));
+
+    @Mock
+    private RedisCacheWriter delegate;
+
+    @Mock
+    private ReactiveRedisConnectionFactory connectionFactory;
+
+    @Mock
+    private ReactiveRedisConnection connection;
+
+    @Mock
+    private ReactiveZSetCommands zSetCommands;
+
+    @Mock
+    private ReactiveKeyCommands keyCommands;
+
+    @Mock
+    private ReactiveStringCommands stringCommands;
+
+    private BoundedRedisCacheWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(connectionFactory.getReactiveConnection()).thenReturn(connection);
+        lenient().when(connection.zSetCommands()).thenReturn(zSetCommands);
+        lenient().when(connection.keyCommands()).thenReturn(keyCommands);
+        lenient().when(connection.stringCommands()).thenReturn(stringCommands);
+        lenient().when(zSetCommands.zAdd(any(ByteBuffer.class), anyDouble(), any(ByteBuffer.class)))
+                .thenReturn(Mono.just(1L));
+        lenient().when(keyCommands.pExpire(any(ByteBuffer.class), any(Duration.class))).thenReturn(Mono.just(true));
+
+        CacheProperties.Policy bounded = new CacheProperties.Policy(Duration.ofMinutes(10), 0.1, 100, 0);
+        CacheProperties.Policy unbounded = new CacheProperties.Policy(Duration.ofMinutes(10), 0.1, 0, 0);
+        writer = new BoundedRedisCacheWriter(delegate, connectionFactory, Map.of("users", bounded, "links", unbounded),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void shouldShareOneConnection_acrossIndexUpdates() {
+        // Act
+        for (int i = 0; i < 10; i++) {
+            writer.put("users", key(i), new byte[0], Duration.ofMinutes(10));
+        }
+
+        // Assert
+        verify(connectionFactory, times(1)).getReactiveConnection();
+        verify(zSetCommands, times(10)).zAdd(eq(INDEX_KEY), eq((double) NOW.toEpochMilli()), any(ByteBuffer.class));
+        verify(keyCommands, times(10)).pExpire(INDEX_KEY, Duration.ofMinutes(11));
+    }
+
+    @Test
+    void shouldDropExpiredKeysFromIndex_andEvictOldestOverBound_whenTrimming() {
+        // Arrange: after dropping expired keys, the index still holds two keys over the bound.
+        when(zSetCommands.zRemRangeByScore(eq(INDEX_KEY), any())).thenReturn(Mono.just(5L));
+        when(zSetCommands.zCard(INDEX_KEY)).thenReturn(Mono.just(102L));
+        when(zSetCommands.zPopMin(INDEX_KEY, 2L)).thenReturn(Flux.empty());
+
+        // Act
+        for (int i = 0; i < BoundedRedisCacheWriter.TRIM_EVERY; i++) {
+            writer.put("users", key(i), new byte[0], Duration.ofMinutes(10));
+        }
+
+        // Assert: keys written more than the longest jittered TTL (11 minutes) ago are known to have expired.
+        double expiredBefore = NOW.minus(Duration.ofMinutes(11)).toEpochMilli();
+        verify(zSetCommands).zRemRangeByScore(INDEX_KEY, Range.closed(Double.NEGATIVE_INFINITY, expiredBefore));
+        verify(zSetCommands).zPopMin(INDEX_KEY, 2L);
+    }
+
+    @Test
+    void shouldReadManyEntries_withOneMget() {
+        // Arrange: the second key is missing.
+        when(stringCommands.mGet(anyList())).thenReturn(Mono.just(Arrays.asList(
+                ByteBuffer.wrap(new byte[]{1}), null, ByteBuffer.wrap(new byte[]{3}))));
+
+        // Act
+        List<byte[]> values = writer.retrieveAll("users", List.of(key(1), key(2), key(3))).join();
+
+        // Assert
+        verify(stringCommands, times(1)).mGet(anyList());
+        assertEquals(3, values.size());
+        assertArrayEquals(new byte[]{1}, values.get(0));
+        assertNull(values.get(1));
+        assertArrayEquals(new byte[]{3}, values.get(2));
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    void shouldWriteManyEntries_onTheSharedConnection_andIndexThemWithOneZadd() {
+        // Arrange
+        when(stringCommands.set(any(ByteBuffer.class), any(ByteBuffer.class), any(Expiration.class),
+                any(RedisStringCommands.SetOption.class))).thenReturn(Mono.just(true));
+        when(zSetCommands.zAdd(eq(INDEX_KEY), anyCollection())).thenReturn(Mono.just(3L));
+
+        // Act
+        writer.storeAll("users", List.of(
+                new BoundedRedisCacheWriter.Entry(key(1), new byte[]{1}, Duration.ofMinutes(10)),
+                new BoundedRedisCacheWriter.Entry(key(2), new byte[]{2}, Duration.ofMinutes(9)),
+                new BoundedRedisCacheWriter.Entry(key(3), new byte[]{3}, Duration.ofMinutes(8)))).join();
+
+        // Assert: each entry keeps its own TTL, and one index update covers all of them.
+        verify(connectionFactory, times(1)).getReactiveConnection();
+        verify(stringCommands).set(ByteBuffer.wrap(key(2)), ByteBuffer.wrap(new byte[]{2}),
+                Expiration.from(Duration.ofMinutes(9)), RedisStringCommands.SetOption.upsert());
+        verify(stringCommands, times(3)).set(any(ByteBuffer.class), any(ByteBuffer.class), any(Expiration.class),
+                any(RedisStringCommands.SetOption.class));
+        verify(zSetCommands).zAdd(eq(INDEX_KEY), argThat((Collection<? extends Tuple> scored) -> scored.size() == 3));
+        verify(keyCommands).pExpire(INDEX_KEY, Duration.ofMinutes(11));
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    void shouldNotIndexCachesWithoutBound() {
+        // Act
+        writer.put("links", key(1), new byte[0], Duration.ofMinutes(10));
+
+        // Assert
+        verifyNoInteractions(connectionFactory);
+    }
+
+    private static byte[] key(int i) {
+        return ("users::" + i).getBytes(StandardCharsets.UTF_8);
+    }
+}
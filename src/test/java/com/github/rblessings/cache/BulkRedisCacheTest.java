@@ -0,0 +1,67 @@
+package com.github.rblessings.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BulkRedisCacheTest {
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+    private static final CacheProperties.Policy POLICY =
+            new CacheProperties.Policy(Duration.ofMinutes(30), 0.1, 0, 0.8);
+
+    @Mock
+    private BoundedRedisCacheWriter cacheWriter;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldWriteEntries_asSingleWritesWould_andReadThemBack() {
+        // Arrange
+        Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+        BulkRedisCache cache = new BulkRedisCache("users", cacheWriter, RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(new PolicyTtlFunction(POLICY, clock))
+                .disableCachingNullValues());
+        CacheEnvelope envelope = CacheEnvelope.wrap("Jane", POLICY, NOW);
+        Map<Object, Object> entries = new LinkedHashMap<>();
+        entries.put("jane@example.com", envelope);
+        entries.put("john@example.com", null);
+        ArgumentCaptor<List<BoundedRedisCacheWriter.Entry>> written = ArgumentCaptor.forClass(List.class);
+        when(cacheWriter.storeAll(eq("users"), written.capture())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        cache.storeAll(entries).join();
+
+        // Assert: the key carries the cache prefix, and the TTL is the envelope's.
+        assertEquals(1, written.getValue().size(), "Null values must not be cached.");
+        BoundedRedisCacheWriter.Entry entry = written.getValue().getFirst();
+        assertEquals("users::jane@example.com", new String(entry.key(), StandardCharsets.UTF_8));
+        assertEquals(Duration.between(NOW, envelope.expiresAt()), entry.ttl());
+
+        // Act: read it back, along with a missing entry.
+        when(cacheWriter.retrieveAll(eq("users"), anyList()))
+                .thenReturn(CompletableFuture.completedFuture(Arrays.asList(entry.value(), null)));
+        Map<Object, Object> found = cache.retrieveAll(List.of("jane@example.com", "john@example.com")).join();
+
+        // Assert
+        assertEquals(Map.of("jane@example.com", envelope), found);
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.rblessings.cache;
+
+import com.github.rblessings.users.UserDTO;
+import com.github.rblessings.users.UsersSnapshotCodec;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheSnapshotFileTest {
+
+    private final UsersSnapshotCodec codec = new UsersSnapshotCodec(null);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldRoundTripEntries_inWriteOrder() throws IOException {
+        // Arrange
+        Map<String, UserDTO> entries = new LinkedHashMap<>();
+        entries.put("john.doe@example.com",
+                new UserDTO("1", "John", "Doe", "john.doe@example.com", "john", "{bcrypt}hash", 3));
+        entries.put("jane.doe@example.com",
+                new UserDTO("2", "Jane", null, "jane.doe@example.com", null, "{bcrypt}hash", null));
+        Path file = directory.resolve("users.snapshot");
+
+        // Act
+        CacheSnapshotFile.write(file, entries, codec);
+        Map<String, UserDTO> restored = CacheSnapshotFile.read(file, codec);
+
+        // Assert
+        assertEquals(List.copyOf(entries.keySet()), List.copyOf(restored.keySet()), "Order must be preserved.");
+        UserDTO john = restored.get("john.doe@example.com");
+        assertEquals("1", john.id());
+        assertEquals("Doe", john.lastName());
+        assertEquals("john", john.username());
+        assertEquals(3, john.version());
+        assertNull(restored.get("jane.doe@example.com").lastName());
+        assertNull(restored.get("jane.doe@example.com").username());
+        assertNull(restored.get("jane.doe@example.com").version());
+    }
+
+    @Test
+    void shouldReturnNoEntries_whenSnapshotDoesNotExist() throws IOException {
+        assertTrue(CacheSnapshotFile.read(directory.resolve("missing.snapshot"), codec).isEmpty());
+    }
+
+    @Test
+    void shouldRejectCorruptSnapshot() throws IOException {
+        // Arrange: flip the last byte of a valid snapshot.
+        Path file = directory.resolve("users.snapshot");
+        CacheSnapshotFile.write(file, Map.of("john.doe@example.com",
+                new UserDTO("1", "John", "Doe", "john.doe@example.com", null, "{bcrypt}hash", 1)), codec);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 0x7F;
+        Files.write(file, bytes, StandardOpenOption.TRUNCATE_EXISTING);
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> CacheSnapshotFile.read(file, codec));
+    }
+}
@@ -0,0 +1,95 @@
+package com.github.rblessings.cache;
+
+import com.github.rblessings.users.UserCredentials;
+import com.github.rblessings.users.UserDTO;
+import com.github.rblessings.users.UserRepository;
+import com.github.rblessings.users.UsersSnapshotCodec;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NearCacheSnapshotterTest {
+
+    private static final UserDTO JOHN =
+            new UserDTO("1", "John", "Doe", "john.doe@example.com", "john", "{bcrypt}john", 3);
+    private static final UserDTO JANE =
+            new UserDTO("2", "Jane", "Doe", "jane.doe@example.com", null, "{bcrypt}jane", 1);
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldRestoreOnlyUnchangedUsers_withPasswordsReloadedFromDatabase() {
+        // Arrange: a node snapshots two cached users on shutdown; Jane is updated while it is down.
+        NearCacheManager before = cacheManager();
+        before.getCache("users").put(JOHN.email(), JOHN);
+        before.getCache("users").put(JANE.email(), JANE);
+        snapshotter(before).snapshotAll();
+        when(userRepository.findCredentialsByIdIn(anyCollection())).thenReturn(Flux.just(
+                new UserCredentials("1", 3, "{bcrypt}john"),
+                new UserCredentials("2", 2, "{bcrypt}jane-new")));
+
+        // Act: the node restarts.
+        NearCacheManager after = cacheManager();
+        NearCacheSnapshotter restarted = snapshotter(after);
+        restarted.start();
+        restarted.stop();
+
+        // Assert
+        Map<Object, Object> restored = after.getNearCache("users").orElseThrow().hottest(10);
+        assertEquals(Map.of(JOHN.email(), JOHN), restored, "Only the unchanged user may be restored.");
+        assertEquals("{bcrypt}john", ((UserDTO) restored.get(JOHN.email())).password());
+    }
+
+    @Test
+    void shouldKeepPasswordHashesOutOfSnapshots_andRestrictSnapshotPermissions() throws IOException {
+        // Arrange
+        NearCacheManager cacheManager = cacheManager();
+        cacheManager.getCache("users").put(JOHN.email(), JOHN);
+
+        // Act
+        snapshotter(cacheManager).snapshotAll();
+
+        // Assert
+        Path file = directory.resolve("snapshots").resolve("users.snapshot");
+        String contents = new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1);
+        assertTrue(contents.contains(JOHN.email()));
+        assertFalse(contents.contains("{bcrypt}"), "Password hashes must never be written to disk.");
+
+        assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(file)));
+        assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(file.getParent())));
+    }
+
+    private NearCacheManager cacheManager() {
+        return new NearCacheManager(new ConcurrentMapCacheManager("users"), properties());
+    }
+
+    private NearCacheSnapshotter snapshotter(NearCacheManager cacheManager) {
+        return new NearCacheSnapshotter(cacheManager, List.of(new UsersSnapshotCodec(userRepository)), properties());
+    }
+
+    private CacheProperties properties() {
+        return new CacheProperties(Map.of(), Map.of("users", new CacheProperties.Near(100, Duration.ofMinutes(1))),
+                new CacheProperties.Snapshot(true, directory.resolve("snapshots"), Duration.ofHours(1), 100));
+    }
+}
@@ -0,0 +1,119 @@
+package com.github.rblessings.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NearCacheTest {
+
+    private final ConcurrentMapCache shared = new ConcurrentMapCache("users");
+    private final NearCache cache = new NearCache(shared, new CacheProperties.Near(100, Duration.ofMinutes(1)));
+
+    @Test
+    void shouldServeFromProcessMemory_afterFirstSharedRead() {
+        // Arrange
+        shared.put("key", "v1");
+        assertEquals("v1", cache.get("key").get());
+
+        // Act: another node changes the shared entry.
+        shared.put("key", "v2");
+
+        // Assert: the local copy is served until it expires or is invalidated.
+        assertEquals("v1", cache.get("key").get());
+    }
+
+    @Test
+    void shouldInvalidateLocalCopy_onEvict() {
+        // Arrange
+        cache.put("key", "v1");
+
+        // Act
+        cache.evict("key");
+
+        // Assert
+        assertNull(cache.get("key"));
+        assertNull(shared.get("key"));
+    }
+
+    @Test
+    void shouldInvalidateLocalCopy_onPutIfAbsent() {
+        // Arrange: a stale local copy of an entry that is no longer in the shared cache.
+        cache.put("key", "v1");
+        shared.evict("key");
+
+        // Act
+        cache.putIfAbsent("key", "v2");
+
+        // Assert: the next read goes to the shared cache instead of returning the stale copy.
+        assertEquals("v2", cache.get("key").get());
+    }
+
+    @Test
+    void shouldInvalidateLocalCopy_whenNullIsPut() {
+        // Arrange
+        cache.put("key", "v1");
+
+        // Act
+        cache.put("key", null);
+
+        // Assert
+        assertTrue(cache.hottest(10).isEmpty(), "A null value must not leave the old value in process memory.");
+    }
+
+    @Test
+    void shouldInvalidateAllLocalCopies_onClear() {
+        // Arrange
+        cache.put("a", "1");
+        cache.put("b", "2");
+
+        // Act
+        cache.clear();
+
+        // Assert
+        assertNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertTrue(cache.hottest(10).isEmpty());
+    }
+
+    @Test
+    void shouldPreloadProcessMemoryOnly() {
+        // Act
+        cache.preload(Map.of("key", "restored"));
+
+        // Assert
+        assertEquals("restored", cache.get("key").get());
+        assertNull(shared.get("key"), "Preloading must not write to the shared cache.");
+    }
+
+    @Test
+    void shouldServeBulkReads_fromProcessMemoryFirst() {
+        // Arrange: one entry is held locally, another only in the shared cache.
+        cache.put("local", "v1");
+        shared.put("local", "changed");
+        shared.put("shared", "v2");
+
+        // Act
+        Map<Object, Object> found = cache.retrieveAll(List.of("local", "shared", "missing")).join();
+
+        // Assert: shared entries are copied into process memory.
+        assertEquals(Map.of("local", "v1", "shared", "v2"), found);
+        shared.evict("shared");
+        assertEquals("v2", cache.get("shared").get());
+    }
+
+    @Test
+    void shouldWriteBothLevels_onBulkStore() {
+        // Act
+        cache.storeAll(Map.of("key", "v1")).join();
+
+        // Assert
+        assertEquals("v1", shared.get("key").get());
+        shared.evict("key");
+        assertEquals("v1", cache.get("key").get());
+    }
+}
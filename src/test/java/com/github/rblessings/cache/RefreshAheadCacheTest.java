@@ -0,0 +1,129 @@
+package com.github.rblessings.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshAheadCacheTest {
+
+    private static final CacheProperties.Policy POLICY =
+            new CacheProperties.Policy(Duration.ofMinutes(10), 0.1, 0, 0.8);
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private ConcurrentMapCache redis;
+    private RefreshAheadCache cache;
+
+    @BeforeEach
+    void setUp() {
+        redis = new ConcurrentMapCache("users");
+        CacheValueLoader loader = new CacheValueLoader() {
+            @Override
+            public String cacheName() {
+                return "users";
+            }
+
+            @Override
+            public Mono<?> load(Object key) {
+                return Mono.just("fresh-" + loads.incrementAndGet());
+            }
+        };
+        cache = new RefreshAheadCache(redis, POLICY, loader, clock);
+    }
+
+    @Test
+    void shouldServeCachedValueWithoutRefresh_beforeRefreshDeadline() {
+        // Arrange
+        cache.put("key", "cached");
+
+        // Act
+        Object value = cache.get("key").get();
+
+        // Assert
+        assertEquals("cached", value);
+        assertEquals(0, loads.get(), "No refresh may start before the refresh deadline.");
+        assertInstanceOf(CacheEnvelope.class, redis.get("key").get(), "Values must be stored with their deadlines.");
+    }
+
+    @Test
+    void shouldServeCachedValueAndRefreshInBackground_afterRefreshDeadline() throws InterruptedException {
+        // Arrange: move past the latest possible refresh deadline (0.8 x 11 minutes) but not past expiry.
+        cache.put("key", "cached");
+        clock.advance(Duration.ofMinutes(9));
+
+        // Act
+        Object value = cache.get("key").get();
+
+        // Assert: the reader is not blocked, and the entry is replaced in the background.
+        assertEquals("cached", value);
+        for (int i = 0; i < 200 && !"fresh-1".equals(CacheEnvelope.unwrap(redis.get("key").get())); i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, loads.get());
+        assertEquals("fresh-1", cache.get("key").get());
+    }
+
+    @Test
+    void shouldStoreEnvelopes_andUnwrapThem_inBulk() {
+        // Arrange
+        cache.storeAll(Map.of("key", "cached")).join();
+        clock.advance(Duration.ofMinutes(9));
+
+        // Act
+        Map<Object, Object> found = cache.retrieveAll(List.of("key", "missing")).join();
+
+        // Assert: bulk reads refresh due entries too.
+        assertEquals(Map.of("key", "cached"), found);
+        assertInstanceOf(CacheEnvelope.class, redis.get("key").get());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void shouldJitterTtl_withinConfiguredBounds() {
+        for (int i = 0; i < 1_000; i++) {
+            Duration ttl = POLICY.jitteredTtl();
+            assertTrue(ttl.compareTo(Duration.ofMinutes(9)) >= 0 && ttl.compareTo(Duration.ofMinutes(11)) <= 0,
+                    () -> "TTL out of bounds: " + ttl);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.github.rblessings.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    // Two levels of four 10ms slots: the first level spans 40ms, the wheel 160ms.
+    private final TimingWheel<String> wheel = new TimingWheel<>(Duration.ofMillis(10), 2, 2, START);
+
+    @Test
+    void shouldReportKeys_onTheTickTheirDeadlinePassed() {
+        // Arrange: deadlines in the first level, in the second level and past the wheel's span.
+        wheel.schedule("near", START.plusMillis(25));
+        wheel.schedule("far", START.plusMillis(95));
+        wheel.schedule("overflowing", START.plusMillis(1_005));
+
+        // Act & Assert
+        assertEquals(List.of(), wheel.advance(START.plusMillis(29)));
+        assertEquals(List.of("near"), wheel.advance(START.plusMillis(30)));
+        assertEquals(List.of(), wheel.advance(START.plusMillis(99)));
+        assertEquals(List.of("far"), wheel.advance(START.plusMillis(100)));
+        assertEquals(List.of(), wheel.advance(START.plusMillis(1_009)));
+        assertEquals(List.of("overflowing"), wheel.advance(START.plusMillis(1_010)));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void shouldReportPastDeadlines_onTheNextTick() {
+        // Act
+        wheel.schedule("late", START.minusSeconds(1));
+
+        // Assert
+        assertEquals(List.of(), wheel.advance(START.plusMillis(9)));
+        assertEquals(List.of("late"), wheel.advance(START.plusMillis(10)));
+    }
+
+    @Test
+    void shouldReplaceAndCancelDeadlines() {
+        // Arrange
+        wheel.schedule("moved", START.plusMillis(20));
+        wheel.schedule("cancelled", START.plusMillis(20));
+
+        // Act
+        wheel.schedule("moved", START.plusMillis(70));
+        boolean cancelled = wheel.cancel("cancelled");
+
+        // Assert
+        assertTrue(cancelled);
+        assertFalse(wheel.cancel("cancelled"));
+        assertEquals(List.of(), wheel.advance(START.plusMillis(60)));
+        assertEquals(List.of("moved"), wheel.advance(START.plusMillis(70)));
+    }
+
+    @Test
+    void shouldNeverReportKeysEarlyOrMoreThanATickLate_forRandomDeadlines() {
+        // Arrange
+        Random random = new Random(42);
+        List<Instant> deadlines = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            Instant deadline = START.plusMillis(random.nextInt(2_000));
+            deadlines.add(deadline);
+            wheel.schedule(String.valueOf(i), deadline);
+        }
+
+        // Act & Assert: advance in uneven steps, as a ticker running late would. A key is due within a tick after
+        // its deadline, so it must not have been a whole tick overdue at the previous step already.
+        Instant previous = START;
+        while (wheel.size() > 0) {
+            Instant now = previous.plusMillis(1 + random.nextInt(15));
+            for (String key : wheel.advance(now)) {
+                Instant deadline = deadlines.get(Integer.parseInt(key));
+                assertFalse(now.isBefore(deadline), () -> key + " reported before its deadline");
+                assertTrue(previous.isBefore(deadline.plusMillis(10)), () -> key + " reported late");
+            }
+            previous = now;
+        }
+    }
+}
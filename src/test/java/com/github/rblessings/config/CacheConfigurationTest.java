@@ -0,0 +1,161 @@
+package com.github.rblessings.config;
+
+import io.lettuce.core.ReadFrom;
+import io.lettuce.core.cluster.ClusterClientOptions;
+import io.lettuce.core.resource.ClientResources;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.data.redis.connection.RedisNode;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Builds the connection factories without connecting, and checks how they are configured.
+ */
+class CacheConfigurationTest {
+
+    private final ClientResources clientResources = ClientResources.create();
+
+    @AfterEach
+    void tearDown() {
+        clientResources.shutdown();
+    }
+
+    @Test
+    void shouldBoundCacheCommands_tighterThanOtherCommands() {
+        // Arrange
+        CacheConfiguration configuration =
+                configuration(new RedisProperties(), RedisTopologyProperties.Topology.STANDALONE);
+
+        // Act
+        LettuceConnectionFactory primary = configuration.redisConnectionFactory();
+        LettuceConnectionFactory cache = configuration.cacheRedisConnectionFactory();
+
+        // Assert
+        assertEquals(Duration.ofSeconds(5), primary.getClientConfiguration().getCommandTimeout());
+        assertEquals(Duration.ofMillis(100), cache.getClientConfiguration().getCommandTimeout());
+    }
+
+    @Test
+    void shouldConnectToAStandaloneServer_readingCachesFromReplicas_throughAPool() {
+        // Arrange
+        RedisProperties redisProperties = new RedisProperties();
+        redisProperties.setHost("redis-0");
+        redisProperties.setPort(6380);
+        redisProperties.setDatabase(2);
+        CacheConfiguration configuration = configuration(redisProperties, RedisTopologyProperties.Topology.STANDALONE);
+
+        // Act
+        LettuceConnectionFactory primary = configuration.redisConnectionFactory();
+        LettuceConnectionFactory cache = configuration.cacheRedisConnectionFactory();
+
+        // Assert
+        for (LettuceConnectionFactory factory : List.of(primary, cache)) {
+            assertFalse(factory.isRedisSentinelAware());
+            assertFalse(factory.isClusterAware());
+            assertEquals("redis-0", factory.getHostName());
+            assertEquals(6380, factory.getPort());
+            assertEquals(2, factory.getDatabase());
+        }
+        assertEquals(Optional.of(ReadFrom.UPSTREAM), primary.getClientConfiguration().getReadFrom());
+        assertEquals(Optional.of(ReadFrom.REPLICA_PREFERRED), cache.getClientConfiguration().getReadFrom());
+        assertFalse(primary.getClientConfiguration() instanceof LettucePoolingClientConfiguration);
+        assertTrue(primary.getShareNativeConnection());
+        assertInstanceOf(LettucePoolingClientConfiguration.class, cache.getClientConfiguration());
+        assertFalse(cache.getShareNativeConnection());
+    }
+
+    @Test
+    void shouldShareOneCacheConnection_whenPoolingIsDisabled() {
+        // Arrange
+        RedisProperties redisProperties = new RedisProperties();
+        redisProperties.getLettuce().getPool().setEnabled(false);
+
+        // Act
+        LettuceConnectionFactory cache = configuration(redisProperties, RedisTopologyProperties.Topology.STANDALONE)
+                .cacheRedisConnectionFactory();
+
+        // Assert
+        assertFalse(cache.getClientConfiguration() instanceof LettucePoolingClientConfiguration);
+        assertTrue(cache.getShareNativeConnection());
+        assertEquals(Optional.of(ReadFrom.REPLICA_PREFERRED), cache.getClientConfiguration().getReadFrom());
+    }
+
+    @Test
+    void shouldConnectThroughSentinels() {
+        // Arrange
+        RedisProperties redisProperties = new RedisProperties();
+        RedisProperties.Sentinel sentinel = new RedisProperties.Sentinel();
+        sentinel.setMaster("urlradar");
+        sentinel.setNodes(List.of("sentinel-0:26379", "sentinel-1:26379"));
+        redisProperties.setSentinel(sentinel);
+        CacheConfiguration configuration = configuration(redisProperties, RedisTopologyProperties.Topology.SENTINEL);
+
+        // Act
+        LettuceConnectionFactory primary = configuration.redisConnectionFactory();
+        LettuceConnectionFactory cache = configuration.cacheRedisConnectionFactory();
+
+        // Assert
+        for (LettuceConnectionFactory factory : List.of(primary, cache)) {
+            assertTrue(factory.isRedisSentinelAware());
+            assertEquals("urlradar", factory.getSentinelConfiguration().getMaster().getName());
+            assertEquals(2, factory.getSentinelConfiguration().getSentinels().size());
+        }
+        assertEquals(Optional.of(ReadFrom.UPSTREAM), primary.getClientConfiguration().getReadFrom());
+        assertEquals(Optional.of(ReadFrom.REPLICA_PREFERRED), cache.getClientConfiguration().getReadFrom());
+    }
+
+    @Test
+    void shouldConnectToACluster_refreshingItsTopology() {
+        // Arrange
+        RedisProperties redisProperties = new RedisProperties();
+        RedisProperties.Cluster cluster = new RedisProperties.Cluster();
+        cluster.setNodes(List.of("redis-0:6379", "redis-1:6379", "redis-2:6379"));
+        cluster.setMaxRedirects(3);
+        redisProperties.setCluster(cluster);
+        CacheConfiguration configuration = configuration(redisProperties, RedisTopologyProperties.Topology.CLUSTER);
+
+        // Act
+        LettuceConnectionFactory primary = configuration.redisConnectionFactory();
+        LettuceConnectionFactory cache = configuration.cacheRedisConnectionFactory();
+
+        // Assert
+        for (LettuceConnectionFactory factory : List.of(primary, cache)) {
+            assertTrue(factory.isClusterAware());
+            assertEquals(List.of("redis-0", "redis-1", "redis-2"), factory.getClusterConfiguration()
+                    .getClusterNodes().stream().map(RedisNode::getHost).sorted().toList());
+            assertEquals(3, factory.getClusterConfiguration().getMaxRedirects());
+            ClusterClientOptions options = assertInstanceOf(ClusterClientOptions.class,
+                    factory.getClientConfiguration().getClientOptions().orElseThrow());
+            assertTrue(options.getTopologyRefreshOptions().isPeriodicRefreshEnabled());
+        }
+        assertEquals(Optional.of(ReadFrom.UPSTREAM), primary.getClientConfiguration().getReadFrom());
+        assertEquals(Optional.of(ReadFrom.REPLICA_PREFERRED), cache.getClientConfiguration().getReadFrom());
+    }
+
+    @Test
+    void shouldRefuseTopologies_withoutTheirEndpoints() {
+        // Arrange
+        RedisProperties redisProperties = new RedisProperties();
+
+        CacheConfiguration sentinel = configuration(redisProperties, RedisTopologyProperties.Topology.SENTINEL);
+        CacheConfiguration cluster = configuration(redisProperties, RedisTopologyProperties.Topology.CLUSTER);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, sentinel::redisConnectionFactory);
+        assertThrows(IllegalStateException.class, cluster::cacheRedisConnectionFactory);
+    }
+
+    private CacheConfiguration configuration(RedisProperties redisProperties,
+                                             RedisTopologyProperties.Topology topology) {
+        return new CacheConfiguration(redisProperties, new RedisTopologyProperties(topology, "replicaPreferred",
+                Duration.ofSeconds(5), Duration.ofMillis(100)), clientResources);
+    }
+}
@@ -0,0 +1,131 @@
+package com.github.rblessings.config;
+
+import com.github.rblessings.analytics.ClickEvent;
+import com.github.rblessings.links.LinkEntity;
+import com.github.rblessings.users.UserEntity;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MongoIndexConfigurationTest {
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    private MongoIndexConfiguration.IndexCreator creator;
+
+    @AfterEach
+    void tearDown() {
+        if (creator != null) {
+            creator.stop();
+        }
+    }
+
+    @Test
+    void shouldEnsureDeclaredIndexes_includingNestedOnes() {
+        // Arrange
+        stubConverter();
+        Map<Class<?>, List<IndexDefinition>> ensured = new ConcurrentHashMap<>();
+        ReactiveIndexOperations userIndexOps = recordingIndexOps(UserEntity.class, ensured);
+        ReactiveIndexOperations linkIndexOps = recordingIndexOps(LinkEntity.class, ensured);
+        ReactiveIndexOperations clickIndexOps = recordingIndexOps(ClickEvent.class, ensured);
+        when(mongoTemplate.indexOps(UserEntity.class)).thenReturn(userIndexOps);
+        when(mongoTemplate.indexOps(LinkEntity.class)).thenReturn(linkIndexOps);
+        when(mongoTemplate.indexOps(ClickEvent.class)).thenReturn(clickIndexOps);
+
+        // Act
+        creator = new MongoIndexConfiguration.IndexCreator(mongoTemplate, MongoIndexConfiguration.INDEXED_DOCUMENTS,
+                Duration.ofMillis(10));
+        creator.start();
+
+        // Assert
+        verify(clickIndexOps, timeout(5000).times(2)).ensureIndex(any(IndexDefinition.class));
+        IndexDefinition ownerCode = find(ensured.get(LinkEntity.class), "owner_code");
+        assertEquals(new Document("owner", 1).append("code", 1), ownerCode.getIndexKeys());
+        assertEquals(Boolean.TRUE, ownerCode.getIndexOptions().get("unique"));
+        assertTrue(ensured.get(LinkEntity.class).stream()
+                        .anyMatch(index -> index.getIndexKeys().containsKey("health.nextCheckAt")),
+                "The sweep's index on the nested health document must be created.");
+        assertEquals(0L, find(ensured.get(LinkEntity.class), "expires_at").getIndexOptions().get("expireAfterSeconds"),
+                "Links must be deleted by a TTL index once they expired.");
+        assertEquals(Boolean.TRUE, find(ensured.get(UserEntity.class), "email").getIndexOptions().get("unique"));
+        assertEquals(2, ensured.get(ClickEvent.class).size(), "Clicks are exported by link and by owner.");
+    }
+
+    @Test
+    void shouldRetryIndexCreation_whileMongoIsUnreachable() {
+        // Arrange: the first attempt cannot reach MongoDB.
+        stubConverter();
+        ReactiveIndexOperations indexOps = mock(ReactiveIndexOperations.class);
+        AtomicInteger attempts = new AtomicInteger();
+        when(indexOps.ensureIndex(any(IndexDefinition.class))).thenAnswer(invocation ->
+                attempts.getAndIncrement() == 0
+                        ? Mono.error(new DataAccessResourceFailureException("Timed out waiting for a server"))
+                        : Mono.just("ok"));
+        when(mongoTemplate.indexOps(ClickEvent.class)).thenReturn(indexOps);
+
+        // Act
+        creator = new MongoIndexConfiguration.IndexCreator(mongoTemplate, List.of(ClickEvent.class),
+                Duration.ofMillis(10));
+        creator.start();
+
+        // Assert: the failed attempt and both indexes of the successful one.
+        verify(indexOps, timeout(5000).times(3)).ensureIndex(any(IndexDefinition.class));
+    }
+
+    private void stubConverter() {
+        when(mongoTemplate.getConverter()).thenReturn(mappingMongoConverter());
+    }
+
+    private static MappingMongoConverter mappingMongoConverter() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        return converter;
+    }
+
+    private static ReactiveIndexOperations recordingIndexOps(Class<?> type,
+                                                             Map<Class<?>, List<IndexDefinition>> ensured) {
+        ReactiveIndexOperations indexOps = mock(ReactiveIndexOperations.class);
+        when(indexOps.ensureIndex(any(IndexDefinition.class))).thenAnswer(invocation -> {
+            IndexDefinition index = invocation.getArgument(0);
+            ensured.computeIfAbsent(type, key -> new CopyOnWriteArrayList<>()).add(index);
+            return Mono.just(String.valueOf(index.getIndexOptions().get("name")));
+        });
+        return indexOps;
+    }
+
+    private static IndexDefinition find(List<IndexDefinition> indexes, String name) {
+        return indexes.stream()
+                .filter(index -> name.equals(index.getIndexOptions().get("name")))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError(String.format("No index named '%s' in %s", name, indexes)));
+    }
+}
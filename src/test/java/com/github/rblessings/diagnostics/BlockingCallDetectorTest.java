@@ -0,0 +1,167 @@
+package com.github.rblessings.diagnostics;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import reactor.blockhound.BlockingMethod;
+import reactor.blockhound.BlockingOperationError;
+
+import java.lang.reflect.Modifier;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlockingCallDetectorTest {
+    private static final BlockingMethod SLEEP = new BlockingMethod("java/lang/Thread", "sleep", Modifier.STATIC);
+    private static final BlockingMethod PARK = new BlockingMethod("jdk/internal/misc/Unsafe", "park", 0);
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+    private final ListAppender<ILoggingEvent> logs = new ListAppender<>();
+    private final Logger logger = (Logger) LoggerFactory.getLogger(BlockingCallDetector.class);
+
+    @BeforeEach
+    void setUp() {
+        logs.start();
+        logger.addAppender(logs);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(logs);
+    }
+
+    @Test
+    void shouldCountBlockingCalls_perMethod() {
+        // Arrange
+        BlockingCallDetector detector = detector(false);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        detector.bindTo(registry);
+
+        // Act
+        detector.onBlockingCall(SLEEP);
+        detector.onBlockingCall(SLEEP);
+        detector.onBlockingCall(PARK);
+
+        // Assert
+        assertEquals(3, detector.detectedCalls());
+        assertEquals(2, calls(registry, SLEEP));
+        assertEquals(1, calls(registry, PARK));
+    }
+
+    @Test
+    void shouldExportCalls_detectedBeforeBinding() {
+        // Arrange
+        BlockingCallDetector detector = detector(false);
+        detector.onBlockingCall(SLEEP);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        // Act
+        detector.bindTo(registry);
+        detector.onBlockingCall(SLEEP);
+
+        // Assert
+        assertEquals(2, calls(registry, SLEEP));
+    }
+
+    @Test
+    void shouldLogEachMethod_atMostOncePerInterval_withTheStack() {
+        // Arrange
+        BlockingCallDetector detector = detector(false);
+
+        // Act
+        detector.onBlockingCall(SLEEP);
+        detector.onBlockingCall(SLEEP);
+        detector.onBlockingCall(PARK);
+        clock.advance(Duration.ofSeconds(59));
+        detector.onBlockingCall(SLEEP);
+        clock.advance(Duration.ofSeconds(1));
+        detector.onBlockingCall(SLEEP);
+
+        // Assert
+        List<String> messages = logs.list.stream().map(ILoggingEvent::getFormattedMessage).toList();
+        assertEquals(3, messages.size());
+        assertTrue(messages.get(0).startsWith("Blocking call to " + SLEEP));
+        assertTrue(messages.get(1).startsWith("Blocking call to " + PARK));
+        assertTrue(messages.get(2).endsWith("(2 more since the last report)"));
+        assertNotNull(logs.list.getFirst().getThrowableProxy());
+    }
+
+    @Test
+    void shouldLetTheCallProceed_byDefault() {
+        // Arrange
+        BlockingCallDetector detector = detector(false);
+
+        // Act & Assert
+        assertDoesNotThrow(() -> detector.onBlockingCall(SLEEP));
+    }
+
+    @Test
+    void shouldFailTheCall_whenConfiguredTo_afterCountingIt() {
+        // Arrange
+        BlockingCallDetector detector = detector(true);
+
+        // Act
+        BlockingOperationError error = assertThrows(BlockingOperationError.class, () -> detector.onBlockingCall(SLEEP));
+
+        // Assert
+        assertEquals(SLEEP, error.getMethod());
+        assertEquals(1, detector.detectedCalls());
+    }
+
+    @Test
+    void shouldRejectAllowedCalls_withoutAMethod() {
+        // Arrange
+        BlockingDetectionProperties properties =
+                new BlockingDetectionProperties(true, false, Duration.ofMinutes(1), List.of("java.lang.Thread"));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> BlockingCallDetector.install(properties));
+    }
+
+    private BlockingCallDetector detector(boolean failOnBlocking) {
+        return new BlockingCallDetector(
+                new BlockingDetectionProperties(true, failOnBlocking, Duration.ofMinutes(1), List.of()), clock);
+    }
+
+    private static double calls(SimpleMeterRegistry registry, BlockingMethod method) {
+        return registry.get(BlockingCallDetector.CALLS_METRIC).tag("method", method.toString()).functionCounter()
+                .count();
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.rblessings.diagnostics;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionConfigurationException;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Fails every test that makes a blocking call on a non-blocking thread, including calls whose
+ * {@code BlockingOperationError} the code under test swallowed, e.g. in an {@code onErrorResume}.
+ * <p>
+ * Registered for all tests through extension autodetection, which only the {@code blockingTest} Gradle task enables.
+ * </p>
+ */
+public class BlockingCallsExtension implements BeforeAllCallback, BeforeEachCallback, AfterEachCallback {
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(BlockingCallsExtension.class);
+    private static final String DETECTED_CALLS = "detectedCalls";
+
+    private BlockingCallDetector detector;
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        if (!Boolean.getBoolean("urlradar.diagnostics.blocking.enabled")) {
+            return;
+        }
+        detector = BlockingCallDetector.install(
+                new BlockingDetectionProperties(true, true, Duration.ZERO, List.of()));
+        if (!detector.isActive()) {
+            throw new ExtensionConfigurationException("The blocking call detector could not be installed");
+        }
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        if (detector != null) {
+            context.getStore(NAMESPACE).put(DETECTED_CALLS, detector.detectedCalls());
+        }
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        if (detector == null) {
+            return;
+        }
+        long detectedCalls = detector.detectedCalls() - context.getStore(NAMESPACE).get(DETECTED_CALLS, Long.class);
+        if (detectedCalls > 0) {
+            fail(detectedCalls + " blocking call(s) on non-blocking threads; see the logged stacks");
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.github.rblessings.links;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AliasTableTest {
+
+    @Test
+    void shouldPickIndexes_inProportionToTheirWeights() {
+        // Arrange
+        int[] weights = {1, 0, 3, 6};
+        AliasTable table = AliasTable.of(weights);
+        int picks = 200_000;
+
+        // Act
+        int[] counts = new int[weights.length];
+        for (int i = 0; i < picks; i++) {
+            counts[table.pick()]++;
+        }
+
+        // Assert: within 1% of the expected share, far beyond what chance explains at this sample size.
+        assertEquals(0, counts[1], "Indexes without weight must never be picked.");
+        assertEquals(0.1, counts[0] / (double) picks, 0.01);
+        assertEquals(0.3, counts[2] / (double) picks, 0.01);
+        assertEquals(0.6, counts[3] / (double) picks, 0.01);
+    }
+
+    @Test
+    void shouldAlwaysPickTheOnlyIndex() {
+        AliasTable table = AliasTable.of(new int[]{7});
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, table.pick());
+        }
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void shouldRejectUnusableWeights() {
+        assertThrows(IllegalArgumentException.class, () -> AliasTable.of(new int[0]));
+        assertThrows(IllegalArgumentException.class, () -> AliasTable.of(new int[]{0, 0}));
+        assertThrows(IllegalArgumentException.class, () -> AliasTable.of(new int[]{2, -1}));
+    }
+}
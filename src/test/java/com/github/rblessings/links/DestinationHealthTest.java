@@ -0,0 +1,80 @@
+package com.github.rblessings.links;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DestinationHealthTest {
+
+    private static final LinkHealthProperties PROPERTIES = new LinkHealthProperties(true, Duration.ofMinutes(1),
+            100, Duration.ofMinutes(10), Duration.ofHours(24), Duration.ofMinutes(5), Duration.ofDays(7), 3, 4, 4, 2,
+            Duration.ofSeconds(1), Duration.ofSeconds(2), Duration.ofSeconds(1), Duration.ofMinutes(1), false);
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+    private static final ProbeResult NOT_FOUND = ProbeResult.response(404, null, null, Duration.ofMillis(20));
+
+    @Test
+    void shouldReportBroken_onlyAfterConsecutiveFailures() {
+        // Act
+        DestinationHealth once = DestinationHealth.unknown().after(NOT_FOUND, NOW, PROPERTIES, false);
+        DestinationHealth twice = once.after(NOT_FOUND, NOW, PROPERTIES, false);
+        DestinationHealth thrice = twice.after(NOT_FOUND, NOW, PROPERTIES, false);
+
+        // Assert: re-checks back off exponentially from the retry delay.
+        assertEquals(DestinationHealth.Status.UNKNOWN, once.status());
+        assertEquals(NOW.plus(Duration.ofMinutes(5)), once.nextCheckAt());
+        assertEquals(NOW.plus(Duration.ofMinutes(10)), twice.nextCheckAt());
+        assertEquals(DestinationHealth.Status.BROKEN, thrice.status());
+        assertEquals(3, thrice.consecutiveFailures());
+    }
+
+    @Test
+    void shouldRecover_andKeepValidators_onNotModified() {
+        // Arrange
+        DestinationHealth broken = new DestinationHealth(DestinationHealth.Status.BROKEN, 503, "\"v1\"", null, NOW,
+                NOW, 5, "claim");
+
+        // Act
+        DestinationHealth next = broken.after(ProbeResult.response(304, null, null, Duration.ofMillis(20)), NOW,
+                PROPERTIES, true);
+
+        // Assert: slow hosts are re-checked half as often.
+        assertEquals(DestinationHealth.Status.HEALTHY, next.status());
+        assertEquals("\"v1\"", next.etag());
+        assertEquals(0, next.consecutiveFailures());
+        assertNull(next.claim());
+        assertEquals(NOW.plus(Duration.ofHours(48)), next.nextCheckAt());
+    }
+
+    @Test
+    void shouldNotCountThrottling_asFailure() {
+        // Act
+        DestinationHealth next = DestinationHealth.unknown()
+                .after(ProbeResult.response(429, null, null, Duration.ofMillis(20)), NOW, PROPERTIES, false);
+
+        // Assert
+        assertEquals(0, next.consecutiveFailures());
+        assertEquals(DestinationHealth.Status.UNKNOWN, next.status());
+    }
+
+    @Test
+    void shouldKeepHealth_andRetrySoon_whenProbeWasSkipped() {
+        // Arrange
+        DestinationHealth healthy = new DestinationHealth(DestinationHealth.Status.HEALTHY, 200, "\"v1\"", null,
+                NOW.minus(Duration.ofDays(1)), NOW, 0, "claim");
+
+        // Act
+        DestinationHealth next = healthy.after(ProbeResult.skipped(new TimeoutException("Pool acquire timed out")),
+                NOW, PROPERTIES, false);
+
+        // Assert: no failure is counted against the destination.
+        assertEquals(DestinationHealth.Status.HEALTHY, next.status());
+        assertEquals(0, next.consecutiveFailures());
+        assertEquals(healthy.checkedAt(), next.checkedAt());
+        assertEquals(NOW.plus(Duration.ofMinutes(5)), next.nextCheckAt());
+    }
+}
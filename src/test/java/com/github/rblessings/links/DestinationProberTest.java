@@ -0,0 +1,210 @@
+package com.github.rblessings.links;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the prober against a local stand-in HTTP server; no destination on the internet is contacted.
+ */
+class DestinationProberTest {
+
+    private static final LinkHealthProperties PROPERTIES = new LinkHealthProperties(true, Duration.ofMinutes(1),
+            100, Duration.ofMinutes(10), Duration.ofHours(24), Duration.ofMinutes(5), Duration.ofDays(7), 3, 4, 4, 2,
+            Duration.ofSeconds(1), Duration.ofSeconds(2), Duration.ofSeconds(1), Duration.ofMinutes(1), true);
+
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    private HttpServer server;
+    private DestinationProber prober;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/ok", exchange -> {
+            record(exchange);
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                respond(exchange, 304);
+                return;
+            }
+            exchange.getResponseHeaders().set("ETag", "\"v1\"");
+            exchange.getResponseHeaders().set("Last-Modified", "Wed, 01 Jan 2026 00:00:00 GMT");
+            respond(exchange, 200);
+        });
+        server.createContext("/no-head", exchange -> {
+            record(exchange);
+            respond(exchange, "HEAD".equals(exchange.getRequestMethod()) ? 405 : 206);
+        });
+        server.createContext("/slow", exchange -> {
+            record(exchange);
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200);
+        });
+        server.createContext("/gone", exchange -> {
+            record(exchange);
+            respond(exchange, 404);
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        prober = new DestinationProber(WebClient.builder(), PROPERTIES);
+    }
+
+    @AfterEach
+    void tearDown() {
+        prober.destroy();
+        server.stop(0);
+    }
+
+    @Test
+    void shouldProbeWithHead_andCaptureValidators() {
+        // Act
+        ProbeResult result = prober.probe(url("/ok"), DestinationHealth.unknown()).block();
+
+        // Assert
+        assertNotNull(result);
+        assertTrue(result.reachable());
+        assertEquals("\"v1\"", result.etag());
+        assertEquals("Wed, 01 Jan 2026 00:00:00 GMT", result.lastModified());
+        assertEquals(List.of("HEAD /ok"), requests);
+    }
+
+    @Test
+    void shouldSendValidators_andAcceptNotModified() {
+        // Arrange
+        DestinationHealth previous = new DestinationHealth(DestinationHealth.Status.HEALTHY, 200, "\"v1\"", null,
+                null, null, 0, null);
+
+        // Act
+        ProbeResult result = prober.probe(url("/ok"), previous).block();
+
+        // Assert
+        assertNotNull(result);
+        assertEquals(304, result.httpStatus());
+        assertTrue(result.reachable());
+    }
+
+    @Test
+    void shouldFallBackToRangedGet_whenHeadIsRejected() {
+        // Act
+        ProbeResult result = prober.probe(url("/no-head"), DestinationHealth.unknown()).block();
+
+        // Assert
+        assertNotNull(result);
+        assertEquals(206, result.httpStatus());
+        assertEquals(List.of("HEAD /no-head", "GET /no-head bytes=0-0"), requests);
+    }
+
+    @Test
+    void shouldReportUnreachable_forMissingDestination() {
+        // Act
+        ProbeResult result = prober.probe(url("/gone"), DestinationHealth.unknown()).block();
+
+        // Assert
+        assertNotNull(result);
+        assertEquals(404, result.httpStatus());
+        assertFalse(result.reachable());
+    }
+
+    @Test
+    void shouldReportFailure_whenConnectionIsRefused() throws IOException {
+        // Arrange: a port nobody listens on.
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+
+        // Act
+        ProbeResult result = prober.probe("http://127.0.0.1:" + port + "/", DestinationHealth.unknown()).block();
+
+        // Assert
+        assertNotNull(result);
+        assertNull(result.httpStatus());
+        assertNotNull(result.error());
+        assertFalse(result.reachable());
+    }
+
+    @Test
+    void shouldSkipProbe_withoutBlamingDestination_whenNoPooledConnectionBecomesAvailable() {
+        // Arrange: a single connection, held by a slow probe.
+        LinkHealthProperties onePooledConnection = new LinkHealthProperties(true, Duration.ofMinutes(1), 100,
+                Duration.ofMinutes(10), Duration.ofHours(24), Duration.ofMinutes(5), Duration.ofDays(7), 3, 1, 1, 1,
+                Duration.ofSeconds(1), Duration.ofSeconds(5), Duration.ofSeconds(1), Duration.ofMillis(100), true);
+        DestinationProber singleConnectionProber = new DestinationProber(WebClient.builder(), onePooledConnection);
+        try {
+            // Act
+            List<ProbeResult> results = Flux.merge(
+                            singleConnectionProber.probe(url("/slow"), DestinationHealth.unknown()),
+                            Mono.delay(Duration.ofMillis(200))
+                                    .then(singleConnectionProber.probe(url("/ok"), DestinationHealth.unknown())))
+                    .collectList()
+                    .block();
+
+            // Assert: the slow destination answered; the waiting probe was skipped, and never sent.
+            assertNotNull(results);
+            assertTrue(results.stream().anyMatch(result -> Integer.valueOf(200).equals(result.httpStatus())));
+            assertTrue(results.stream().anyMatch(ProbeResult::skipped));
+            assertEquals(List.of("HEAD /slow"), requests);
+        } finally {
+            singleConnectionProber.destroy();
+        }
+    }
+
+    @Test
+    void shouldRefuseNonPublicDestinations_unlessAllowed() {
+        // Arrange
+        LinkHealthProperties publicOnly = new LinkHealthProperties(true, Duration.ofMinutes(1), 100,
+                Duration.ofMinutes(10), Duration.ofHours(24), Duration.ofMinutes(5), Duration.ofDays(7), 3, 4, 4, 2,
+                Duration.ofSeconds(1), Duration.ofSeconds(2), Duration.ofSeconds(1), Duration.ofMinutes(1), false);
+        DestinationProber publicOnlyProber = new DestinationProber(WebClient.builder(), publicOnly);
+        int port = server.getAddress().getPort();
+        try {
+            for (String destination : List.of("http://127.0.0.1:" + port + "/ok", "http://localhost:" + port + "/ok",
+                    "http://[::ffff:127.0.0.1]:" + port + "/ok", "http://169.254.169.254/latest/meta-data/")) {
+                // Act
+                ProbeResult result = publicOnlyProber.probe(destination, DestinationHealth.unknown()).block();
+
+                // Assert
+                assertNotNull(result);
+                assertNull(result.httpStatus(), destination);
+                assertFalse(result.skipped(), destination);
+            }
+            assertTrue(requests.isEmpty(), "No request may reach a non-public address.");
+        } finally {
+            publicOnlyProber.destroy();
+        }
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    private void record(HttpExchange exchange) {
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        requests.add(exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath()
+                + (range != null ? " " + range : ""));
+    }
+
+    private static void respond(HttpExchange exchange, int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+    }
+}
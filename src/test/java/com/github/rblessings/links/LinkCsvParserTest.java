@@ -0,0 +1,123 @@
+package com.github.rblessings.links;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LinkCsvParserTest {
+
+    private final LinkCsvParser parser = new LinkCsvParser(1024);
+
+    @Test
+    void shouldParseRows_splitAcrossBuffers() {
+        // Arrange: buffer boundaries fall in the middle of lines and fields.
+        Flux<DataBuffer> content = buffers(
+                "\uFEFFCode,Destination\r\nab",
+                "c,https://example.com/a\n,\"https://example.com/b?x=1,y=2\"\n",
+                "\n",
+                "def,https://exa", "mple.com/c");
+
+        // Act & Assert
+        StepVerifier.create(parser.parse(content))
+                .assertNext(row -> {
+                    assertEquals(2, row.row());
+                    assertEquals("abc", row.code());
+                    assertEquals("https://example.com/a", row.destination());
+                    assertTrue(row.valid());
+                })
+                .assertNext(row -> {
+                    assertEquals(3, row.row());
+                    assertTrue(LinkCodes.isValid(row.code()), "Empty codes must be generated.");
+                    assertEquals("https://example.com/b?x=1,y=2", row.destination());
+                })
+                .assertNext(row -> {
+                    assertEquals(5, row.row(), "Blank lines are skipped but still counted.");
+                    assertEquals("https://example.com/c", row.destination());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldReportInvalidRows_withoutFailing() {
+        // Arrange
+        Flux<DataBuffer> content = buffers("destination,code\nftp://example.com,ok\nhttps://example.com,bad code\n");
+
+        // Act & Assert
+        StepVerifier.create(parser.parse(content))
+                .assertNext(row -> assertEquals("Destination must be an absolute http(s) URL", row.error()))
+                .assertNext(row -> assertFalse(row.valid()))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldParseTags_normalizedAndDeduplicated() {
+        // Arrange
+        Flux<DataBuffer> content = buffers("destination,tags\nhttps://example.com,\"News; tech  news\"\n"
+                + "https://example.com,\n"
+                + "https://example.com,not+a+tag\n");
+
+        // Act & Assert
+        StepVerifier.create(parser.parse(content))
+                .assertNext(row -> assertEquals(List.of("news", "tech"), row.tags()))
+                .assertNext(row -> assertEquals(List.of(), row.tags()))
+                .assertNext(row -> assertEquals(
+                        "Tags must be at most 16 words of 1 to 32 letters, digits, '-' or '_'", row.error()))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldParseSchedules_andRejectInconsistentOnes() {
+        // Arrange
+        Flux<DataBuffer> content = buffers("destination,active_from,expires_at,max_clicks\n"
+                + "https://example.com,2030-01-01T00:00:00Z,2030-02-01T00:00:00+01:00,10\n"
+                + "https://example.com,,,\n"
+                + "https://example.com,2030-01-01,,\n"
+                + "https://example.com,2030-01-01T00:00:00Z,2029-01-01T00:00:00Z,\n"
+                + "https://example.com,,,0\n");
+
+        // Act & Assert
+        StepVerifier.create(parser.parse(content))
+                .assertNext(row -> {
+                    assertEquals(Instant.parse("2030-01-01T00:00:00Z"), row.activeFrom());
+                    assertEquals(Instant.parse("2030-01-31T23:00:00Z"), row.expiresAt());
+                    assertEquals(10L, row.maxClicks());
+                    assertTrue(row.valid());
+                })
+                .assertNext(row -> {
+                    assertNull(row.activeFrom());
+                    assertNull(row.expiresAt());
+                    assertNull(row.maxClicks());
+                    assertTrue(row.valid());
+                })
+                .assertNext(row -> assertEquals(
+                        "Active from must be an ISO-8601 instant, e.g. 2030-01-01T00:00:00Z", row.error()))
+                .assertNext(row -> assertEquals("Expires at must be after active from", row.error()))
+                .assertNext(row -> assertEquals("Max clicks must be a positive whole number", row.error()))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldFail_withoutDestinationColumn() {
+        StepVerifier.create(parser.parse(buffers("code,url\nabc,https://example.com\n")))
+                .verifyError(InvalidLinkImportException.class);
+    }
+
+    @Test
+    void shouldSplitQuotedFields() {
+        assertEquals(List.of("a", "say \"hi\"", ""), LinkCsvParser.fields("a,\"say \"\"hi\"\"\","));
+        assertThrows(IllegalArgumentException.class, () -> LinkCsvParser.fields("\"open"));
+    }
+
+    private static Flux<DataBuffer> buffers(String... chunks) {
+        return Flux.fromArray(chunks)
+                .map(chunk -> DefaultDataBufferFactory.sharedInstance.wrap(chunk.getBytes(StandardCharsets.UTF_8)));
+    }
+}
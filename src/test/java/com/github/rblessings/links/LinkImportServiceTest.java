@@ -0,0 +1,139 @@
+package com.github.rblessings.links;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LinkImportServiceTest {
+    private static final LinkImportProperties PROPERTIES = new LinkImportProperties(2, 2, DataSize.ofKilobytes(16));
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Mock
+    private MongoCollection<Document> collection;
+
+    @Mock
+    private LinkSearchIndex searchIndex;
+
+    private LinkImportService service;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        lenient().when(mongoTemplate.getConverter()).thenReturn(converter);
+        lenient().when(mongoTemplate.getCollectionName(LinkEntity.class)).thenReturn("links");
+        lenient().when(mongoTemplate.getCollection("links")).thenReturn(Mono.just(collection));
+        service = new LinkImportService(mongoTemplate, PROPERTIES, searchIndex);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldInsertRows_inUnorderedBatchesOfConfiguredSize() {
+        // Arrange: five valid rows, so two full batches and a partial one.
+        when(collection.bulkWrite(any(List.class), any(BulkWriteOptions.class)))
+                .thenReturn(Mono.just(BulkWriteResult.unacknowledged()));
+
+        // Act & Assert: every row is created, in file order.
+        StepVerifier.create(service.importLinks("owner-1", csv("a1", "a2", "a3", "a4", "a5")))
+                .expectNextMatches(result -> created(result, 2, "a1"))
+                .expectNextMatches(result -> created(result, 3, "a2"))
+                .expectNextMatches(result -> created(result, 4, "a3"))
+                .expectNextMatches(result -> created(result, 5, "a4"))
+                .expectNextMatches(result -> created(result, 6, "a5"))
+                .verifyComplete();
+
+        ArgumentCaptor<List<InsertOneModel<Document>>> batches = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<BulkWriteOptions> options = ArgumentCaptor.forClass(BulkWriteOptions.class);
+        verify(collection, times(3)).bulkWrite(batches.capture(), options.capture());
+        assertEquals(List.of(2, 2, 1), batches.getAllValues().stream().map(List::size).toList());
+        options.getAllValues().forEach(option -> assertEquals(false, option.isOrdered()));
+        Document first = batches.getAllValues().getFirst().getFirst().getDocument();
+        assertEquals("owner-1", first.getString("owner"));
+        assertEquals("a1", first.getString("code"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldRejectDuplicateCodes_withoutFailingTheRestOfTheBatch() {
+        // Arrange: the second insert of the batch collides with an existing link of the owner.
+        BulkWriteError duplicate = new BulkWriteError(11000, "E11000 duplicate key error", new BsonDocument(), 1);
+        when(collection.bulkWrite(any(List.class), any(BulkWriteOptions.class)))
+                .thenReturn(Mono.error(new MongoBulkWriteException(BulkWriteResult.unacknowledged(), List.of(duplicate),
+                        null, new ServerAddress(), Set.of())));
+
+        // Act & Assert
+        StepVerifier.create(service.importLinks("owner-1", csv("a1", "taken")))
+                .expectNextMatches(result -> created(result, 2, "a1"))
+                .expectNext(new LinkImportResult(3, "taken", LinkImportResult.Status.REJECTED,
+                        "Code 'taken' is already in use"))
+                .verifyComplete();
+
+        // Only the created link is searchable.
+        ArgumentCaptor<List<LinkSearchHit>> indexed = ArgumentCaptor.forClass(List.class);
+        verify(searchIndex).added(eq("owner-1"), indexed.capture());
+        assertEquals(List.of("a1"), indexed.getValue().stream().map(LinkSearchHit::code).toList());
+    }
+
+    @Test
+    void shouldRejectInvalidRows_withoutWritingThem() {
+        // Act & Assert: a batch without valid rows never reaches MongoDB.
+        StepVerifier.create(service.importLinks("owner-1", Flux.just(buffer("code,destination\nbad code,x\n"))))
+                .expectNextMatches(result -> result.status() == LinkImportResult.Status.REJECTED && result.row() == 2)
+                .verifyComplete();
+
+        verifyNoInteractions(collection);
+    }
+
+    private static boolean created(LinkImportResult result, long row, String code) {
+        return result.equals(new LinkImportResult(row, code, LinkImportResult.Status.CREATED, null));
+    }
+
+    private static Flux<DataBuffer> csv(String... codes) {
+        StringBuilder content = new StringBuilder("code,destination\n");
+        for (String code : codes) {
+            content.append(code).append(",https://example.com/").append(code).append('\n');
+        }
+        return Flux.just(buffer(content.toString()));
+    }
+
+    private static DataBuffer buffer(String content) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,214 @@
+package com.github.rblessings.links;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LinkResolverTest {
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Mock
+    private LinkRepository linkRepository;
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Mock
+    private LinkTable linkTable;
+
+    private final MutableClock clock = new MutableClock(NOW);
+
+    private LinkResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        resolver = new LinkResolver(linkRepository, mongoTemplate, linkTable,
+                new LinkRedirectProperties(1000, Duration.ofMinutes(10), Duration.ofMillis(10)), clock);
+    }
+
+    @Test
+    void shouldServeCachedLinks_untilTheirDeadline_andEvictThemOnTheTick() {
+        // Arrange
+        LinkEntity link = link(null, NOW.plusSeconds(60), null, 0);
+        when(linkRepository.findByOwnerAndCode("owner-1", "abc")).thenReturn(Mono.just(link));
+
+        // Act & Assert: served from the cache until the deadline, even though no tick evicted it yet.
+        StepVerifier.create(resolver.resolve("owner-1", "abc")).expectNext(served(link)).verifyComplete();
+        clock.advance(Duration.ofSeconds(59));
+        StepVerifier.create(resolver.resolve("owner-1", "abc")).expectNext(served(link)).verifyComplete();
+        clock.advance(Duration.ofSeconds(1));
+        StepVerifier.create(resolver.resolve("owner-1", "abc")).verifyComplete();
+        verify(linkRepository, times(1)).findByOwnerAndCode("owner-1", "abc");
+
+        resolver.expireDue();
+        assertEquals(0, resolver.pendingExpiries());
+        StepVerifier.create(resolver.resolve("owner-1", "abc")).verifyComplete();
+        verify(linkRepository, times(2)).findByOwnerAndCode("owner-1", "abc");
+    }
+
+    @Test
+    void shouldNotServeScheduledLinks_beforeTheyAreActive() {
+        // Arrange
+        LinkEntity link = link(NOW.plusSeconds(60), null, null, 0);
+        when(linkRepository.findByOwnerAndCode("owner-1", "abc")).thenReturn(Mono.just(link));
+
+        // Act & Assert
+        StepVerifier.create(resolver.resolve("owner-1", "abc")).verifyComplete();
+        clock.advance(Duration.ofSeconds(60));
+        StepVerifier.create(resolver.resolve("owner-1", "abc")).expectNext(served(link)).verifyComplete();
+        assertEquals(0, resolver.pendingExpiries(), "Links without a deadline are never scheduled.");
+    }
+
+    @Test
+    void shouldCountClicks_andExpireLinks_onTheirLastClick() {
+        // Arrange: the link has one click left.
+        LinkEntity link = link(null, null, 2L, 1);
+        LinkEntity counted = link(null, null, 2L, 2);
+        when(linkRepository.findByOwnerAndCode("owner-1", "abc")).thenReturn(Mono.just(link));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(LinkEntity.class))).thenReturn(Mono.just(counted), Mono.empty());
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(LinkEntity.class)))
+                .thenReturn(Mono.empty());
+
+        // Act & Assert: the last click is served, later ones are not.
+        StepVerifier.create(resolver.resolve("owner-1", "abc")).expectNext(served(link)).verifyComplete();
+        StepVerifier.create(resolver.resolve("owner-1", "abc")).verifyComplete();
+
+        ArgumentCaptor<Update> expiry = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), expiry.capture(), eq(LinkEntity.class));
+        assertEquals(NOW, expiry.getValue().getUpdateObject().get("$min", Document.class).get("expiresAt"));
+        verify(linkRepository, times(2)).findByOwnerAndCode("owner-1", "abc");
+    }
+
+    @Test
+    void shouldNotServeLinks_whoseClicksWereUsedUpThroughAnotherNode() {
+        // Arrange: the cached copy still shows clicks left, but MongoDB refuses to count another.
+        when(linkRepository.findByOwnerAndCode("owner-1", "abc")).thenReturn(Mono.just(link(null, null, 5L, 0)));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(LinkEntity.class))).thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(resolver.resolve("owner-1", "abc")).verifyComplete();
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(LinkEntity.class));
+    }
+
+    @Test
+    void shouldChooseVariantsByWeight_andSwitchToPublishedWeightsAtOnce() {
+        // Arrange: all weight on the second variant.
+        LinkEntity link = withVariants(new LinkVariant("https://a.example.com", 0),
+                new LinkVariant("https://b.example.com", 1));
+        when(linkRepository.findByOwnerAndCode("owner-1", "abc")).thenReturn(Mono.just(link));
+
+        // Act & Assert
+        for (int i = 0; i < 20; i++) {
+            StepVerifier.create(resolver.resolve("owner-1", "abc"))
+                    .expectNext(new ResolvedLink(link, "https://b.example.com", 1))
+                    .verifyComplete();
+        }
+
+        // Act: the weights change through this node.
+        LinkEntity changed = withVariants(new LinkVariant("https://a.example.com", 1),
+                new LinkVariant("https://b.example.com", 0));
+        resolver.publish(changed);
+
+        // Assert: served from the published copy, without loading the link again.
+        StepVerifier.create(resolver.resolve("owner-1", "abc"))
+                .expectNext(new ResolvedLink(changed, "https://a.example.com", 0))
+                .verifyComplete();
+        verify(linkRepository, times(1)).findByOwnerAndCode("owner-1", "abc");
+    }
+
+    @Test
+    void shouldServeReplicatedLinks_withoutReadingMongo_andParseEachVersionOnce() {
+        // Arrange
+        LinkEntity link = link(null, NOW.plusSeconds(60), null, 0);
+        LinkEntity changed = withVariants(new LinkVariant("https://b.example.com", 1));
+        when(linkTable.get("owner-1", "abc")).thenReturn("v1", "v1", "v2");
+        when(linkTable.parse("v1")).thenReturn(link);
+        when(linkTable.parse("v2")).thenReturn(changed);
+
+        // Act & Assert
+        StepVerifier.create(resolver.resolve("owner-1", "abc")).expectNext(served(link)).verifyComplete();
+        StepVerifier.create(resolver.resolve("owner-1", "abc")).expectNext(served(link)).verifyComplete();
+        StepVerifier.create(resolver.resolve("owner-1", "abc"))
+                .expectNext(new ResolvedLink(changed, "https://b.example.com", 0))
+                .verifyComplete();
+        verify(linkTable, times(1)).parse("v1");
+        verifyNoInteractions(linkRepository);
+    }
+
+    @Test
+    void shouldNotServeReplicatedLinks_pastTheirDeadline() {
+        // Arrange
+        when(linkTable.get("owner-1", "abc")).thenReturn("v1");
+        when(linkTable.parse("v1")).thenReturn(link(null, NOW, null, 0));
+
+        // Act & Assert: the replicated link is authoritative, so MongoDB is not asked instead.
+        StepVerifier.create(resolver.resolve("owner-1", "abc")).verifyComplete();
+        verifyNoInteractions(linkRepository);
+    }
+
+    private static ResolvedLink served(LinkEntity link) {
+        return new ResolvedLink(link, link.destination(), null);
+    }
+
+    private static LinkEntity withVariants(LinkVariant... variants) {
+        return new LinkEntity("link-1", "owner-1", "abc", "https://example.com", List.of(variants), List.of(), null,
+                null, null, 0, DestinationHealth.unknown(), 0);
+    }
+
+    private static LinkEntity link(Instant activeFrom, Instant expiresAt, Long maxClicks, long clicks) {
+        return new LinkEntity("link-1", "owner-1", "abc", "https://example.com", List.of(), List.of(), activeFrom,
+                expiresAt, maxClicks, clicks, DestinationHealth.unknown(), 0);
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.rblessings.links;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LinkSearchIndexTest {
+    private static final LinkSearchHit DOCS = new LinkSearchHit("000000000000000000000001", "docs",
+            "https://docs.example.com/guides", List.of());
+    private static final LinkSearchHit BLOG = new LinkSearchHit("000000000000000000000002", "blog",
+            "https://blog.example.com/guides", List.of());
+
+    @Mock
+    private LinkRepository linkRepository;
+
+    private LinkSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new LinkSearchIndex(linkRepository, new LinkSearchProperties(1000, Duration.ofMinutes(10), 1));
+    }
+
+    @Test
+    void shouldBuildIndexOnce_andCapResults() {
+        // Arrange
+        when(linkRepository.findSearchableByOwner("owner-1")).thenReturn(Flux.just(DOCS, BLOG));
+
+        // Act & Assert: the limit is capped at maxResults, and the second search reuses the index.
+        StepVerifier.create(searchIndex.search("owner-1", "guides", 10)).expectNext(BLOG).verifyComplete();
+        StepVerifier.create(searchIndex.search("owner-1", "doc", 10)).expectNext(DOCS).verifyComplete();
+        StepVerifier.create(searchIndex.search("owner-1", "doc ", 10)).verifyComplete();
+
+        verify(linkRepository, times(1)).findSearchableByOwner("owner-1");
+    }
+
+    @Test
+    void shouldAddCreatedLinks_toBuiltIndexesOnly() {
+        // Arrange
+        when(linkRepository.findSearchableByOwner("owner-1")).thenReturn(Flux.just(DOCS));
+        searchIndex.added("owner-1", List.of(BLOG));
+        StepVerifier.create(searchIndex.search("owner-1", "blog", 10)).verifyComplete();
+
+        // Act
+        searchIndex.added("owner-1", List.of(BLOG));
+
+        // Assert
+        StepVerifier.create(searchIndex.search("owner-1", "blog", 10)).expectNext(BLOG).verifyComplete();
+        verify(linkRepository, times(1)).findSearchableByOwner("owner-1");
+    }
+
+    @Test
+    void shouldRejectQueries_withoutTerms() {
+        StepVerifier.create(searchIndex.search("owner-1", " ?! ", 10)).verifyError(InvalidLinkSearchException.class);
+        verifyNoInteractions(linkRepository);
+    }
+}
@@ -0,0 +1,154 @@
+package com.github.rblessings.links;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.rblessings.outbox.OutboxEvent;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LinkTableTopologyTest {
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final LinkTableProperties properties = new LinkTableProperties(true, "changes", "table");
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, String> changes;
+    private TestOutputTopic<String, String> table;
+    private KeyValueStore<String, String> replica;
+    private LinkTable linkTable;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter mongoConverter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        mongoConverter.setCustomConversions(conversions);
+        mongoConverter.afterPropertiesSet();
+        StreamsBuilder builder = new StreamsBuilder();
+        LinkTableTopology.build(builder, properties, mongoConverter, objectMapper);
+
+        Properties config = new Properties();
+        config.put(StreamsConfig.APPLICATION_ID_CONFIG, "link-table-test");
+        config.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        driver = new TopologyTestDriver(builder.build(), config, START);
+        changes = driver.createInputTopic("changes", new StringSerializer(), new StringSerializer());
+        table = driver.createOutputTopic("table", new StringDeserializer(), new StringDeserializer());
+        replica = driver.getKeyValueStore(LinkTableTopology.TABLE_STORE);
+        linkTable = new LinkTable(null, objectMapper, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        driver.close();
+    }
+
+    @Test
+    void shouldReplicateInsertedLinks_byOwnerAndCode() {
+        // Act
+        changes.pipeInput("link-1", event("insert", "link-1", "abc", "https://example.com"));
+
+        // Assert
+        List<KeyValue<String, String>> published = table.readKeyValuesToList();
+        assertEquals(1, published.size());
+        assertEquals("owner-1:abc", published.getFirst().key);
+        LinkEntity link = linkTable.parse(replica.get("owner-1:abc"));
+        assertNotNull(link);
+        assertEquals("link-1", link.id());
+        assertEquals("https://example.com", link.destination());
+        assertEquals(START.plusSeconds(60), link.expiresAt());
+    }
+
+    @Test
+    void shouldReplaceTheReplicatedVersion_onUpdate() {
+        // Arrange
+        changes.pipeInput("link-1", event("insert", "link-1", "abc", "https://example.com"));
+
+        // Act
+        changes.pipeInput("link-1", event("update", "link-1", "abc", "https://example.org"));
+
+        // Assert
+        assertEquals("https://example.org", linkTable.parse(replica.get("owner-1:abc")).destination());
+    }
+
+    @Test
+    void shouldPublishTombstones_forDeletedLinks() {
+        // Arrange
+        changes.pipeInput("link-1", event("insert", "link-1", "abc", "https://example.com"));
+        table.readKeyValuesToList();
+
+        // Act: delete events carry nothing but the document ID.
+        changes.pipeInput("link-1", event("delete", "link-1", null, null));
+
+        // Assert
+        assertEquals(List.of(KeyValue.pair("owner-1:abc", null)), table.readKeyValuesToList());
+        assertNull(replica.get("owner-1:abc"));
+    }
+
+    @Test
+    void shouldMoveLinks_whoseCodeChanged() {
+        // Arrange
+        changes.pipeInput("link-1", event("insert", "link-1", "abc", "https://example.com"));
+
+        // Act
+        changes.pipeInput("link-1", event("update", "link-1", "xyz", "https://example.com"));
+
+        // Assert
+        assertNull(replica.get("owner-1:abc"));
+        assertNotNull(replica.get("owner-1:xyz"));
+    }
+
+    @Test
+    void shouldSkipMalformedChanges() {
+        // Act
+        changes.pipeInput("link-1", "not json");
+        changes.pipeInput("link-2", event("insert", "link-2", "abc", "https://example.com"));
+
+        // Assert
+        assertEquals(1, table.readKeyValuesToList().size());
+        assertEquals("link-2", linkTable.parse(replica.get("owner-1:abc")).id());
+    }
+
+    /**
+     * @return A change event as the outbox relay publishes it, without the document if {@code code} is null.
+     */
+    private static String event(String operation, String id, String code, String destination) {
+        Document document = code == null ? null : new Document("_id", id)
+                .append("owner", "owner-1")
+                .append("code", code)
+                .append("destination", destination)
+                .append("variants", List.of())
+                .append("tags", List.of())
+                .append("expiresAt", Date.from(START.plusSeconds(60)))
+                .append("clicks", 0L)
+                .append("version", 0);
+        return OutboxEvent.of("links", operation, id, START, document, Set.of()).toJson();
+    }
+}
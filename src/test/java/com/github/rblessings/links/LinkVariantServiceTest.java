@@ -0,0 +1,85 @@
+package com.github.rblessings.links;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LinkVariantServiceTest {
+    private static final List<LinkVariant> VARIANTS = List.of(
+            new LinkVariant("https://a.example.com", 1), new LinkVariant("https://b.example.com", 3));
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Mock
+    private LinkResolver linkResolver;
+
+    @InjectMocks
+    private LinkVariantService linkVariantService;
+
+    @Test
+    void shouldSaveVariants_andPublishTheLinkToTheRedirectCache() {
+        // Arrange
+        LinkEntity saved = new LinkEntity("link-1", "owner-1", "abc", "https://example.com", VARIANTS, List.of(),
+                null, null, null, 0, DestinationHealth.unknown(), 1);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(LinkEntity.class))).thenReturn(Mono.just(saved));
+
+        // Act & Assert
+        StepVerifier.create(linkVariantService.updateVariants("owner-1", "link-1", VARIANTS))
+                .expectNext(saved)
+                .verifyComplete();
+        verify(linkResolver).publish(saved);
+    }
+
+    @Test
+    void shouldFail_whenTheOwnerHasNoSuchLink() {
+        // Arrange
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(LinkEntity.class))).thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(linkVariantService.updateVariants("owner-2", "link-1", VARIANTS))
+                .verifyError(LinkNotFoundException.class);
+        verifyNoInteractions(linkResolver);
+    }
+
+    @Test
+    void shouldRejectUnusableVariants_withoutSavingThem() {
+        // Act & Assert
+        StepVerifier.create(linkVariantService.updateVariants("owner-1", "link-1",
+                        List.of(new LinkVariant("https://a.example.com", 0))))
+                .verifyErrorMessage("At least one variant must have a positive weight");
+        verifyNoInteractions(mongoTemplate, linkResolver);
+    }
+
+    @Test
+    void shouldExplainWhyVariantsCannotBeUsed() {
+        assertNull(LinkVariantService.problem(List.of()));
+        assertNull(LinkVariantService.problem(VARIANTS));
+        assertEquals("Every variant's destination must be an absolute http(s) URL",
+                LinkVariantService.problem(List.of(new LinkVariant("ftp://example.com", 1))));
+        assertEquals("Weights must be between 0 and 1000000",
+                LinkVariantService.problem(List.of(new LinkVariant("https://example.com", -1))));
+        assertEquals("A link can have at most 32 variants",
+                LinkVariantService.problem(Collections.nCopies(33, new LinkVariant("https://example.com", 1))));
+    }
+}
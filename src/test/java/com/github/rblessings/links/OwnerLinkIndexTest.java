@@ -0,0 +1,75 @@
+package com.github.rblessings.links;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OwnerLinkIndexTest {
+    private static final LinkSearchHit DOCS = new LinkSearchHit("000000000000000000000001", "docs",
+            "https://docs.example.com/guides/getting-started?lang=en", List.of("reference"));
+    private static final LinkSearchHit BLOG = new LinkSearchHit("000000000000000000000002", "launch-post",
+            "https://blog.example.org/2024/launch%20notes", List.of("news", "launch"));
+    private static final LinkSearchHit SHOP = new LinkSearchHit("000000000000000000000003", "sale",
+            "https://shop.example.com/launch/sale", List.of());
+
+    private final OwnerLinkIndex index = OwnerLinkIndex.of(List.of(SHOP, DOCS, BLOG));
+
+    @Test
+    void shouldMatchWordsOfDestinationCodeAndTags() {
+        assertEquals(List.of(DOCS), search("getting started", false));
+        assertEquals(List.of(DOCS), search("lang en", false));
+        assertEquals(List.of(BLOG), search("notes", false), "Paths must be decoded.");
+        assertEquals(List.of(BLOG), search("post", false));
+        assertEquals(List.of(DOCS), search("reference", false));
+        assertEquals(List.of(SHOP, DOCS), search("example com", false));
+    }
+
+    @Test
+    void shouldRequireAllTerms_andReturnNewestFirst() {
+        // Act & Assert
+        assertEquals(List.of(SHOP, BLOG), search("launch", false));
+        assertEquals(List.of(SHOP), search("launch sale", false));
+        assertEquals(List.of(), search("launch docs", false));
+        assertEquals(List.of(SHOP), search("launch", false, 1));
+    }
+
+    @Test
+    void shouldMatchLastTermAsPrefix_onlyWhenAsked() {
+        assertEquals(List.of(), search("guid", false));
+        assertEquals(List.of(DOCS), search("guid", true));
+        assertEquals(List.of(), search("guid sale", true), "Only the last term is a prefix.");
+    }
+
+    @Test
+    void shouldRestrictFieldTerms_toTheirField() {
+        assertEquals(List.of(BLOG), search("tag:launch", false));
+        assertEquals(List.of(SHOP), search("host:shop.example.com", false));
+        assertEquals(List.of("host:shop.example.com", "sale"),
+                OwnerLinkIndex.queryTerms(" Host:shop.example.com SALE"));
+        assertEquals(List.of(), OwnerLinkIndex.queryTerms("host: tag:"), "Empty field terms are ignored.");
+    }
+
+    @Test
+    void shouldAddNewLinks_once() {
+        // Arrange
+        LinkSearchHit newer = new LinkSearchHit("000000000000000000000004", "launch-video",
+                "https://video.example.net/launch", List.of());
+
+        // Act
+        index.addAll(List.of(newer, SHOP));
+
+        // Assert
+        assertEquals(4, index.size());
+        assertEquals(List.of(newer, SHOP, BLOG), search("launch", false));
+    }
+
+    private List<LinkSearchHit> search(String query, boolean lastIsPrefix) {
+        return search(query, lastIsPrefix, 10);
+    }
+
+    private List<LinkSearchHit> search(String query, boolean lastIsPrefix, int limit) {
+        return index.search(OwnerLinkIndex.queryTerms(query), lastIsPrefix, limit);
+    }
+}
@@ -0,0 +1,164 @@
+package com.github.rblessings.outbox;
+
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeStreamOutboxRelayTest {
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    private ChangeStreamOutboxRelay relay;
+
+    @AfterEach
+    void tearDown() {
+        if (relay != null) {
+            relay.stop();
+        }
+    }
+
+    @Test
+    void shouldSaveResumeToken_onlyAfterKafkaAcknowledgedTheBatch() {
+        // Arrange: this node holds the lease, nothing was relayed before, and Kafka has not acknowledged yet.
+        stubLeaseAcquired();
+        stubRelease();
+        when(mongoTemplate.findById("users", Document.class, ResumeTokenStore.COLLECTION)).thenReturn(Mono.empty());
+        Flux<ChangeStreamEvent<Document>> changes = Flux.just(event("1", "t1"), event("2", "t2"));
+        when(mongoTemplate.changeStream(eq("users"), any(ChangeStreamOptions.class), eq(Document.class)))
+                .thenReturn(changes.concatWith(Flux.never()));
+        List<CompletableFuture<SendResult<String, String>>> sends = new CopyOnWriteArrayList<>();
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenAnswer(invocation -> {
+            CompletableFuture<SendResult<String, String>> send = new CompletableFuture<>();
+            sends.add(send);
+            return send;
+        });
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(ResumeTokenStore.COLLECTION)))
+                .thenReturn(Mono.empty());
+
+        // Act
+        relay = new ChangeStreamOutboxRelay(mongoTemplate, kafkaTemplate, properties(Duration.ofHours(1)));
+        relay.start();
+
+        // Assert: the whole batch is in flight, but its token must not be persisted before the acknowledgement.
+        verify(kafkaTemplate, timeout(5000).times(2)).send(any(ProducerRecord.class));
+        verify(mongoTemplate, after(200).never())
+                .upsert(any(Query.class), any(Update.class), eq(ResumeTokenStore.COLLECTION));
+
+        sends.forEach(send -> send.complete(null));
+
+        ArgumentCaptor<Update> saved = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, timeout(5000))
+                .upsert(any(Query.class), saved.capture(), eq(ResumeTokenStore.COLLECTION));
+        Document set = (Document) saved.getValue().getUpdateObject().get("$set");
+        assertEquals(token("t2").toJson(), set.getString("token"), "The token of the batch's last event is saved.");
+    }
+
+    @Test
+    void shouldCancelChangeStreams_whenLeaseIsLost() throws InterruptedException {
+        // Arrange: the first renewal succeeds, every later one fails.
+        AtomicInteger renewals = new AtomicInteger();
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Document.class), eq(OutboxLease.COLLECTION))).thenAnswer(invocation -> {
+            if (renewals.getAndIncrement() > 0) {
+                return Mono.error(new DataAccessResourceFailureException("Connection lost"));
+            }
+            return Mono.just(new Document("owner", ownerOf(invocation.getArgument(1))));
+        });
+        stubRelease();
+        when(mongoTemplate.findById(anyString(), eq(Document.class), eq(ResumeTokenStore.COLLECTION)))
+                .thenReturn(Mono.empty());
+        CountDownLatch cancelled = new CountDownLatch(1);
+        when(mongoTemplate.changeStream(eq("users"), any(ChangeStreamOptions.class), eq(Document.class)))
+                .thenReturn(Flux.<ChangeStreamEvent<Document>>never().doOnCancel(cancelled::countDown));
+
+        // Act
+        relay = new ChangeStreamOutboxRelay(mongoTemplate, kafkaTemplate, properties(Duration.ofMillis(100)));
+        relay.start();
+
+        // Assert
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS), "Losing the lease must cancel the change stream.");
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    private void stubLeaseAcquired() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Document.class), eq(OutboxLease.COLLECTION)))
+                .thenAnswer(invocation -> Mono.just(new Document("owner", ownerOf(invocation.getArgument(1)))));
+    }
+
+    private void stubRelease() {
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(OutboxLease.COLLECTION)))
+                .thenReturn(Mono.empty());
+    }
+
+    private static String ownerOf(Update update) {
+        return ((Document) update.getUpdateObject().get("$set")).getString("owner");
+    }
+
+    private static OutboxProperties properties(Duration renewInterval) {
+        return new OutboxProperties(true, Map.of("users", "urlradar.users"), Set.of("password"), 2,
+                Duration.ofSeconds(10), new OutboxProperties.Lease("outbox-relay", renewInterval.multipliedBy(3),
+                renewInterval));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ChangeStreamEvent<Document> event(String id, String resumeToken) {
+        ChangeStreamDocument<Document> raw = mock(ChangeStreamDocument.class);
+        lenient().when(raw.getDocumentKey()).thenReturn(new BsonDocument("_id", new BsonString(id)));
+        lenient().when(raw.getOperationTypeString()).thenReturn("insert");
+
+        ChangeStreamEvent<Document> event = mock(ChangeStreamEvent.class);
+        lenient().when(event.getRaw()).thenReturn(raw);
+        lenient().when(event.getCollectionName()).thenReturn("users");
+        lenient().when(event.getTimestamp()).thenReturn(Instant.EPOCH);
+        lenient().when(event.getBody()).thenReturn(new Document("_id", id));
+        lenient().when(event.getResumeToken()).thenReturn(token(resumeToken));
+        return event;
+    }
+
+    private static BsonDocument token(String data) {
+        return new BsonDocument("_data", new BsonString(data));
+    }
+}
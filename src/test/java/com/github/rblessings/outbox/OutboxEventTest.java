@@ -0,0 +1,44 @@
+package com.github.rblessings.outbox;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboxEventTest {
+
+    @Test
+    void shouldDropExcludedFields_withoutMutatingSourceDocument() {
+        // Arrange
+        Document user = new Document("_id", "1")
+                .append("email", "john.doe@example.com")
+                .append("password", "{bcrypt}hash");
+
+        // Act
+        OutboxEvent event = OutboxEvent.of("users", "insert", "1", Instant.EPOCH, user, Set.of("password"));
+
+        // Assert
+        assertFalse(event.document().containsKey("password"), "Excluded field must not be published.");
+        assertEquals("john.doe@example.com", event.document().getString("email"));
+        assertTrue(user.containsKey("password"), "Source document must be left untouched.");
+    }
+
+    @Test
+    void shouldSerializeDeleteEvent_withoutDocument() {
+        // Arrange
+        OutboxEvent event = OutboxEvent.of("users", "delete", "1", Instant.EPOCH, null, Set.of("password"));
+
+        // Act
+        Document json = Document.parse(event.toJson());
+
+        // Assert
+        assertEquals("users", json.getString("collection"));
+        assertEquals("delete", json.getString("operation"));
+        assertEquals("1", json.getString("documentId"));
+        assertEquals("1970-01-01T00:00:00Z", json.getString("clusterTime"));
+        assertNull(json.get("document"));
+    }
+}
@@ -0,0 +1,101 @@
+package com.github.rblessings.outbox;
+
+import com.mongodb.MongoSocketReadException;
+import com.mongodb.ServerAddress;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.OngoingStubbing;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxLeaseTest {
+    private static final OutboxProperties.Lease PROPERTIES =
+            new OutboxProperties.Lease("outbox-relay", Duration.ofSeconds(15), Duration.ofSeconds(5));
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Test
+    void shouldAcquireLease_whenUpsertLeavesThisNodeAsOwner() {
+        // Arrange: MongoDB applies the update, so the returned lease carries the owner this node wrote.
+        OutboxLease lease = newLease();
+        whenFindAndModify().thenAnswer(invocation -> {
+            Update update = invocation.getArgument(1);
+            Document set = (Document) update.getUpdateObject().get("$set");
+            return Mono.just(new Document("_id", PROPERTIES.name()).append("owner", set.getString("owner")));
+        });
+
+        // Act & Assert
+        StepVerifier.create(lease.tryAcquire())
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldNotAcquireLease_whenAnotherNodeHoldsIt() {
+        // Arrange: the query misses the unexpired lease of another node, so the upsert collides on _id.
+        OutboxLease lease = newLease();
+        whenFindAndModify().thenReturn(Mono.error(new DuplicateKeyException("E11000 duplicate key")));
+
+        // Act & Assert
+        StepVerifier.create(lease.tryAcquire())
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldStepDown_whenLeaseCannotBeRenewed() {
+        // Arrange: the current holder loses its connection to MongoDB.
+        OutboxLease lease = newLease();
+        whenFindAndModify().thenReturn(Mono.error(new DataAccessResourceFailureException("Connection lost",
+                new MongoSocketReadException("Prematurely reached end of stream", new ServerAddress()))));
+
+        // Act & Assert: an unrenewable lease counts as lost, so the relay stops before another node takes over.
+        StepVerifier.create(lease.tryAcquire())
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldStepDown_whenRenewalOutlastsItsTimeout() {
+        // Arrange: the renewal never answers.
+        OutboxLease lease = newLease();
+        whenFindAndModify().thenReturn(Mono.never());
+
+        // Act & Assert: given up within half of the 10s between renewal and expiry, before another node can take over.
+        StepVerifier.withVirtualTime(lease::tryAcquire)
+                .thenAwait(PROPERTIES.renewTimeout())
+                .expectNext(false)
+                .verifyComplete();
+        assertEquals(Duration.ofSeconds(5), PROPERTIES.renewTimeout());
+    }
+
+    private OutboxLease newLease() {
+        return new OutboxLease(mongoTemplate, PROPERTIES, Clock.fixed(Instant.EPOCH, ZoneOffset.UTC));
+    }
+
+    private OngoingStubbing<Mono<Document>> whenFindAndModify() {
+        return when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Document.class), eq(OutboxLease.COLLECTION)));
+    }
+}
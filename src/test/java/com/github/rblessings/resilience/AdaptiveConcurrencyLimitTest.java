@@ -0,0 +1,113 @@
+package com.github.rblessings.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimitTest {
+    private static final long FAST = 10_000_000;
+    private static final long SLOW = 50_000_000;
+
+    @Test
+    void shouldShedApiRequests_beforeRedirects() {
+        // Arrange: a limit of 4, of which the APIs may use half.
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(concurrency(4, 0.5));
+
+        // Act
+        boolean firstApi = limit.tryAcquire(false);
+        boolean secondApi = limit.tryAcquire(false);
+        boolean thirdApi = limit.tryAcquire(false);
+        boolean firstRedirect = limit.tryAcquire(true);
+        boolean secondRedirect = limit.tryAcquire(true);
+        boolean thirdRedirect = limit.tryAcquire(true);
+
+        // Assert
+        assertTrue(firstApi && secondApi);
+        assertFalse(thirdApi, "The APIs may not use more than their share of the limit.");
+        assertTrue(firstRedirect && secondRedirect);
+        assertFalse(thirdRedirect, "Nothing is admitted beyond the limit.");
+        assertEquals(4, limit.inFlight());
+    }
+
+    @Test
+    void shouldGrow_whileLoadedAndRoundTripsStayFast() {
+        // Arrange
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(concurrency(20, 1.0));
+
+        // Act
+        runWindows(limit, 10, FAST);
+
+        // Assert
+        assertTrue(limit.limit() > 20, "A loaded server answering as fast as usual may take more requests.");
+    }
+
+    @Test
+    void shouldShrink_whenRoundTripsSlowDown() {
+        // Arrange
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(concurrency(100, 1.0));
+        runWindows(limit, 2, FAST);
+        int before = limit.limit();
+
+        // Act
+        runWindows(limit, 1, SLOW);
+
+        // Assert
+        assertTrue(limit.limit() < before, "Requests queueing up must lower the limit.");
+        assertTrue(limit.limit() >= 10, "The limit must not go below its minimum.");
+    }
+
+    @Test
+    void shouldNotLearn_whileMostlyIdle() {
+        // Arrange
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(concurrency(100, 1.0));
+
+        // Act: one request at a time, however slow, says nothing about the limit.
+        for (int i = 0; i < 50; i++) {
+            assertTrue(limit.tryAcquire(true));
+            limit.release(i < 25 ? FAST : SLOW);
+        }
+
+        // Assert
+        assertEquals(100, limit.limit());
+        assertEquals(0, limit.inFlight());
+    }
+
+    @Test
+    void shouldReleaseCancelledRequests_withoutLearning() {
+        // Arrange
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(concurrency(1, 1.0));
+        assertTrue(limit.tryAcquire(true));
+
+        // Act
+        limit.release();
+
+        // Assert
+        assertEquals(0, limit.inFlight());
+        assertTrue(limit.tryAcquire(true));
+    }
+
+    /**
+     * Fills the limit and completes every request with the given round-trip time, once per window.
+     */
+    private static void runWindows(AdaptiveConcurrencyLimit limit, int windows, long rttNanos) {
+        for (int window = 0; window < windows; window++) {
+            int admitted = 0;
+            while (limit.tryAcquire(true)) {
+                admitted++;
+            }
+            for (int i = 0; i < admitted; i++) {
+                limit.release(rttNanos);
+            }
+        }
+    }
+
+    /**
+     * A limit learning from every request, against a long-term RTT that barely moves within a test.
+     */
+    private static ResilienceProperties.Concurrency concurrency(int initialLimit, double apiShare) {
+        return new ResilienceProperties.Concurrency(true, initialLimit, Math.min(initialLimit, 10), 200, 0.5, 1.5,
+                1, 1000, apiShare, List.of());
+    }
+}
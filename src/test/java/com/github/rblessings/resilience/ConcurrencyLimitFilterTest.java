@@ -0,0 +1,97 @@
+package com.github.rblessings.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(new ResilienceProperties.Concurrency(
+            true, 2, 1, 100, 0.2, 1.5, 100, 100, 0.5, List.of()));
+    private final ConcurrencyLimitFilter filter =
+            new ConcurrencyLimitFilter(limit, List.of("/actuator/**"), registry);
+
+    @Test
+    void shouldRejectRequests_beyondTheLimit_withServiceUnavailable() {
+        // Arrange: one redirect holds a slot, filling the API share of the limit of 2.
+        Sinks.Empty<Void> pending = Sinks.empty();
+        filter.filter(exchange("/jane/abc"), exchange -> pending.asMono()).subscribe();
+        MockServerWebExchange api = exchange("/api/v1/users/principal");
+
+        // Act
+        StepVerifier.create(filter.filter(api, exchange -> Mono.error(new AssertionError("Must not be called"))))
+                .verifyComplete();
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, api.getResponse().getStatusCode());
+        assertEquals(ConcurrencyLimitFilter.RETRY_AFTER_SECONDS, api.getResponse().getHeaders()
+                .getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, registry.get("urlradar.concurrency.rejected").tag("priority", "api").counter().count());
+        assertEquals(1, registry.get("urlradar.concurrency.inflight").gauge().value());
+        pending.tryEmitEmpty();
+    }
+
+    @Test
+    void shouldAdmitRedirects_whileTheApisAreShed() {
+        // Arrange
+        Sinks.Empty<Void> pending = Sinks.empty();
+        filter.filter(exchange("/jane/abc"), exchange -> pending.asMono()).subscribe();
+        MockServerWebExchange redirect = exchange("/jane/def");
+
+        // Act
+        StepVerifier.create(filter.filter(redirect, exchange -> Mono.empty())).verifyComplete();
+
+        // Assert
+        assertNull(redirect.getResponse().getStatusCode());
+        assertEquals(0, registry.get("urlradar.concurrency.rejected").tag("priority", "redirect").counter().count());
+        pending.tryEmitEmpty();
+    }
+
+    @Test
+    void shouldReleaseTheSlot_whenTheRequestCompletes() {
+        // Arrange
+        Sinks.Empty<Void> pending = Sinks.empty();
+        filter.filter(exchange("/jane/abc"), exchange -> pending.asMono()).subscribe();
+
+        // Act
+        pending.tryEmitEmpty();
+
+        // Assert
+        assertEquals(0, limit.inFlight());
+        assertEquals(2, registry.get("urlradar.concurrency.limit").gauge().value());
+    }
+
+    @Test
+    void shouldNotLimit_unlimitedPaths() {
+        // Arrange: the whole limit is taken.
+        Sinks.Empty<Void> pending = Sinks.empty();
+        WebFilterChain hanging = exchange -> pending.asMono();
+        filter.filter(exchange("/jane/abc"), hanging).subscribe();
+        filter.filter(exchange("/jane/def"), hanging).subscribe();
+        MockServerWebExchange health = exchange("/actuator/health");
+
+        // Act
+        StepVerifier.create(filter.filter(health, exchange -> Mono.empty())).verifyComplete();
+
+        // Assert
+        assertNull(health.getResponse().getStatusCode());
+        assertEquals(2, limit.inFlight());
+        pending.tryEmitEmpty();
+    }
+
+    private static MockServerWebExchange exchange(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path));
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.rblessings.resilience;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgingPolicyTest {
+
+    @Test
+    void shouldIssueBackupRead_whenPrimaryIsSlowerThanHedgeDelay() {
+        // Arrange: a policy that hedges every read after 10ms; the first attempt hangs, the second answers at once.
+        HedgingPolicy policy = new HedgingPolicy(new ResilienceProperties.Hedging(true, 0.95,
+                Duration.ofMillis(10), Duration.ofMillis(10), 1.0, 16));
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act & Assert
+        StepVerifier.create(policy.hedge(() -> attempts.incrementAndGet() == 1 ? Mono.never() : Mono.just("backup")))
+                .expectNext("backup")
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        assertEquals(2, attempts.get(), "A single backup read must be issued.");
+    }
+
+    @Test
+    void shouldNotHedge_whenHedgeBudgetIsExhausted() {
+        // Arrange: no hedges are allowed at all.
+        HedgingPolicy policy = new HedgingPolicy(new ResilienceProperties.Hedging(true, 0.95,
+                Duration.ofMillis(1), Duration.ofMillis(1), 0.0, 16));
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act & Assert: the slow primary is the only attempt and still wins.
+        StepVerifier.create(policy.hedge(() -> {
+                    attempts.incrementAndGet();
+                    return Mono.delay(Duration.ofMillis(50)).thenReturn("primary");
+                }))
+                .expectNext("primary")
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        assertEquals(1, attempts.get(), "No backup read may be issued without hedge budget.");
+    }
+
+    @Test
+    void shouldHedgeAtMostConfiguredRatio_ofRecentReads() {
+        // Arrange: every other read may be hedged, and every primary is slower than the hedge delay.
+        HedgingPolicy policy = new HedgingPolicy(new ResilienceProperties.Hedging(true, 0.95,
+                Duration.ofMillis(1), Duration.ofMillis(1), 0.5, 4));
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            policy.hedge(() -> {
+                attempts.incrementAndGet();
+                return Mono.delay(Duration.ofMillis(20)).thenReturn("slow");
+            }).block(Duration.ofSeconds(5));
+        }
+
+        // Assert: 10 primaries plus one backup per two reads.
+        assertEquals(15, attempts.get(), "Hedges must be limited to the configured ratio of reads.");
+    }
+
+    @Test
+    void shouldTrackObservedPercentile_withinConfiguredBounds() {
+        // Arrange
+        HedgingPolicy policy = new HedgingPolicy(new ResilienceProperties.Hedging(true, 0.5,
+                Duration.ZERO, Duration.ofSeconds(1), 0.0, 4));
+
+        // Act: complete a window of near-instant reads.
+        for (int i = 0; i < 4; i++) {
+            policy.hedge(() -> Mono.just(1)).block();
+        }
+
+        // Assert: the delay dropped from the upper bound towards the observed latency.
+        assertTrue(policy.currentDelay().compareTo(Duration.ofMillis(100)) < 0,
+                "Hedge delay should follow observed latencies.");
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.rblessings.resilience;
+
+import com.github.rblessings.cache.BulkCache;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ResilientCacheTest {
+
+    @Mock
+    private Cache redisCache;
+
+    private ResilientCache cache;
+
+    @BeforeEach
+    void setUp() {
+        TimeLimiter timeLimiter = TimeLimiter.of("redis", TimeLimiterConfig.custom()
+                .timeoutDuration(Duration.ofMillis(50))
+                .build());
+        cache = new ResilientCache(redisCache, CircuitBreaker.ofDefaults("redis"), Bulkhead.ofDefaults("redis"),
+                timeLimiter);
+    }
+
+    @Test
+    void shouldTreatSlowRetrieveAsMiss() {
+        // Arrange: Redis never answers.
+        doReturn(new CompletableFuture<>()).when(redisCache).retrieve("key");
+
+        // Act & Assert: the time budget turns the hang into a miss.
+        assertNull(cache.retrieve("key").join());
+    }
+
+    @Test
+    void shouldTreatFailingGetAsMiss_andSwallowFailingPut() {
+        // Arrange
+        when(redisCache.get("key")).thenThrow(new RedisConnectionFailureException("down"));
+        doThrow(new RedisConnectionFailureException("down")).when(redisCache).put("key", "value");
+
+        // Act & Assert
+        assertNull(cache.get("key"));
+        assertDoesNotThrow(() -> cache.put("key", "value"));
+    }
+
+    @Test
+    void shouldLoadAndStoreValue_whenRetrieveMisses() {
+        // Arrange
+        doReturn(CompletableFuture.completedFuture(null)).when(redisCache).retrieve("key");
+
+        // Act
+        Object value = cache.retrieve("key", () -> CompletableFuture.completedFuture("loaded")).join();
+
+        // Assert
+        assertEquals("loaded", value);
+        verify(redisCache).put("key", "loaded");
+    }
+
+    @Test
+    void shouldTreatFailingBulkRetrieveAsAllMisses_andSwallowFailingBulkStore() {
+        // Arrange
+        Cache bulkRedisCache = mock(Cache.class, withSettings().extraInterfaces(BulkCache.class));
+        BulkCache bulk = (BulkCache) bulkRedisCache;
+        when(bulk.retrieveAll(List.of("key")))
+                .thenReturn(CompletableFuture.failedFuture(new RedisConnectionFailureException("down")));
+        when(bulk.storeAll(Map.of("key", "value")))
+                .thenReturn(CompletableFuture.failedFuture(new RedisConnectionFailureException("down")));
+        ResilientCache guarded = new ResilientCache(bulkRedisCache, CircuitBreaker.ofDefaults("redis"),
+                Bulkhead.ofDefaults("redis"), TimeLimiter.ofDefaults("redis"));
+
+        // Act & Assert
+        assertEquals(Map.of(), guarded.retrieveAll(List.of("key")).join());
+        assertDoesNotThrow(() -> guarded.storeAll(Map.of("key", "value")).join());
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.rblessings.tracing;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RecordingSamplerTest {
+    private static final String TRACE_ID = "0af7651916cd43dd8448eb211c80319c";
+    private static final String SPAN_ID = "b7ad6b7169203331";
+
+    @Test
+    void shouldSampleNewTraces_withinTheProbability() {
+        // Arrange
+        Sampler sampler = RecordingSampler.of(1.0);
+
+        // Act & Assert
+        assertEquals(SamplingDecision.RECORD_AND_SAMPLE, decide(sampler, Context.root()));
+    }
+
+    @Test
+    void shouldRecordNewTraces_beyondTheProbability() {
+        // Arrange
+        Sampler sampler = RecordingSampler.of(0.0);
+
+        // Act & Assert
+        assertEquals(SamplingDecision.RECORD_ONLY, decide(sampler, Context.root()));
+    }
+
+    @Test
+    void shouldFollowSampledParents() {
+        // Arrange
+        Sampler sampler = RecordingSampler.of(0.0);
+
+        // Act & Assert
+        assertEquals(SamplingDecision.RECORD_AND_SAMPLE, decide(sampler, parent(TraceFlags.getSampled(), true)));
+    }
+
+    @Test
+    void shouldOnlyRecordTheChildren_ofUnsampledParents() {
+        // Arrange
+        Sampler sampler = RecordingSampler.of(1.0);
+
+        // Act & Assert
+        assertEquals(SamplingDecision.RECORD_ONLY, decide(sampler, parent(TraceFlags.getDefault(), true)));
+        assertEquals(SamplingDecision.RECORD_ONLY, decide(sampler, parent(TraceFlags.getDefault(), false)));
+    }
+
+    private static SamplingDecision decide(Sampler sampler, Context parent) {
+        return sampler.shouldSample(parent, TRACE_ID, "GET /", SpanKind.SERVER, Attributes.empty(), List.of())
+                .getDecision();
+    }
+
+    private static Context parent(TraceFlags flags, boolean remote) {
+        SpanContext context = remote
+                ? SpanContext.createFromRemoteParent(TRACE_ID, SPAN_ID, flags, TraceState.getDefault())
+                : SpanContext.create(TRACE_ID, SPAN_ID, flags, TraceState.getDefault());
+        return Context.root().with(Span.wrap(context));
+    }
+}
@@ -0,0 +1,134 @@
+package com.github.rblessings.tracing;
+
+import com.sun.net.httpserver.HttpServer;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.exporter.otlp.http.trace.OtlpHttpSpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exports through OTLP/HTTP to a stand-in for the collector, which keeps the requests it receives.
+ */
+class SlowTraceSpanProcessorTest {
+    private static final long START = TimeUnit.SECONDS.toNanos(1_800_000_000L);
+
+    private final BlockingQueue<String> exports = new LinkedBlockingQueue<>();
+    private HttpServer collector;
+    private OtlpHttpSpanExporter exporter;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        collector = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        collector.createContext("/v1/traces", exchange -> {
+            // Protobuf keeps strings as they are, so span names can be looked for in the raw request.
+            exports.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.ISO_8859_1));
+            exchange.getResponseHeaders().set("Content-Type", "application/x-protobuf");
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        collector.start();
+        exporter = OtlpHttpSpanExporter.builder()
+                .setEndpoint("http://127.0.0.1:" + collector.getAddress().getPort() + "/v1/traces")
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        exporter.shutdown().join(5, TimeUnit.SECONDS);
+        collector.stop(0);
+    }
+
+    @Test
+    void shouldExportUnsampledTraces_ofSlowRequests_withTheirSpans() throws InterruptedException {
+        // Arrange
+        Tracer tracer = tracer(0.0);
+
+        // Act
+        trace(tracer, "GET /slow", Duration.ofMillis(600), false);
+
+        // Assert
+        String export = exports.poll(5, TimeUnit.SECONDS);
+        assertNotNull(export, "The slow trace must reach the collector.");
+        assertTrue(export.contains("GET /slow"));
+        assertTrue(export.contains("mongodb find"), "The spans of the request must be exported with it.");
+    }
+
+    @Test
+    void shouldExportUnsampledTraces_ofFailedRequests() throws InterruptedException {
+        // Arrange
+        Tracer tracer = tracer(0.0);
+
+        // Act
+        trace(tracer, "GET /failed", Duration.ofMillis(5), true);
+
+        // Assert
+        String export = exports.poll(5, TimeUnit.SECONDS);
+        assertNotNull(export);
+        assertTrue(export.contains("GET /failed"));
+    }
+
+    @Test
+    void shouldDropUnsampledTraces_ofFastRequests() throws InterruptedException {
+        // Arrange
+        Tracer tracer = tracer(0.0);
+
+        // Act
+        trace(tracer, "GET /fast", Duration.ofMillis(5), false);
+
+        // Assert
+        assertNull(exports.poll(500, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void shouldLeaveSampledTraces_toTheRegularPipeline() throws InterruptedException {
+        // Arrange
+        Tracer tracer = tracer(1.0);
+
+        // Act
+        trace(tracer, "GET /sampled", Duration.ofMillis(600), false);
+
+        // Assert
+        assertNull(exports.poll(500, TimeUnit.MILLISECONDS));
+    }
+
+    private Tracer tracer(double probability) {
+        SlowTraceSpanProcessor processor = new SlowTraceSpanProcessor(exporter,
+                new TailSamplingProperties(true, Duration.ofMillis(500), 100, 10, Duration.ofMinutes(1)));
+        return SdkTracerProvider.builder()
+                .setSampler(RecordingSampler.of(probability))
+                .addSpanProcessor(processor)
+                .build()
+                .get("test");
+    }
+
+    /**
+     * Records a request of the given duration that made one MongoDB command.
+     */
+    private static void trace(Tracer tracer, String name, Duration duration, boolean failed) {
+        Span request = tracer.spanBuilder(name).setStartTimestamp(START, TimeUnit.NANOSECONDS).startSpan();
+        Span command = tracer.spanBuilder("mongodb find")
+                .setParent(Context.root().with(request))
+                .setStartTimestamp(START + 1, TimeUnit.NANOSECONDS)
+                .startSpan();
+        command.end(START + 2, TimeUnit.NANOSECONDS);
+        if (failed) {
+            request.setStatus(StatusCode.ERROR);
+        }
+        request.end(START + duration.toNanos(), TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,163 @@
+package com.github.rblessings.trending;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrendingTopologyTest {
+
+    private static final int SKETCH_DEPTH = 4;
+    private static final int SKETCH_WIDTH = 1024;
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final TrendingProperties properties = new TrendingProperties("clicks", "trending",
+            List.of(Duration.ofMinutes(5), Duration.ofHours(1)), 10, SKETCH_DEPTH, SKETCH_WIDTH, 200, 50,
+            Duration.ofSeconds(10), Duration.ofMinutes(1));
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, String> clicks;
+    private TestOutputTopic<String, String> snapshots;
+
+    @BeforeEach
+    void setUp() {
+        StreamsBuilder builder = new StreamsBuilder();
+        TrendingTopology.build(builder, properties, objectMapper);
+
+        Properties config = new Properties();
+        config.put(StreamsConfig.APPLICATION_ID_CONFIG, "trending-test");
+        config.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        driver = new TopologyTestDriver(builder.build(), config, START);
+        clicks = driver.createInputTopic("clicks", new StringSerializer(), new StringSerializer(), START,
+                Duration.ZERO);
+        snapshots = driver.createOutputTopic("trending", new StringDeserializer(), new StringDeserializer());
+    }
+
+    @AfterEach
+    void tearDown() {
+        driver.close();
+    }
+
+    @Test
+    void shouldRankTopLinks_withinCountMinSketchErrorBounds() throws Exception {
+        // Arrange: 50,000 Zipf-distributed clicks on 5,000 distinct links within four minutes.
+        int totalClicks = 50_000;
+        Map<String, Long> exact = new HashMap<>();
+        Random random = new Random(42);
+        double[] cumulative = zipf(5_000, 1.1);
+        for (int i = 0; i < totalClicks; i++) {
+            String linkId = "link-" + sample(cumulative, random.nextDouble());
+            exact.merge(linkId, 1L, Long::sum);
+            clicks.pipeInput(linkId, "{}", START.plusMillis(i * 4L));
+        }
+
+        // Act
+        driver.advanceWallClockTime(Duration.ofSeconds(10));
+        TrendingSnapshot snapshot = latestSnapshots().get("5m:0");
+
+        // Assert: estimates never undercount, and overcount by at most e/width of all clicks.
+        double bound = Math.E / SKETCH_WIDTH * totalClicks;
+        assertEquals(properties.topK(), snapshot.links().size());
+        for (TrendingLink link : snapshot.links()) {
+            long actual = exact.get(link.linkId());
+            assertTrue(link.clicks() >= actual, () -> link + " undercounts " + actual);
+            assertTrue(link.clicks() - actual <= bound, () -> link + " exceeds error bound over " + actual);
+        }
+        Set<String> exactTop = exact.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(10)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+        Set<String> reportedTop = snapshot.links().stream().limit(10).map(TrendingLink::linkId)
+                .collect(Collectors.toSet());
+        assertEquals(exactTop, reportedTop);
+    }
+
+    @Test
+    void shouldExpireClicks_thatLeftTheWindow() throws Exception {
+        // Arrange
+        for (int i = 0; i < 100; i++) {
+            clicks.pipeInput("link-1", "{}", START);
+        }
+
+        // Act: six minutes later, the clicks have left the five minute window but not the hour.
+        driver.advanceWallClockTime(Duration.ofMinutes(6));
+
+        // Assert
+        Map<String, TrendingSnapshot> latest = latestSnapshots();
+        assertTrue(latest.get("5m:0").links().isEmpty());
+        assertEquals(List.of(new TrendingLink("link-1", 100)), latest.get("1h:0").links());
+    }
+
+    @Test
+    void shouldMaterializeSnapshots_inGlobalStore() {
+        // Arrange
+        clicks.pipeInput("link-1", "{}", START);
+
+        // Act
+        driver.advanceWallClockTime(Duration.ofSeconds(10));
+
+        // Assert
+        KeyValueStore<String, String> store = driver.getKeyValueStore(TrendingTopology.SNAPSHOT_STORE);
+        assertNotNull(store.get("5m:0"));
+        assertNotNull(store.get("1h:0"));
+    }
+
+    /**
+     * Drains the output topic, keeping the last snapshot of every window and partition.
+     */
+    private Map<String, TrendingSnapshot> latestSnapshots() throws Exception {
+        Map<String, TrendingSnapshot> latest = new HashMap<>();
+        for (KeyValue<String, String> record : snapshots.readKeyValuesToList()) {
+            latest.put(record.key, objectMapper.readValue(record.value, TrendingSnapshot.class));
+        }
+        assertEquals(Set.of("5m:0", "1h:0"), latest.keySet());
+        return latest;
+    }
+
+    private static double[] zipf(int n, double exponent) {
+        double[] cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            sum += 1 / Math.pow(rank, exponent);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int sample(double[] cumulative, double p) {
+        int index = Arrays.binarySearch(cumulative, p);
+        return index >= 0 ? index : Math.min(-index - 1, cumulative.length - 1);
+    }
+}
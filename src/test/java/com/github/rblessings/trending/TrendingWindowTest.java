@@ -0,0 +1,49 @@
+package com.github.rblessings.trending;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrendingWindowTest {
+    private static final long START = Instant.parse("2026-01-01T00:00:00Z").toEpochMilli();
+
+    @Test
+    void shouldRestoreCheckpoints_ofTheSameDimensions() {
+        // Arrange
+        TrendingWindow window = window(12, 4, 256);
+        for (int i = 0; i < 3; i++) {
+            window.add("link-1", START + i);
+        }
+        window.add("link-2", START);
+
+        // Act
+        TrendingWindow restored = window(12, 4, 256);
+        boolean fits = restored.restore(window.toBytes());
+
+        // Assert
+        assertTrue(fits);
+        assertEquals(List.of(new TrendingLink("link-1", 3), new TrendingLink("link-2", 1)), restored.top(10));
+    }
+
+    @Test
+    void shouldRejectCheckpoints_whoseDimensionsChanged() {
+        // Arrange: a wider and deeper sketch makes a checkpoint larger than this window's.
+        byte[] checkpoint = window(12, 8, 512).toBytes();
+
+        // Act & Assert
+        assertFalse(window(12, 4, 256).restore(checkpoint));
+        assertFalse(window(12, 8, 256).restore(checkpoint));
+        assertFalse(window(12, 4, 512).restore(checkpoint));
+        assertFalse(window(6, 8, 512).restore(checkpoint));
+        assertFalse(window(12, 4, 256).restore(new byte[3]));
+        assertTrue(window(12, 8, 512).restore(checkpoint));
+    }
+
+    private static TrendingWindow window(int buckets, int depth, int width) {
+        return new TrendingWindow(Duration.ofMinutes(5), buckets, depth, width, 100);
+    }
+}
@@ -49,7 +49,7 @@ class UserRepositoryTest {
     void shouldPersistUser_whenValidDetailsAreProvided() {
         // Arrange: Create a valid UserEntity to test persistence behavior with correct input data.
         UserEntity userToSave = new UserEntity(null, "Ranzy", "Blessings",
-                "blessingsihembi@gmail.com", "secret", null);
+                "blessingsihembi@gmail.com", null, "secret", null);
 
         // Act: Persist the user and capture the result in a Mono.
         Mono<UserEntity> savedUserMono = userRepository.save(userToSave);
@@ -71,7 +71,7 @@ class UserRepositoryTest {
     void shouldThrowOptimisticLockingFailure_whenConcurrentUpdatesAttemptToModifySameEntity() {
         // Arrange: Create an initial UserEntity to test optimistic locking behavior.
         UserEntity initialUserEntity = new UserEntity("1", "John", "Doe",
-                "john.doe@example.com", "newPassword", null);
+                "john.doe@example.com", null, "newPassword", null);
 
         Mono<UserEntity> savedEntityMono = userRepository.save(initialUserEntity);
 
@@ -79,7 +79,7 @@ class UserRepositoryTest {
         savedEntityMono
                 .flatMap(savedEntity -> {
                     UserEntity staleUserEntity = new UserEntity(savedEntity.id(), "John", "Doe",
-                            "john.doe@example.com", "updatedPassword", savedEntity.version() - 1);
+                            "john.doe@example.com", null, "updatedPassword", savedEntity.version() - 1);
                     return userRepository.save(staleUserEntity);
                 })
                 // Assert: Ensure the optimistic locking exception is thrown on conflicting save attempt.
@@ -21,6 +21,7 @@ import reactor.core.publisher.Mono;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 @ActiveProfiles({"dev"})
 @SpringBootTest
@@ -61,7 +62,7 @@ class UserServiceCachingTest {
         }
 
         // Initialize a test user entity for consistent testing
-        userEntity = new UserEntity(null, "Ranzy", "Blessings", "blessingsihembi@gmail.com",
+        userEntity = new UserEntity(null, "Ranzy", "Blessings", "blessingsihembi@gmail.com", null,
                 "secret", null);
     }
 
@@ -82,4 +83,17 @@ class UserServiceCachingTest {
         // Verify the repository was called only once, confirming caching behavior.
         Mockito.verify(userRepository, Mockito.times(1)).findByEmail(Mockito.anyString());
     }
+
+    @Test
+    void testClaimUsername_shouldCompleteEmpty_forUnknownUsers() {
+        // Given: No user exists with the claiming ID.
+        Mockito.when(userRepository.findById("unknown")).thenReturn(Mono.empty());
+
+        // When: Claim a username through the caching proxy.
+        UserDTO result = userService.claimUsername("unknown", "ranzy").block();
+
+        // Then: Nothing is returned or cached, rather than the cache key failing to evaluate.
+        assertNull(result);
+        Mockito.verify(userRepository, Mockito.never()).save(Mockito.any());
+    }
 }
@@ -1,15 +1,29 @@
 package com.github.rblessings.users;
 
+import com.github.rblessings.resilience.ResilientReads;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,13 +38,28 @@ public class UserServiceTest {
     @Mock
     private BCryptPasswordEncoder passwordEncoder;
 
+    @Spy
+    private ResilientReads mongoReads = ResilientReads.withDefaults("mongo");
+
+    @Mock
+    private UsernameIndex usernameIndex;
+
+    @Spy
+    private UsernameProperties usernameProperties = new UsernameProperties(Duration.ofMinutes(5), 3);
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Spy
+    private UserBatchProperties batchProperties = new UserBatchProperties(3);
+
     private UserEntity user;
 
     @BeforeEach
     public void setUp() {
         // Initialize user entity for testing
         user = new UserEntity("1", "John", "Doe",
-                "john.doe@example.com", "encodedPassword", null);
+                "john.doe@example.com", null, "encodedPassword", null);
     }
 
     @Test
@@ -71,4 +100,138 @@ public class UserServiceTest {
         verify(userRepository).findByEmail(email);
         verify(userRepository).save(argThat(userEntity -> userEntity.email().equals(email)));
     }
+
+    @Test
+    public void testClaimUsername_SavesNormalizedUsername() {
+        // Arrange
+        when(userRepository.findById("1")).thenReturn(Mono.just(user));
+        when(userRepository.save(any(UserEntity.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0, UserEntity.class)));
+
+        // Act & Assert
+        StepVerifier.create(userService.claimUsername("1", "  John-Doe "))
+                .expectNextMatches(userDTO -> userDTO.username().equals("john-doe"))
+                .verifyComplete();
+
+        verify(userRepository).save(argThat(userEntity -> userEntity.username().equals("john-doe")
+                && userEntity.email().equals(user.email()) && userEntity.password().equals(user.password())));
+    }
+
+    @Test
+    public void testClaimUsername_RefusesUsernameKnownToBeTaken_WithoutQuerying() {
+        // Arrange
+        when(usernameIndex.ownerOf("jane")).thenReturn("2");
+
+        // Act & Assert
+        StepVerifier.create(userService.claimUsername("1", "jane"))
+                .expectError(UsernameAlreadyTakenException.class)
+                .verify();
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    public void testClaimUsername_MapsUniqueIndexViolation() {
+        // Arrange: another node claimed the username moments ago, so only the unique index knows.
+        when(userRepository.findById("1")).thenReturn(Mono.just(user));
+        when(userRepository.save(any(UserEntity.class)))
+                .thenReturn(Mono.error(new DuplicateKeyException("E11000 duplicate key error")));
+
+        // Act & Assert
+        StepVerifier.create(userService.claimUsername("1", "jane"))
+                .expectErrorMatches(throwable -> throwable instanceof UsernameAlreadyTakenException
+                        && throwable.getMessage().equals("The username 'jane' is already taken."))
+                .verify();
+    }
+
+    @Test
+    public void testClaimUsername_RefusesSecondUsername() {
+        // Arrange
+        UserEntity claimed = new UserEntity("1", "John", "Doe", "john.doe@example.com", "john", "encodedPassword", 1);
+        when(userRepository.findById("1")).thenReturn(Mono.just(claimed));
+
+        // Act & Assert: claiming the same username again is a no-op, claiming another one fails.
+        StepVerifier.create(userService.claimUsername("1", "John"))
+                .expectNextMatches(userDTO -> userDTO.username().equals("john"))
+                .verifyComplete();
+        StepVerifier.create(userService.claimUsername("1", "johnny"))
+                .expectError(UsernameAlreadyClaimedException.class)
+                .verify();
+
+        verify(userRepository, never()).save(any(UserEntity.class));
+    }
+
+    @Test
+    public void testClaimUsername_RefusesInvalidUsername() {
+        for (String invalid : List.of("jo", "-john", "john_doe", "api", "a".repeat(31))) {
+            StepVerifier.create(userService.claimUsername("1", invalid))
+                    .expectError(InvalidUsernameException.class)
+                    .verify();
+        }
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    public void testCheckUsername_SuggestsAlternativesForTakenUsername() {
+        // Arrange
+        when(usernameIndex.isTaken("jane")).thenReturn(true);
+        when(usernameIndex.suggest("jane", 3)).thenReturn(List.of("jane1", "jane3", "jane4"));
+
+        // Act
+        UsernameAvailability taken = userService.checkUsername("Jane");
+        UsernameAvailability free = userService.checkUsername("janet");
+
+        // Assert
+        assertFalse(taken.available());
+        assertEquals(List.of("jane1", "jane3", "jane4"), taken.suggestions());
+        assertTrue(free.available());
+        assertTrue(free.suggestions().isEmpty());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    public void testFindAllByIdOrEmail_ServesCachedUsersAndFetchesTheRestInOneQuery() {
+        // Arrange
+        ConcurrentMapCache cache = new ConcurrentMapCache("users");
+        UserDTO jane = new UserDTO("2", "Jane", "Doe", "jane.doe@example.com", "encodedPassword");
+        cache.put(jane.email(), jane);
+        when(cacheManager.getCache("users")).thenReturn(cache);
+        UserEntity max = new UserEntity("3", "Max", "Doe", "max.doe@example.com", null, "encodedPassword", null);
+        when(userRepository.findByIdInOrEmailIn(Set.of("1"), List.of("max.doe@example.com")))
+                .thenReturn(Flux.just(user, max));
+
+        // Act
+        List<UserDTO> users = userService.findAllByIdOrEmail(List.of("1", "1"),
+                List.of("jane.doe@example.com", "max.doe@example.com")).collectList().block();
+
+        // Assert: the fetched users are cached by email.
+        assertEquals(Set.of("1", "2", "3"), Set.copyOf(users.stream().map(UserDTO::id).toList()));
+        assertEquals("1", cache.get("john.doe@example.com", UserDTO.class).id());
+        assertEquals("3", cache.get("max.doe@example.com", UserDTO.class).id());
+        verify(userRepository, times(1)).findByIdInOrEmailIn(any(), any());
+    }
+
+    @Test
+    public void testFindAllByIdOrEmail_SkipsTheDatabaseWhenEverythingIsCached() {
+        // Arrange
+        ConcurrentMapCache cache = new ConcurrentMapCache("users");
+        cache.put("john.doe@example.com", UserDTO.from(user));
+        when(cacheManager.getCache("users")).thenReturn(cache);
+
+        // Act & Assert
+        StepVerifier.create(userService.findAllByIdOrEmail(List.of(), List.of("john.doe@example.com")))
+                .expectNext(UserDTO.from(user))
+                .verifyComplete();
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    public void testFindAllByIdOrEmail_RefusesBatchesOverTheLimit() {
+        // Act & Assert
+        StepVerifier.create(userService.findAllByIdOrEmail(List.of("1", "2"),
+                        List.of("a@example.com", "b@example.com")))
+                .expectError(UserBatchTooLargeException.class)
+                .verify();
+        verifyNoInteractions(userRepository, cacheManager);
+    }
 }
@@ -0,0 +1,83 @@
+package com.github.rblessings.users;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UsernameIndexTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UsernameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UsernameIndex(userRepository, new UsernameProperties(Duration.ofMinutes(5), 3));
+    }
+
+    @Test
+    void shouldIndexUsernames_fromDatabaseAndSaves() {
+        // Arrange
+        when(userRepository.findUsernamesByUsernameExists(true))
+                .thenReturn(Flux.just(new UsernameClaim("1", "jane"), new UsernameClaim("2", "john")));
+
+        // Act
+        StepVerifier.create(index.reload()).verifyComplete();
+        StepVerifier.create(save(new UserEntity("3", "Joe", "Doe", "joe@example.com", "joe", "hash", 1)))
+                .expectNextCount(1)
+                .verifyComplete();
+        StepVerifier.create(save(new UserEntity("4", "Jim", "Doe", "jim@example.com", null, "hash", 0)))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        // Assert
+        assertEquals(3, index.size());
+        assertEquals("1", index.ownerOf("jane"));
+        assertEquals("3", index.ownerOf("joe"));
+        assertTrue(index.isTaken("john"));
+        assertFalse(index.isTaken("jim"));
+    }
+
+    @Test
+    void shouldSuggestLowestFreeNumbers_onlyLookingAtSharedPrefix() {
+        // Arrange
+        for (String taken : List.of("jane", "jane1", "jane2", "jane4", "janet")) {
+            save(new UserEntity(taken, null, null, taken + "@example.com", taken, null, 0)).block();
+        }
+
+        // Act & Assert
+        assertEquals(List.of("jane3", "jane5", "jane6"), index.suggest("jane", 3));
+        assertEquals(List.of("bob1"), index.suggest("bob", 1));
+    }
+
+    @Test
+    void shouldKeepSuggestions_withinMaximumLength() {
+        // Arrange
+        String longest = "a".repeat(Usernames.MAX_LENGTH);
+
+        // Act
+        List<String> suggestions = index.suggest(longest, 3);
+
+        // Assert
+        assertEquals(3, suggestions.size());
+        suggestions.forEach(suggestion -> assertTrue(Usernames.isValid(suggestion), suggestion));
+    }
+
+    private Mono<UserEntity> save(UserEntity user) {
+        return Mono.from(index.onAfterSave(user, new Document(), "users"));
+    }
+}
@@ -12,10 +12,17 @@ import org.springframework.http.MediaType;
 import org.springframework.restdocs.RestDocumentationContextProvider;
 import org.springframework.restdocs.RestDocumentationExtension;
 import org.springframework.restdocs.operation.preprocess.Preprocessors;
+import org.springframework.security.web.server.context.SecurityContextServerWebExchangeWebFilter;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Map;
+
 import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.mockJwt;
+import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.springSecurity;
 import static org.springframework.restdocs.operation.preprocess.Preprocessors.preprocessRequest;
 import static org.springframework.restdocs.webtestclient.WebTestClientRestDocumentation.document;
 import static org.springframework.restdocs.webtestclient.WebTestClientRestDocumentation.documentationConfiguration;
@@ -37,6 +44,9 @@ public class UsersApiControllerTest {
     @BeforeEach
     public void setUp(RestDocumentationContextProvider restDocumentation) {
         webTestClient = WebTestClient.bindToController(usersApiController)
+                .controllerAdvice(new UserExceptionHandler())
+                .webFilter(new SecurityContextServerWebExchangeWebFilter())
+                .apply(springSecurity())
                 .configureClient()
                 .filter(documentationConfiguration(restDocumentation))
                 .build();
@@ -108,4 +118,100 @@ public class UsersApiControllerTest {
                 .jsonPath("$.statusCode").isEqualTo(HttpStatus.NOT_FOUND.value())
                 .jsonPath("$.message").isEqualTo("User with ID 2 not found");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetUsers_Batch() {
+        // Arrange
+        UserDTO jane = new UserDTO("2", "Jane", "Doe", "jane.doe@example.com", "secret");
+        when(userService.findAllByIdOrEmail(List.of("1"), List.of("jane.doe@example.com")))
+                .thenReturn(Flux.just(mockUserDTO, jane));
+
+        // Act & Assert
+        webTestClient.mutateWith(mockJwt())
+                .post()
+                .uri("/api/v1/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("ids", List.of("1"), "emails", List.of("jane.doe@example.com")))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.length()").isEqualTo(2)
+                .jsonPath("$.data[0].id").isEqualTo("1")
+                .jsonPath("$.data[1].email").isEqualTo("jane.doe@example.com")
+                .consumeWith(document("users-get-users-batch", preprocessRequest(Preprocessors.prettyPrint())));
+    }
+
+    @Test
+    public void testGetUsers_BatchTooLarge() {
+        // Arrange
+        when(userService.findAllByIdOrEmail(List.of(), List.of("jane.doe@example.com")))
+                .thenReturn(Flux.error(new UserBatchTooLargeException(501, 500)));
+
+        // Act & Assert
+        webTestClient.mutateWith(mockJwt())
+                .post()
+                .uri("/api/v1/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("emails", List.of("jane.doe@example.com")))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("A batch may look up at most 500 users, but 501 were requested.");
+    }
+
+    @Test
+    public void testClaimUsername_Success() {
+        // Arrange
+        UserDTO claimed = new UserDTO("1", "John", "Doe", "john.doe@example.com", "john", "secret", 1);
+        when(userService.claimUsername("1", "John")).thenReturn(Mono.just(claimed));
+
+        // Act & Assert
+        webTestClient.mutateWith(mockJwt().jwt(jwt -> jwt.subject("1")))
+                .put()
+                .uri("/api/v1/users/principal/username")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("username", "John"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.id").isEqualTo("1")
+                .jsonPath("$.data.username").isEqualTo("john")
+                .consumeWith(document("users-claim-username", preprocessRequest(Preprocessors.prettyPrint())));
+    }
+
+    @Test
+    public void testClaimUsername_Taken() {
+        // Arrange
+        when(userService.claimUsername("1", "jane"))
+                .thenReturn(Mono.error(new UsernameAlreadyTakenException("jane", null)));
+
+        // Act & Assert
+        webTestClient.mutateWith(mockJwt().jwt(jwt -> jwt.subject("1")))
+                .put()
+                .uri("/api/v1/users/principal/username")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("username", "jane"))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT)
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("The username 'jane' is already taken.");
+    }
+
+    @Test
+    public void testCheckUsername_TakenWithSuggestions() {
+        // Arrange
+        when(userService.checkUsername("jane")).thenReturn(new UsernameAvailability("jane", false,
+                "The username 'jane' is already taken.", List.of("jane1", "jane2")));
+
+        // Act & Assert
+        webTestClient.mutateWith(mockJwt())
+                .get()
+                .uri("/api/v1/users/usernames/{username}", "jane")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.available").isEqualTo(false)
+                .jsonPath("$.data.suggestions[0]").isEqualTo("jane1")
+                .consumeWith(document("users-check-username", preprocessRequest(Preprocessors.prettyPrint())));
+    }
+}